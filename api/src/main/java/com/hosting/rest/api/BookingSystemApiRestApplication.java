@@ -2,8 +2,10 @@ package com.hosting.rest.api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BookingSystemApiRestApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(BookingSystemApiRestApplication.class, args);
@@ -0,0 +1,41 @@
+package com.hosting.rest.api.Utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Normalización de nombres de ciudad para búsquedas e índices.
+ *
+ *          La clave de una ciudad se obtiene en minúsculas, sin acentos ni
+ *          diacríticos y con los espacios simplificados. Por ejemplo
+ *          <code>" Málaga "</code> y <code>"malaga"</code> tienen la misma
+ *          clave.
+ *
+ */
+public class CityKeys {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+	/**
+	 * Clave normalizada de la ciudad <code>city</code>.
+	 *
+	 * @param city
+	 *
+	 * @return <code>null</code> si <code>city</code> es <code>null</code>.
+	 */
+	public static String normalize(final String city) {
+		if (city == null) {
+			return null;
+		}
+
+		String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+
+		return WHITESPACES.matcher(withoutDiacritics.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+	}
+}
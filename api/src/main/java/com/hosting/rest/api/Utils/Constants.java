@@ -32,6 +32,11 @@ public class Constants {
 
 	public static final String AUTHORITIES_KEY = "CLAIM_TOKEN";
 
+	/**
+	 * Claim del token con el id del usuario.
+	 */
+	public static final String USER_ID_KEY = "USER_ID";
+
 	public static final String SIGNING_KEY = "bookingSecretKey";
 
 	/**
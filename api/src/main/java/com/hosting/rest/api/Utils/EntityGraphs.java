@@ -9,8 +9,16 @@ package com.hosting.rest.api.Utils;
  */
 public class EntityGraphs {
 
+	/**
+	 * Hint JPA para aplicar un EntityGraph como grafo de carga en una consulta.
+	 */
+	public static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
 	/**
 	 * Obtiene los datos de un alojamiento sin los datos del usuario host propietario.
+	 * 
+	 * Incluye la categoría y la ubicación. Las colecciones del alojamiento se
+	 * cargan aparte con {@link com.hosting.rest.api.services.Accomodation.AccomodationCollectionsLoader}.
 	 */
 	public static final String ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT = "accomodation-entity-graph-without-userhost-content";
 }
@@ -0,0 +1,82 @@
+package com.hosting.rest.api.Utils;
+
+import static com.hosting.rest.api.Utils.GeoUtils.latitudeDelta;
+import static com.hosting.rest.api.Utils.GeoUtils.longitudeDelta;
+
+import lombok.Getter;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Rectángulo de coordenadas que contiene un círculo de búsqueda.
+ *
+ *          Permite filtrar por rangos de latitud y longitud antes de calcular la
+ *          distancia exacta, de forma que un índice sobre (LAT, LNG) pueda
+ *          resolver el filtro.
+ *
+ */
+@Getter
+public class GeoBoundingBox {
+
+	private final double minLat;
+
+	private final double maxLat;
+
+	private final double minLng;
+
+	private final double maxLng;
+
+	private GeoBoundingBox(final double minLat, final double maxLat, final double minLng, final double maxLng) {
+		this.minLat = minLat;
+		this.maxLat = maxLat;
+		this.minLng = minLng;
+		this.maxLng = maxLng;
+	}
+
+	/**
+	 * Crea el rectángulo que contiene el círculo de radio <code>distanceKm</code>
+	 * con centro en [ <code>lat</code> , <code>lng</code> ].
+	 *
+	 * Las longitudes se devuelven sin normalizar, por lo que pueden quedar fuera
+	 * del rango [-180, 180] si el círculo cruza el antimeridiano.
+	 *
+	 * @param lat
+	 * @param lng
+	 * @param distanceKm
+	 *
+	 * @return
+	 */
+	public static GeoBoundingBox around(final double lat, final double lng, final double distanceKm) {
+		double latDelta = latitudeDelta(distanceKm);
+		double lngDelta = longitudeDelta(lat, distanceKm);
+
+		if (lngDelta >= 180.0) {
+			return new GeoBoundingBox(Math.max(-90.0, lat - latDelta), Math.min(90.0, lat + latDelta), -180.0, 180.0);
+		}
+
+		return new GeoBoundingBox(Math.max(-90.0, lat - latDelta), Math.min(90.0, lat + latDelta), lng - lngDelta,
+				lng + lngDelta);
+	}
+
+	/**
+	 * @return true si el rectángulo cruza el antimeridiano (longitud 180º).
+	 */
+	public boolean crossesAntimeridian() {
+		return minLng < -180.0 || maxLng > 180.0;
+	}
+
+	/**
+	 * @return Longitud mínima normalizada al rango [-180, 180].
+	 */
+	public double getNormalizedMinLng() {
+		return minLng < -180.0 ? minLng + 360.0 : minLng;
+	}
+
+	/**
+	 * @return Longitud máxima normalizada al rango [-180, 180].
+	 */
+	public double getNormalizedMaxLng() {
+		return maxLng > 180.0 ? maxLng - 360.0 : maxLng;
+	}
+}
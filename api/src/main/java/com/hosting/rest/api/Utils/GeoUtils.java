@@ -0,0 +1,79 @@
+package com.hosting.rest.api.Utils;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Cálculos geográficos sobre coordenadas (latitud, longitud) en
+ *          grados.
+ *
+ */
+public class GeoUtils {
+
+	/**
+	 * Radio medio de la Tierra en Km.
+	 */
+	public static final double EARTH_RADIUS_KM = 6371.0;
+
+	/**
+	 * Kilómetros que abarca un grado de latitud.
+	 */
+	public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+	/**
+	 * Distancia en Km entre dos coordenadas utilizando la fórmula de Haversine.
+	 *
+	 * @param lat1
+	 * @param lng1
+	 * @param lat2
+	 * @param lng2
+	 *
+	 * @return
+	 */
+	public static double haversineDistance(final double lat1, final double lng1, final double lat2,
+			final double lng2) {
+		double dLat = Math.toRadians(lat2 - lat1);
+		double dLng = Math.toRadians(lng2 - lng1);
+
+		double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+				* Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+
+		return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+	}
+
+	/**
+	 * Grados de latitud que abarca una distancia <code>distanceKm</code>.
+	 *
+	 * @param distanceKm
+	 *
+	 * @return
+	 */
+	public static double latitudeDelta(final double distanceKm) {
+		return distanceKm / KM_PER_DEGREE;
+	}
+
+	/**
+	 * Grados de longitud que abarca una distancia <code>distanceKm</code> en la
+	 * latitud <code>lat</code>.
+	 *
+	 * Devuelve 180 si el círculo de búsqueda alcanza alguno de los polos, ya que
+	 * en ese caso cualquier longitud puede estar dentro del radio.
+	 *
+	 * @param lat
+	 * @param distanceKm
+	 *
+	 * @return
+	 */
+	public static double longitudeDelta(final double lat, final double distanceKm) {
+		double latDelta = latitudeDelta(distanceKm);
+
+		if (Math.abs(lat) + latDelta >= 90.0) {
+			return 180.0;
+		}
+
+		double delta = Math.toDegrees(Math.asin(Math.min(1.0,
+				Math.sin(distanceKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat)))));
+
+		return Math.min(180.0, delta);
+	}
+}
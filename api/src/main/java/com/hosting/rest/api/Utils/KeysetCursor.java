@@ -0,0 +1,100 @@
+package com.hosting.rest.api.Utils;
+
+import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParam;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import lombok.Getter;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Posición de un listado ordenado por ( CREATED_AT , clave ), donde
+ *          la clave desempata los elementos creados a la vez: el número de
+ *          registro de los alojamientos o el id de las valoraciones.
+ *
+ *          Se envía al cliente como un token opaco en Base64.
+ *
+ */
+@Getter
+public class KeysetCursor {
+
+	private static final String SEPARATOR = "|";
+
+	private final LocalDateTime createdAt;
+
+	private final String key;
+
+	public KeysetCursor(final LocalDateTime createdAt, final String key) {
+		this.createdAt = createdAt;
+		this.key = key;
+	}
+
+	public KeysetCursor(final LocalDateTime createdAt, final Integer id) {
+		this(createdAt, String.valueOf(id));
+	}
+
+	/**
+	 * @return La clave como id numérico.
+	 *
+	 * @throws IllegalArgumentsCustomException Si la clave no es un número.
+	 */
+	public Integer getKeyAsInteger() {
+		Integer id = null;
+
+		try {
+			id = Integer.valueOf(key);
+
+		} catch (NumberFormatException e) {
+			id = null;
+		}
+
+		validateParam(id != null, "El cursor no es válido.");
+
+		return id;
+	}
+
+	/**
+	 * @return Token opaco del cursor.
+	 */
+	public String encode() {
+		String rawCursor = createdAt + SEPARATOR + key;
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Obtiene el cursor a partir del token <code>token</code>.
+	 *
+	 * @param token
+	 *
+	 * @return
+	 *
+	 * @throws IllegalArgumentsCustomException Si el token no es válido.
+	 */
+	public static KeysetCursor decode(final String token) {
+		KeysetCursor cursor = null;
+
+		try {
+			String rawCursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+
+			int separatorIndex = rawCursor.indexOf(SEPARATOR);
+
+			if (separatorIndex > 0 && separatorIndex < rawCursor.length() - 1) {
+				cursor = new KeysetCursor(LocalDateTime.parse(rawCursor.substring(0, separatorIndex)),
+						rawCursor.substring(separatorIndex + 1));
+			}
+
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			cursor = null;
+		}
+
+		validateParam(cursor != null, "El cursor [ " + token + " ] no es válido.");
+
+		return cursor;
+	}
+}
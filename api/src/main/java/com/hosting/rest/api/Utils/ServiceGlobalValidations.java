@@ -31,4 +31,23 @@ public class ServiceGlobalValidations {
 		validateParam(pageNumberToValidate > -1, "El número de página [ " + pageNumberToValidate + " ] no es válido.");
 	}
 
+	/**
+	 * Comprueba que la página <code>pageNumber</code> de tamaño
+	 * <code>pageSize</code>, ya validados, termina antes de
+	 * {@link Integer#MAX_VALUE} resultados.
+	 * 
+	 * @param pageNumber
+	 * @param pageSize
+	 * 
+	 * @return Posición del primer resultado de la página.
+	 */
+	public static int checkPageOffset(final Integer pageNumber, final Integer pageSize) {
+		long offset = (long) pageNumber * pageSize;
+
+		validateParam(offset + pageSize <= Integer.MAX_VALUE,
+				"El número de página [ " + pageNumber + " ] es demasiado grande.");
+
+		return (int) offset;
+	}
+
 }
@@ -0,0 +1,235 @@
+package com.hosting.rest.api.Utils;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Caché en memoria acotada por número de elementos con la política de
+ *          expulsión W-TinyLFU.
+ *
+ *          Los elementos nuevos entran en una ventana LRU pequeña (1 % del
+ *          tamaño). El elemento que sale de la ventana solo pasa a la zona
+ *          principal, también LRU, si se ha pedido más veces que el elemento
+ *          que expulsaría. Las veces que se pide cada clave se estiman con un
+ *          Count-Min Sketch de contadores de 4 bits que se dividen a la mitad
+ *          periódicamente, de modo que pierden peso los accesos antiguos.
+ *
+ *          Todos los métodos están sincronizados.
+ *
+ * @param <K> Clave
+ * @param <V> Valor
+ */
+public class TinyLfuCache<K, V> {
+
+	private final int windowMaxSize;
+
+	private final int mainMaxSize;
+
+	private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<K, V> main = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final FrequencySketch sketch;
+
+	public TinyLfuCache(final int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("El tamaño de la caché debe ser mayor que 0.");
+		}
+
+		this.windowMaxSize = Math.max(1, maximumSize / 100);
+		this.mainMaxSize = maximumSize - windowMaxSize;
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	/**
+	 * Valor de la clave <code>key</code>. Cuenta como un acceso a la clave
+	 * aunque no esté en la caché.
+	 *
+	 * @param key
+	 *
+	 * @return <code>null</code> si no está en la caché.
+	 */
+	public synchronized V get(final K key) {
+		sketch.increment(key);
+
+		V value = window.get(key);
+
+		return value != null ? value : main.get(key);
+	}
+
+	/**
+	 * Valor de la clave <code>key</code>, sin contar como acceso.
+	 *
+	 * @param key
+	 *
+	 * @return <code>null</code> si no está en la caché.
+	 */
+	public synchronized V getIfPresent(final K key) {
+		V value = window.get(key);
+
+		return value != null ? value : main.get(key);
+	}
+
+	public synchronized boolean containsKey(final K key) {
+		return window.containsKey(key) || main.containsKey(key);
+	}
+
+	/**
+	 * Guarda el valor <code>value</code> de la clave <code>key</code>. Puede
+	 * expulsar otro elemento, o el propio elemento si se pide menos que el que
+	 * tendría que expulsar.
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put(final K key, final V value) {
+		sketch.increment(key);
+
+		if (main.containsKey(key)) {
+			main.put(key, value);
+			return;
+		}
+
+		window.put(key, value);
+
+		if (window.size() > windowMaxSize) {
+			Map.Entry<K, V> candidate = removeEldest(window);
+			admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	public synchronized void remove(final K key) {
+		window.remove(key);
+		main.remove(key);
+	}
+
+	public synchronized void clear() {
+		window.clear();
+		main.clear();
+	}
+
+	public synchronized int size() {
+		return window.size() + main.size();
+	}
+
+	/**
+	 * Pasa el elemento que sale de la ventana a la zona principal si hay sitio o
+	 * si se pide más que el elemento menos reciente de la zona principal.
+	 */
+	private void admit(final K candidate, final V value) {
+		if (main.size() < mainMaxSize) {
+			main.put(candidate, value);
+			return;
+		}
+
+		if (mainMaxSize == 0) {
+			return;
+		}
+
+		K victim = main.keySet().iterator().next();
+
+		if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+			main.remove(victim);
+			main.put(candidate, value);
+		}
+	}
+
+	private static <K, V> Map.Entry<K, V> removeEldest(final LinkedHashMap<K, V> map) {
+		Iterator<Map.Entry<K, V>> entries = map.entrySet().iterator();
+		Map.Entry<K, V> eldest = entries.next();
+
+		// Copia, la entrada deja de ser válida al eliminarla.
+		Map.Entry<K, V> copy = new AbstractMap.SimpleImmutableEntry<>(eldest);
+		entries.remove();
+
+		return copy;
+	}
+
+	/**
+	 * Count-Min Sketch de 4 filas con contadores de 4 bits (hasta 15). Cuando se
+	 * han contado 10 accesos por elemento de la caché, todos los contadores se
+	 * dividen a la mitad.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int DEPTH = 4;
+
+		private static final int MAX_COUNT = 15;
+
+		private static final int[] SEEDS = { 0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f };
+
+		private final byte[][] counters;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int samples;
+
+		private FrequencySketch(final int maximumSize) {
+			// Cuatro contadores por fila y elemento de la caché para reducir colisiones.
+			int width = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1) << 2;
+
+			this.counters = new byte[DEPTH][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * Math.max(16, maximumSize);
+		}
+
+		private void increment(final Object key) {
+			int hash = spread(key.hashCode());
+			boolean incremented = false;
+
+			for (int row = 0; row < DEPTH; row++) {
+				int index = indexOf(hash, row);
+
+				if (counters[row][index] < MAX_COUNT) {
+					counters[row][index]++;
+					incremented = true;
+				}
+			}
+
+			if (incremented && ++samples >= sampleSize) {
+				reset();
+			}
+		}
+
+		private int frequency(final Object key) {
+			int hash = spread(key.hashCode());
+			int frequency = MAX_COUNT;
+
+			for (int row = 0; row < DEPTH; row++) {
+				frequency = Math.min(frequency, counters[row][indexOf(hash, row)]);
+			}
+
+			return frequency;
+		}
+
+		private void reset() {
+			for (byte[] row : counters) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] >>= 1;
+				}
+			}
+
+			samples /= 2;
+		}
+
+		private int indexOf(final int hash, final int row) {
+			int h = hash * SEEDS[row];
+			h ^= h >>> 16;
+
+			return h & mask;
+		}
+
+		private static int spread(final int hashCode) {
+			int h = hashCode * 0x9e3779b9;
+
+			return h ^ (h >>> 15);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.hosting.rest.api.configuration.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Pools del primario y de la réplica de lectura cuando se configura
+ *          <code>booking.datasource.replica.jdbc-url</code>. Sin réplica se usa
+ *          el pool único de <code>spring.datasource</code>.
+ *
+ *          El primario se configura con <code>spring.datasource</code> y
+ *          <code>spring.datasource.hikari</code>, y la réplica con
+ *          <code>booking.datasource.replica</code> (mismas propiedades que
+ *          Hikari).
+ *
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "booking.datasource.replica", name = "jdbc-url")
+public class DataSourceRoutingConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("booking.datasource.replica")
+	public HikariDataSource replicaDataSource() {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName("replica");
+
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(
+			@Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+			@Qualifier("replicaDataSource") final HikariDataSource replicaDataSource,
+			@Value("${booking.datasource.replicaLag.maxMillis:5000}") final long maxLagMillis) {
+		return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLagMillis);
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(
+			@Qualifier("primaryDataSource") final HikariDataSource primaryDataSource,
+			@Qualifier("replicaDataSource") final HikariDataSource replicaDataSource,
+			final ReplicaLagMonitor replicaLagMonitor) {
+		return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+	}
+
+	/**
+	 * DataSource de JPA y del resto de la aplicación.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+}
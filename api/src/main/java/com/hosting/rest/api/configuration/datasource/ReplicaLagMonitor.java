@@ -0,0 +1,137 @@
+package com.hosting.rest.api.configuration.datasource;
+
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Retraso de la réplica de lectura respecto al primario.
+ *
+ *          Cada <code>booking.datasource.replicaLag.checkMillis</code> se
+ *          escribe la hora actual en REPLICA_HEARTBEAT del primario y se lee la
+ *          que ha llegado a la réplica: la diferencia es el retraso. Si supera
+ *          <code>booking.datasource.replicaLag.maxMillis</code> o la réplica no
+ *          responde, las lecturas vuelven al primario hasta que se recupere.
+ *
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+	/**
+	 * Segundos que puede tardar cada consulta del latido.
+	 */
+	private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+	private final JdbcTemplate primary;
+
+	private final JdbcTemplate replica;
+
+	private final long maxLagMillis;
+
+	private final LongSupplier clock;
+
+	/**
+	 * Retraso de la última comprobación, <code>-1</code> si la réplica no ha
+	 * respondido.
+	 */
+	private volatile long lagMillis = -1;
+
+	public ReplicaLagMonitor(final DataSource primary, final DataSource replica, final long maxLagMillis) {
+		this(primary, replica, maxLagMillis, System::currentTimeMillis);
+	}
+
+	ReplicaLagMonitor(final DataSource primary, final DataSource replica, final long maxLagMillis,
+			final LongSupplier clock) {
+		if (maxLagMillis < 1) {
+			throw new IllegalArgumentException("El retraso máximo de la réplica debe ser mayor que 0.");
+		}
+
+		this.primary = new JdbcTemplate(primary);
+		this.primary.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+		this.replica = new JdbcTemplate(replica);
+		this.replica.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+		this.maxLagMillis = maxLagMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * Escribe el latido en el primario y mide el retraso de la réplica.
+	 */
+	@Scheduled(initialDelay = 0, fixedDelayString = "${booking.datasource.replicaLag.checkMillis:1000}")
+	public void check() {
+		long now = clock.getAsLong();
+
+		try {
+			primary.update("UPDATE REPLICA_HEARTBEAT SET BEAT_MILLIS = ? WHERE ID = 1", now);
+
+		} catch (DataAccessException e) {
+			log.warn("No se ha podido escribir el latido de la réplica en el primario: {}", e.getMessage());
+		}
+
+		boolean wasUsable = isReplicaUsable();
+
+		try {
+			Long beatMillis = replica.queryForObject("SELECT BEAT_MILLIS FROM REPLICA_HEARTBEAT WHERE ID = 1",
+					Long.class);
+
+			lagMillis = beatMillis != null ? Math.max(0, now - beatMillis) : -1;
+
+		} catch (DataAccessException e) {
+			lagMillis = -1;
+
+			if (wasUsable) {
+				log.warn("La réplica de lectura no responde: {}", e.getMessage());
+			}
+		}
+
+		if (wasUsable != isReplicaUsable()) {
+			if (isReplicaUsable()) {
+				log.info("Las lecturas vuelven a la réplica (retraso {} ms).", lagMillis);
+
+			} else {
+				log.warn("Las lecturas pasan al primario (retraso de la réplica {} ms, máximo {} ms).", lagMillis,
+						maxLagMillis);
+			}
+		}
+	}
+
+	/**
+	 * Anota que la réplica ha fallado al dar una conexión. Las lecturas van al
+	 * primario hasta la siguiente comprobación.
+	 */
+	public void markUnavailable() {
+		lagMillis = -1;
+	}
+
+	/**
+	 * @return Si las transacciones de solo lectura pueden ir a la réplica.
+	 */
+	public boolean isReplicaUsable() {
+		long lag = lagMillis;
+
+		return lag >= 0 && lag <= maxLagMillis;
+	}
+
+	/**
+	 * @return Retraso de la última comprobación, <code>null</code> si la réplica
+	 *         no ha respondido.
+	 */
+	public Long getLagMillis() {
+		long lag = lagMillis;
+
+		return lag >= 0 ? lag : null;
+	}
+
+	public long getMaxLagMillis() {
+		return maxLagMillis;
+	}
+}
@@ -0,0 +1,138 @@
+package com.hosting.rest.api.configuration.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hosting.rest.api.models.DataSource.DataSourcePoolStatsModel;
+import com.hosting.rest.api.models.DataSource.DataSourceRoutingStatsModel;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Conexiones del primario o de la réplica de lectura según la
+ *          transacción en curso.
+ *
+ *          Las transacciones <code>@Transactional(readOnly = true)</code> usan
+ *          la réplica mientras {@link ReplicaLagMonitor} la considere al día;
+ *          el resto de trabajo, y las lecturas cuando la réplica va retrasada o
+ *          no da conexiones, usan el primario. Se debe envolver en un
+ *          {@link LazyConnectionDataSourceProxy} para que la conexión se pida
+ *          cuando la transacción ya se ha marcado como de solo lectura.
+ *
+ *          Las conexiones con usuario y contraseña se reparten igual; los pools
+ *          de Hikari no las admiten y responden con
+ *          {@link SQLFeatureNotSupportedException}, sin que la réplica se dé por
+ *          caída.
+ *
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+	private final HikariDataSource primary;
+
+	private final HikariDataSource replica;
+
+	private final ReplicaLagMonitor lagMonitor;
+
+	/*
+	 * Métricas
+	 */
+	private final AtomicLong primaryConnections = new AtomicLong();
+
+	private final AtomicLong replicaConnections = new AtomicLong();
+
+	private final AtomicLong replicaFallbacks = new AtomicLong();
+
+	public ReplicaRoutingDataSource(final HikariDataSource primary, final HikariDataSource replica,
+			final ReplicaLagMonitor lagMonitor) {
+		this.primary = primary;
+		this.replica = replica;
+		this.lagMonitor = lagMonitor;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return route(HikariDataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(final String username, final String password) throws SQLException {
+		return route(pool -> pool.getConnection(username, password));
+	}
+
+	/**
+	 * Pide la conexión con <code>connectionOf</code> a la réplica, si la
+	 * transacción en curso es de solo lectura y la réplica está al día, o al
+	 * primario.
+	 */
+	private Connection route(final ConnectionSource connectionOf) throws SQLException {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (lagMonitor.isReplicaUsable()) {
+				try {
+					Connection connection = connectionOf.getConnection(replica);
+					replicaConnections.incrementAndGet();
+
+					return connection;
+
+				} catch (SQLFeatureNotSupportedException e) {
+					// El pool no admite la petición: la réplica sigue disponible.
+					throw e;
+
+				} catch (SQLException e) {
+					log.warn("La réplica de lectura no da conexiones, se usa el primario: {}", e.getMessage());
+					lagMonitor.markUnavailable();
+				}
+			}
+
+			replicaFallbacks.incrementAndGet();
+		}
+
+		Connection connection = connectionOf.getConnection(primary);
+		primaryConnections.incrementAndGet();
+
+		return connection;
+	}
+
+	/**
+	 * @return Estado de cada pool, conexiones dadas por cada uno y retraso de la
+	 *         réplica.
+	 */
+	public DataSourceRoutingStatsModel getStats() {
+		return new DataSourceRoutingStatsModel(
+				Arrays.asList(poolStats(primary, primaryConnections), poolStats(replica, replicaConnections)),
+				lagMonitor.isReplicaUsable(), lagMonitor.getLagMillis(), lagMonitor.getMaxLagMillis(),
+				replicaFallbacks.get());
+	}
+
+	private static DataSourcePoolStatsModel poolStats(final HikariDataSource pool, final AtomicLong connections) {
+		HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+
+		// El pool no se crea hasta la primera conexión.
+		if (poolBean == null) {
+			return new DataSourcePoolStatsModel(pool.getPoolName(), 0, 0, 0, pool.getMaximumPoolSize(), 0,
+					connections.get());
+		}
+
+		return new DataSourcePoolStatsModel(pool.getPoolName(), poolBean.getActiveConnections(),
+				poolBean.getIdleConnections(), poolBean.getTotalConnections(), pool.getMaximumPoolSize(),
+				poolBean.getThreadsAwaitingConnection(), connections.get());
+	}
+
+	@FunctionalInterface
+	private interface ConnectionSource {
+
+		Connection getConnection(HikariDataSource pool) throws SQLException;
+	}
+}
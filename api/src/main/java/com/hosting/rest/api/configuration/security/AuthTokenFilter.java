@@ -1,5 +1,8 @@
 package com.hosting.rest.api.configuration.security;
 
+import static com.hosting.rest.api.Utils.Constants.AUTHORITIES_KEY;
+import static com.hosting.rest.api.Utils.Constants.USER_ID_KEY;
+
 import java.io.IOException;
 
 import javax.servlet.FilterChain;
@@ -15,7 +18,11 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.hosting.rest.api.services.User.UserServiceImpl;
+import com.hosting.rest.api.services.UserDetails.UserDetailsCache;
+import com.hosting.rest.api.services.UserDetails.UserDetailsImpl;
+import com.hosting.rest.api.services.UserDetails.UserDetailsServiceImpl;
+
+import io.jsonwebtoken.Claims;
 
 /**
  * 
@@ -24,6 +31,13 @@ import com.hosting.rest.api.services.User.UserServiceImpl;
  * @apiNote Filtro de autorización de JWT para filtrar las peticiones de la
  *          rutas que necesitan autorización.
  *
+ *          El usuario autenticado se obtiene del id, el email y los roles que
+ *          lleva el token, sin consultar la base de datos, mientras
+ *          {@link UserDetailsCache#canTrustClaims} lo permita. Los tokens sin id
+ *          de usuario, los emitidos hace más del tiempo de la caché y los
+ *          emitidos antes de que cambien los roles del usuario o se borre
+ *          cargan el usuario a través de {@link UserDetailsCache}.
+ *
  */
 public class AuthTokenFilter extends OncePerRequestFilter {
 
@@ -31,7 +45,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 	private JwtUtils jwtUtils;
 
 	@Autowired
-	private UserServiceImpl userService;
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Autowired
+	private UserDetailsCache userDetailsCache;
 
 	@Override
 	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
@@ -39,11 +56,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 		try {
 			String jwt = parseJwt(request);
 			
-			if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-				
-				String username = JwtUtils.getUserNameFromJwtToken(jwt);
+			Claims claims = jwt != null ? jwtUtils.verifyJwtToken(jwt) : null;
 
-				UserDetails userDetails = userService.loadUserByUsername(username);
+			if (claims != null) {
+				
+				UserDetails userDetails = buildUserDetails(claims);
 				
 				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
 						userDetails, null, userDetails.getAuthorities());
@@ -60,7 +77,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
-	
+	/**
+	 * Usuario autenticado a partir de los claims del token <code>claims</code>.
+	 */
+	private UserDetails buildUserDetails(final Claims claims) {
+		Integer userId = claims.get(USER_ID_KEY, Integer.class);
+
+		if (userId == null || !userDetailsCache.canTrustClaims(userId, claims.getIssuedAt())) {
+			return userDetailsCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+		}
+
+		return UserDetailsImpl.build(userId, claims.getSubject(), claims.get(AUTHORITIES_KEY, String.class));
+	}
+
 	private String parseJwt(final HttpServletRequest request) {
 		String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,42 @@
+package com.hosting.rest.api.configuration.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.hosting.rest.api.services.Auth.PasswordHashingExecutor;
+
+/**
+ * 
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Codificador de contraseñas que calcula y comprueba las contraseñas
+ *          con <code>delegate</code> en los hilos de
+ *          {@link PasswordHashingExecutor}, tanto al registrarse como al
+ *          iniciar sesión a través del <code>AuthenticationManager</code>.
+ *
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+
+	private final PasswordHashingExecutor hashingExecutor;
+
+	public BoundedPasswordEncoder(final PasswordEncoder delegate, final PasswordHashingExecutor hashingExecutor) {
+		this.delegate = delegate;
+		this.hashingExecutor = hashingExecutor;
+	}
+
+	@Override
+	public String encode(final CharSequence rawPassword) {
+		return hashingExecutor.execute(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+		return hashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(final String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+}
@@ -4,20 +4,36 @@ import static com.hosting.rest.api.Utils.Constants.ACCESS_TOKEN_VALIDITY_SECONDS
 import static com.hosting.rest.api.Utils.Constants.AUTHORITIES_KEY;
 import static com.hosting.rest.api.Utils.Constants.ISSUER_TOKEN;
 import static com.hosting.rest.api.Utils.Constants.SIGNING_KEY;
+import static com.hosting.rest.api.Utils.Constants.USER_ID_KEY;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.stream.Collectors;
 
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.hosting.rest.api.Utils.TinyLfuCache;
+import com.hosting.rest.api.services.UserDetails.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.TextCodec;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -26,13 +42,41 @@ import lombok.extern.slf4j.Slf4j;
  * @version v1.0.0
  * @apiNote Filtro de Autenticación de JWT.
  *
+ *          La clave de firma y el parser se crean una sola vez. Los claims de
+ *          los tokens ya verificados se guardan, por el resumen SHA-256 del
+ *          token, en una caché acotada por
+ *          <code>booking.security.tokenCache.maxTokens</code> hasta que el
+ *          token caduca, de modo que un token que se repite en muchas
+ *          peticiones solo se verifica la primera vez.
+ *
  */
 @Slf4j
 @Component
 public class JwtUtils {
 
 	/**
-	 * Genera el token y le establece una fecha de expiración.
+	 * Clave de firma. Se obtiene de {@link com.hosting.rest.api.Utils.Constants#SIGNING_KEY} igual que la
+	 * obtiene jjwt a partir de la cadena, de modo que los tokens ya emitidos
+	 * siguen siendo válidos.
+	 */
+	private static final Key SECRET_KEY = new SecretKeySpec(TextCodec.BASE64.decode(SIGNING_KEY),
+			SignatureAlgorithm.HS512.getJcaName());
+
+	/**
+	 * El parser no cambia al leer un token, así que se comparte entre hilos.
+	 */
+	private static final JwtParser PARSER = Jwts.parser().setSigningKey(SECRET_KEY);
+
+	private final TinyLfuCache<String, Claims> verifiedTokens;
+
+	public JwtUtils(@Value("${booking.security.tokenCache.maxTokens:10000}") final int maxTokens) {
+		this.verifiedTokens = new TinyLfuCache<>(maxTokens);
+	}
+
+	/**
+	 * Genera el token y le establece una fecha de expiración. Incluye el id y los
+	 * roles del usuario para autenticar las peticiones sin consultar la base de
+	 * datos.
 	 * 
 	 * @param authentication
 	 * 
@@ -42,9 +86,14 @@ public class JwtUtils {
 		final String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
 				.collect(Collectors.joining(","));
 
-		return Jwts.builder().setSubject(authentication.getName())
-				.claim(AUTHORITIES_KEY, authorities)
-				.signWith(SignatureAlgorithm.HS512, SIGNING_KEY)
+		JwtBuilder token = Jwts.builder().setSubject(authentication.getName())
+				.claim(AUTHORITIES_KEY, authorities);
+
+		if (authentication.getPrincipal() instanceof UserDetailsImpl) {
+			token.claim(USER_ID_KEY, ((UserDetailsImpl) authentication.getPrincipal()).getId());
+		}
+
+		return token.signWith(SignatureAlgorithm.HS512, SECRET_KEY)
 				.setIssuedAt(new Date(System.currentTimeMillis()))
 				.setIssuer(ISSUER_TOKEN)
 				.setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_VALIDITY_SECONDS * 1000))
@@ -57,18 +106,27 @@ public class JwtUtils {
 	 * @return
 	 */
 	public static String getUserNameFromJwtToken(final String token) {
-		return Jwts.parser().setSigningKey(SIGNING_KEY).parseClaimsJws(token).getBody().getSubject();
+		return getClaimsFromJwtToken(token).getSubject();
+	}
+
+	/**
+	 * @param token Token ya validado.
+	 * 
+	 * @return Claims del token.
+	 */
+	public static Claims getClaimsFromJwtToken(final String token) {
+		return PARSER.parseClaimsJws(token).getBody();
 	}
 	
 	public static String generateTokenFromUsername(String username) {
 	    return Jwts.builder().setSubject(username).setIssuedAt(new Date())
-	        .setExpiration(new Date((new Date()).getTime() + ACCESS_TOKEN_VALIDITY_SECONDS * 1000)).signWith(SignatureAlgorithm.HS512, SIGNING_KEY)
+	        .setExpiration(new Date((new Date()).getTime() + ACCESS_TOKEN_VALIDITY_SECONDS * 1000)).signWith(SignatureAlgorithm.HS512, SECRET_KEY)
 	        .compact();
 	  }
 	
 	public static String generateTokenFromId(Integer userId) {
 	    return Jwts.builder().setSubject(String.valueOf(userId)).setIssuedAt(new Date())
-	        .setExpiration(new Date((new Date()).getTime() + ACCESS_TOKEN_VALIDITY_SECONDS * 1000)).signWith(SignatureAlgorithm.HS512, SIGNING_KEY)
+	        .setExpiration(new Date((new Date()).getTime() + ACCESS_TOKEN_VALIDITY_SECONDS * 1000)).signWith(SignatureAlgorithm.HS512, SECRET_KEY)
 	        .compact();
 	  }
 
@@ -80,26 +138,94 @@ public class JwtUtils {
 	 * @return
 	 */
 	public boolean validateJwtToken(final String authToken) {
+		return verifyJwtToken(authToken) != null;
+	}
+
+	/**
+	 * Valida el token JWT <code>authToken</code> y obtiene sus claims en una sola
+	 * lectura. Si el token ya se ha verificado y no ha caducado, los claims se
+	 * obtienen de la caché sin comprobar de nuevo la firma.
+	 * 
+	 * @param authToken
+	 * 
+	 * @return <code>null</code> si el token no es válido o ha caducado.
+	 */
+	public Claims verifyJwtToken(final String authToken) {
+		if (authToken == null || authToken.isEmpty()) {
+			log.debug("JWT claims string is empty.");
+			return null;
+		}
+
+		String digest = digestOf(authToken);
+
+		Claims claims = verifiedTokens.get(digest);
+
+		if (claims != null) {
+			if (!isExpired(claims)) {
+				return claims;
+			}
+
+			verifiedTokens.remove(digest);
+			log.debug("JWT token is expired.");
+
+			return null;
+		}
+
+		claims = parseClaims(authToken);
+
+		if (claims != null) {
+			verifiedTokens.put(digest, claims);
+		}
+
+		return claims;
+	}
+
+	/**
+	 * Comprueba la firma y la expiración del token <code>authToken</code>.
+	 * 
+	 * @return <code>null</code> si el token no es válido.
+	 */
+	private static Claims parseClaims(final String authToken) {
 		try {
-			Jwts.parser().setSigningKey(SIGNING_KEY).parseClaimsJws(authToken);
-			return true;
+			return PARSER.parseClaimsJws(authToken).getBody();
 
 		} catch (SignatureException e) {
-			log.error("Invalid JWT signature: {}", e.getMessage());
+			log.warn("Invalid JWT signature: {}", e.getMessage());
 
 		} catch (MalformedJwtException e) {
-			log.error("Invalid JWT token: {}", e.getMessage());
+			log.warn("Invalid JWT token: {}", e.getMessage());
 
 		} catch (ExpiredJwtException e) {
-			log.error("JWT token is expired: {}", e.getMessage());
+			log.debug("JWT token is expired: {}", e.getMessage());
 
 		} catch (UnsupportedJwtException e) {
-			log.error("JWT token is unsupported: {}", e.getMessage());
+			log.warn("JWT token is unsupported: {}", e.getMessage());
 
 		} catch (IllegalArgumentException e) {
-			log.error("JWT claims string is empty: {}", e.getMessage());
+			log.warn("JWT claims string is empty: {}", e.getMessage());
 		}
 
-		return false;
+		return null;
+	}
+
+	private static boolean isExpired(final Claims claims) {
+		Date expiration = claims.getExpiration();
+
+		return expiration != null && !expiration.after(new Date());
+	}
+
+	/**
+	 * Resumen SHA-256 del token, para no guardar en memoria los tokens.
+	 */
+	private static String digestOf(final String authToken) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(authToken.getBytes(StandardCharsets.UTF_8));
+
+			return Base64.getEncoder().encodeToString(digest);
+
+		} catch (NoSuchAlgorithmException e) {
+			// Todas las JVM incluyen SHA-256.
+			throw new IllegalStateException(e);
+		}
 	}
 }
@@ -26,6 +26,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import com.hosting.rest.api.services.Auth.PasswordHashingExecutor;
 import com.hosting.rest.api.services.User.UserServiceImpl;
 
 @Configuration
@@ -39,6 +40,9 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 	@Autowired
 	private AuthEntryPoint authEntryPoint;
 
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
+
 	@Override
 	protected void configure(final AuthenticationManagerBuilder auth) throws Exception {
 		auth.userDetailsService(userService);
@@ -94,7 +98,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
 	@Bean
 	public PasswordEncoder getPasswordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
 	}
 
 	@Bean
@@ -22,13 +22,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationCategoryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationCityModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationImageModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchResultModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchSort;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationTextSearchHitModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
 import com.hosting.rest.api.services.Accomodation.AccomodationServiceImpl;
 import com.hosting.rest.api.services.Accomodation.AccomodationCategory.AccomodationCategoryServiceImpl;
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationSearchServiceImpl;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -43,9 +52,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AccomodationController {
 
+	/**
+	 * Parámetro de los listados que devuelven los alojamientos en formato tarjeta.
+	 */
+	private static final String CARD_VIEW = "view=card";
+
 	@Autowired
 	private AccomodationServiceImpl accomodationService;
 
+	@Autowired
+	private AccomodationSearchServiceImpl accomodationSearchService;
+
 	@Autowired
 	private AccomodationCategoryServiceImpl accomodationCategoryService;
 
@@ -76,6 +93,59 @@ public class AccomodationController {
 		return accomodations;
 	}
 
+	@GetMapping(value = "all", params = CARD_VIEW)
+	public Page<AccomodationCardModel> getAllAccomodationCardsPaging(
+			@RequestParam(value = "page", defaultValue = DEFAULT_PAGE_NUMBER) final String pageNumber,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		Page<AccomodationCardModel> accomodations = null;
+
+		try {
+			accomodations = accomodationService.findAllAccomodationCards(Integer.parseInt(pageNumber),
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("Alguno de los valores parámetros pasados para listar los alojamientos no es un número. ", nfe);
+			throw new IllegalArgumentsCustomException(
+					"Alguno de los valores parámetros pasados para listar los alojamientos no es un número. ", nfe);
+		}
+
+		return accomodations;
+	}
+
+	@GetMapping("all/scroll")
+	public CursorSlice<AccomodationModel> getAllAccomodationsAfterCursor(
+			@RequestParam(value = "cursor", required = false) final String cursor,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		CursorSlice<AccomodationModel> accomodations = null;
+
+		try {
+			accomodations = accomodationService.findAllAccomodationsAfter(cursor, Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El tamaño de página [ " + size + " ] no es un número.");
+			throw new IllegalArgumentsCustomException("El tamaño de página [ " + size + " ] no es un número.");
+		}
+
+		return accomodations;
+	}
+
+	@GetMapping(value = "all/scroll", params = CARD_VIEW)
+	public CursorSlice<AccomodationCardModel> getAllAccomodationCardsAfterCursor(
+			@RequestParam(value = "cursor", required = false) final String cursor,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		CursorSlice<AccomodationCardModel> accomodations = null;
+
+		try {
+			accomodations = accomodationService.findAllAccomodationCardsAfter(cursor, Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El tamaño de página [ " + size + " ] no es un número.");
+			throw new IllegalArgumentsCustomException("El tamaño de página [ " + size + " ] no es un número.");
+		}
+
+		return accomodations;
+	}
+
 	@GetMapping("all/limit")
 	public List<AccomodationModel> findAllAccomodations(@RequestParam(value = "max") final String maxResults) {
 		List<AccomodationModel> accomodations = null;
@@ -102,6 +172,83 @@ public class AccomodationController {
 		return accomodationService.findAllByMultipleFilters(minPrice, maxPrice, beds, bedrooms, bathrooms, guests);
 	}
 
+	@GetMapping(value = "all/filter", params = CARD_VIEW)
+	public List<AccomodationCardModel> findAccomodationCardsByMultipleFilters(
+			@RequestParam(value = "minprice") final Optional<BigDecimal> minPrice,
+			@RequestParam(value = "maxprice") final Optional<BigDecimal> maxPrice,
+			@RequestParam(value = "beds") final Optional<Integer> beds,
+			@RequestParam(value = "bedrooms") final Optional<Integer> bedrooms,
+			@RequestParam(value = "bathrooms") final Optional<Integer> bathrooms,
+			@RequestParam(value = "guests") final Optional<Integer> guests) {
+
+		return accomodationService.findCardsByMultipleFilters(minPrice, maxPrice, beds, bedrooms, bathrooms, guests);
+	}
+
+	@GetMapping("search")
+	public AccomodationSearchResultModel searchAccomodations(
+			@RequestParam(value = "minprice") final Optional<BigDecimal> minPrice,
+			@RequestParam(value = "maxprice") final Optional<BigDecimal> maxPrice,
+			@RequestParam(value = "beds") final Optional<Integer> beds,
+			@RequestParam(value = "bedrooms") final Optional<Integer> bedrooms,
+			@RequestParam(value = "bathrooms") final Optional<Integer> bathrooms,
+			@RequestParam(value = "guests") final Optional<Integer> guests,
+			@RequestParam(value = "category") final Optional<String> category,
+			@RequestParam(value = "city") final Optional<String> city,
+			@RequestParam(value = "services") final Optional<List<Integer>> services,
+			@RequestParam(value = "sort", defaultValue = "newest") final String sort,
+			@RequestParam(value = "page", defaultValue = DEFAULT_PAGE_NUMBER) final String pageNumber,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		AccomodationSearchFilter filter = new AccomodationSearchFilter();
+
+		filter.setMinPrice(minPrice.orElse(null));
+		filter.setMaxPrice(maxPrice.orElse(null));
+		filter.setBeds(beds.orElse(null));
+		filter.setBedrooms(bedrooms.orElse(null));
+		filter.setBathrooms(bathrooms.orElse(null));
+		filter.setGuests(guests.orElse(null));
+		filter.setCategory(category.orElse(null));
+		filter.setCity(city.orElse(null));
+		services.ifPresent(filter::setServices);
+		filter.setSort(AccomodationSearchSort.fromParam(sort));
+
+		if (filter.getSort() == null) {
+			throw new IllegalArgumentsCustomException("El criterio de ordenación [ " + sort + " ] no es válido.");
+		}
+
+		AccomodationSearchResultModel result = null;
+
+		try {
+			result = accomodationSearchService.searchAccomodations(filter, Integer.parseInt(pageNumber),
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("Alguno de los valores parámetros pasados para buscar alojamientos no es un número. ", nfe);
+			throw new IllegalArgumentsCustomException(
+					"Alguno de los valores parámetros pasados para buscar alojamientos no es un número. ", nfe);
+		}
+
+		return result;
+	}
+
+	@GetMapping("search/text")
+	public Page<AccomodationTextSearchHitModel> searchAccomodationsByText(@RequestParam(value = "q") final String query,
+			@RequestParam(value = "page", defaultValue = DEFAULT_PAGE_NUMBER) final String pageNumber,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		Page<AccomodationTextSearchHitModel> accomodations = null;
+
+		try {
+			accomodations = accomodationSearchService.searchAccomodationsByText(query, Integer.parseInt(pageNumber),
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("Alguno de los valores parámetros pasados para buscar alojamientos no es un número. ", nfe);
+			throw new IllegalArgumentsCustomException(
+					"Alguno de los valores parámetros pasados para buscar alojamientos no es un número. ", nfe);
+		}
+
+		return accomodations;
+	}
+
 	@GetMapping("{regNumber}")
 	public AccomodationModel getAccomodationById(@PathVariable(value = "regNumber") final String regNumber) {
 		return accomodationService.getAccomodationById(regNumber.trim());
@@ -113,7 +260,29 @@ public class AccomodationController {
 		Page<AccomodationModel> accomodations = null;
 
 		try {
-			accomodations = accomodationService.findByCity(city.trim(), Integer.parseInt(size), Integer.parseInt(size));
+			accomodations = accomodationService.findByCity(city.trim(), Integer.parseInt(pageNumber),
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("Alguno de los valores parámetros pasados para listar los alojamientos de la ciudad " + city
+					+ " no es un número. ", nfe);
+			throw new IllegalArgumentsCustomException(
+					"Alguno de los valores parámetros pasados para listar los alojamientos de la ciudad " + city
+							+ " no es un número. ",
+					nfe);
+		}
+
+		return accomodations;
+	}
+
+	@GetMapping(value = "cities/{city}", params = CARD_VIEW)
+	public Page<AccomodationCardModel> getAccomodationCardsByCity(@PathVariable(value = "city") final String city,
+			@RequestParam(value = "page") final String pageNumber, @RequestParam(value = "size") String size) {
+		Page<AccomodationCardModel> accomodations = null;
+
+		try {
+			accomodations = accomodationService.findCardsByCity(city.trim(), Integer.parseInt(pageNumber),
+					Integer.parseInt(size));
 
 		} catch (NumberFormatException nfe) {
 			log.error("Alguno de los valores parámetros pasados para listar los alojamientos de la ciudad " + city
@@ -128,9 +297,24 @@ public class AccomodationController {
 	}
 
 	@GetMapping("cities/all")
-	public List<String> findAllAccomodationCities() {
+	public List<String> findAllAccomodationCities(final WebRequest request) {
+		// El ETag se obtiene antes que el listado
+		if (request.checkNotModified(accomodationService.getAccomodationCitiesETag())) {
+			return null;
+		}
+
 		return accomodationService.findAllAccomodationCities();
 	}
+
+	@GetMapping("cities/directory")
+	public List<AccomodationCityModel> findAccomodationCityDirectory(final WebRequest request) {
+		// El ETag se obtiene antes que el listado
+		if (request.checkNotModified(accomodationService.getAccomodationCitiesETag())) {
+			return null;
+		}
+
+		return accomodationService.findAccomodationCityDirectory();
+	}
 	
 	@GetMapping("city")
 	public List<String> findAllByCitySearchMatch(@RequestParam(value="q") final String searchCriteria){
@@ -150,12 +334,30 @@ public class AccomodationController {
 		return accomodationService.findByCategory(categoryToFind);
 	}
 
+	@GetMapping(value = "category/{categoryName}", params = CARD_VIEW)
+	public List<AccomodationCardModel> findCardsByCategory(
+			@PathVariable(value = "categoryName") final String categoryToFind) {
+		return accomodationService.findCardsByCategory(categoryToFind);
+	}
+
 	@GetMapping("price")
 	public List<AccomodationModel> findByPriceRange(@RequestParam(name = "minPrice") final BigDecimal minPrice,
 			@RequestParam(name = "maxPrice") final BigDecimal maxPrice) {
 		return accomodationService.findByPriceRange(minPrice, maxPrice);
 	}
 
+	@GetMapping(value = "price", params = CARD_VIEW)
+	public List<AccomodationCardModel> findCardsByPriceRange(@RequestParam(name = "minPrice") final BigDecimal minPrice,
+			@RequestParam(name = "maxPrice") final BigDecimal maxPrice) {
+		return accomodationService.findCardsByPriceRange(minPrice, maxPrice);
+	}
+
+	@PreAuthorize("hasRole('ROLE_ADMIN_USER')")
+	@PostMapping("catalog/reload")
+	public String reloadAccomodationCatalog() {
+		return accomodationService.reloadAccomodationCatalog();
+	}
+
 	@PreAuthorize("hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@PatchMapping("{regNumber}")
 	public AccomodationModel updateAccomodationById(@PathVariable(value = "regNumber") final String regNumber,
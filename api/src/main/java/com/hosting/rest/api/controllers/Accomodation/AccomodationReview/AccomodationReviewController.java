@@ -1,10 +1,14 @@
 package com.hosting.rest.api.controllers.Accomodation.AccomodationReview;
 
+import static com.hosting.rest.api.Utils.PaginationConstants.DEFAULT_PAGE_SIZE;
+
 import java.util.List;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,10 +18,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationRatingModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewItemModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewSummaryModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
 import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationReviewServiceImpl;
 
 import lombok.extern.slf4j.Slf4j;
@@ -117,12 +127,130 @@ public class AccomodationReviewController {
 		return userReviews;
 	}
 
+//	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("{registerNumber}/scroll")
+	public CursorSlice<AccomodationReviewItemModel> findAccomodationReviewsAfterCursor(
+			@PathVariable(value = "registerNumber") final String regNumber,
+			@RequestParam(value = "cursor", required = false) final String cursor,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		CursorSlice<AccomodationReviewItemModel> accomodationReviews = null;
+
+		try {
+			accomodationReviews = accomodationReviewService.findAccomodationReviewsAfter(regNumber, cursor,
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El tamaño de página [ " + size + " ] no es un número.");
+			throw new IllegalArgumentsCustomException("El tamaño de página [ " + size + " ] no es un número.");
+		}
+
+		return accomodationReviews;
+	}
+
+	@GetMapping("/u/{userId}/send/scroll")
+	public CursorSlice<AccomodationReviewItemModel> findSendAccomodationReviewsAfterCursor(
+			@PathVariable(value = "userId") final String userId,
+			@RequestParam(value = "cursor", required = false) final String cursor,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		CursorSlice<AccomodationReviewItemModel> userReviews = null;
+
+		try {
+			userReviews = accomodationReviewService.findSendAccomodationReviewsAfter(Integer.parseInt(userId), cursor,
+					Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El id de usuario [ " + userId + " ] o el tamaño de página [ " + size
+					+ " ] no es un valor numérico.");
+			throw new IllegalArgumentsCustomException("El id de usuario [ " + userId + " ] o el tamaño de página [ "
+					+ size + " ] no es un valor numérico.");
+		}
+
+		return userReviews;
+	}
+
+	@GetMapping("/u/{userId}/received/scroll")
+	public CursorSlice<AccomodationReviewItemModel> findReceivedAccomodationReviewsAfterCursor(
+			@PathVariable(value = "userId") final String userId,
+			@RequestParam(value = "cursor", required = false) final String cursor,
+			@RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) final String size) {
+		CursorSlice<AccomodationReviewItemModel> userReviews = null;
+
+		try {
+			userReviews = accomodationReviewService.findReceivedAccomodationReviewsAfter(Integer.parseInt(userId),
+					cursor, Integer.parseInt(size));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El id de usuario [ " + userId + " ] o el tamaño de página [ " + size
+					+ " ] no es un valor numérico.");
+			throw new IllegalArgumentsCustomException("El id de usuario [ " + userId + " ] o el tamaño de página [ "
+					+ size + " ] no es un valor numérico.");
+		}
+
+		return userReviews;
+	}
+
+//	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("{registerNumber}/stream")
+	public ResponseEntity<StreamingResponseBody> streamAccomodationReviews(
+			@PathVariable(value = "registerNumber") final String regNumber) {
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.body(accomodationReviewService.streamAccomodationReviews(regNumber));
+	}
+
+	@GetMapping("/u/{userId}/send/stream")
+	public ResponseEntity<StreamingResponseBody> streamSendAccomodationReviews(
+			@PathVariable(value = "userId") final String userId) {
+		StreamingResponseBody userReviews = null;
+
+		try {
+			userReviews = accomodationReviewService.streamSendAccomodationReviews(Integer.parseInt(userId));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El id de usuario [ " + userId + " ] introducido no es un valor numérico.");
+			throw new IllegalArgumentsCustomException(
+					"El id de usuario [ " + userId + " ] introducido no es un valor numérico.");
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userReviews);
+	}
+
+	@GetMapping("/u/{userId}/received/stream")
+	public ResponseEntity<StreamingResponseBody> streamReceivedAccomodationReviews(
+			@PathVariable(value = "userId") final String userId) {
+		StreamingResponseBody userReviews = null;
+
+		try {
+			userReviews = accomodationReviewService.streamReceivedAccomodationReviews(Integer.parseInt(userId));
+
+		} catch (NumberFormatException nfe) {
+			log.error("El id de usuario [ " + userId + " ] introducido no es un valor numérico.");
+			throw new IllegalArgumentsCustomException(
+					"El id de usuario [ " + userId + " ] introducido no es un valor numérico.");
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userReviews);
+	}
+
 //	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@GetMapping("{registerNumber}/stars")
 	public Double getAccomodationReviewStarsAverage(@PathVariable(value = "registerNumber") final String regNumber) {
 		return accomodationReviewService.getAccomodationReviewAverageStars(regNumber);
 	}
 
+//	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("ratings")
+	public List<AccomodationRatingModel> findAccomodationRatings(
+			@RequestParam(name = "regNumbers") final List<String> regNumbers) {
+		return accomodationReviewService.findAccomodationRatings(regNumbers);
+	}
+
+//	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("summaries")
+	public List<AccomodationReviewSummaryModel> findAccomodationReviewSummaries(
+			@RequestParam(name = "regNumbers") final List<String> regNumbers) {
+		return accomodationReviewService.findAccomodationReviewSummaries(regNumbers);
+	}
+
 //	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@GetMapping("{registerNumber}/latest")
 	public List<AccomodationReviewModel> findLastAccomodationReviews(
@@ -7,11 +7,13 @@ import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -24,6 +26,7 @@ import com.hosting.rest.api.configuration.security.JwtUtils;
 import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
 import com.hosting.rest.api.models.Auth.JwtResponse;
 import com.hosting.rest.api.models.Auth.LoginRequest;
+import com.hosting.rest.api.models.Auth.PasswordHashingStatsModel;
 import com.hosting.rest.api.models.Auth.ResetPasswordPayload;
 import com.hosting.rest.api.models.Auth.SignUpRequest;
 import com.hosting.rest.api.services.Auth.AuthServiceImpl;
@@ -101,6 +104,12 @@ public class AuthController {
 
 	}
 
+	@PreAuthorize("hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("password/hashing/stats")
+	public PasswordHashingStatsModel getPasswordHashingStats() {
+		return authService.getPasswordHashingStats();
+	}
+
 	@PostMapping("user/changePassword")
 	public ResponseEntity<?> changePassword(@RequestParam("token") final String resetToken) {
 		// TODO:
@@ -7,6 +7,8 @@ import java.util.Set;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+import com.hosting.rest.api.models.Booking.BookingDateRange;
 import com.hosting.rest.api.models.Booking.BookingModel;
 import com.hosting.rest.api.models.Booking.BookingStatus;
 import com.hosting.rest.api.services.Booking.BookingServiceImpl;
@@ -137,6 +140,21 @@ public class BookingController {
 		return bookingService.checkAccomodationAvailability(regNumber);
 	}
 
+	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("{regNumber}/available")
+	public boolean isAccomodationAvailable(@PathVariable(name = "regNumber") final String regNumber,
+			@RequestParam(value = "checkIn") @DateTimeFormat(iso = ISO.DATE_TIME) final LocalDateTime checkIn,
+			@RequestParam(value = "checkOut") @DateTimeFormat(iso = ISO.DATE_TIME) final LocalDateTime checkOut) {
+		return bookingService.isAccomodationAvailable(regNumber, checkIn, checkOut);
+	}
+
+	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("{regNumber}/available/{year}/{month}")
+	public List<BookingDateRange> findAvailableDates(@PathVariable(name = "regNumber") final String regNumber,
+			@PathVariable(name = "year") final Integer year, @PathVariable(name = "month") final Integer month) {
+		return bookingService.findAvailableDates(regNumber, year, month);
+	}
+
 	@PreAuthorize("hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@GetMapping("{userId}/received")
 	public List<BookingModel> findAllBookingFromHostAccomodations(@PathVariable(name = "userId") final String userId) {
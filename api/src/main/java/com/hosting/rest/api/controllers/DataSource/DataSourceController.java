@@ -0,0 +1,33 @@
+package com.hosting.rest.api.controllers.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.hosting.rest.api.models.DataSource.DataSourceRoutingStatsModel;
+import com.hosting.rest.api.services.DataSource.DataSourceRoutingServiceImpl;
+
+/**
+ * 
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Controlador para el estado de las conexiones a la base de datos.
+ *
+ */
+@RestController
+@CrossOrigin(origins = {"*"})
+@RequestMapping("/datasource")
+public class DataSourceController {
+
+	@Autowired
+	private DataSourceRoutingServiceImpl dataSourceRoutingService;
+
+	@PreAuthorize("hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("routing/stats")
+	public DataSourceRoutingStatsModel getRoutingStats() {
+		return dataSourceRoutingService.getRoutingStats();
+	}
+}
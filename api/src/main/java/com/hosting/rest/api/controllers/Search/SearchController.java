@@ -8,6 +8,7 @@ import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +20,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+import com.hosting.rest.api.models.Search.SearchIngestionStatsModel;
 import com.hosting.rest.api.models.Search.SearchModel;
+import com.hosting.rest.api.models.Search.SearchWordCountModel;
 import com.hosting.rest.api.services.Search.SearchServiceImpl;
+import com.hosting.rest.api.services.UserDetails.UserDetailsImpl;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,8 +46,15 @@ public class SearchController {
 
 	@PreAuthorize("hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@PostMapping("new")
-	public SearchModel addNewSearch(@Valid @RequestBody final SearchModel searchToAdd) {
-		return searchService.addNewSearch(searchToAdd);
+	public SearchModel addNewSearch(@Valid @RequestBody final SearchModel searchToAdd,
+			@AuthenticationPrincipal final UserDetailsImpl currentUser) {
+		return searchService.addNewSearch(searchToAdd, currentUser != null ? currentUser.getId() : null);
+	}
+
+	@PreAuthorize("hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("ingestion/stats")
+	public SearchIngestionStatsModel getSearchIngestionStats() {
+		return searchService.getSearchIngestionStats();
 	}
 
 	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
@@ -145,13 +156,19 @@ public class SearchController {
 
 	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@GetMapping("moreSearched/all")
-	public List<SearchModel> findMoreSearched() {
+	public List<SearchWordCountModel> findMoreSearched() {
 		return searchService.findWordsMoreSearched();
 	}
 
+	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
+	@GetMapping("trending")
+	public List<SearchWordCountModel> findTrending() {
+		return searchService.findTrendingWords();
+	}
+
 	@PreAuthorize("hasRole('ROLE_BASE_USER') or hasRole('ROLE_HOST_USER') or hasRole('ROLE_ADMIN_USER')")
 	@GetMapping("moreSearched")
-	public List<SearchModel> findMoreSearchedBetweenTwoDates(
+	public List<SearchWordCountModel> findMoreSearchedBetweenTwoDates(
 			@RequestParam(value = "start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime startDateToSearch,
 			@RequestParam(value = "finish") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime finishDateToSearch) {
 
@@ -0,0 +1,25 @@
+package com.hosting.rest.api.exceptions.Conflict;
+
+/**
+ * @author Francisco Coya · https://github.com/FranciscoCoya
+ * @version v1.0.0
+ * @description Excepción que se lanza cuando la operación entra en conflicto
+ *              con el estado actual del recurso, por ejemplo al reservar fechas
+ *              ya ocupadas.
+ **/
+public class ConflictCustomException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConflictCustomException() {
+		super();
+	}
+
+	public ConflictCustomException(final String message) {
+		super(message);
+	}
+
+	public ConflictCustomException(final String message, final Exception exception) {
+		super(message, exception);
+	}
+}
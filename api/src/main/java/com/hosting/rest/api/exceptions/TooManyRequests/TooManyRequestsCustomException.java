@@ -0,0 +1,25 @@
+package com.hosting.rest.api.exceptions.TooManyRequests;
+
+/**
+ * @author Francisco Coya · https://github.com/FranciscoCoya
+ * @version v1.0.0
+ * @description Excepción que se lanza cuando la petición no se admite por haber
+ *              demasiadas peticiones del mismo tipo en curso, por ejemplo
+ *              inicios de sesión durante un pico de tráfico.
+ **/
+public class TooManyRequestsCustomException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public TooManyRequestsCustomException() {
+		super();
+	}
+
+	public TooManyRequestsCustomException(final String message) {
+		super(message);
+	}
+
+	public TooManyRequestsCustomException(final String message, final Exception exception) {
+		super(message, exception);
+	}
+}
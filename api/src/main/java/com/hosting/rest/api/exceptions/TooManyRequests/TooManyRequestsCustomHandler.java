@@ -0,0 +1,42 @@
+package com.hosting.rest.api.exceptions.TooManyRequests;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * @author Francisco Coya · https://github.com/FranciscoCoya
+ * @version v1.0.0
+ * @description Manejador de la excepción TooManyRequestsCustomException
+ **/
+@ControllerAdvice
+public class TooManyRequestsCustomHandler {
+
+	/**
+	 * Segundos que se indica al cliente que espere antes de reintentar.
+	 */
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	@ResponseBody
+	@ExceptionHandler(TooManyRequestsCustomException.class)
+	public ResponseEntity<Map<String, String>> tooManyRequestsHandler(HttpServletRequest req,
+			TooManyRequestsCustomException exception) {
+
+		Map<String, String> errorResponse = new HashMap<>();
+
+		errorResponse.put("path", req.getServletPath());
+		errorResponse.put("status", HttpStatus.TOO_MANY_REQUESTS.toString());
+		errorResponse.put("message", exception.getMessage());
+
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+				.body(errorResponse);
+	}
+}
@@ -0,0 +1,57 @@
+package com.hosting.rest.api.models.Accomodation;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Datos de un alojamiento necesarios para mostrarlo en un listado de
+ *          resultados (<code>view=card</code>).
+ *
+ */
+@Data
+@NoArgsConstructor
+public class AccomodationCardModel implements Serializable {
+
+	private static final long serialVersionUID = 3185470726951183640L;
+
+	private String registerNumber;
+
+	private BigDecimal pricePerNight;
+
+	private String city;
+
+	private String imageUrl;
+
+	private Integer numOfBeds;
+
+	private Integer numOfGuests;
+
+	private Double avgStars;
+
+	private String category;
+
+	private LocalDateTime createdAt;
+
+	/**
+	 * Constructor utilizado en las consultas JPQL
+	 * <code>SELECT new AccomodationCardModel(...)</code>. La imagen y la
+	 * valoración media se completan después.
+	 */
+	public AccomodationCardModel(final String registerNumber, final BigDecimal pricePerNight, final String city,
+			final Integer numOfBeds, final Integer numOfGuests, final String category, final LocalDateTime createdAt) {
+		this.registerNumber = registerNumber;
+		this.pricePerNight = pricePerNight;
+		this.city = city;
+		this.numOfBeds = numOfBeds;
+		this.numOfGuests = numOfGuests;
+		this.category = category;
+		this.createdAt = createdAt;
+	}
+}
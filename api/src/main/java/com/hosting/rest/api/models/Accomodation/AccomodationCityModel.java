@@ -0,0 +1,35 @@
+package com.hosting.rest.api.models.Accomodation;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Ciudad con alojamientos publicados: número de alojamientos y
+ *          rectángulo de coordenadas que los contiene.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationCityModel implements Serializable {
+
+	private static final long serialVersionUID = -2496236011807446214L;
+
+	private String city;
+
+	private Integer numOfAccomodations;
+
+	private Double minLat;
+
+	private Double maxLat;
+
+	private Double minLng;
+
+	private Double maxLng;
+}
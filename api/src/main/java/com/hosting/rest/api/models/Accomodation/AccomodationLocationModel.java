@@ -5,6 +5,9 @@ import lombok.Data;
 
 import javax.persistence.*;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hosting.rest.api.Utils.CityKeys;
+
 import java.io.Serializable;
 import java.math.BigDecimal;
 
@@ -32,6 +35,20 @@ public class AccomodationLocationModel implements Serializable{
     @Column(name = "CITY")
     private String city;
 
+    /**
+     * Ciudad normalizada ({@link CityKeys#normalize(String)}). Indexada para las
+     * búsquedas por ciudad.
+     */
+    @JsonIgnore
+    @Column(name = "CITY_KEY")
+    private String cityKey;
+
     @Column(name = "ZIP")
     private String zip;
+
+    @PrePersist
+    @PreUpdate
+    private void updateCityKey() {
+        cityKey = CityKeys.normalize(city);
+    }
 }
@@ -11,12 +11,15 @@ import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
 
 import org.springframework.data.annotation.CreatedDate;
 
+import com.hosting.rest.api.Utils.EntityGraphs;
 import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationAccImageModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationRule.AccomodationAccRuleModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationService.AccomodationAccServiceModel;
@@ -25,13 +28,17 @@ import com.hosting.rest.api.models.User.UserHostModel;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "ACCOMODATION")
+@NamedEntityGraph(name = EntityGraphs.ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT, attributeNodes = {
+		@NamedAttributeNode("idAccomodationCategory"), @NamedAttributeNode("idAccomodationLocation") })
 public class AccomodationModel implements Serializable {
 
 	private static final long serialVersionUID = -2968010369362452077L;
@@ -69,16 +76,24 @@ public class AccomodationModel implements Serializable {
 	@JoinColumn(name = "ID_ACC_LOCATION")
 	private AccomodationLocationModel idAccomodationLocation;
 
-	@OneToMany(mappedBy = "accomodationAccImageId.idAccomodation", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "accomodationAccImageId.idAccomodation", fetch = FetchType.LAZY)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
 	private Set<AccomodationAccImageModel> accomodationImages;
 
-	@OneToMany(mappedBy = "accomodationAccRuleId.idAccomodation", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "accomodationAccRuleId.idAccomodation", fetch = FetchType.LAZY)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
 	private Set<AccomodationAccRuleModel> accomodationRules;
 
-	@OneToMany(mappedBy = "accomodationAccServiceId.idAccomodation", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "accomodationAccServiceId.idAccomodation", fetch = FetchType.LAZY)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
 	private Set<AccomodationAccServiceModel> accomodationServices;
 
-	@OneToMany(mappedBy = "promoCodeAccomodationId.idAccomodation", fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "promoCodeAccomodationId.idAccomodation", fetch = FetchType.LAZY)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
 	private Set<PromoCodeAccomodationModel> promoCodes;
 
 	@ManyToOne(fetch = FetchType.LAZY)
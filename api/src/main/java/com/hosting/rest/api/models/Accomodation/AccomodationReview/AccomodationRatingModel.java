@@ -0,0 +1,39 @@
+package com.hosting.rest.api.models.Accomodation.AccomodationReview;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Resumen de las valoraciones de un alojamiento: número de
+ *          valoraciones, media de estrellas y número de valoraciones con cada
+ *          número de estrellas.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationRatingModel implements Serializable {
+
+	private static final long serialVersionUID = -4510823605412970214L;
+
+	private String registerNumber;
+
+	private Integer numOfReviews;
+
+	/**
+	 * <code>null</code> si el alojamiento no tiene valoraciones.
+	 */
+	private Double avgStars;
+
+	/**
+	 * Valoraciones con 1, 2, 3, 4 y 5 estrellas, en ese orden.
+	 */
+	private List<Integer> numOfReviewsByStars;
+}
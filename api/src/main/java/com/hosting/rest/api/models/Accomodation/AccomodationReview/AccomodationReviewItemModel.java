@@ -0,0 +1,38 @@
+package com.hosting.rest.api.models.Accomodation.AccomodationReview;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Datos de una valoración necesarios para mostrarla en un listado,
+ *          sin el usuario ni el alojamiento completos.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationReviewItemModel implements Serializable {
+
+	private static final long serialVersionUID = 6379504718212264513L;
+
+	private Integer id;
+
+	private String registerNumber;
+
+	private String content;
+
+	private Integer stars;
+
+	private Integer userId;
+
+	private String userName;
+
+	private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.hosting.rest.api.models.Accomodation.AccomodationReview;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Resumen de las valoraciones de un alojamiento para su tarjeta en un
+ *          listado: número de valoraciones, media de estrellas y últimas
+ *          valoraciones.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationReviewSummaryModel implements Serializable {
+
+	private static final long serialVersionUID = -2246067130598722357L;
+
+	private String registerNumber;
+
+	private Integer numOfReviews;
+
+	/**
+	 * <code>null</code> si el alojamiento no tiene valoraciones.
+	 */
+	private Double avgStars;
+
+	/**
+	 * De la más reciente a la más antigua.
+	 */
+	private List<AccomodationReviewItemModel> latestReviews;
+}
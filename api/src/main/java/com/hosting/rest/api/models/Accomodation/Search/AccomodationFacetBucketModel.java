@@ -0,0 +1,35 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Valor de una faceta de la búsqueda de alojamientos y número de
+ *          alojamientos que lo tienen.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationFacetBucketModel implements Serializable {
+
+	private static final long serialVersionUID = -4087795338367045207L;
+
+	/**
+	 * Valor a enviar como filtro (id del servicio, nombre de la categoría, ...).
+	 */
+	private String value;
+
+	/**
+	 * Texto a mostrar.
+	 */
+	private String label;
+
+	private Long numOfAccomodations;
+}
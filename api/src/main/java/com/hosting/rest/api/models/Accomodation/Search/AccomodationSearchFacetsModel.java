@@ -0,0 +1,38 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Facetas de la búsqueda de alojamientos.
+ *
+ *          Las facetas de categoría, ciudad y precio se calculan con todos los
+ *          filtros salvo el suyo, de forma que muestran cuántos alojamientos
+ *          habría al cambiar ese filtro. La de servicios se calcula con todos
+ *          los filtros, ya que los servicios se suman al filtro.
+ *
+ */
+@Data
+@NoArgsConstructor
+public class AccomodationSearchFacetsModel implements Serializable {
+
+	private static final long serialVersionUID = 7950016374390128455L;
+
+	private List<AccomodationFacetBucketModel> categories = new ArrayList<>();
+
+	private List<AccomodationFacetBucketModel> cities = new ArrayList<>();
+
+	private List<AccomodationFacetBucketModel> services = new ArrayList<>();
+
+	/**
+	 * Rangos de precio por noche. El valor es el precio mínimo del rango.
+	 */
+	private List<AccomodationFacetBucketModel> prices = new ArrayList<>();
+}
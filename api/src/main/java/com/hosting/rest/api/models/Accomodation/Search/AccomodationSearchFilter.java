@@ -0,0 +1,50 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Filtros de la búsqueda de alojamientos. Los valores
+ *          <code>null</code> no filtran.
+ *
+ */
+@Data
+@NoArgsConstructor
+public class AccomodationSearchFilter implements Serializable {
+
+	private static final long serialVersionUID = 5203962518226830917L;
+
+	private BigDecimal minPrice;
+
+	private BigDecimal maxPrice;
+
+	private Integer beds;
+
+	private Integer bedrooms;
+
+	private Integer bathrooms;
+
+	private Integer guests;
+
+	/**
+	 * Nombre de la categoría.
+	 */
+	private String category;
+
+	private String city;
+
+	/**
+	 * Ids de los servicios que deben ofrecer los alojamientos (todos ellos).
+	 */
+	private List<Integer> services = new ArrayList<>();
+
+	private AccomodationSearchSort sort = AccomodationSearchSort.NEWEST;
+}
@@ -0,0 +1,31 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+import java.io.Serializable;
+
+import org.springframework.data.domain.Page;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Resultado de la búsqueda de alojamientos: página de tarjetas y
+ *          facetas.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationSearchResultModel implements Serializable {
+
+	private static final long serialVersionUID = -1633915520870963962L;
+
+	private Page<AccomodationCardModel> accomodations;
+
+	private AccomodationSearchFacetsModel facets;
+}
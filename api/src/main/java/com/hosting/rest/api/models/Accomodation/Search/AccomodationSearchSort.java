@@ -0,0 +1,69 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Criterios de ordenación de la búsqueda de alojamientos. Cada uno
+ *          termina con el número de registro para que el orden sea estable
+ *          entre páginas.
+ *
+ */
+public enum AccomodationSearchSort {
+
+	/**
+	 * Más recientes primero.
+	 */
+	NEWEST("newest", "a.CREATED_AT DESC, a.REG_NUM DESC"),
+
+	/**
+	 * Más baratos primero.
+	 */
+	PRICE_ASC("price_asc", "a.PRICE_PER_NIGHT ASC, a.REG_NUM ASC"),
+
+	/**
+	 * Más caros primero.
+	 */
+	PRICE_DESC("price_desc", "a.PRICE_PER_NIGHT DESC, a.REG_NUM DESC");
+
+	private final String param;
+
+	private final String orderBy;
+
+	private AccomodationSearchSort(final String param, final String orderBy) {
+		this.param = param;
+		this.orderBy = orderBy;
+	}
+
+	/**
+	 * @return Valor del parámetro <code>sort</code> de la petición.
+	 */
+	public String getParam() {
+		return param;
+	}
+
+	/**
+	 * @return Cláusula ORDER BY sobre la tabla ACCOMODATION (alias
+	 *         <code>a</code>).
+	 */
+	public String getOrderBy() {
+		return orderBy;
+	}
+
+	/**
+	 * Criterio de ordenación correspondiente al parámetro <code>param</code>.
+	 *
+	 * @param param
+	 *
+	 * @return <code>null</code> si no existe.
+	 */
+	public static AccomodationSearchSort fromParam(final String param) {
+		for (AccomodationSearchSort sort : values()) {
+			if (sort.param.equalsIgnoreCase(param)) {
+				return sort;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,33 @@
+package com.hosting.rest.api.models.Accomodation.Search;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Alojamiento encontrado por la búsqueda de texto libre: tarjeta,
+ *          puntuación y fragmentos resaltados de la ciudad, la dirección y la
+ *          descripción que contienen los términos buscados.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccomodationTextSearchHitModel implements Serializable {
+
+	private static final long serialVersionUID = 5283930961437326218L;
+
+	private AccomodationCardModel accomodation;
+
+	private Double score;
+
+	private Map<String, String> highlights;
+}
@@ -0,0 +1,58 @@
+package com.hosting.rest.api.models.Auth;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Estado de los hilos que calculan y comprueban las contraseñas.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsModel implements Serializable {
+
+	private static final long serialVersionUID = 2870443417716934120L;
+
+	private Integer threads;
+
+	/**
+	 * Contraseñas que se están calculando o comprobando.
+	 */
+	private Integer active;
+
+	/**
+	 * Contraseñas esperando a un hilo libre.
+	 */
+	private Integer queued;
+
+	private Integer queueCapacity;
+
+	private Long completed;
+
+	/**
+	 * Peticiones rechazadas con 429 por estar la cola llena.
+	 */
+	private Long rejected;
+
+	/**
+	 * Espera media y máxima en milisegundos hasta que un hilo empieza a calcular
+	 * la contraseña.
+	 */
+	private Double avgQueueWaitMillis;
+
+	private Double maxQueueWaitMillis;
+
+	/**
+	 * Duración media y máxima en milisegundos del cálculo de la contraseña.
+	 */
+	private Double avgHashMillis;
+
+	private Double maxHashMillis;
+}
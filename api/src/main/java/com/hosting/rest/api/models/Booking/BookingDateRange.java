@@ -0,0 +1,28 @@
+package com.hosting.rest.api.models.Booking;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Intervalo de fechas [ <code>start</code> , <code>end</code> ) de un
+ *          alojamiento.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDateRange implements Serializable {
+
+	private static final long serialVersionUID = 2650872841513625370L;
+
+	private LocalDateTime start;
+
+	private LocalDateTime end;
+}
@@ -0,0 +1,42 @@
+package com.hosting.rest.api.models.DataSource;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Estado de un pool de conexiones (primario o réplica).
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourcePoolStatsModel implements Serializable {
+
+	private static final long serialVersionUID = -6403875125924718460L;
+
+	private String pool;
+
+	private Integer activeConnections;
+
+	private Integer idleConnections;
+
+	private Integer totalConnections;
+
+	private Integer maxPoolSize;
+
+	/**
+	 * Peticiones esperando a una conexión libre.
+	 */
+	private Integer threadsAwaitingConnection;
+
+	/**
+	 * Conexiones dadas por el pool desde que arrancó la aplicación.
+	 */
+	private Long routedConnections;
+}
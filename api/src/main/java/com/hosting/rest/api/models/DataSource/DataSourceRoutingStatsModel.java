@@ -0,0 +1,48 @@
+package com.hosting.rest.api.models.DataSource;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Reparto de las conexiones entre el primario y la réplica de
+ *          lectura.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourceRoutingStatsModel implements Serializable {
+
+	private static final long serialVersionUID = 5186702393357824061L;
+
+	/**
+	 * Primario y réplica, en ese orden.
+	 */
+	private List<DataSourcePoolStatsModel> pools;
+
+	/**
+	 * Si las transacciones de solo lectura van a la réplica.
+	 */
+	private Boolean replicaUsable;
+
+	/**
+	 * Retraso de la réplica en la última comprobación, <code>null</code> si no
+	 * ha respondido.
+	 */
+	private Long replicaLagMillis;
+
+	private Long maxReplicaLagMillis;
+
+	/**
+	 * Transacciones de solo lectura enviadas al primario por retraso o fallo de
+	 * la réplica.
+	 */
+	private Long replicaFallbacks;
+}
@@ -0,0 +1,38 @@
+package com.hosting.rest.api.models.Pagination;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Porción de un listado paginado por cursor. No incluye el número
+ *          total de elementos.
+ *
+ *          Para obtener la siguiente porción se envía <code>nextCursor</code>
+ *          en la siguiente petición.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> implements Serializable {
+
+	private static final long serialVersionUID = -6120371852389011744L;
+
+	private List<T> content;
+
+	private int size;
+
+	private boolean hasNext;
+
+	/**
+	 * Cursor de la siguiente porción. <code>null</code> si no hay más elementos.
+	 */
+	private String nextCursor;
+}
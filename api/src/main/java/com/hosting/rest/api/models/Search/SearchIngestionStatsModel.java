@@ -0,0 +1,53 @@
+package com.hosting.rest.api.models.Search;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Estado de la cola de búsquedas pendientes de guardar.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIngestionStatsModel implements Serializable {
+
+	private static final long serialVersionUID = -4419290771863826405L;
+
+	/**
+	 * Búsquedas en la cola.
+	 */
+	private Integer queued;
+
+	private Integer capacity;
+
+	/**
+	 * Búsquedas añadidas a la cola desde el arranque.
+	 */
+	private Long accepted;
+
+	/**
+	 * Búsquedas descartadas por estar la cola llena.
+	 */
+	private Long dropped;
+
+	private Long written;
+
+	/**
+	 * Búsquedas de los lotes que no se han podido guardar.
+	 */
+	private Long failed;
+
+	private Long batches;
+
+	/**
+	 * Duración en milisegundos del último lote.
+	 */
+	private Long lastBatchMillis;
+}
@@ -0,0 +1,26 @@
+package com.hosting.rest.api.models.Search;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Palabra buscada junto al número de veces que se ha buscado.
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchWordCountModel implements Serializable {
+
+	private static final long serialVersionUID = 2707486413695425610L;
+
+	private String word;
+
+	private Long numOfSearches;
+}
@@ -1,13 +1,22 @@
 package com.hosting.rest.api.repositories.Accomodation;
 
+import static com.hosting.rest.api.Utils.EntityGraphs.ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT;
+
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 
 /**
@@ -18,7 +27,42 @@ import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 public interface IAccomodationRepository
 		extends JpaRepository<AccomodationModel, String>, PagingAndSortingRepository<AccomodationModel, String>, JpaSpecificationExecutor<AccomodationModel>  {
 
-	@Query("SELECT DISTINCT aml.city FROM AccomodationLocationModel aml WHERE aml.city LIKE %:match% ")
-	List<String> findBySearchCriteria(@Param("match") final String searchCriteria);
-	
+	/**
+	 * Proyección {@link AccomodationCardModel} de los alojamientos.
+	 */
+	String ACCOMODATION_CARD_SELECT = "SELECT new com.hosting.rest.api.models.Accomodation.AccomodationCardModel("
+			+ "am.registerNumber, am.pricePerNight, al.city, am.numOfBeds, am.numOfGuests, acc.accomodationCategory, "
+			+ "am.createdAt) "
+			+ "FROM AccomodationModel am LEFT JOIN am.idAccomodationLocation al LEFT JOIN am.idAccomodationCategory acc ";
+
+	@Override
+	@EntityGraph(value = ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT, type = EntityGraphType.LOAD)
+	Page<AccomodationModel> findAll(final Pageable pageable);
+
+	@Override
+	@EntityGraph(value = ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT, type = EntityGraphType.LOAD)
+	Optional<AccomodationModel> findById(final String regNumber);
+
+	@Override
+	@EntityGraph(value = ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT, type = EntityGraphType.LOAD)
+	List<AccomodationModel> findAllById(final Iterable<String> regNumbers);
+
+	@Query(value = ACCOMODATION_CARD_SELECT, countQuery = "SELECT COUNT(am) FROM AccomodationModel am")
+	Page<AccomodationCardModel> findAllCards(final Pageable pageable);
+
+	@Query(value = ACCOMODATION_CARD_SELECT + "WHERE al.cityKey = :cityKey", countQuery = "SELECT COUNT(am) "
+			+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al WHERE al.cityKey = :cityKey")
+	Page<AccomodationCardModel> findCardsByCityKey(@Param("cityKey") final String cityKey, final Pageable pageable);
+
+	@Query(ACCOMODATION_CARD_SELECT + "WHERE am.registerNumber IN :regNumbers")
+	List<AccomodationCardModel> findCardsByRegNumbers(@Param("regNumbers") final List<String> regNumbers);
+
+	@Query(ACCOMODATION_CARD_SELECT + "WHERE acc.accomodationCategory = :category")
+	List<AccomodationCardModel> findCardsByCategory(@Param("category") final String category);
+
+	@Query(ACCOMODATION_CARD_SELECT + "WHERE am.pricePerNight BETWEEN :minPrice AND :maxPrice "
+			+ "ORDER BY am.pricePerNight DESC")
+	List<AccomodationCardModel> findCardsByPriceRange(@Param("minPrice") final BigDecimal minPrice,
+			@Param("maxPrice") final BigDecimal maxPrice);
+
 }
@@ -0,0 +1,75 @@
+package com.hosting.rest.api.services.Accomodation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationRatingAggregates;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Completa los datos de las tarjetas de alojamientos que no se
+ *          obtienen en la consulta principal: la primera imagen, con una
+ *          consulta independientemente del número de tarjetas, y la valoración
+ *          media, desde {@link AccomodationRatingAggregates}.
+ *
+ */
+@Component
+public class AccomodationCardsLoader {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private AccomodationRatingAggregates ratingAggregates;
+
+	/**
+	 * Completa la primera imagen y la valoración media de las tarjetas
+	 * <code>cards</code>.
+	 *
+	 * @param cards
+	 *
+	 * @return Las mismas tarjetas.
+	 */
+	public List<AccomodationCardModel> loadImagesAndRatings(final List<AccomodationCardModel> cards) {
+		if (cards.isEmpty()) {
+			return cards;
+		}
+
+		List<String> regNumbers = new ArrayList<>(cards.size());
+
+		for (AccomodationCardModel card : cards) {
+			regNumbers.add(card.getRegisterNumber());
+		}
+
+		// Primera imagen de cada alojamiento
+		List<Object[]> images = em.createQuery("SELECT ai.accomodationAccImageId.idAccomodation, "
+				+ "ai.accomodationAccImageId.idAccomodationImage.imageUrl FROM AccomodationAccImageModel ai "
+				+ "WHERE ai.accomodationAccImageId.idAccomodation IN :regNumbers "
+				+ "ORDER BY ai.accomodationAccImageId.idAccomodationImage.id", Object[].class)
+				.setParameter("regNumbers", regNumbers).getResultList();
+
+		Map<String, String> firstImageByRegNumber = new HashMap<>();
+
+		for (Object[] image : images) {
+			firstImageByRegNumber.putIfAbsent((String) image[0], (String) image[1]);
+		}
+
+		for (AccomodationCardModel card : cards) {
+			card.setImageUrl(firstImageByRegNumber.get(card.getRegisterNumber()));
+			card.setAvgStars(ratingAggregates.getAverageStars(card.getRegisterNumber()));
+		}
+
+		return cards;
+	}
+}
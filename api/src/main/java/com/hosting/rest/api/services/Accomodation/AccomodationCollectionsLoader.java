@@ -0,0 +1,147 @@
+package com.hosting.rest.api.services.Accomodation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Carga las colecciones (imágenes, reglas, servicios y códigos
+ *          promocionales) de un conjunto de alojamientos.
+ *
+ *          Por cada colección se lanzan dos consultas, independientemente del
+ *          número de alojamientos: una que deja en el contexto de persistencia
+ *          las entidades referenciadas por la clave de la relación y otra que
+ *          inicializa la colección con un JOIN FETCH. Debe ejecutarse en la misma
+ *          transacción en la que se obtuvieron los alojamientos.
+ *
+ */
+@Component
+public class AccomodationCollectionsLoader {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	/**
+	 * Inicializa las colecciones de los alojamientos <code>accomodations</code>.
+	 *
+	 * @param accomodations
+	 *
+	 * @return Los mismos alojamientos.
+	 */
+	public <T extends Collection<AccomodationModel>> T loadCollections(final T accomodations) {
+		if (accomodations == null || accomodations.isEmpty()) {
+			return accomodations;
+		}
+
+		Set<String> uniqueRegNumbers = new LinkedHashSet<>();
+
+		for (AccomodationModel accomodation : accomodations) {
+			uniqueRegNumbers.add(accomodation.getRegisterNumber());
+		}
+
+		List<String> regNumbers = new ArrayList<>(uniqueRegNumbers);
+
+		// Imágenes
+		preload("SELECT ai.accomodationAccImageId.idAccomodationImage FROM AccomodationAccImageModel ai "
+				+ "WHERE ai.accomodationAccImageId.idAccomodation IN :regNumbers", regNumbers);
+		fetchCollection("accomodationImages", regNumbers);
+
+		// Reglas
+		preload("SELECT ar.accomodationAccRuleId.idAccomodationRule FROM AccomodationAccRuleModel ar "
+				+ "WHERE ar.accomodationAccRuleId.idAccomodation IN :regNumbers", regNumbers);
+		fetchCollection("accomodationRules", regNumbers);
+
+		// Servicios
+		preload("SELECT asv.accomodationAccServiceId.idAccomodationService FROM AccomodationAccServiceModel asv "
+				+ "WHERE asv.accomodationAccServiceId.idAccomodation IN :regNumbers", regNumbers);
+		fetchCollection("accomodationServices", regNumbers);
+
+		// Códigos promocionales
+		preload("SELECT pca.promoCodeAccomodationId.idPromoCode FROM PromoCodeAccomodationModel pca "
+				+ "WHERE pca.promoCodeAccomodationId.idAccomodation IN :regNumbers", regNumbers);
+		fetchCollection("promoCodes", regNumbers);
+
+		return accomodations;
+	}
+
+	/**
+	 * Inicializa el alojamiento <code>accomodation</code>.
+	 *
+	 * @param accomodation
+	 *
+	 * @return El mismo alojamiento.
+	 */
+	public AccomodationModel loadCollections(final AccomodationModel accomodation) {
+		if (accomodation != null) {
+			List<AccomodationModel> accomodations = new ArrayList<>(1);
+			accomodations.add(accomodation);
+
+			loadCollections(accomodations);
+		}
+
+		return accomodation;
+	}
+
+	/**
+	 * Inicializa las colecciones del alojamiento que devuelve
+	 * <code>accomodationOf</code> para cada elemento de <code>items</code>
+	 * (reservas, alojamientos guardados, etc.).
+	 *
+	 * @param items
+	 * @param accomodationOf
+	 *
+	 * @return Los mismos elementos.
+	 */
+	public <E, T extends Collection<E>> T loadCollectionsOf(final T items,
+			final Function<E, AccomodationModel> accomodationOf) {
+		if (items == null || items.isEmpty()) {
+			return items;
+		}
+
+		List<AccomodationModel> accomodations = new ArrayList<>(items.size());
+
+		for (E item : items) {
+			AccomodationModel accomodation = accomodationOf.apply(item);
+
+			if (accomodation != null) {
+				accomodations.add(accomodation);
+			}
+		}
+
+		loadCollections(accomodations);
+
+		return items;
+	}
+
+	/**
+	 * Carga en el contexto de persistencia las entidades devueltas por
+	 * <code>query</code>, de forma que al inicializar la colección no se busquen
+	 * una a una.
+	 */
+	private void preload(final String query, final List<String> regNumbers) {
+		em.createQuery(query).setParameter("regNumbers", regNumbers).getResultList();
+	}
+
+	/**
+	 * Inicializa la colección <code>collection</code> de los alojamientos ya
+	 * cargados en el contexto de persistencia.
+	 */
+	private void fetchCollection(final String collection, final List<String> regNumbers) {
+		em.createQuery("SELECT DISTINCT am FROM AccomodationModel am LEFT JOIN FETCH am." + collection + " "
+				+ "WHERE am.registerNumber IN :regNumbers", AccomodationModel.class)
+				.setParameter("regNumbers", regNumbers).getResultList();
+	}
+}
@@ -0,0 +1,263 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.models.Accomodation.AccomodationCityModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Directorio en memoria de las ciudades con alojamientos publicados.
+ *
+ *          Guarda por cada ciudad el número de alojamientos y el rectángulo de
+ *          coordenadas que los contiene. Se carga al arrancar la aplicación y se
+ *          actualiza desde las operaciones de escritura del servicio de
+ *          alojamientos. Cada cambio publica un nuevo listado inmutable junto a
+ *          su ETag, de forma que las lecturas no consultan la base de datos ni
+ *          bloquean.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationCityDirectory {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	/**
+	 * Ubicación de cada alojamiento.
+	 */
+	private final Map<String, CityPoint> pointsByRegNumber = new HashMap<>();
+
+	/**
+	 * Alojamientos de cada ciudad, por clave normalizada de la ciudad.
+	 */
+	private final Map<String, Map<String, CityPoint>> pointsByCityKey = new TreeMap<>();
+
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	/**
+	 * Carga el directorio con las ubicaciones de todos los alojamientos al
+	 * arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<Object[]> locations = em.createQuery("SELECT am.registerNumber, al.city, al.latitude, al.longitude "
+				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al", Object[].class)
+				.getResultList();
+
+		synchronized (this) {
+			pointsByRegNumber.clear();
+			pointsByCityKey.clear();
+
+			for (Object[] location : locations) {
+				addPoint((String) location[0], (String) location[1], (BigDecimal) location[2],
+						(BigDecimal) location[3]);
+			}
+
+			publish();
+		}
+
+		log.info("Directorio de ciudades cargado con {} ciudades.", snapshot.cities.size());
+	}
+
+	/**
+	 * Añade o actualiza la ubicación del alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param city
+	 * @param lat
+	 * @param lng
+	 */
+	public synchronized void put(final String regNumber, final String city, final BigDecimal lat,
+			final BigDecimal lng) {
+		CityPoint previous = pointsByRegNumber.get(regNumber);
+
+		if (previous != null && previous.sameLocation(city, lat, lng)) {
+			return;
+		}
+
+		removePoint(regNumber);
+		addPoint(regNumber, city, lat, lng);
+		publish();
+	}
+
+	/**
+	 * Elimina del directorio el alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public synchronized void remove(final String regNumber) {
+		if (removePoint(regNumber)) {
+			publish();
+		}
+	}
+
+	/**
+	 * @return Ciudades con alojamientos, ordenadas alfabéticamente.
+	 */
+	public List<AccomodationCityModel> getCities() {
+		return snapshot.cities;
+	}
+
+	/**
+	 * @return Nombres de las ciudades con alojamientos, ordenados
+	 *         alfabéticamente.
+	 */
+	public List<String> getCityNames() {
+		return snapshot.cityNames;
+	}
+
+	/**
+	 * @return ETag del contenido actual del directorio. Cambia con cada
+	 *         modificación de las ciudades, de su número de alojamientos o de su
+	 *         rectángulo.
+	 */
+	public String getETag() {
+		return snapshot.eTag;
+	}
+
+	private void addPoint(final String regNumber, final String city, final BigDecimal lat, final BigDecimal lng) {
+		String cityKey = CityKeys.normalize(city);
+
+		if (regNumber == null || cityKey == null || cityKey.isEmpty()) {
+			return;
+		}
+
+		CityPoint point = new CityPoint(cityKey, city.trim(), lat, lng);
+
+		pointsByRegNumber.put(regNumber, point);
+		pointsByCityKey.computeIfAbsent(cityKey, k -> new LinkedHashMap<>()).put(regNumber, point);
+	}
+
+	private boolean removePoint(final String regNumber) {
+		CityPoint point = pointsByRegNumber.remove(regNumber);
+
+		if (point == null) {
+			return false;
+		}
+
+		Map<String, CityPoint> cityPoints = pointsByCityKey.get(point.cityKey);
+		cityPoints.remove(regNumber);
+
+		if (cityPoints.isEmpty()) {
+			pointsByCityKey.remove(point.cityKey);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Genera y publica el listado de ciudades con el estado actual.
+	 */
+	private void publish() {
+		List<AccomodationCityModel> cities = new ArrayList<>(pointsByCityKey.size());
+		List<String> cityNames = new ArrayList<>(pointsByCityKey.size());
+		StringBuilder content = new StringBuilder();
+
+		for (Map<String, CityPoint> cityPoints : pointsByCityKey.values()) {
+			AccomodationCityModel city = toCity(cityPoints);
+
+			cities.add(city);
+			cityNames.add(city.getCity());
+			content.append(city).append('\n');
+		}
+
+		String eTag = "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+		snapshot = new Snapshot(Collections.unmodifiableList(cities), Collections.unmodifiableList(cityNames), eTag);
+	}
+
+	private static AccomodationCityModel toCity(final Map<String, CityPoint> cityPoints) {
+		String name = null;
+		Double minLat = null;
+		Double maxLat = null;
+		Double minLng = null;
+		Double maxLng = null;
+
+		for (CityPoint point : cityPoints.values()) {
+			if (name == null) {
+				name = point.name;
+			}
+
+			if (point.lat == null || point.lng == null) {
+				continue;
+			}
+
+			double lat = point.lat.doubleValue();
+			double lng = point.lng.doubleValue();
+
+			minLat = minLat == null ? lat : Math.min(minLat, lat);
+			maxLat = maxLat == null ? lat : Math.max(maxLat, lat);
+			minLng = minLng == null ? lng : Math.min(minLng, lng);
+			maxLng = maxLng == null ? lng : Math.max(maxLng, lng);
+		}
+
+		return new AccomodationCityModel(name, cityPoints.size(), minLat, maxLat, minLng, maxLng);
+	}
+
+	/**
+	 * Ciudad y coordenadas de un alojamiento.
+	 */
+	private static final class CityPoint {
+		private final String cityKey;
+		private final String name;
+		private final BigDecimal lat;
+		private final BigDecimal lng;
+
+		private CityPoint(final String cityKey, final String name, final BigDecimal lat, final BigDecimal lng) {
+			this.cityKey = cityKey;
+			this.name = name;
+			this.lat = lat;
+			this.lng = lng;
+		}
+
+		private boolean sameLocation(final String city, final BigDecimal lat, final BigDecimal lng) {
+			return city != null && name.equals(city.trim()) && sameCoordinate(this.lat, lat)
+					&& sameCoordinate(this.lng, lng);
+		}
+
+		private static boolean sameCoordinate(final BigDecimal a, final BigDecimal b) {
+			return a == null ? b == null : b != null && a.compareTo(b) == 0;
+		}
+	}
+
+	/**
+	 * Estado inmutable del directorio consultado por las lecturas.
+	 */
+	private static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(Collections.<AccomodationCityModel>emptyList(),
+				Collections.<String>emptyList(), "\"0\"");
+
+		private final List<AccomodationCityModel> cities;
+		private final List<String> cityNames;
+		private final String eTag;
+
+		private Snapshot(final List<AccomodationCityModel> cities, final List<String> cityNames, final String eTag) {
+			this.cities = cities;
+			this.cityNames = cityNames;
+			this.eTag = eTag;
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.CityKeys;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Índice en memoria de las ciudades de las ubicaciones de los
+ *          alojamientos para el autocompletado.
+ *
+ *          Cada ciudad se indexa por su clave normalizada ({@link CityKeys}) y
+ *          por el inicio de cada una de sus palabras, en un array ordenado que
+ *          se recorre con una búsqueda binaria. Las sugerencias se ordenan por
+ *          número de alojamientos. Las lecturas no bloquean: cada cambio
+ *          publica una nueva copia del array.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationCityIndex {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final int maxSuggestions;
+
+	/**
+	 * Ciudades indexadas por su clave normalizada.
+	 */
+	private final Map<String, CityEntry> citiesByKey = new HashMap<>();
+
+	/**
+	 * Clave de la ciudad de cada alojamiento.
+	 */
+	private final Map<String, String> cityKeysByRegNumber = new HashMap<>();
+
+	/**
+	 * Clave de la ciudad de cada ubicación.
+	 */
+	private final Map<Integer, String> cityKeysByLocation = new HashMap<>();
+
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	public AccomodationCityIndex(@Value("${booking.accomodations.cities.suggestions:10}") final int maxSuggestions) {
+		if (maxSuggestions < 1) {
+			throw new IllegalArgumentException("El número de sugerencias debe ser mayor que 0.");
+		}
+
+		this.maxSuggestions = maxSuggestions;
+	}
+
+	/**
+	 * Carga el índice con las ciudades de todas las ubicaciones al arrancar la
+	 * aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<Object[]> locations = em
+				.createQuery("SELECT al.id, al.city FROM AccomodationLocationModel al", Object[].class)
+				.getResultList();
+
+		List<Object[]> accomodations = em.createQuery("SELECT am.registerNumber, al.city "
+				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al", Object[].class)
+				.getResultList();
+
+		synchronized (this) {
+			citiesByKey.clear();
+			cityKeysByRegNumber.clear();
+			cityKeysByLocation.clear();
+
+			for (Object[] location : locations) {
+				linkLocation((Integer) location[0], (String) location[1]);
+			}
+
+			for (Object[] accomodation : accomodations) {
+				linkAccomodation((String) accomodation[0], (String) accomodation[1]);
+			}
+
+			publish();
+		}
+
+		log.info("Índice de ciudades cargado con {} ciudades.", snapshot.cities.size());
+	}
+
+	/**
+	 * Añade o actualiza la ciudad de la ubicación <code>locationId</code>.
+	 *
+	 * @param locationId
+	 * @param city
+	 */
+	public synchronized void putLocation(final Integer locationId, final String city) {
+		unlinkLocation(locationId);
+		linkLocation(locationId, city);
+		publish();
+	}
+
+	/**
+	 * Añade o actualiza la ciudad del alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param city
+	 */
+	public synchronized void putAccomodation(final String regNumber, final String city) {
+		unlinkAccomodation(regNumber);
+		linkAccomodation(regNumber, city);
+		publish();
+	}
+
+	/**
+	 * Elimina del índice el alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public synchronized void removeAccomodation(final String regNumber) {
+		if (unlinkAccomodation(regNumber)) {
+			publish();
+		}
+	}
+
+	/**
+	 * Ciudades que contienen alguna palabra que empieza por <code>match</code>,
+	 * sin distinguir mayúsculas ni acentos. Se ordenan de mayor a menor número
+	 * de alojamientos.
+	 *
+	 * @param match
+	 *
+	 * @return Como mucho <code>booking.accomodations.cities.suggestions</code>
+	 *         ciudades.
+	 */
+	public List<String> findByPrefix(final String match) {
+		String prefix = CityKeys.normalize(match);
+
+		if (prefix == null || prefix.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Snapshot current = snapshot;
+
+		Set<CityEntry> matches = new LinkedHashSet<>();
+
+		for (int i = lowerBound(current.tokens, prefix); i < current.tokens.length
+				&& current.tokens[i].startsWith(prefix); i++) {
+			matches.add(current.cities.get(current.tokenCities[i]));
+		}
+
+		List<CityEntry> ranked = new ArrayList<>(matches);
+		Collections.sort(ranked, CityEntry.BY_POPULARITY);
+
+		List<String> suggestions = new ArrayList<>(Math.min(maxSuggestions, ranked.size()));
+
+		for (int i = 0; i < ranked.size() && i < maxSuggestions; i++) {
+			suggestions.add(ranked.get(i).name);
+		}
+
+		return suggestions;
+	}
+
+	private void linkLocation(final Integer locationId, final String city) {
+		CityEntry entry = entryOf(city);
+
+		if (locationId == null || entry == null) {
+			return;
+		}
+
+		entry.locations++;
+		cityKeysByLocation.put(locationId, entry.key);
+	}
+
+	private void unlinkLocation(final Integer locationId) {
+		String cityKey = cityKeysByLocation.remove(locationId);
+
+		if (cityKey != null) {
+			CityEntry entry = citiesByKey.get(cityKey);
+			entry.locations--;
+			dropIfUnused(entry);
+		}
+	}
+
+	private void linkAccomodation(final String regNumber, final String city) {
+		CityEntry entry = entryOf(city);
+
+		if (regNumber == null || entry == null) {
+			return;
+		}
+
+		entry.accomodations++;
+		cityKeysByRegNumber.put(regNumber, entry.key);
+	}
+
+	private boolean unlinkAccomodation(final String regNumber) {
+		String cityKey = cityKeysByRegNumber.remove(regNumber);
+
+		if (cityKey == null) {
+			return false;
+		}
+
+		CityEntry entry = citiesByKey.get(cityKey);
+		entry.accomodations--;
+		dropIfUnused(entry);
+
+		return true;
+	}
+
+	private CityEntry entryOf(final String city) {
+		String cityKey = CityKeys.normalize(city);
+
+		if (cityKey == null || cityKey.isEmpty()) {
+			return null;
+		}
+
+		return citiesByKey.computeIfAbsent(cityKey, k -> new CityEntry(k, city.trim()));
+	}
+
+	private void dropIfUnused(final CityEntry entry) {
+		if (entry.locations <= 0 && entry.accomodations <= 0) {
+			citiesByKey.remove(entry.key);
+		}
+	}
+
+	/**
+	 * Genera y publica el array ordenado de prefijos con el estado actual.
+	 */
+	private void publish() {
+		Map<String, CityEntry> cities = new HashMap<>();
+		List<String[]> entries = new ArrayList<>();
+
+		for (CityEntry entry : citiesByKey.values()) {
+			CityEntry copy = new CityEntry(entry.key, entry.name);
+			copy.accomodations = entry.accomodations;
+			cities.put(copy.key, copy);
+
+			// La ciudad completa y el inicio de cada palabra ("a coruna" y "coruna").
+			for (int i = 0; i < entry.key.length(); i++) {
+				if (i == 0 || entry.key.charAt(i - 1) == ' ') {
+					entries.add(new String[] { entry.key.substring(i), entry.key });
+				}
+			}
+		}
+
+		Collections.sort(entries, Comparator.comparing((String[] e) -> e[0]));
+
+		String[] tokens = new String[entries.size()];
+		String[] tokenCities = new String[entries.size()];
+
+		for (int i = 0; i < entries.size(); i++) {
+			tokens[i] = entries.get(i)[0];
+			tokenCities[i] = entries.get(i)[1];
+		}
+
+		snapshot = new Snapshot(tokens, tokenCities, cities);
+	}
+
+	/**
+	 * Primera posición de <code>tokens</code> mayor o igual que
+	 * <code>prefix</code>.
+	 */
+	private static int lowerBound(final String[] tokens, final String prefix) {
+		int low = 0;
+		int high = tokens.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (tokens[middle].compareTo(prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Ciudad indexada junto al número de ubicaciones y alojamientos que la
+	 * referencian.
+	 */
+	private static final class CityEntry {
+
+		private static final Comparator<CityEntry> BY_POPULARITY = Comparator
+				.comparingInt((CityEntry c) -> c.accomodations).reversed().thenComparing(c -> c.key);
+
+		private final String key;
+		private final String name;
+		private int locations;
+		private int accomodations;
+
+		private CityEntry(final String key, final String name) {
+			this.key = key;
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Estado inmutable del índice consultado por las búsquedas.
+	 */
+	private static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0],
+				Collections.<String, CityEntry>emptyMap());
+
+		private final String[] tokens;
+		private final String[] tokenCities;
+		private final Map<String, CityEntry> cities;
+
+		private Snapshot(final String[] tokens, final String[] tokenCities, final Map<String, CityEntry> cities) {
+			this.tokens = tokens;
+			this.tokenCities = tokenCities;
+			this.cities = cities;
+		}
+	}
+}
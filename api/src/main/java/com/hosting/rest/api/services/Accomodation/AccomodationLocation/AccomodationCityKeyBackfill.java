@@ -0,0 +1,109 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.CityKeys;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Rellena la columna CITY_KEY de ACCOMODATION_LOCATION con
+ *          {@link CityKeys#normalize(String)}.
+ *
+ *          Las ubicaciones guardadas con JPA ya llevan la clave; esta clase
+ *          cubre las filas anteriores a la columna y las insertadas fuera de la
+ *          aplicación. Al arrancar revisa todas las filas y corrige las claves
+ *          que no coinciden, y cada
+ *          <code>booking.accomodations.cities.keyBackfillMillis</code> rellena
+ *          las que no tienen clave.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationCityKeyBackfill {
+
+	private static final int BATCH_SIZE = 500;
+
+	private static final String UPDATE_CITY_KEY = "UPDATE ACCOMODATION_LOCATION SET CITY_KEY = ? WHERE ID = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public AccomodationCityKeyBackfill(final JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Revisa la clave de todas las ubicaciones al arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillAll() {
+		int updated = backfill("SELECT ID, CITY, CITY_KEY FROM ACCOMODATION_LOCATION WHERE ID > ? ORDER BY ID LIMIT ?");
+
+		log.info("Claves de ciudad revisadas: {} ubicaciones actualizadas.", updated);
+	}
+
+	/**
+	 * Rellena la clave de las ubicaciones que no la tienen.
+	 */
+	@Scheduled(initialDelayString = "${booking.accomodations.cities.keyBackfillMillis:300000}",
+			fixedDelayString = "${booking.accomodations.cities.keyBackfillMillis:300000}")
+	public void backfillMissing() {
+		int updated = backfill("SELECT ID, CITY, CITY_KEY FROM ACCOMODATION_LOCATION "
+				+ "WHERE CITY_KEY IS NULL AND CITY IS NOT NULL AND ID > ? ORDER BY ID LIMIT ?");
+
+		if (updated > 0) {
+			log.info("Claves de ciudad rellenadas en {} ubicaciones.", updated);
+		}
+	}
+
+	/**
+	 * Recorre por id las ubicaciones de <code>query</code> y actualiza las que
+	 * tienen una clave distinta de la calculada.
+	 *
+	 * @return Número de ubicaciones actualizadas.
+	 */
+	private int backfill(final String query) {
+		int updated = 0;
+		int lastId = 0;
+		List<Object[]> locations;
+
+		do {
+			locations = jdbcTemplate.query(query,
+					(rs, rowNum) -> new Object[] { rs.getInt(1), rs.getString(2), rs.getString(3) }, lastId,
+					BATCH_SIZE);
+
+			List<Object[]> changes = new ArrayList<>();
+
+			for (Object[] location : locations) {
+				String cityKey = CityKeys.normalize((String) location[1]);
+
+				if (!Objects.equals(cityKey, location[2])) {
+					changes.add(new Object[] { cityKey, location[0] });
+				}
+			}
+
+			if (!changes.isEmpty()) {
+				jdbcTemplate.batchUpdate(UPDATE_CITY_KEY, changes);
+				updated += changes.size();
+			}
+
+			if (!locations.isEmpty()) {
+				lastId = (Integer) locations.get(locations.size() - 1)[0];
+			}
+
+		} while (locations.size() == BATCH_SIZE);
+
+		return updated;
+	}
+}
@@ -0,0 +1,274 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import static com.hosting.rest.api.Utils.GeoUtils.haversineDistance;
+import static com.hosting.rest.api.Utils.GeoUtils.latitudeDelta;
+import static com.hosting.rest.api.Utils.GeoUtils.longitudeDelta;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Índice geográfico en memoria de las ubicaciones de los alojamientos.
+ *
+ *          Divide el globo en una rejilla de celdas de
+ *          {@link #CELL_SIZE_DEGREES} grados. Una búsqueda por radio solo
+ *          recorre las celdas que cubren el área de búsqueda y calcula la
+ *          distancia exacta de los candidatos encontrados.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationGeoIndex {
+
+	/**
+	 * Tamaño en grados de cada celda de la rejilla (~11 Km de latitud).
+	 */
+	public static final double CELL_SIZE_DEGREES = 0.1;
+
+	private static final int LNG_CELLS = (int) Math.ceil(360.0 / CELL_SIZE_DEGREES);
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, GeoPoint> pointsByRegNumber = new HashMap<>();
+
+	private final Map<Long, Set<GeoPoint>> cells = new HashMap<>();
+
+	/**
+	 * Carga el índice con las ubicaciones de todos los alojamientos al arrancar la
+	 * aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<Object[]> locations = em
+				.createQuery("SELECT am.registerNumber, al.latitude, al.longitude "
+						+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al", Object[].class)
+				.getResultList();
+
+		lock.writeLock().lock();
+
+		try {
+			pointsByRegNumber.clear();
+			cells.clear();
+
+			for (Object[] location : locations) {
+				addPoint((String) location[0], (BigDecimal) location[1], (BigDecimal) location[2]);
+			}
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Índice geográfico cargado con {} alojamientos.", locations.size());
+	}
+
+	/**
+	 * Añade o actualiza la ubicación del alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param lat
+	 * @param lng
+	 */
+	public void put(final String regNumber, final BigDecimal lat, final BigDecimal lng) {
+		lock.writeLock().lock();
+
+		try {
+			removePoint(regNumber);
+			addPoint(regNumber, lat, lng);
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Elimina del índice el alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public void remove(final String regNumber) {
+		lock.writeLock().lock();
+
+		try {
+			removePoint(regNumber);
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Números de registro de los alojamientos situados a menos de
+	 * <code>distanceKm</code> de las coordenadas [ <code>lat</code> ,
+	 * <code>lng</code> ], ordenados del más cercano al más lejano.
+	 *
+	 * @param lat
+	 * @param lng
+	 * @param distanceKm
+	 * @param maxResults
+	 *
+	 * @return
+	 */
+	public List<String> findNearest(final double lat, final double lng, final double distanceKm,
+			final int maxResults) {
+		List<GeoDistance> matches = new ArrayList<>();
+
+		lock.readLock().lock();
+
+		try {
+			int minLatCell = latCell(Math.max(-90.0, lat - latitudeDelta(distanceKm)));
+			int maxLatCell = latCell(Math.min(90.0, lat + latitudeDelta(distanceKm)));
+
+			double lngDelta = longitudeDelta(lat, distanceKm);
+			int lngCellSpan = lngDelta >= 180.0 ? LNG_CELLS : (int) Math.ceil(2 * lngDelta / CELL_SIZE_DEGREES) + 1;
+			int minLngCell = lngDelta >= 180.0 ? 0 : lngCell(lng - lngDelta);
+
+			long cellsToVisit = (long) (maxLatCell - minLatCell + 1) * Math.min(lngCellSpan, LNG_CELLS);
+
+			if (cellsToVisit > pointsByRegNumber.size()) {
+				// Radio muy grande: es más barato recorrer todas las ubicaciones.
+				for (GeoPoint point : pointsByRegNumber.values()) {
+					collectIfInside(point, lat, lng, distanceKm, matches);
+				}
+
+			} else {
+				for (int latIdx = minLatCell; latIdx <= maxLatCell; latIdx++) {
+					for (int i = 0; i < Math.min(lngCellSpan, LNG_CELLS); i++) {
+						Set<GeoPoint> cell = cells.get(cellKey(latIdx, (minLngCell + i) % LNG_CELLS));
+
+						if (cell != null) {
+							for (GeoPoint point : cell) {
+								collectIfInside(point, lat, lng, distanceKm, matches);
+							}
+						}
+					}
+				}
+			}
+
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		Collections.sort(matches, Comparator.comparingDouble(GeoDistance::getDistance));
+
+		List<String> nearest = new ArrayList<>(Math.min(maxResults, matches.size()));
+
+		for (int i = 0; i < matches.size() && i < maxResults; i++) {
+			nearest.add(matches.get(i).getRegNumber());
+		}
+
+		return nearest;
+	}
+
+	private void collectIfInside(final GeoPoint point, final double lat, final double lng, final double distanceKm,
+			final List<GeoDistance> matches) {
+		double distance = haversineDistance(lat, lng, point.lat, point.lng);
+
+		if (distance < distanceKm) {
+			matches.add(new GeoDistance(point.regNumber, distance));
+		}
+	}
+
+	private void addPoint(final String regNumber, final BigDecimal lat, final BigDecimal lng) {
+		if (regNumber == null || lat == null || lng == null) {
+			return;
+		}
+
+		GeoPoint point = new GeoPoint(regNumber, lat.doubleValue(), lng.doubleValue());
+
+		pointsByRegNumber.put(regNumber, point);
+		cells.computeIfAbsent(cellKey(latCell(point.lat), lngCell(point.lng)), k -> new HashSet<>()).add(point);
+	}
+
+	private void removePoint(final String regNumber) {
+		GeoPoint point = pointsByRegNumber.remove(regNumber);
+
+		if (point == null) {
+			return;
+		}
+
+		long key = cellKey(latCell(point.lat), lngCell(point.lng));
+		Set<GeoPoint> cell = cells.get(key);
+
+		if (cell != null) {
+			cell.remove(point);
+
+			if (cell.isEmpty()) {
+				cells.remove(key);
+			}
+		}
+	}
+
+	private static int latCell(final double lat) {
+		return (int) Math.floor((Math.max(-90.0, Math.min(90.0, lat)) + 90.0) / CELL_SIZE_DEGREES);
+	}
+
+	private static int lngCell(final double lng) {
+		double normalized = ((lng + 180.0) % 360.0 + 360.0) % 360.0;
+
+		return Math.min(LNG_CELLS - 1, (int) Math.floor(normalized / CELL_SIZE_DEGREES));
+	}
+
+	private static long cellKey(final int latCell, final int lngCell) {
+		return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+	}
+
+	/**
+	 * Ubicación indexada de un alojamiento.
+	 */
+	private static final class GeoPoint {
+		private final String regNumber;
+		private final double lat;
+		private final double lng;
+
+		private GeoPoint(final String regNumber, final double lat, final double lng) {
+			this.regNumber = regNumber;
+			this.lat = lat;
+			this.lng = lng;
+		}
+	}
+
+	/**
+	 * Alojamiento candidato junto a su distancia al origen de la búsqueda.
+	 */
+	private static final class GeoDistance {
+		private final String regNumber;
+		private final double distance;
+
+		private GeoDistance(final String regNumber, final double distance) {
+			this.regNumber = regNumber;
+			this.distance = distance;
+		}
+
+		private String getRegNumber() {
+			return regNumber;
+		}
+
+		private double getDistance() {
+			return distance;
+		}
+	}
+}
@@ -22,6 +22,9 @@ public class AccomodationLocationServiceImpl implements IAccomodationLocationSer
 	@Autowired
 	private IAccomodationLocationRepository accomodationLocationRepo;
 
+	@Autowired
+	private AccomodationCityIndex cityIndex;
+
 	/**
 	 * Crea una nueva ubicación de alojamiento.
 	 * 
@@ -41,7 +44,12 @@ public class AccomodationLocationServiceImpl implements IAccomodationLocationSer
 		validateParamNotFound(!accomodationLocationRepo.existsById(accomodationLocationToAdd.getId()),
 				"La ubicación a crear ya existe");
 
-		return accomodationLocationRepo.save(accomodationLocationToAdd);
+		AccomodationLocationModel newLocation = accomodationLocationRepo.save(accomodationLocationToAdd);
+
+		// Autocompletado de ciudades
+		cityIndex.putLocation(newLocation.getId(), newLocation.getCity());
+
+		return newLocation;
 	}
 
 	/**
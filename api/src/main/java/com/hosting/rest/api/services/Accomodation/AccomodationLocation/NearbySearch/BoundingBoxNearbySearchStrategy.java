@@ -0,0 +1,66 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import static com.hosting.rest.api.services.Accomodation.IAccomodationService.HAVERSINE_FORMULA;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.GeoBoundingBox;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Búsqueda de alojamientos cercanos con un prefiltro por rectángulo de
+ *          coordenadas.
+ *
+ *          El filtro por rangos de LAT y LNG se resuelve con el índice
+ *          IDX_ACCOMODATION_LOCATION_LAT_LNG, por lo que la fórmula de Haversine
+ *          solo se evalúa sobre las ubicaciones del rectángulo.
+ */
+@Component
+public class BoundingBoxNearbySearchStrategy implements INearbySearchStrategy {
+
+	public static final String STRATEGY_NAME = "bbox";
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Override
+	public String getName() {
+		return STRATEGY_NAME;
+	}
+
+	@Override
+	public List<String> findNearestRegNumbers(final double lat, final double lng, final double distanceKm,
+			final int maxResults) {
+		GeoBoundingBox boundingBox = GeoBoundingBox.around(lat, lng, distanceKm);
+
+		// Si el rectángulo cruza el antimeridiano se divide en dos rangos de longitud.
+		String longitudeFilter = boundingBox.crossesAntimeridian()
+				? "(acloc.longitude >= :minLng OR acloc.longitude <= :maxLng)"
+				: "acloc.longitude BETWEEN :minLng AND :maxLng";
+
+		String findByNearbyLocationQuery = "SELECT am.registerNumber "
+				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation acloc "
+				+ "WHERE acloc.latitude BETWEEN :minLat AND :maxLat AND " + longitudeFilter + " AND "
+				+ HAVERSINE_FORMULA + " < :distance" + " ORDER BY " + HAVERSINE_FORMULA + " ASC";
+
+		TypedQuery<String> nearbyAccomodations = em.createQuery(findByNearbyLocationQuery, String.class);
+
+		nearbyAccomodations.setParameter("minLat", BigDecimal.valueOf(boundingBox.getMinLat()));
+		nearbyAccomodations.setParameter("maxLat", BigDecimal.valueOf(boundingBox.getMaxLat()));
+		nearbyAccomodations.setParameter("minLng", BigDecimal.valueOf(boundingBox.getNormalizedMinLng()));
+		nearbyAccomodations.setParameter("maxLng", BigDecimal.valueOf(boundingBox.getNormalizedMaxLng()));
+		nearbyAccomodations.setParameter("latitude", BigDecimal.valueOf(lat));
+		nearbyAccomodations.setParameter("longitude", BigDecimal.valueOf(lng));
+		nearbyAccomodations.setParameter("distance", distanceKm);
+
+		return nearbyAccomodations.setMaxResults(maxResults).getResultList();
+	}
+}
@@ -0,0 +1,35 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.AccomodationGeoIndex;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Búsqueda de alojamientos cercanos sobre el índice geográfico en
+ *          memoria {@link AccomodationGeoIndex}. No realiza consultas a la base
+ *          de datos.
+ */
+@Component
+public class GeoIndexNearbySearchStrategy implements INearbySearchStrategy {
+
+	public static final String STRATEGY_NAME = "index";
+
+	@Autowired
+	private AccomodationGeoIndex geoIndex;
+
+	@Override
+	public String getName() {
+		return STRATEGY_NAME;
+	}
+
+	@Override
+	public List<String> findNearestRegNumbers(final double lat, final double lng, final double distanceKm,
+			final int maxResults) {
+		return geoIndex.findNearest(lat, lng, distanceKm, maxResults);
+	}
+}
@@ -0,0 +1,50 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import static com.hosting.rest.api.services.Accomodation.IAccomodationService.HAVERSINE_FORMULA;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Búsqueda de alojamientos cercanos calculando
+ *          {@link com.hosting.rest.api.services.Accomodation.IAccomodationService#HAVERSINE_FORMULA}
+ *          sobre todas las ubicaciones de la base de datos.
+ *
+ *          Se mantiene como referencia para comparar el rendimiento del resto
+ *          de estrategias.
+ */
+@Component
+public class HaversineNearbySearchStrategy implements INearbySearchStrategy {
+
+	public static final String STRATEGY_NAME = "haversine";
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Override
+	public String getName() {
+		return STRATEGY_NAME;
+	}
+
+	@Override
+	public List<String> findNearestRegNumbers(final double lat, final double lng, final double distanceKm,
+			final int maxResults) {
+		String findByNearbyLocationQuery = "SELECT am.registerNumber "
+				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation acloc " + "WHERE " + HAVERSINE_FORMULA
+				+ " < :distance" + " ORDER BY " + HAVERSINE_FORMULA + " ASC";
+
+		return em.createQuery(findByNearbyLocationQuery, String.class)
+				.setParameter("latitude", BigDecimal.valueOf(lat))
+				.setParameter("longitude", BigDecimal.valueOf(lng))
+				.setParameter("distance", distanceKm)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+}
@@ -0,0 +1,46 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import java.util.List;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Estrategia de búsqueda de alojamientos cercanos a unas coordenadas.
+ *
+ *          La estrategia a utilizar se selecciona con la propiedad
+ *          <code>booking.accomodations.nearby.strategy</code>.
+ */
+public interface INearbySearchStrategy {
+
+	/**
+	 * Nombre de la estrategia tal y como se indica en la propiedad de
+	 * configuración.
+	 *
+	 * @return
+	 */
+	public String getName();
+
+	/**
+	 * Indica si el esquema de base de datos actual permite utilizar la estrategia.
+	 *
+	 * @return
+	 */
+	public default boolean isSupported() {
+		return true;
+	}
+
+	/**
+	 * Números de registro de los alojamientos situados a menos de
+	 * <code>distanceKm</code> de [ <code>lat</code> , <code>lng</code> ],
+	 * ordenados del más cercano al más lejano.
+	 *
+	 * @param lat
+	 * @param lng
+	 * @param distanceKm
+	 * @param maxResults
+	 *
+	 * @return
+	 */
+	public List<String> findNearestRegNumbers(final double lat, final double lng, final double distanceKm,
+			final int maxResults);
+}
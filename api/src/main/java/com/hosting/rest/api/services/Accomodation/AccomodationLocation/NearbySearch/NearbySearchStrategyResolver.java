@@ -0,0 +1,68 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Selecciona la estrategia de búsqueda de alojamientos cercanos
+ *          configurada en <code>booking.accomodations.nearby.strategy</code>.
+ *
+ *          Si la estrategia no existe o el esquema no la soporta, se utiliza el
+ *          prefiltro por rectángulo de coordenadas.
+ */
+@Component
+@Slf4j
+public class NearbySearchStrategyResolver {
+
+	@Value("${booking.accomodations.nearby.strategy:" + GeoIndexNearbySearchStrategy.STRATEGY_NAME + "}")
+	private String strategyName;
+
+	@Autowired
+	private List<INearbySearchStrategy> strategies;
+
+	private volatile INearbySearchStrategy resolvedStrategy;
+
+	/**
+	 * @return Estrategia de búsqueda configurada.
+	 */
+	public INearbySearchStrategy getStrategy() {
+		if (resolvedStrategy == null) {
+			resolvedStrategy = resolve(strategyName);
+		}
+
+		return resolvedStrategy;
+	}
+
+	/**
+	 * Obtiene la estrategia con nombre <code>name</code>.
+	 *
+	 * @param name
+	 *
+	 * @return
+	 */
+	public INearbySearchStrategy resolve(final String name) {
+		INearbySearchStrategy fallback = null;
+
+		for (INearbySearchStrategy strategy : strategies) {
+			if (strategy.getName().equalsIgnoreCase(name) && strategy.isSupported()) {
+				return strategy;
+			}
+
+			if (BoundingBoxNearbySearchStrategy.STRATEGY_NAME.equals(strategy.getName())) {
+				fallback = strategy;
+			}
+		}
+
+		log.warn("La estrategia de búsqueda por cercanía [ {} ] no existe o no está soportada. Se utiliza [ {} ].",
+				name, BoundingBoxNearbySearchStrategy.STRATEGY_NAME);
+
+		return fallback;
+	}
+}
@@ -0,0 +1,99 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch;
+
+import static com.hosting.rest.api.Utils.GeoUtils.EARTH_RADIUS_KM;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.GeoBoundingBox;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Búsqueda de alojamientos cercanos con las funciones espaciales de
+ *          MySQL.
+ *
+ *          Necesita la columna generada ACCOMODATION_LOCATION.LOCATION_POINT
+ *          (POINT(LNG, LAT)) con un SPATIAL INDEX. El rectángulo de búsqueda se
+ *          resuelve con <code>MBRContains</code> sobre el índice espacial y la
+ *          distancia exacta con <code>ST_Distance_Sphere</code>.
+ */
+@Component
+@Slf4j
+public class SpatialNearbySearchStrategy implements INearbySearchStrategy {
+
+	public static final String STRATEGY_NAME = "spatial";
+
+	private static final double EARTH_RADIUS_METERS = EARTH_RADIUS_KM * 1000;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private Boolean supported;
+
+	@Override
+	public String getName() {
+		return STRATEGY_NAME;
+	}
+
+	/**
+	 * Comprueba si existe la columna LOCATION_POINT en ACCOMODATION_LOCATION.
+	 */
+	@Override
+	public synchronized boolean isSupported() {
+		if (supported == null) {
+			try {
+				Number pointColumns = (Number) em.createNativeQuery("SELECT COUNT(*) FROM information_schema.COLUMNS "
+						+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'ACCOMODATION_LOCATION' "
+						+ "AND COLUMN_NAME = 'LOCATION_POINT'").getSingleResult();
+
+				supported = pointColumns.intValue() > 0;
+
+			} catch (RuntimeException e) {
+				log.warn("No se ha podido comprobar el soporte de columnas espaciales: {}", e.getMessage());
+				supported = false;
+			}
+		}
+
+		return supported;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<String> findNearestRegNumbers(final double lat, final double lng, final double distanceKm,
+			final int maxResults) {
+		GeoBoundingBox boundingBox = GeoBoundingBox.around(lat, lng, distanceKm);
+
+		// Si el rectángulo cruza el antimeridiano se comprueban los dos lados.
+		String boundingBoxFilter = boundingBox.crossesAntimeridian()
+				? "(MBRContains(ST_MakeEnvelope(POINT(:minLng, :minLat), POINT(180, :maxLat)), al.LOCATION_POINT) "
+						+ "OR MBRContains(ST_MakeEnvelope(POINT(-180, :minLat), POINT(:maxLng, :maxLat)), al.LOCATION_POINT))"
+				: "MBRContains(ST_MakeEnvelope(POINT(:minLng, :minLat), POINT(:maxLng, :maxLat)), al.LOCATION_POINT)";
+
+		String findByNearbyLocationQuery = "SELECT a.REG_NUM "
+				+ "FROM ACCOMODATION a INNER JOIN ACCOMODATION_LOCATION al ON al.ID = a.ID_ACC_LOCATION "
+				+ "WHERE " + boundingBoxFilter + " "
+				+ "AND ST_Distance_Sphere(al.LOCATION_POINT, POINT(:longitude, :latitude), :radius) < :distance "
+				+ "ORDER BY ST_Distance_Sphere(al.LOCATION_POINT, POINT(:longitude, :latitude), :radius) ASC";
+
+		Query nearbyAccomodations = em.createNativeQuery(findByNearbyLocationQuery);
+
+		nearbyAccomodations.setParameter("minLat", boundingBox.getMinLat());
+		nearbyAccomodations.setParameter("maxLat", boundingBox.getMaxLat());
+		nearbyAccomodations.setParameter("minLng", boundingBox.getNormalizedMinLng());
+		nearbyAccomodations.setParameter("maxLng", boundingBox.getNormalizedMaxLng());
+		nearbyAccomodations.setParameter("latitude", lat);
+		nearbyAccomodations.setParameter("longitude", lng);
+		nearbyAccomodations.setParameter("radius", EARTH_RADIUS_METERS);
+		nearbyAccomodations.setParameter("distance", distanceKm * 1000);
+
+		return nearbyAccomodations.setMaxResults(maxResults).getResultList();
+	}
+}
@@ -0,0 +1,323 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationReview;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationRatingModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Resumen de las valoraciones de cada alojamiento (número de
+ *          valoraciones, suma de estrellas y valoraciones por número de
+ *          estrellas) guardado en la tabla ACCOMODATION_RATING y en memoria.
+ *
+ *          Cada alta, modificación o borrado de una valoración se aplica a la
+ *          tabla en la misma transacción que la valoración y, cuando se
+ *          confirma, a la memoria. Así la media de un
+ *          alojamiento o de una página de alojamientos se obtiene sin consultar
+ *          la base de datos. Las valoraciones sin estrellas no se cuentan.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationRatingAggregates {
+
+	public static final int MIN_STARS = 1;
+
+	public static final int MAX_STARS = 5;
+
+	/**
+	 * Resumen de las valoraciones de cada alojamiento calculado desde
+	 * ACCOMODATION_REVIEW. Se completa con el filtro y el
+	 * <code>GROUP BY</code>.
+	 */
+	private static final String RATINGS_FROM_REVIEWS = "SELECT ID_ACC, COUNT(STARS), COALESCE(SUM(STARS), 0), "
+			+ "SUM(IFNULL(STARS, 0) = 1), SUM(IFNULL(STARS, 0) = 2), SUM(IFNULL(STARS, 0) = 3), "
+			+ "SUM(IFNULL(STARS, 0) = 4), SUM(IFNULL(STARS, 0) = 5) "
+			+ "FROM ACCOMODATION_REVIEW ";
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final Map<String, Rating> ratings = new ConcurrentHashMap<>();
+
+	/**
+	 * Carga los resúmenes de todos los alojamientos al arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = em.createNativeQuery("SELECT ID_ACC, NUM_REVIEWS, SUM_STARS, NUM_STARS_1, NUM_STARS_2, "
+				+ "NUM_STARS_3, NUM_STARS_4, NUM_STARS_5 FROM ACCOMODATION_RATING").getResultList();
+
+		ratings.clear();
+
+		for (Object[] row : rows) {
+			ratings.put((String) row[0], ratingOf(row));
+		}
+
+		log.info("Valoraciones cargadas de {} alojamientos.", ratings.size());
+	}
+
+	/**
+	 * Aplica a ACCOMODATION_RATING el cambio de estrellas de una valoración del
+	 * alojamiento <code>regNumber</code>, y a la memoria cuando se confirme la
+	 * transacción. Se debe llamar dentro de la transacción que guarda la
+	 * valoración.
+	 *
+	 * @param regNumber
+	 * @param oldStars  <code>null</code> si la valoración es nueva.
+	 * @param newStars  <code>null</code> si la valoración se ha borrado.
+	 */
+	public void recordChange(final String regNumber, final Integer oldStars, final Integer newStars) {
+		Rating delta = Rating.EMPTY.plus(oldStars, -1).plus(newStars, 1);
+
+		if (delta.isEmpty()) {
+			return;
+		}
+
+		em.createNativeQuery("INSERT INTO ACCOMODATION_RATING (ID_ACC, NUM_REVIEWS, SUM_STARS, NUM_STARS_1, "
+				+ "NUM_STARS_2, NUM_STARS_3, NUM_STARS_4, NUM_STARS_5) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+				+ "ON DUPLICATE KEY UPDATE NUM_REVIEWS = NUM_REVIEWS + VALUES(NUM_REVIEWS), "
+				+ "SUM_STARS = SUM_STARS + VALUES(SUM_STARS), NUM_STARS_1 = NUM_STARS_1 + VALUES(NUM_STARS_1), "
+				+ "NUM_STARS_2 = NUM_STARS_2 + VALUES(NUM_STARS_2), NUM_STARS_3 = NUM_STARS_3 + VALUES(NUM_STARS_3), "
+				+ "NUM_STARS_4 = NUM_STARS_4 + VALUES(NUM_STARS_4), NUM_STARS_5 = NUM_STARS_5 + VALUES(NUM_STARS_5)")
+				.setParameter(1, regNumber).setParameter(2, delta.count).setParameter(3, delta.sum)
+				.setParameter(4, delta.byStars[0]).setParameter(5, delta.byStars[1])
+				.setParameter(6, delta.byStars[2]).setParameter(7, delta.byStars[3])
+				.setParameter(8, delta.byStars[4]).executeUpdate();
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				applyChange(regNumber, oldStars, newStars);
+			}
+		});
+	}
+
+	/**
+	 * Aplica en memoria el cambio de estrellas de una valoración ya confirmada.
+	 *
+	 * @param regNumber
+	 * @param oldStars  <code>null</code> si la valoración es nueva.
+	 * @param newStars  <code>null</code> si la valoración se ha borrado.
+	 */
+	void applyChange(final String regNumber, final Integer oldStars, final Integer newStars) {
+		Rating delta = Rating.EMPTY.plus(oldStars, -1).plus(newStars, 1);
+
+		if (!delta.isEmpty()) {
+			ratings.merge(regNumber, delta, Rating::plus);
+		}
+	}
+
+	/**
+	 * Recalcula desde las valoraciones los resúmenes de los alojamientos
+	 * <code>regNumbers</code>, por ejemplo tras borrar en cascada las
+	 * valoraciones de un usuario.
+	 *
+	 * @param regNumbers
+	 */
+	public void recompute(final Collection<String> regNumbers) {
+		if (regNumbers.isEmpty()) {
+			return;
+		}
+
+		List<Object[]> rows = transactionTemplate.execute(status -> {
+			em.createNativeQuery("DELETE FROM ACCOMODATION_RATING WHERE ID_ACC IN (:regNumbers)")
+					.setParameter("regNumbers", regNumbers).executeUpdate();
+
+			em.createNativeQuery("INSERT INTO ACCOMODATION_RATING (ID_ACC, NUM_REVIEWS, SUM_STARS, NUM_STARS_1, "
+					+ "NUM_STARS_2, NUM_STARS_3, NUM_STARS_4, NUM_STARS_5) " + RATINGS_FROM_REVIEWS
+					+ "WHERE ID_ACC IN (:regNumbers) GROUP BY ID_ACC").setParameter("regNumbers", regNumbers)
+					.executeUpdate();
+
+			@SuppressWarnings("unchecked")
+			List<Object[]> recomputedRows = em
+					.createNativeQuery(RATINGS_FROM_REVIEWS + "WHERE ID_ACC IN (:regNumbers) GROUP BY ID_ACC")
+					.setParameter("regNumbers", regNumbers).getResultList();
+
+			return recomputedRows;
+		});
+
+		Map<String, Rating> recomputed = new HashMap<>();
+
+		for (Object[] row : rows) {
+			recomputed.put((String) row[0], ratingOf(row));
+		}
+
+		for (String regNumber : regNumbers) {
+			Rating rating = recomputed.get(regNumber);
+
+			if (rating != null) {
+				ratings.put(regNumber, rating);
+
+			} else {
+				ratings.remove(regNumber);
+			}
+		}
+	}
+
+	/**
+	 * Alojamientos valorados por el usuario <code>userId</code>.
+	 *
+	 * @param userId
+	 *
+	 * @return
+	 */
+	public List<String> findReviewedByUser(final Integer userId) {
+		return em.createQuery("SELECT DISTINCT arm.idAccomodation.registerNumber FROM AccomodationReviewModel arm "
+				+ "WHERE arm.idUser.id = :userId", String.class).setParameter("userId", userId).getResultList();
+	}
+
+	/**
+	 * Descarta el resumen del alojamiento <code>regNumber</code>. La fila de
+	 * ACCOMODATION_RATING se borra en cascada con el alojamiento.
+	 *
+	 * @param regNumber
+	 */
+	public void remove(final String regNumber) {
+		ratings.remove(regNumber);
+	}
+
+	/**
+	 * @param regNumber
+	 *
+	 * @return Si el alojamiento <code>regNumber</code> tiene alguna valoración.
+	 */
+	public boolean hasRatings(final String regNumber) {
+		return ratings.containsKey(regNumber);
+	}
+
+	/**
+	 * @param regNumber
+	 *
+	 * @return Media de estrellas del alojamiento <code>regNumber</code>, o
+	 *         <code>null</code> si no tiene valoraciones.
+	 */
+	public Double getAverageStars(final String regNumber) {
+		Rating rating = ratings.get(regNumber);
+
+		return rating != null ? rating.average() : null;
+	}
+
+	/**
+	 * @param regNumbers
+	 *
+	 * @return Resumen de las valoraciones de cada alojamiento, en el mismo orden
+	 *         y sin repetidos.
+	 */
+	public List<AccomodationRatingModel> findRatings(final Collection<String> regNumbers) {
+		List<AccomodationRatingModel> found = new ArrayList<>(regNumbers.size());
+
+		for (String regNumber : new LinkedHashSet<>(regNumbers)) {
+			found.add(ratings.getOrDefault(regNumber, Rating.EMPTY).toModel(regNumber));
+		}
+
+		return found;
+	}
+
+	private static Rating ratingOf(final Object[] row) {
+		int[] byStars = new int[MAX_STARS];
+
+		for (int i = 0; i < MAX_STARS; i++) {
+			byStars[i] = row[3 + i] != null ? ((Number) row[3 + i]).intValue() : 0;
+		}
+
+		return new Rating(((Number) row[1]).intValue(), ((Number) row[2]).longValue(), byStars);
+	}
+
+	/**
+	 * Resumen inmutable de las valoraciones de un alojamiento, o diferencia
+	 * entre dos resúmenes.
+	 */
+	static final class Rating {
+
+		static final Rating EMPTY = new Rating(0, 0, new int[MAX_STARS]);
+
+		private final int count;
+		private final long sum;
+		private final int[] byStars;
+
+		private Rating(final int count, final long sum, final int[] byStars) {
+			this.count = count;
+			this.sum = sum;
+			this.byStars = byStars;
+		}
+
+		/**
+		 * @param stars <code>null</code> o fuera de rango no cambia el resumen.
+		 * @param times Número de valoraciones a sumar, negativo para restar.
+		 */
+		Rating plus(final Integer stars, final int times) {
+			if (stars == null || stars < MIN_STARS || stars > MAX_STARS) {
+				return this;
+			}
+
+			int[] newByStars = byStars.clone();
+			newByStars[stars - MIN_STARS] += times;
+
+			return new Rating(count + times, sum + (long) stars * times, newByStars);
+		}
+
+		Rating plus(final Rating other) {
+			int[] newByStars = byStars.clone();
+
+			for (int i = 0; i < MAX_STARS; i++) {
+				newByStars[i] += other.byStars[i];
+			}
+
+			return new Rating(count + other.count, sum + other.sum, newByStars);
+		}
+
+		boolean isEmpty() {
+			if (count != 0 || sum != 0) {
+				return false;
+			}
+
+			for (int numOfReviews : byStars) {
+				if (numOfReviews != 0) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		Double average() {
+			return count > 0 ? (double) sum / count : null;
+		}
+
+		AccomodationRatingModel toModel(final String regNumber) {
+			List<Integer> numOfReviewsByStars = new ArrayList<>(MAX_STARS);
+
+			for (int numOfReviews : byStars) {
+				numOfReviewsByStars.add(numOfReviews);
+			}
+
+			return new AccomodationRatingModel(regNumber, count, average(), numOfReviewsByStars);
+		}
+	}
+}
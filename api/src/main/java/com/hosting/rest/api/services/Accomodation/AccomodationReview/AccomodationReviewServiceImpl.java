@@ -3,22 +3,51 @@ package com.hosting.rest.api.services.Accomodation.AccomodationReview;
 import static com.hosting.rest.api.Utils.AppUtils.isIntegerValidAndPositive;
 import static com.hosting.rest.api.Utils.AppUtils.isNotNull;
 import static com.hosting.rest.api.Utils.AppUtils.isStringNotBlank;
+import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageSize;
 import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParam;
 import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParamNotFound;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hosting.rest.api.Utils.KeysetCursor;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationRatingModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewItemModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewSummaryModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
 import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
 import com.hosting.rest.api.repositories.Accomodation.AccomodationReview.IAccomodationReviewRepository;
 import com.hosting.rest.api.repositories.User.IUserRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationCollectionsLoader;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 
@@ -29,8 +58,30 @@ import com.hosting.rest.api.repositories.User.IUserRepository;
  * 
  **/
 @Service
+@Slf4j
 public class AccomodationReviewServiceImpl implements IAccomodationReviewService {
 
+	/**
+	 * Datos de las valoraciones de los listados por cursor. Se completa con una
+	 * de las condiciones siguientes y {@link #REVIEW_ITEMS_ORDER}.
+	 */
+	private static final String REVIEW_ITEMS_SELECT = "SELECT arm.id, ac.registerNumber, arm.content, arm.stars, "
+			+ "um.id, um.name, arm.createdAt FROM AccomodationReviewModel arm INNER JOIN arm.idAccomodation ac "
+			+ "INNER JOIN arm.idUser um ";
+
+	private static final String BY_ACCOMODATION = "ac.registerNumber = :value";
+
+	private static final String SEND_BY_USER = "um.id = :value";
+
+	private static final String RECEIVED_BY_USER = "ac.idUserHost.id = :value";
+
+	private static final String REVIEW_ITEMS_ORDER = "ORDER BY arm.createdAt DESC, arm.id DESC";
+
+	/**
+	 * Valoraciones escritas entre cada envío de la respuesta por streaming.
+	 */
+	private static final int STREAM_FLUSH_ROWS = 100;
+
 	@PersistenceContext
 	private EntityManager em;
 
@@ -43,24 +94,56 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	@Autowired
 	private IUserRepository userRepo;
 
+	@Autowired
+	private AccomodationCollectionsLoader collectionsLoader;
+
+	@Autowired
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Filas que se leen de la base de datos en cada viaje al enviar valoraciones
+	 * por streaming. Con {@link Integer#MIN_VALUE} el driver de MySQL las envía
+	 * una a una.
+	 */
+	@Value("${booking.accomodations.reviews.streamFetchSize:" + Integer.MIN_VALUE + "}")
+	private int streamFetchSize;
+
 	/**
-	 * Añade una nueva valoración a un alojamiento.
+	 * Añade una nueva valoración a un alojamiento y la suma a su resumen de
+	 * valoraciones.
 	 * 
 	 * @param accomodationReviewToAdd
 	 * 
 	 * @return
 	 */
+	@Transactional
 	@Override
 	public AccomodationReviewModel addNewAccomodationReview(final AccomodationReviewModel accomodationReviewToAdd) {
 
 		// Validar valoracion alojamiento pasada como parámetro
-		validateParam(isNotNull(accomodationReviewToAdd),
+		validateParam(isNotNull(accomodationReviewToAdd) && isNotNull(accomodationReviewToAdd.getIdAccomodation()),
 				"Los datos introducidos para la creación de la valoración no son válidos.");
 
 		validateParamNotFound(!accomodationReviewRepo.existsById(accomodationReviewToAdd.getId()),
 				"Ya existe una valoración con esos datos.");
 
-		return accomodationReviewRepo.save(accomodationReviewToAdd);
+		// Necesaria para el listado por cursor ( CREATED_AT , ID ).
+		if (!isNotNull(accomodationReviewToAdd.getCreatedAt())) {
+			accomodationReviewToAdd.setCreatedAt(LocalDateTime.now());
+		}
+
+		AccomodationReviewModel newAccomodationReview = accomodationReviewRepo.save(accomodationReviewToAdd);
+
+		ratingAggregates.recordChange(newAccomodationReview.getIdAccomodation().getRegisterNumber(), null,
+				newAccomodationReview.getStars());
+
+		return newAccomodationReview;
 	}
 
 	/**
@@ -75,6 +158,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * @throws NumberFormatException Si el id de la valoración del alojamiento no es
 	 *                               un número.
 	 */
+	@Transactional
 	@Override
 	public AccomodationReviewModel udpateAccomodationReview(final Integer accomodationReviewId,
 			final AccomodationReviewModel accomodationToUpdate) throws NumberFormatException {
@@ -87,17 +171,28 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 		validateParam(isNotNull(accomodationToUpdate),
 				"Alguno de los datos introducidos para la valoración del alojamiento no es válido.");
 
-		// Comprobar si existe la valoracion
-		validateParamNotFound(accomodationReviewRepo.existsById(accomodationReviewId),
+		// Comprobar si existe la valoracion. Se bloquea hasta el final de la
+		// transacción para calcular el cambio de estrellas.
+		AccomodationReviewModel originalAccomodationReview = em.find(AccomodationReviewModel.class,
+				accomodationReviewId, LockModeType.PESSIMISTIC_WRITE);
+
+		validateParamNotFound(isNotNull(originalAccomodationReview),
 				"No existe una valoración de alojamiento con id " + accomodationReviewId);
 
-		// Actualizar contenido y estrellas de la valoración
-		AccomodationReviewModel originalAccomodationReview = accomodationReviewRepo.getById(accomodationReviewId);
+		Integer oldStars = originalAccomodationReview.getStars();
 
+		// Actualizar contenido y estrellas de la valoración
 		originalAccomodationReview.setContent(accomodationToUpdate.getContent());
 		originalAccomodationReview.setStars(accomodationToUpdate.getStars());
 
-		return accomodationReviewRepo.save(originalAccomodationReview);
+		AccomodationReviewModel updatedAccomodationReview = accomodationReviewRepo.save(originalAccomodationReview);
+
+		ratingAggregates.recordChange(updatedAccomodationReview.getIdAccomodation().getRegisterNumber(), oldStars,
+				updatedAccomodationReview.getStars());
+
+		collectionsLoader.loadCollections(updatedAccomodationReview.getIdAccomodation());
+
+		return updatedAccomodationReview;
 	}
 
 	/**
@@ -109,6 +204,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * @throws NumberFormatException Si el id de la valoración del alojamiento no es
 	 *                               un número.
 	 */
+	@Transactional
 	@Override
 	public void deleteAccomodationReviewById(final Integer accomodationReviewId) throws NumberFormatException {
 		// Validar id de la valoración del alojamiento
@@ -116,10 +212,16 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 				"El número de registro [ " + accomodationReviewId + " ] no es válido.");
 
 		// Comprobar si existe la valoracion del alojamiento
-		validateParamNotFound(accomodationReviewRepo.existsById(accomodationReviewId),
+		AccomodationReviewModel accomodationReviewToDelete = em.find(AccomodationReviewModel.class,
+				accomodationReviewId, LockModeType.PESSIMISTIC_WRITE);
+
+		validateParamNotFound(isNotNull(accomodationReviewToDelete),
 				"No existe la valoración de alojamiento con id " + accomodationReviewId);
 
-		accomodationReviewRepo.deleteById(accomodationReviewId);
+		accomodationReviewRepo.delete(accomodationReviewToDelete);
+
+		ratingAggregates.recordChange(accomodationReviewToDelete.getIdAccomodation().getRegisterNumber(),
+				accomodationReviewToDelete.getStars(), null);
 	}
 
 	/**
@@ -130,6 +232,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationReviewModel> findAllAccomodationReviews(final String regNumber) {
 
@@ -149,7 +252,8 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 
 		accomodationReviews.setParameter("regNumber", regNumber);
 
-		return accomodationReviews.getResultList();
+		return collectionsLoader.loadCollectionsOf(accomodationReviews.getResultList(),
+				AccomodationReviewModel::getIdAccomodation);
 	}
 
 	/**
@@ -163,6 +267,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * @throw NumberFormatException Si el id de la valoracion del alojamiento no es
 	 *        un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public AccomodationReviewModel findAccomodationById(final Integer accomodationReviewId)
 			throws NumberFormatException {
@@ -171,7 +276,11 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 		validateParam(isIntegerValidAndPositive(accomodationReviewId),
 				"El número de registro [ " + accomodationReviewId + " ] no es válido.");
 
-		return accomodationReviewRepo.findById(accomodationReviewId).get();
+		AccomodationReviewModel accomodationReview = accomodationReviewRepo.findById(accomodationReviewId).get();
+
+		collectionsLoader.loadCollections(accomodationReview.getIdAccomodation());
+
+		return accomodationReview;
 	}
 
 	/**
@@ -184,6 +293,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * 
 	 * @throws NumberFormatException Si el id del usuario no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationReviewModel> findAllSendAccomodationReviewsByUserId(final Integer userId) throws NumberFormatException {
 
@@ -201,7 +311,8 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 
 		accomodationReviews.setParameter("userId", userId);
 
-		return accomodationReviews.getResultList();
+		return collectionsLoader.loadCollectionsOf(accomodationReviews.getResultList(),
+				AccomodationReviewModel::getIdAccomodation);
 	}
 	
 	/**
@@ -213,6 +324,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * 
 	 * @throws NumberFormatException Si el id del usuario no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationReviewModel> findAllReceivedAccomodationReviewsByUserId(final Integer userId) throws NumberFormatException{
 	
@@ -231,7 +343,254 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 		
 		accomodationReviewsByUser.setParameter("userId", userId);
 		
-		return accomodationReviewsByUser.getResultList();
+		return collectionsLoader.loadCollectionsOf(accomodationReviewsByUser.getResultList(),
+				AccomodationReviewModel::getIdAccomodation);
+	}
+
+	/**
+	 * Página de las valoraciones del alojamiento con número de registro
+	 * <code>regNumber</code>, de la más reciente a la más antigua, que empieza
+	 * después del cursor <code>cursor</code>.
+	 * 
+	 * {@link #REVIEWS_LIMIT_RESULTS}
+	 * 
+	 * @param regNumber
+	 * @param cursor    <code>null</code> para la primera página.
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public CursorSlice<AccomodationReviewItemModel> findAccomodationReviewsAfter(final String regNumber,
+			final String cursor, final Integer size) {
+		validateAccomodationExists(regNumber);
+
+		return findReviewItemsAfter(BY_ACCOMODATION, regNumber, cursor, size);
+	}
+
+	/**
+	 * Página de las valoraciones escritas por el usuario con id
+	 * <code>userId</code>, de la más reciente a la más antigua, que empieza
+	 * después del cursor <code>cursor</code>.
+	 * 
+	 * {@link #REVIEWS_LIMIT_RESULTS}
+	 * 
+	 * @param userId
+	 * @param cursor <code>null</code> para la primera página.
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public CursorSlice<AccomodationReviewItemModel> findSendAccomodationReviewsAfter(final Integer userId,
+			final String cursor, final Integer size) {
+		validateUserExists(userId);
+
+		return findReviewItemsAfter(SEND_BY_USER, userId, cursor, size);
+	}
+
+	/**
+	 * Página de las valoraciones recibidas en los alojamientos del usuario con id
+	 * <code>userId</code>, de la más reciente a la más antigua, que empieza
+	 * después del cursor <code>cursor</code>.
+	 * 
+	 * {@link #REVIEWS_LIMIT_RESULTS}
+	 * 
+	 * @param userId
+	 * @param cursor <code>null</code> para la primera página.
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public CursorSlice<AccomodationReviewItemModel> findReceivedAccomodationReviewsAfter(final Integer userId,
+			final String cursor, final Integer size) {
+		validateUserExists(userId);
+
+		return findReviewItemsAfter(RECEIVED_BY_USER, userId, cursor, size);
+	}
+
+	/**
+	 * Todas las valoraciones del alojamiento con número de registro
+	 * <code>regNumber</code> como un array JSON que se escribe mientras se leen de
+	 * la base de datos.
+	 * 
+	 * @param regNumber
+	 * 
+	 * @return
+	 */
+	@Override
+	public StreamingResponseBody streamAccomodationReviews(final String regNumber) {
+		validateAccomodationExists(regNumber);
+
+		return out -> writeReviewItems(BY_ACCOMODATION, regNumber, out);
+	}
+
+	/**
+	 * Todas las valoraciones escritas por el usuario con id <code>userId</code>
+	 * como un array JSON que se escribe mientras se leen de la base de datos.
+	 * 
+	 * @param userId
+	 * 
+	 * @return
+	 */
+	@Override
+	public StreamingResponseBody streamSendAccomodationReviews(final Integer userId) {
+		validateUserExists(userId);
+
+		return out -> writeReviewItems(SEND_BY_USER, userId, out);
+	}
+
+	/**
+	 * Todas las valoraciones recibidas en los alojamientos del usuario con id
+	 * <code>userId</code> como un array JSON que se escribe mientras se leen de la
+	 * base de datos.
+	 * 
+	 * @param userId
+	 * 
+	 * @return
+	 */
+	@Override
+	public StreamingResponseBody streamReceivedAccomodationReviews(final Integer userId) {
+		validateUserExists(userId);
+
+		return out -> writeReviewItems(RECEIVED_BY_USER, userId, out);
+	}
+
+	private void validateAccomodationExists(final String regNumber) {
+		// Validar número de registro del alojamiento
+		validateParam(isStringNotBlank(regNumber), "El número de registro [ " + regNumber + " ] no es válido.");
+
+		// Comprobar si existe el alojamiento
+		validateParamNotFound(accomodationRepo.existsById(regNumber),
+				"No existe el alojamiento con número de registro " + regNumber);
+	}
+
+	private void validateUserExists(final Integer userId) {
+		// Validar id del usuario
+		validateParam(isIntegerValidAndPositive(userId), "El id de usuario [ " + userId + " ] no es válido.");
+
+		// Comprobar si existe el usuario
+		validateParamNotFound(userRepo.existsById(userId), "No existe un usuario con id " + userId);
+	}
+
+	/**
+	 * Página de valoraciones ordenada por ( CREATED_AT , ID ) descendente que
+	 * empieza después del cursor <code>cursor</code>. Obtiene un elemento más de
+	 * los pedidos para saber si existe una página siguiente.
+	 * 
+	 * @param filter Condición de {@link #BY_ACCOMODATION}, {@link #SEND_BY_USER}
+	 *               o {@link #RECEIVED_BY_USER}.
+	 * @param value  Valor del parámetro <code>:value</code> de la condición.
+	 * @param cursor
+	 * @param size
+	 * 
+	 * @return
+	 */
+	private CursorSlice<AccomodationReviewItemModel> findReviewItemsAfter(final String filter, final Object value,
+			final String cursor, final Integer size) {
+		checkPageSize(size);
+
+		validateParam(size <= REVIEWS_LIMIT_RESULTS,
+				"El tamaño de página no puede ser mayor que " + REVIEWS_LIMIT_RESULTS);
+
+		KeysetCursor keysetCursor = isNotNull(cursor) && isStringNotBlank(cursor) ? KeysetCursor.decode(cursor) : null;
+
+		String keysetQuery = REVIEW_ITEMS_SELECT + "WHERE " + filter + " ";
+
+		if (keysetCursor != null) {
+			keysetQuery += "AND (arm.createdAt < :createdAt "
+					+ "OR (arm.createdAt = :createdAt AND arm.id < :id)) ";
+		}
+
+		keysetQuery += REVIEW_ITEMS_ORDER;
+
+		TypedQuery<Object[]> reviewItems = em.createQuery(keysetQuery, Object[].class);
+
+		reviewItems.setParameter("value", value);
+
+		if (keysetCursor != null) {
+			reviewItems.setParameter("createdAt", keysetCursor.getCreatedAt());
+			reviewItems.setParameter("id", keysetCursor.getKeyAsInteger());
+		}
+
+		List<Object[]> rows = reviewItems.setMaxResults(size + 1).getResultList();
+
+		boolean hasNext = rows.size() > size;
+
+		List<AccomodationReviewItemModel> content = new ArrayList<>(Math.min(rows.size(), size));
+
+		for (int i = 0; i < rows.size() && i < size; i++) {
+			content.add(reviewItemOf(rows.get(i)));
+		}
+
+		String nextCursor = null;
+
+		if (hasNext) {
+			AccomodationReviewItemModel last = content.get(content.size() - 1);
+			nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+		}
+
+		return new CursorSlice<AccomodationReviewItemModel>(content, content.size(), hasNext, nextCursor);
+	}
+
+	/**
+	 * Escribe en <code>out</code> las valoraciones que cumplen la condición
+	 * <code>filter</code> como un array JSON. Las filas se leen de un
+	 * <code>ResultSet</code> de solo avance que el driver de MySQL envía fila a
+	 * fila ({@link #streamFetchSize}), de modo que en memoria solo está la
+	 * valoración que se escribe.
+	 */
+	private void writeReviewItems(final String filter, final Object value, final OutputStream out)
+			throws IOException {
+		TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		readOnlyTransaction.setReadOnly(true);
+
+		try {
+			readOnlyTransaction.executeWithoutResult(status -> {
+				ScrollableResults rows = em
+						.createQuery(REVIEW_ITEMS_SELECT + "WHERE " + filter + " " + REVIEW_ITEMS_ORDER)
+						.unwrap(org.hibernate.query.Query.class).setParameter("value", value)
+						.setFetchSize(streamFetchSize).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+
+				try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+					// Un error a mitad no debe cerrar el array como si estuviera completo.
+					json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+					json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+					json.writeStartArray();
+
+					int written = 0;
+
+					while (rows.next()) {
+						json.writeObject(reviewItemOf(rows.get()));
+
+						if (++written % STREAM_FLUSH_ROWS == 0) {
+							json.flush();
+						}
+					}
+
+					json.writeEndArray();
+
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+
+				} finally {
+					rows.close();
+				}
+			});
+
+		} catch (UncheckedIOException e) {
+			log.error("No se han podido enviar todas las valoraciones: " + e.getMessage());
+			throw e.getCause();
+		}
+	}
+
+	private static AccomodationReviewItemModel reviewItemOf(final Object[] row) {
+		return new AccomodationReviewItemModel((Integer) row[0], (String) row[1], (String) row[2], (Integer) row[3],
+				(Integer) row[4], (String) row[5], (LocalDateTime) row[6]);
 	}
 
 	/**
@@ -247,19 +606,126 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 		// Validar número de registro de alojamiento.
 		validateParam(isStringNotBlank(regNumber), "El número de registro [ " + regNumber + " ] no es válido.");
 
-		// Comprobar si existe el alojamiento
-		validateParamNotFound(accomodationRepo.existsById(regNumber),
-				"No existe el alojamiento con número de registro " + regNumber);
+		// Comprobar si existe el alojamiento, salvo si tiene valoraciones
+		if (!ratingAggregates.hasRatings(regNumber)) {
+			validateParamNotFound(accomodationRepo.existsById(regNumber),
+					"No existe el alojamiento con número de registro " + regNumber);
+		}
 
-		String getAccomodationReviewAverageStars = "SELECT AVG(arm.stars) "
-				+ "FROM AccomodationReviewModel arm INNER JOIN arm.idAccomodation ac "
-				+ "WHERE ac.registerNumber = :regNumber";
+		return ratingAggregates.getAverageStars(regNumber);
+	}
+
+	/**
+	 * Resumen de las valoraciones de los alojamientos con números de registro
+	 * <code>regNumbers</code>, sin consultar la base de datos. Los alojamientos
+	 * sin valoraciones o que no existen aparecen sin valoraciones.
+	 * 
+	 * {@link #MAX_BULK_RATINGS}
+	 * 
+	 * @param regNumbers
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<AccomodationRatingModel> findAccomodationRatings(final List<String> regNumbers) {
+		// Validar números de registro de los alojamientos
+		validateBulkRegNumbers(regNumbers);
+
+		return ratingAggregates.findRatings(regNumbers);
+	}
+
+	/**
+	 * Número de valoraciones, media de estrellas y últimas valoraciones de los
+	 * alojamientos con números de registro <code>regNumbers</code>, en el mismo
+	 * orden y sin repetidos. Las medias se obtienen de memoria y las últimas
+	 * valoraciones de todos los alojamientos con una única consulta.
+	 * 
+	 * {@link #MAX_BULK_RATINGS} {@link #LATEST_ACCOMODATION_REVIEWS_LIMIT}
+	 * 
+	 * @param regNumbers
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public List<AccomodationReviewSummaryModel> findAccomodationReviewSummaries(final List<String> regNumbers) {
+		// Validar números de registro de los alojamientos
+		validateBulkRegNumbers(regNumbers);
 
-		TypedQuery<Double> starsAverage = em.createQuery(getAccomodationReviewAverageStars, Double.class);
+		Map<String, List<AccomodationReviewItemModel>> latestReviews = findLatestReviewItems(
+				new LinkedHashSet<>(regNumbers), LATEST_ACCOMODATION_REVIEWS_LIMIT);
 
-		starsAverage.setParameter("regNumber", regNumber);
+		List<AccomodationReviewSummaryModel> summaries = new ArrayList<>(latestReviews.size());
 
-		return starsAverage.getSingleResult();
+		for (AccomodationRatingModel rating : ratingAggregates.findRatings(regNumbers)) {
+			summaries.add(new AccomodationReviewSummaryModel(rating.getRegisterNumber(), rating.getNumOfReviews(),
+					rating.getAvgStars(), latestReviews.get(rating.getRegisterNumber())));
+		}
+
+		return summaries;
+	}
+
+	/**
+	 * Comprueba que se piden entre 1 y {@link #MAX_BULK_RATINGS} números de
+	 * registro válidos.
+	 */
+	private static void validateBulkRegNumbers(final List<String> regNumbers) {
+		validateParam(isNotNull(regNumbers) && !regNumbers.isEmpty() && regNumbers.size() <= MAX_BULK_RATINGS,
+				"Hay que indicar entre 1 y " + MAX_BULK_RATINGS + " números de registro.");
+
+		for (String regNumber : regNumbers) {
+			validateParam(isStringNotBlank(regNumber), "El número de registro [ " + regNumber + " ] no es válido.");
+		}
+	}
+
+	/**
+	 * Últimas <code>limit</code> valoraciones de cada alojamiento. Une con
+	 * <code>UNION ALL</code> una consulta por alojamiento, de modo que cada una
+	 * lee solo sus últimas valoraciones del índice ( ID_ACC , CREATED_AT , ID ).
+	 * 
+	 * @return Lista, quizá vacía, de cada alojamiento.
+	 */
+	private Map<String, List<AccomodationReviewItemModel>> findLatestReviewItems(final Collection<String> regNumbers,
+			final int limit) {
+		StringBuilder sql = new StringBuilder();
+
+		for (int i = 0; i < regNumbers.size(); i++) {
+			sql.append(i == 0 ? "" : " UNION ALL ")
+					.append("(SELECT ar.ID, ar.ID_ACC, ar.CONTENT, ar.STARS, ar.ID_USER, u.UNAME, ar.CREATED_AT ")
+					.append("FROM ACCOMODATION_REVIEW ar INNER JOIN APP_USER u ON u.ID = ar.ID_USER ")
+					.append("WHERE ar.ID_ACC = ? ORDER BY ar.CREATED_AT DESC, ar.ID DESC LIMIT ").append(limit)
+					.append(")");
+		}
+
+		Query latestReviewsQuery = em.createNativeQuery(sql.toString());
+		int position = 1;
+
+		for (String regNumber : regNumbers) {
+			latestReviewsQuery.setParameter(position++, regNumber);
+		}
+
+		Map<String, List<AccomodationReviewItemModel>> latestReviews = new HashMap<>();
+
+		for (String regNumber : regNumbers) {
+			latestReviews.put(regNumber, new ArrayList<>(limit));
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = latestReviewsQuery.getResultList();
+
+		for (Object[] row : rows) {
+			// La comparación de la base de datos no distingue mayúsculas.
+			List<AccomodationReviewItemModel> reviews = latestReviews.get((String) row[1]);
+
+			if (reviews != null) {
+				reviews.add(new AccomodationReviewItemModel(((Number) row[0]).intValue(), (String) row[1],
+						(String) row[2], row[3] != null ? ((Number) row[3]).intValue() : null,
+						((Number) row[4]).intValue(), (String) row[5],
+						row[6] != null ? ((Timestamp) row[6]).toLocalDateTime() : null));
+			}
+		}
+
+		return latestReviews;
 	}
 
 	/**
@@ -272,6 +738,7 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationReviewModel> findLatestAccomodationReviews(final String regNumber) {
 
@@ -291,6 +758,8 @@ public class AccomodationReviewServiceImpl implements IAccomodationReviewService
 
 		latestReviews.setParameter("regNumber", regNumber);
 
-		return latestReviews.setMaxResults(LATEST_ACCOMODATION_REVIEWS_LIMIT).getResultList();
+		return collectionsLoader.loadCollectionsOf(
+				latestReviews.setMaxResults(LATEST_ACCOMODATION_REVIEWS_LIMIT).getResultList(),
+				AccomodationReviewModel::getIdAccomodation);
 	}
 }
@@ -2,12 +2,29 @@ package com.hosting.rest.api.services.Accomodation.AccomodationReview;
 
 import java.util.List;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationRatingModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewItemModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewSummaryModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
 
 public interface IAccomodationReviewService {
 
 	public static final int LATEST_ACCOMODATION_REVIEWS_LIMIT = 4;
 
+	/**
+	 * Número máximo de alojamientos de los que se piden las valoraciones a la
+	 * vez.
+	 */
+	public static final int MAX_BULK_RATINGS = 100;
+
+	/**
+	 * Tamaño máximo de página de los listados de valoraciones por cursor.
+	 */
+	public static final int REVIEWS_LIMIT_RESULTS = 50;
+
 	public AccomodationReviewModel addNewAccomodationReview(final AccomodationReviewModel accomodationToAdd);
 
 	public AccomodationReviewModel findAccomodationById(final Integer accomodationReviewId);
@@ -23,8 +40,27 @@ public interface IAccomodationReviewService {
 	
 	public List<AccomodationReviewModel> findAllReceivedAccomodationReviewsByUserId(final Integer userId); // Valoraciones recibidas
 
+	public CursorSlice<AccomodationReviewItemModel> findAccomodationReviewsAfter(final String regNumber,
+			final String cursor, final Integer size);
+
+	public CursorSlice<AccomodationReviewItemModel> findSendAccomodationReviewsAfter(final Integer userId,
+			final String cursor, final Integer size);
+
+	public CursorSlice<AccomodationReviewItemModel> findReceivedAccomodationReviewsAfter(final Integer userId,
+			final String cursor, final Integer size);
+
+	public StreamingResponseBody streamAccomodationReviews(final String regNumber);
+
+	public StreamingResponseBody streamSendAccomodationReviews(final Integer userId);
+
+	public StreamingResponseBody streamReceivedAccomodationReviews(final Integer userId);
+
 	public Double getAccomodationReviewAverageStars(final String regNumber);
 
+	public List<AccomodationRatingModel> findAccomodationRatings(final List<String> regNumbers);
+
+	public List<AccomodationReviewSummaryModel> findAccomodationReviewSummaries(final List<String> regNumbers);
+
 	public List<AccomodationReviewModel> findLatestAccomodationReviews(final String regNumber);
 
 }
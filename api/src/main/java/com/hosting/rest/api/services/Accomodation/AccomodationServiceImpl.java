@@ -6,14 +6,22 @@ import static com.hosting.rest.api.Utils.AppUtils.isIntegerValidAndPositive;
 import static com.hosting.rest.api.Utils.AppUtils.isNotNull;
 import static com.hosting.rest.api.Utils.AppUtils.isStringNotBlank;
 import static com.hosting.rest.api.Utils.AppUtils.isValidGeographicCoordinate;
+import static com.hosting.rest.api.Utils.EntityGraphs.ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT;
+import static com.hosting.rest.api.Utils.EntityGraphs.LOAD_GRAPH_HINT;
 import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageNumber;
+import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageOffset;
 import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageSize;
 import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParam;
 import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParamNotFound;
+import static com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository.ACCOMODATION_CARD_SELECT;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.persistence.EntityManager;
@@ -21,22 +29,41 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationCityModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationCategoryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationLocationModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationImageModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.Utils.KeysetCursor;
 import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
 import com.hosting.rest.api.repositories.User.UserHost.IUserHostRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.AccomodationCityDirectory;
+import com.hosting.rest.api.services.Accomodation.Catalog.AccomodationColumnarCatalog;
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationTextIndex;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.AccomodationCityIndex;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.AccomodationGeoIndex;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.NearbySearchStrategyResolver;
+import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationRatingAggregates;
+import com.hosting.rest.api.services.Booking.Availability.BookingAvailabilityIndex;
 
 /**
  * 
@@ -58,6 +85,36 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	@Autowired
 	private IUserHostRepository userRepo;
 
+	@Autowired
+	private AccomodationGeoIndex geoIndex;
+
+	@Autowired
+	private AccomodationCityIndex cityIndex;
+
+	@Autowired
+	private AccomodationCityDirectory cityDirectory;
+
+	@Autowired
+	private AccomodationTextIndex textIndex;
+
+	@Autowired
+	private NearbySearchStrategyResolver nearbySearchStrategyResolver;
+
+	@Autowired
+	private AccomodationCollectionsLoader collectionsLoader;
+
+	@Autowired
+	private AccomodationCardsLoader cardsLoader;
+
+	@Autowired
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@Autowired
+	private AccomodationColumnarCatalog catalog;
+
+	@Autowired
+	private BookingAvailabilityIndex bookingAvailability;
+
 	/**
 	 * Registro de un nuevo alojamiento dentro de la aplicación.
 	 * 
@@ -80,7 +137,17 @@ public class AccomodationServiceImpl implements IAccomodationService {
 				"Ya se encuentra registrado un alojamiento con número de registro ["
 						+ accomodationModel.getRegisterNumber() + " ].");
 
-		return accomodationRepo.save(accomodationModel);
+		// Necesaria para el listado por cursor ( CREATED_AT , REG_NUM ).
+		if (!isNotNull(accomodationModel.getCreatedAt())) {
+			accomodationModel.setCreatedAt(LocalDateTime.now());
+		}
+
+		AccomodationModel newAccomodation = accomodationRepo.save(accomodationModel);
+
+		// Mantener sincronizado el índice geográfico
+		indexAccomodationLocation(newAccomodation);
+
+		return newAccomodation;
 	}
 
 	/**
@@ -91,13 +158,102 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public Page<AccomodationModel> findAllAccomodations(final Integer pageNumber, final Integer pageSize) {
 		// Comprobar que el número de página y el tamaño de esta son válidos.
 		checkPageNumber(pageNumber);
 		checkPageSize(pageSize);
 
-		return accomodationRepo.findAll(PageRequest.of(pageNumber, pageSize, Sort.by("createdAt").descending()));
+		Page<AccomodationModel> accomodations = accomodationRepo
+				.findAll(PageRequest.of(pageNumber, pageSize, Sort.by("createdAt").descending()));
+
+		collectionsLoader.loadCollections(accomodations.getContent());
+
+		return accomodations;
+	}
+
+	/**
+	 * Listado de todos los alojamientos a partir del cursor <code>cursor</code>,
+	 * del más reciente al más antiguo.
+	 * 
+	 * A diferencia de {@link #findAllAccomodations(Integer, Integer)} no se
+	 * calcula el total de alojamientos y el coste de cada página no depende de su
+	 * posición.
+	 * 
+	 * @param cursor Cursor devuelto en la página anterior. Vacío para la primera
+	 *               página.
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public CursorSlice<AccomodationModel> findAllAccomodationsAfter(final String cursor, final Integer size) {
+		TypedQuery<AccomodationModel> accomodations = createKeysetQuery("SELECT am FROM AccomodationModel am ",
+				AccomodationModel.class, cursor, size);
+
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
+
+		List<AccomodationModel> content = accomodations.getResultList();
+
+		boolean hasNext = content.size() > size;
+
+		if (hasNext) {
+			content = new ArrayList<>(content.subList(0, size));
+		}
+
+		collectionsLoader.loadCollections(content);
+
+		String nextCursor = null;
+
+		if (hasNext) {
+			AccomodationModel last = content.get(content.size() - 1);
+			nextCursor = new KeysetCursor(last.getCreatedAt(), last.getRegisterNumber()).encode();
+		}
+
+		return new CursorSlice<AccomodationModel>(content, content.size(), hasNext, nextCursor);
+	}
+
+	/**
+	 * Consulta ordenada por ( CREATED_AT , REG_NUM ) descendente que empieza
+	 * después del cursor <code>cursor</code>. Obtiene un elemento más de los
+	 * pedidos para saber si existe una página siguiente.
+	 * 
+	 * @param select    SELECT y FROM de la consulta. El alias del alojamiento debe
+	 *                  ser <code>am</code>.
+	 * @param resultType
+	 * @param cursor
+	 * @param size
+	 * 
+	 * @return
+	 */
+	private <T> TypedQuery<T> createKeysetQuery(final String select, final Class<T> resultType, final String cursor,
+			final Integer size) {
+		checkPageSize(size);
+
+		validateParam(size <= ACCOMODATION_LIMIT_RESULTS,
+				"El tamaño de página no puede ser mayor que " + ACCOMODATION_LIMIT_RESULTS);
+
+		KeysetCursor keysetCursor = isNotNull(cursor) && isStringNotBlank(cursor) ? KeysetCursor.decode(cursor) : null;
+
+		String keysetQuery = select;
+
+		if (keysetCursor != null) {
+			keysetQuery += "WHERE am.createdAt < :createdAt "
+					+ "OR (am.createdAt = :createdAt AND am.registerNumber < :regNumber) ";
+		}
+
+		keysetQuery += "ORDER BY am.createdAt DESC, am.registerNumber DESC";
+
+		TypedQuery<T> query = em.createQuery(keysetQuery, resultType);
+
+		if (keysetCursor != null) {
+			query.setParameter("createdAt", keysetCursor.getCreatedAt());
+			query.setParameter("regNumber", keysetCursor.getKey());
+		}
+
+		return query.setMaxResults(size + 1);
 	}
 
 	/**
@@ -109,12 +265,13 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public AccomodationModel getAccomodationById(final String regNumber) {
 		// Validar número de registro del alojamiento.
 		validateParam(isStringNotBlank(regNumber), "El número de registro está vacío.");
 
-		return accomodationRepo.findById(regNumber).orElse(null);
+		return collectionsLoader.loadCollections(accomodationRepo.findById(regNumber).orElse(null));
 	}
 
 	/**
@@ -137,9 +294,36 @@ public class AccomodationServiceImpl implements IAccomodationService {
 
 		accomodationRepo.deleteById(regNumber);
 
+		afterCommit(() -> {
+			geoIndex.remove(regNumber);
+			cityIndex.removeAccomodation(regNumber);
+			cityDirectory.remove(regNumber);
+			textIndex.remove(regNumber);
+			catalog.remove(regNumber);
+			ratingAggregates.remove(regNumber);
+			bookingAvailability.evict(regNumber);
+		});
+
 		return "Alojamiento con número de registro [ " + regNumber + " ] eliminado correctamente";
 	}
 
+	/**
+	 * Recarga desde la base de datos el catálogo de alojamientos en memoria
+	 * {@link AccomodationColumnarCatalog}.
+	 * 
+	 * @return
+	 */
+	@Override
+	public String reloadAccomodationCatalog() {
+		// Comprobar que el catálogo está activado
+		validateParam(catalog.isEnabled(),
+				"El catálogo en memoria no está activado ( booking.accomodations.catalog.enabled ).");
+
+		catalog.rebuild();
+
+		return "Catálogo de alojamientos recargado con [ " + catalog.size() + " ] alojamientos.";
+	}
+
 	/**
 	 * Listado de los alojamientos de la ciudad <code>cityToSearch</code>.
 	 * 
@@ -149,6 +333,7 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public Page<AccomodationModel> findByCity(final String cityToSearch, final Integer pageNumber, final Integer size) {
 		// Validar ciudad
@@ -158,28 +343,51 @@ public class AccomodationServiceImpl implements IAccomodationService {
 		checkPageNumber(pageNumber);
 		checkPageSize(size);
 
-		String listAccomodationsByCityQuery = "SELECT ac "
-				+ "FROM AccomodationModel ac INNER JOIN ac.idAccomodationLocation al " + "WHERE LOWER(al.city) "
-				+ "LIKE LOWER(:city)";
+		String cityKey = CityKeys.normalize(cityToSearch);
+
+		String listAccomodationsByCityQuery = "SELECT am "
+				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al " + "WHERE al.cityKey = :cityKey "
+				+ "ORDER BY am.createdAt DESC, am.registerNumber DESC";
 
 		TypedQuery<AccomodationModel> accomodations = em.createQuery(listAccomodationsByCityQuery,
 				AccomodationModel.class);
 
-		accomodations.setParameter("city", cityToSearch);
+		accomodations.setParameter("cityKey", cityKey);
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
 
-		// Número de alojamientos a mostrar
+		// Página a mostrar
+		accomodations.setFirstResult(checkPageOffset(pageNumber, size));
 		accomodations.setMaxResults(size);
 
-		return new PageImpl<AccomodationModel>(accomodations.getResultList());
+		List<AccomodationModel> content = collectionsLoader.loadCollections(accomodations.getResultList());
+
+		// El total solo se consulta cuando no se puede deducir de la página obtenida.
+		return PageableExecutionUtils.getPage(content, PageRequest.of(pageNumber, size),
+				() -> countAccomodationsByCityKey(cityKey));
+	}
+
+	/**
+	 * Número de alojamientos de la ciudad con clave normalizada
+	 * <code>cityKey</code>.
+	 * 
+	 * @param cityKey
+	 * 
+	 * @return
+	 */
+	private long countAccomodationsByCityKey(final String cityKey) {
+		return em.createQuery("SELECT COUNT(am) FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al "
+				+ "WHERE al.cityKey = :cityKey", Long.class).setParameter("cityKey", cityKey).getSingleResult();
 	}
 
 	/**
 	 * Listado de alojamientos cercanos a unas coordenadas [ <code>lat</code> ,
-	 * <code>lng</code> ]
+	 * <code>lng</code> ], ordenados del más cercano al más lejano.
 	 * 
 	 * Se especifica el radio de búsqueda en el parámetro <code>distance</code>.
 	 * 
-	 * Para realizar el cálculo se utiliza la fórmula de Haversine.
+	 * Los candidatos se obtienen con la estrategia configurada en
+	 * <code>booking.accomodations.nearby.strategy</code>. Por defecto se utiliza
+	 * el índice geográfico en memoria {@link AccomodationGeoIndex}.
 	 * 
 	 * {@link #ACCOMODATION_LIMIT_RESULTS}
 	 * 
@@ -189,6 +397,7 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findByNearby(final BigDecimal lat, final BigDecimal lng, final double distance) {
 		// Validar latitud
@@ -200,18 +409,101 @@ public class AccomodationServiceImpl implements IAccomodationService {
 		// Validar radio búsqueda
 		validateParam(isDoubleValidAndPositive(distance), "La distancia introducida no es válida.");
 
-		String findByNearbyLocationQuery = "SELECT am "
-				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation acloc " + "WHERE " + HAVERSINE_FORMULA
-				+ " < :distance" + " ORDER BY " + HAVERSINE_FORMULA + " DESC";
+		List<String> nearestRegNumbers = nearbySearchStrategyResolver.getStrategy()
+				.findNearestRegNumbers(lat.doubleValue(), lng.doubleValue(), distance, ACCOMODATION_LIMIT_RESULTS);
 
-		TypedQuery<AccomodationModel> accomodations = em.createQuery(findByNearbyLocationQuery,
-				AccomodationModel.class);
+		return collectionsLoader.loadCollections(findAllByRegNumbersKeepingOrder(nearestRegNumbers));
+	}
+
+	/**
+	 * Obtiene los alojamientos con los números de registro
+	 * <code>regNumbers</code> respetando el orden de la lista.
+	 * 
+	 * @param regNumbers
+	 * 
+	 * @return
+	 */
+	private List<AccomodationModel> findAllByRegNumbersKeepingOrder(final List<String> regNumbers) {
+		if (regNumbers.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<String, AccomodationModel> accomodationsByRegNumber = new HashMap<>();
+
+		for (AccomodationModel accomodation : accomodationRepo.findAllById(regNumbers)) {
+			accomodationsByRegNumber.put(accomodation.getRegisterNumber(), accomodation);
+		}
+
+		List<AccomodationModel> accomodations = new ArrayList<>(regNumbers.size());
+
+		for (String regNumber : regNumbers) {
+			AccomodationModel accomodation = accomodationsByRegNumber.get(regNumber);
+
+			if (accomodation != null) {
+				accomodations.add(accomodation);
+			}
+		}
+
+		return accomodations;
+	}
+
+	/**
+	 * Añade o actualiza en el índice geográfico, en el índice de ciudades, en el
+	 * directorio de ciudades, en el índice de texto y en el catálogo el
+	 * alojamiento <code>accomodation</code>, cuando se confirme la transacción
+	 * en curso.
+	 * 
+	 * @param accomodation
+	 */
+	private void indexAccomodationLocation(final AccomodationModel accomodation) {
+		String regNumber = accomodation.getRegisterNumber();
+		AccomodationLocationModel location = accomodation.getIdAccomodationLocation();
+
+		// La ubicación puede venir referenciada únicamente por su id.
+		if (isNotNull(location) && (!isNotNull(location.getLatitude()) || !isNotNull(location.getLongitude())
+				|| !isNotNull(location.getCity()))) {
+			location = location.getId() > 0 ? em.find(AccomodationLocationModel.class, location.getId()) : null;
+		}
 
-		accomodations.setParameter("latitude", lat);
-		accomodations.setParameter("longitude", lng);
-		accomodations.setParameter("distance", distance);
+		final AccomodationLocationModel indexedLocation = location;
+
+		afterCommit(() -> {
+			if (!isNotNull(indexedLocation)) {
+				geoIndex.remove(regNumber);
+				cityIndex.removeAccomodation(regNumber);
+				cityDirectory.remove(regNumber);
+				textIndex.put(regNumber, accomodation.getDescription(), null, null);
+
+			} else {
+				geoIndex.put(regNumber, indexedLocation.getLatitude(), indexedLocation.getLongitude());
+				cityIndex.putAccomodation(regNumber, indexedLocation.getCity());
+				cityDirectory.put(regNumber, indexedLocation.getCity(), indexedLocation.getLatitude(),
+						indexedLocation.getLongitude());
+				textIndex.put(regNumber, accomodation.getDescription(), indexedLocation.getDirection(),
+						indexedLocation.getCity());
+			}
+
+			catalog.put(accomodation);
+		});
+	}
 
-		return accomodations.setMaxResults(ACCOMODATION_LIMIT_RESULTS).getResultList();
+	/**
+	 * Ejecuta <code>indexUpdate</code> cuando se confirme la transacción en
+	 * curso, o en el momento si no hay transacción, de modo que los índices en
+	 * memoria no reflejen cambios que se deshacen.
+	 */
+	private static void afterCommit(final Runnable indexUpdate) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					indexUpdate.run();
+				}
+			});
+
+		} else {
+			indexUpdate.run();
+		}
 	}
 
 	/**
@@ -266,7 +558,11 @@ public class AccomodationServiceImpl implements IAccomodationService {
 			originalAccomodation.setIdUserHost(accomodationToUpdate.getIdUserHost());
 		}
 
-		return accomodationRepo.save(originalAccomodation);
+		AccomodationModel updatedAccomodation = accomodationRepo.save(originalAccomodation);
+
+		indexAccomodationLocation(updatedAccomodation);
+
+		return updatedAccomodation;
 	}
 
 	/**
@@ -277,11 +573,20 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findByCategory(final String accomodationCategory) {
 		// Validar categoria
 		validateParam(isStringNotBlank(accomodationCategory), "La categoría introducida está vacía o no es válida.");
 
+		if (catalog.isAvailable()) {
+			List<String> regNumbers = catalog.findByCategory(accomodationCategory);
+
+			if (regNumbers != null) {
+				return collectionsLoader.loadCollections(findAllByRegNumbersKeepingOrder(regNumbers));
+			}
+		}
+
 		String findByAccomodationCategoryQuery = "SELECT am "
 				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationCategory acc "
 				+ "WHERE acc.accomodationCategory = :category";
@@ -290,8 +595,9 @@ public class AccomodationServiceImpl implements IAccomodationService {
 				AccomodationModel.class);
 
 		accomodations.setParameter("category", accomodationCategory);
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
 
-		return accomodations.getResultList();
+		return collectionsLoader.loadCollections(accomodations.getResultList());
 	}
 
 	/**
@@ -303,6 +609,7 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findByPriceRange(final BigDecimal minPrice, final BigDecimal maxPrice) {
 		// Validar precio mínimo.
@@ -311,6 +618,11 @@ public class AccomodationServiceImpl implements IAccomodationService {
 		// Validar precio máximo.
 		validateParam(isBigDecimalValid(maxPrice), "El precio máximo introducido no es válido.");
 
+		if (catalog.isAvailable()) {
+			return collectionsLoader
+					.loadCollections(findAllByRegNumbersKeepingOrder(catalog.findByPriceRange(minPrice, maxPrice)));
+		}
+
 		String findByAccomodationCategoryQuery = "SELECT am " + "FROM AccomodationModel am "
 				+ "WHERE am.pricePerNight BETWEEN :minPrice and :maxPrice " + "ORDER BY am.pricePerNight DESC";
 
@@ -319,8 +631,9 @@ public class AccomodationServiceImpl implements IAccomodationService {
 
 		accomodations.setParameter("minPrice", minPrice);
 		accomodations.setParameter("maxPrice", maxPrice);
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
 
-		return accomodations.getResultList();
+		return collectionsLoader.loadCollections(accomodations.getResultList());
 	}
 
 	/**
@@ -333,6 +646,7 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findNAccomodations(final Integer maxNumberOfAccomodations) {
 		// Validar número máximo de alojamientos a mostrar.
@@ -343,8 +657,9 @@ public class AccomodationServiceImpl implements IAccomodationService {
 				AccomodationModel.class);
 
 		accomodations.setMaxResults(maxNumberOfAccomodations);
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
 
-		return accomodations.getResultList();
+		return collectionsLoader.loadCollections(accomodations.getResultList());
 	}
 
 	/**
@@ -354,6 +669,7 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findByUserId(final Integer userId) {
 		// Validar id de usuario
@@ -366,8 +682,10 @@ public class AccomodationServiceImpl implements IAccomodationService {
 				"SELECT am FROM AccomodationModel am WHERE am.idUserHost.id = :userId", AccomodationModel.class);
 
 		accomodationsByUserId.setParameter("userId", userId);
+		accomodationsByUserId.setHint(LOAD_GRAPH_HINT,
+				em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
 
-		return accomodationsByUserId.getResultList();
+		return collectionsLoader.loadCollections(accomodationsByUserId.getResultList());
 	}
 
 	@Transactional
@@ -420,20 +738,36 @@ public class AccomodationServiceImpl implements IAccomodationService {
 		em.createNativeQuery("INSERT INTO ACCOMODATION_ACC_IMAGE(ID_ACC, ID_ACC_IMAGE) VALUES(:regNumber, :imgId)")
 				.setParameter("regNumber", regNumber).setParameter("imgId", lastImageId).executeUpdate();
 
-		return accomodationRepo.findById(regNumber).get();
+		return collectionsLoader.loadCollections(accomodationRepo.findById(regNumber).get());
 	}
 
 	/**
 	 * Listado de todas las ciudades donde se han publicado alojamientos en la app.
+	 * Se obtiene del directorio en memoria {@link AccomodationCityDirectory}.
 	 */
 	@Override
 	public List<String> findAllAccomodationCities() {
-		String getAccomodationCitiesQuery = "SELECT DISTINCT al.city "
-				+ "FROM AccomodationModel am INNER JOIN am.idAccomodationLocation al";
+		return cityDirectory.getCityNames();
+	}
 
-		TypedQuery<String> citiesToReturn = em.createQuery(getAccomodationCitiesQuery, String.class);
+	/**
+	 * Listado de todas las ciudades donde se han publicado alojamientos en la app,
+	 * con su número de alojamientos y el rectángulo de coordenadas que los
+	 * contiene.
+	 */
+	@Override
+	public List<AccomodationCityModel> findAccomodationCityDirectory() {
+		return cityDirectory.getCities();
+	}
 
-		return citiesToReturn.getResultList();
+	/**
+	 * ETag de los listados de ciudades. Debe obtenerse antes que el listado para
+	 * que, si cambia entre medias, el cliente no guarde un listado antiguo con un
+	 * ETag nuevo.
+	 */
+	@Override
+	public String getAccomodationCitiesETag() {
+		return cityDirectory.getETag();
 	}
 
 	/**
@@ -446,16 +780,49 @@ public class AccomodationServiceImpl implements IAccomodationService {
 	 * <li>Número de habitaciones</li>
 	 * <li>Número de baños</li>
 	 * <li>Número de huéspedes</li>
+	 * </ul>
+	 * 
+	 * Devuelve como mucho {@link #ACCOMODATION_LIMIT_RESULTS} alojamientos, los
+	 * más recientes. Para paginar, ordenar o filtrar por más criterios se usa
+	 * {@link com.hosting.rest.api.services.Accomodation.Search.AccomodationSearchServiceImpl}.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<AccomodationModel> findAllByMultipleFilters(final Optional<BigDecimal> minPrice,
 			final Optional<BigDecimal> maxPrice, final Optional<Integer> beds, final Optional<Integer> bedrooms,
 			final Optional<Integer> bathrooms, final Optional<Integer> guests) {
+		if (catalog.isAvailable()) {
+			return collectionsLoader.loadCollections(findAllByRegNumbersKeepingOrder(catalog.findByFilters(minPrice,
+					maxPrice, beds, bedrooms, bathrooms, guests, ACCOMODATION_LIMIT_RESULTS)));
+		}
+
 		CriteriaBuilder builder = em.getCriteriaBuilder();
 		CriteriaQuery<AccomodationModel> query = builder.createQuery(AccomodationModel.class);
 
 		Root<AccomodationModel> root = query.from(AccomodationModel.class);
 
+		List<Predicate> predicates = buildFilterPredicates(builder, root, minPrice, maxPrice, beds, bedrooms,
+				bathrooms, guests);
+
+		query.where(builder.and(predicates.toArray(new Predicate[0])));
+		query.orderBy(builder.desc(root.get("createdAt")), builder.desc(root.get("registerNumber")));
+
+		TypedQuery<AccomodationModel> accomodations = em.createQuery(query.select(root));
+		accomodations.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(ENTITY_GRAPH_ACCOMODATION_WITHOUT_USER_HOST_CONTENT));
+		accomodations.setMaxResults(ACCOMODATION_LIMIT_RESULTS);
+
+		return collectionsLoader.loadCollections(accomodations.getResultList());
+	}
+
+	/**
+	 * Filtros de {@link #findAllByMultipleFilters} sobre la raíz
+	 * <code>root</code>.
+	 * 
+	 * @return
+	 */
+	private List<Predicate> buildFilterPredicates(final CriteriaBuilder builder, final Root<AccomodationModel> root,
+			final Optional<BigDecimal> minPrice, final Optional<BigDecimal> maxPrice, final Optional<Integer> beds,
+			final Optional<Integer> bedrooms, final Optional<Integer> bathrooms, final Optional<Integer> guests) {
 		List<Predicate> predicates = new ArrayList<>();
 
 		// Rango de precios [min, max]
@@ -490,14 +857,13 @@ public class AccomodationServiceImpl implements IAccomodationService {
 			predicates.add(builder.greaterThanOrEqualTo(root.get("numOfGuests"), guests.get()));
 		}
 
-		query.where(builder.and(predicates.toArray(new Predicate[0])));
-
-		return em.createQuery(query.select(root)).getResultList();
+		return predicates;
 	}
 
 	/**
-	 * Listado de todos los alojamientos cuya ciudad contiene el criterio de
-	 * búsqueda.
+	 * Ciudades con alguna palabra que empieza por el criterio de búsqueda, sin
+	 * distinguir mayúsculas ni acentos. Se resuelve con el índice en memoria
+	 * {@link AccomodationCityIndex}, sin consultar la base de datos.
 	 * 
 	 * @param match
 	 * 
@@ -509,13 +875,168 @@ public class AccomodationServiceImpl implements IAccomodationService {
 		// Validar criterio búsqueda
 		validateParam(isStringNotBlank(match), "Introduce una ciudad a buscar");
 
-//		String findCityNatchQuery = "SELECT am FROM AccomodationModel am INNER JOIN am.idAccomodationLocation alm WHERE aml.city LIKE %:match% ";
-//
-//		TypedQuery<AccomodationModel> accomodations = em.createQuery(findCityNatchQuery, AccomodationModel.class);
-//
-//		accomodations.setParameter("match", match);
+		return cityIndex.findByPrefix(match);
+	}
+
+	/**
+	 * Listado paginado de todos los alojamientos en formato tarjeta.
+	 * 
+	 * @see #findAllAccomodations(Integer, Integer)
+	 * 
+	 * @param pageNumber
+	 * @param pageSize
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Page<AccomodationCardModel> findAllAccomodationCards(final Integer pageNumber, final Integer pageSize) {
+		// Comprobar que el número de página y el tamaño de esta son válidos.
+		checkPageNumber(pageNumber);
+		checkPageSize(pageSize);
+
+		Page<AccomodationCardModel> cards = accomodationRepo
+				.findAllCards(PageRequest.of(pageNumber, pageSize, Sort.by("createdAt").descending()));
+
+		cardsLoader.loadImagesAndRatings(cards.getContent());
+
+		return cards;
+	}
+
+	/**
+	 * Listado por cursor de todos los alojamientos en formato tarjeta.
+	 * 
+	 * @see #findAllAccomodationsAfter(String, Integer)
+	 * 
+	 * @param cursor
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public CursorSlice<AccomodationCardModel> findAllAccomodationCardsAfter(final String cursor,
+			final Integer size) {
+		List<AccomodationCardModel> content = createKeysetQuery(ACCOMODATION_CARD_SELECT, AccomodationCardModel.class,
+				cursor, size).getResultList();
+
+		boolean hasNext = content.size() > size;
+
+		if (hasNext) {
+			content = new ArrayList<>(content.subList(0, size));
+		}
+
+		cardsLoader.loadImagesAndRatings(content);
+
+		String nextCursor = null;
 
-		return accomodationRepo.findBySearchCriteria(match);
+		if (hasNext) {
+			AccomodationCardModel last = content.get(content.size() - 1);
+			nextCursor = new KeysetCursor(last.getCreatedAt(), last.getRegisterNumber()).encode();
+		}
+
+		return new CursorSlice<AccomodationCardModel>(content, content.size(), hasNext, nextCursor);
 	}
 
+	/**
+	 * Listado de los alojamientos de la ciudad <code>cityToSearch</code> en
+	 * formato tarjeta.
+	 * 
+	 * @see #findByCity(String, Integer, Integer)
+	 * 
+	 * @param cityToSearch
+	 * @param pageNumber
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public Page<AccomodationCardModel> findCardsByCity(final String cityToSearch, final Integer pageNumber,
+			final Integer size) {
+		// Validar ciudad
+		validateParam(isStringNotBlank(cityToSearch), "El valor [ " + cityToSearch + " ] está vacío o no es válido.");
+
+		// Comprobar que el número de página y el tamaño de esta son válidos.
+		checkPageNumber(pageNumber);
+		checkPageSize(size);
+
+		Page<AccomodationCardModel> cards = accomodationRepo.findCardsByCityKey(CityKeys.normalize(cityToSearch),
+				PageRequest.of(pageNumber, size, Sort.by(Sort.Direction.DESC, "createdAt", "registerNumber")));
+
+		cardsLoader.loadImagesAndRatings(cards.getContent());
+
+		return cards;
+	}
+
+	/**
+	 * Listado de alojamientos de la categoría <code>accomodationCategory</code> en
+	 * formato tarjeta.
+	 * 
+	 * @param accomodationCategory
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public List<AccomodationCardModel> findCardsByCategory(final String accomodationCategory) {
+		// Validar categoria
+		validateParam(isStringNotBlank(accomodationCategory), "La categoría introducida está vacía o no es válida.");
+
+		return cardsLoader.loadImagesAndRatings(accomodationRepo.findCardsByCategory(accomodationCategory));
+	}
+
+	/**
+	 * Listado de alojamientos con precio entre <code>minPrice</code> y
+	 * <code>maxPrice</code> en formato tarjeta.
+	 * 
+	 * @param minPrice
+	 * @param maxPrice
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public List<AccomodationCardModel> findCardsByPriceRange(final BigDecimal minPrice, final BigDecimal maxPrice) {
+		// Validar precio mínimo.
+		validateParam(isBigDecimalValid(minPrice), "El precio mínimo introducido no es válido.");
+
+		// Validar precio máximo.
+		validateParam(isBigDecimalValid(maxPrice), "El precio máximo introducido no es válido.");
+
+		return cardsLoader.loadImagesAndRatings(accomodationRepo.findCardsByPriceRange(minPrice, maxPrice));
+	}
+
+	/**
+	 * Listado filtrado de los alojamientos en formato tarjeta.
+	 * 
+	 * @see #findAllByMultipleFilters
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public List<AccomodationCardModel> findCardsByMultipleFilters(final Optional<BigDecimal> minPrice,
+			final Optional<BigDecimal> maxPrice, final Optional<Integer> beds, final Optional<Integer> bedrooms,
+			final Optional<Integer> bathrooms, final Optional<Integer> guests) {
+		CriteriaBuilder builder = em.getCriteriaBuilder();
+		CriteriaQuery<AccomodationCardModel> query = builder.createQuery(AccomodationCardModel.class);
+
+		Root<AccomodationModel> root = query.from(AccomodationModel.class);
+		Join<AccomodationModel, AccomodationLocationModel> location = root.join("idAccomodationLocation",
+				JoinType.LEFT);
+		Join<AccomodationModel, AccomodationCategoryModel> category = root.join("idAccomodationCategory",
+				JoinType.LEFT);
+
+		query.select(builder.construct(AccomodationCardModel.class, root.get("registerNumber"),
+				root.get("pricePerNight"), location.get("city"), root.get("numOfBeds"), root.get("numOfGuests"),
+				category.get("accomodationCategory"), root.get("createdAt")));
+
+		List<Predicate> predicates = buildFilterPredicates(builder, root, minPrice, maxPrice, beds, bedrooms,
+				bathrooms, guests);
+
+		query.where(builder.and(predicates.toArray(new Predicate[0])));
+		query.orderBy(builder.desc(root.get("createdAt")), builder.desc(root.get("registerNumber")));
+
+		return cardsLoader.loadImagesAndRatings(
+				em.createQuery(query).setMaxResults(ACCOMODATION_LIMIT_RESULTS).getResultList());
+	}
 }
@@ -0,0 +1,566 @@
+package com.hosting.rest.api.services.Accomodation.Catalog;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCategoryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Catálogo de alojamientos en memoria organizado por columnas, para
+ *          resolver los filtros sin consultar la base de datos.
+ *
+ *          Cada alojamiento ocupa una fila de los arrays de columnas (camas,
+ *          huéspedes, habitaciones, baños, precio, categoría y fecha de
+ *          creación). Cada columna filtrable tiene un {@link BitSetValueIndex}
+ *          y los filtros se combinan con operaciones AND sobre
+ *          {@link BitSet}. Solo se devuelven los números de registro; los
+ *          alojamientos se cargan después por clave primaria.
+ *
+ *          Se activa con <code>booking.accomodations.catalog.enabled</code>. Se
+ *          carga al arrancar la aplicación, se mantiene desde las operaciones de
+ *          escritura del servicio de alojamientos y puede recargarse con
+ *          {@link #rebuild()}. Los cambios que llegan mientras se recarga se
+ *          aplican también sobre el catálogo recargado.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationColumnarCatalog {
+
+	/**
+	 * Decimales de la columna PRICE_PER_NIGHT. Los precios se guardan como
+	 * enteros en esa escala para comparar sin perder precisión.
+	 */
+	private static final int PRICE_SCALE = 4;
+
+	private static final int NULL_VALUE = Integer.MIN_VALUE;
+
+	private static final long NULL_PRICE = Long.MIN_VALUE;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final BigInteger MIN_PRICE = BigInteger.valueOf(Long.MIN_VALUE + 1);
+
+	private static final BigInteger MAX_PRICE = BigInteger.valueOf(Long.MAX_VALUE);
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final boolean enabled;
+
+	private volatile boolean loaded;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/*
+	 * Columnas
+	 */
+	private String[] regNumbers = new String[INITIAL_CAPACITY];
+	private int[] beds = new int[INITIAL_CAPACITY];
+	private int[] guests = new int[INITIAL_CAPACITY];
+	private int[] bedrooms = new int[INITIAL_CAPACITY];
+	private int[] bathrooms = new int[INITIAL_CAPACITY];
+	private int[] categoryIds = new int[INITIAL_CAPACITY];
+	private long[] prices = new long[INITIAL_CAPACITY];
+	private long[] createdAt = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Número de filas utilizadas, incluidas las eliminadas.
+	 */
+	private int rowCount;
+
+	/**
+	 * Filas con un alojamiento. Las filas eliminadas se reutilizan.
+	 */
+	private final BitSet liveRows = new BitSet();
+
+	private final Map<String, Integer> rowsByRegNumber = new HashMap<>();
+
+	private final Map<String, Integer> categoryIdsByName = new HashMap<>();
+
+	/**
+	 * Cambios recibidos durante la recarga en curso, o <code>null</code> si no
+	 * se está recargando.
+	 */
+	private List<Runnable> changesDuringRebuild;
+
+	/*
+	 * Índices
+	 */
+	private final BitSetValueIndex bedsIndex = new BitSetValueIndex();
+	private final BitSetValueIndex guestsIndex = new BitSetValueIndex();
+	private final BitSetValueIndex bedroomsIndex = new BitSetValueIndex();
+	private final BitSetValueIndex bathroomsIndex = new BitSetValueIndex();
+	private final BitSetValueIndex categoryIndex = new BitSetValueIndex();
+	private final BitSetValueIndex priceIndex = new BitSetValueIndex();
+
+	public AccomodationColumnarCatalog(
+			@Value("${booking.accomodations.catalog.enabled:false}") final boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return true si el catálogo está activado y cargado.
+	 */
+	public boolean isAvailable() {
+		return enabled && loaded;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Carga el catálogo con todos los alojamientos. Se ejecuta al arrancar la
+	 * aplicación y puede volver a lanzarse para descartar el contenido actual.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			changesDuringRebuild = new ArrayList<>();
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		try {
+			load();
+
+		} finally {
+			lock.writeLock().lock();
+
+			try {
+				changesDuringRebuild = null;
+
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Lee los alojamientos de la base de datos sin bloquear el catálogo y lo
+	 * sustituye, aplicando después los cambios recibidos durante la lectura.
+	 */
+	private void load() {
+		List<Object[]> categories = em
+				.createQuery("SELECT acc.id, acc.accomodationCategory FROM AccomodationCategoryModel acc",
+						Object[].class)
+				.getResultList();
+
+		List<Object[]> accomodations = em.createQuery("SELECT am.registerNumber, am.numOfBeds, am.numOfGuests, "
+				+ "am.numOfBedRooms, am.numOfBathRooms, am.pricePerNight, acc.id, am.createdAt "
+				+ "FROM AccomodationModel am LEFT JOIN am.idAccomodationCategory acc", Object[].class)
+				.getResultList();
+
+		lock.writeLock().lock();
+
+		try {
+			clear();
+
+			for (Object[] category : categories) {
+				registerCategory((Integer) category[0], (String) category[1]);
+			}
+
+			for (Object[] accomodation : accomodations) {
+				addRow((String) accomodation[0], (Integer) accomodation[1], (Integer) accomodation[2],
+						(Integer) accomodation[3], (Integer) accomodation[4], (BigDecimal) accomodation[5],
+						(Integer) accomodation[6], (LocalDateTime) accomodation[7]);
+			}
+
+			for (Runnable change : changesDuringRebuild) {
+				change.run();
+			}
+
+			loaded = true;
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Catálogo de alojamientos en memoria cargado con {} alojamientos.", accomodations.size());
+	}
+
+	/**
+	 * @return Número de alojamientos del catálogo.
+	 */
+	public int size() {
+		lock.readLock().lock();
+
+		try {
+			return rowsByRegNumber.size();
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Añade o actualiza el alojamiento <code>accomodation</code>.
+	 *
+	 * @param accomodation
+	 */
+	public void put(final AccomodationModel accomodation) {
+		if (!enabled || accomodation == null || accomodation.getRegisterNumber() == null) {
+			return;
+		}
+
+		AccomodationCategoryModel category = accomodation.getIdAccomodationCategory();
+		String regNumber = accomodation.getRegisterNumber();
+		Integer categoryId = category != null ? category.getId() : null;
+		String categoryName = category != null ? category.getAccomodationCategory() : null;
+		Integer numOfBeds = accomodation.getNumOfBeds();
+		Integer numOfGuests = accomodation.getNumOfGuests();
+		Integer numOfBedRooms = accomodation.getNumOfBedRooms();
+		Integer numOfBathRooms = accomodation.getNumOfBathRooms();
+		BigDecimal pricePerNight = accomodation.getPricePerNight();
+		LocalDateTime creationDate = accomodation.getCreatedAt();
+
+		apply(() -> {
+			registerCategory(categoryId, categoryName);
+
+			removeRow(regNumber);
+			addRow(regNumber, numOfBeds, numOfGuests, numOfBedRooms, numOfBathRooms, pricePerNight, categoryId,
+					creationDate);
+		});
+	}
+
+	/**
+	 * Elimina del catálogo el alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public void remove(final String regNumber) {
+		if (!enabled) {
+			return;
+		}
+
+		apply(() -> removeRow(regNumber));
+	}
+
+	/**
+	 * Aplica el cambio <code>change</code> y, si se está recargando el catálogo,
+	 * lo guarda para aplicarlo también sobre el catálogo recargado.
+	 */
+	private void apply(final Runnable change) {
+		lock.writeLock().lock();
+
+		try {
+			change.run();
+
+			if (changesDuringRebuild != null) {
+				changesDuringRebuild.add(change);
+			}
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Alojamientos que cumplen los filtros, con la misma semántica que
+	 * {@link com.hosting.rest.api.services.Accomodation.AccomodationServiceImpl#findAllByMultipleFilters}.
+	 * Se ordenan de más reciente a más antiguo.
+	 *
+	 * @return Como mucho <code>maxResults</code> números de registro.
+	 */
+	public List<String> findByFilters(final Optional<BigDecimal> minPrice, final Optional<BigDecimal> maxPrice,
+			final Optional<Integer> beds, final Optional<Integer> bedrooms, final Optional<Integer> bathrooms,
+			final Optional<Integer> guests, final int maxResults) {
+		lock.readLock().lock();
+
+		try {
+			BitSet rows = (BitSet) liveRows.clone();
+
+			// Rango de precios [min, max]
+			if (minPrice.isPresent() && maxPrice.isPresent() && minPrice.get().compareTo(BigDecimal.ZERO) > 0
+					&& maxPrice.get().compareTo(BigDecimal.ZERO) > 0) {
+				rows.and(priceIndex.between(toMinPrice(minPrice.get()), toMaxPrice(maxPrice.get())));
+
+			} else if (!minPrice.isPresent() && maxPrice.isPresent()
+					&& maxPrice.get().compareTo(BigDecimal.ZERO) > 0) {
+				rows.and(priceIndex.atMost(toMaxPrice(maxPrice.get())));
+
+			} else if (minPrice.isPresent() && !maxPrice.isPresent()
+					&& minPrice.get().compareTo(BigDecimal.ZERO) > 0) {
+				rows.and(priceIndex.atLeast(toMinPrice(minPrice.get())));
+			}
+
+			andAtLeast(rows, bedsIndex, beds);
+			andAtLeast(rows, bedroomsIndex, bedrooms);
+			andAtLeast(rows, bathroomsIndex, bathrooms);
+			andAtLeast(rows, guestsIndex, guests);
+
+			return toRegNumbers(rows, newestFirst(), maxResults);
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Alojamientos con precio entre <code>minPrice</code> y <code>maxPrice</code>,
+	 * ordenados del más caro al más barato.
+	 *
+	 * @param minPrice
+	 * @param maxPrice
+	 *
+	 * @return
+	 */
+	public List<String> findByPriceRange(final BigDecimal minPrice, final BigDecimal maxPrice) {
+		lock.readLock().lock();
+
+		try {
+			BitSet rows = priceIndex.between(toMinPrice(minPrice), toMaxPrice(maxPrice));
+			rows.and(liveRows);
+
+			return toRegNumbers(rows, mostExpensiveFirst(), Integer.MAX_VALUE);
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Alojamientos de la categoría <code>categoryName</code>, de más reciente a
+	 * más antiguo.
+	 *
+	 * @param categoryName
+	 *
+	 * @return <code>null</code> si el catálogo no conoce la categoría.
+	 */
+	public List<String> findByCategory(final String categoryName) {
+		lock.readLock().lock();
+
+		try {
+			Integer categoryId = categoryIdsByName.get(categoryKey(categoryName));
+
+			if (categoryId == null) {
+				return null;
+			}
+
+			BitSet rows = categoryIndex.equalTo(categoryId);
+			rows.and(liveRows);
+
+			return toRegNumbers(rows, newestFirst(), Integer.MAX_VALUE);
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static void andAtLeast(final BitSet rows, final BitSetValueIndex index, final Optional<Integer> min) {
+		if (min.isPresent() && min.get() > 0) {
+			rows.and(index.atLeast(min.get()));
+		}
+	}
+
+	private List<String> toRegNumbers(final BitSet rows, final Comparator<Integer> order, final int maxResults) {
+		List<Integer> matches = new ArrayList<>(rows.cardinality());
+
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+			matches.add(row);
+		}
+
+		matches.sort(order);
+
+		List<String> result = new ArrayList<>(Math.min(maxResults, matches.size()));
+
+		for (int i = 0; i < matches.size() && i < maxResults; i++) {
+			result.add(regNumbers[matches.get(i)]);
+		}
+
+		return result;
+	}
+
+	private Comparator<Integer> newestFirst() {
+		return (a, b) -> {
+			int byDate = Long.compare(createdAt[b], createdAt[a]);
+
+			return byDate != 0 ? byDate : regNumbers[b].compareTo(regNumbers[a]);
+		};
+	}
+
+	private Comparator<Integer> mostExpensiveFirst() {
+		return (a, b) -> {
+			int byPrice = Long.compare(prices[b], prices[a]);
+
+			return byPrice != 0 ? byPrice : regNumbers[a].compareTo(regNumbers[b]);
+		};
+	}
+
+	private void addRow(final String regNumber, final Integer numOfBeds, final Integer numOfGuests,
+			final Integer numOfBedRooms, final Integer numOfBathRooms, final BigDecimal pricePerNight,
+			final Integer categoryId, final LocalDateTime creationDate) {
+		int row = liveRows.nextClearBit(0);
+
+		if (row == rowCount) {
+			ensureCapacity(rowCount + 1);
+			rowCount++;
+		}
+
+		regNumbers[row] = regNumber;
+		beds[row] = addToIndex(bedsIndex, numOfBeds, row);
+		guests[row] = addToIndex(guestsIndex, numOfGuests, row);
+		bedrooms[row] = addToIndex(bedroomsIndex, numOfBedRooms, row);
+		bathrooms[row] = addToIndex(bathroomsIndex, numOfBathRooms, row);
+		categoryIds[row] = addToIndex(categoryIndex, categoryId, row);
+
+		prices[row] = pricePerNight != null ? toPrice(pricePerNight) : NULL_PRICE;
+
+		if (prices[row] != NULL_PRICE) {
+			priceIndex.add(prices[row], row);
+		}
+
+		createdAt[row] = creationDate != null ? creationDate.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+
+		liveRows.set(row);
+		rowsByRegNumber.put(regNumber, row);
+	}
+
+	private void removeRow(final String regNumber) {
+		Integer row = rowsByRegNumber.remove(regNumber);
+
+		if (row == null) {
+			return;
+		}
+
+		removeFromIndex(bedsIndex, beds[row], row);
+		removeFromIndex(guestsIndex, guests[row], row);
+		removeFromIndex(bedroomsIndex, bedrooms[row], row);
+		removeFromIndex(bathroomsIndex, bathrooms[row], row);
+		removeFromIndex(categoryIndex, categoryIds[row], row);
+
+		if (prices[row] != NULL_PRICE) {
+			priceIndex.remove(prices[row], row);
+		}
+
+		regNumbers[row] = null;
+		liveRows.clear(row);
+	}
+
+	private static int addToIndex(final BitSetValueIndex index, final Integer value, final int row) {
+		if (value == null) {
+			return NULL_VALUE;
+		}
+
+		index.add(value, row);
+
+		return value;
+	}
+
+	private static void removeFromIndex(final BitSetValueIndex index, final int value, final int row) {
+		if (value != NULL_VALUE) {
+			index.remove(value, row);
+		}
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity <= regNumbers.length) {
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, regNumbers.length * 2);
+
+		regNumbers = Arrays.copyOf(regNumbers, newCapacity);
+		beds = Arrays.copyOf(beds, newCapacity);
+		guests = Arrays.copyOf(guests, newCapacity);
+		bedrooms = Arrays.copyOf(bedrooms, newCapacity);
+		bathrooms = Arrays.copyOf(bathrooms, newCapacity);
+		categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+		prices = Arrays.copyOf(prices, newCapacity);
+		createdAt = Arrays.copyOf(createdAt, newCapacity);
+	}
+
+	private void clear() {
+		rowCount = 0;
+		liveRows.clear();
+		rowsByRegNumber.clear();
+		categoryIdsByName.clear();
+		Arrays.fill(regNumbers, null);
+
+		bedsIndex.clear();
+		guestsIndex.clear();
+		bedroomsIndex.clear();
+		bathroomsIndex.clear();
+		categoryIndex.clear();
+		priceIndex.clear();
+	}
+
+	private void registerCategory(final Integer categoryId, final String categoryName) {
+		if (categoryId != null && categoryName != null) {
+			categoryIdsByName.put(categoryKey(categoryName), categoryId);
+		}
+	}
+
+	/**
+	 * Los nombres de categoría se comparan sin distinguir mayúsculas, como en la
+	 * base de datos.
+	 */
+	private static String categoryKey(final String categoryName) {
+		return categoryName != null ? categoryName.trim().toLowerCase(Locale.ROOT) : null;
+	}
+
+	private static long toPrice(final BigDecimal price) {
+		return clamp(price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue());
+	}
+
+	/**
+	 * Límite inferior de un rango de precios: el menor precio representable que
+	 * no es menor que <code>price</code>.
+	 */
+	private static long toMinPrice(final BigDecimal price) {
+		return clamp(price.setScale(PRICE_SCALE, RoundingMode.CEILING).unscaledValue());
+	}
+
+	/**
+	 * Límite superior de un rango de precios: el mayor precio representable que
+	 * no es mayor que <code>price</code>.
+	 */
+	private static long toMaxPrice(final BigDecimal price) {
+		return clamp(price.setScale(PRICE_SCALE, RoundingMode.FLOOR).unscaledValue());
+	}
+
+	/**
+	 * Precio más cercano a <code>unscaledPrice</code> que cabe en un
+	 * <code>long</code>. Los precios fuera de rango quedan por encima o por
+	 * debajo de todos los del catálogo.
+	 */
+	private static long clamp(final BigInteger unscaledPrice) {
+		return unscaledPrice.max(MIN_PRICE).min(MAX_PRICE).longValue();
+	}
+}
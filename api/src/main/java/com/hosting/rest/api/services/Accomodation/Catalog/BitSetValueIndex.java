@@ -0,0 +1,86 @@
+package com.hosting.rest.api.services.Accomodation.Catalog;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Índice de una columna del catálogo en memoria: para cada valor
+ *          distinto, el conjunto de filas que lo tienen.
+ *
+ *          No es seguro para hilos; lo protege el bloqueo del catálogo.
+ *
+ */
+class BitSetValueIndex {
+
+	private final NavigableMap<Long, BitSet> rowsByValue = new TreeMap<>();
+
+	void add(final long value, final int row) {
+		rowsByValue.computeIfAbsent(value, v -> new BitSet()).set(row);
+	}
+
+	void remove(final long value, final int row) {
+		BitSet rows = rowsByValue.get(value);
+
+		if (rows != null) {
+			rows.clear(row);
+
+			if (rows.isEmpty()) {
+				rowsByValue.remove(value);
+			}
+		}
+	}
+
+	void clear() {
+		rowsByValue.clear();
+	}
+
+	/**
+	 * @return Filas con valor <code>value</code>.
+	 */
+	BitSet equalTo(final long value) {
+		BitSet rows = rowsByValue.get(value);
+
+		return rows != null ? (BitSet) rows.clone() : new BitSet();
+	}
+
+	/**
+	 * @return Filas con valor mayor o igual que <code>min</code>.
+	 */
+	BitSet atLeast(final long min) {
+		return union(rowsByValue.tailMap(min, true));
+	}
+
+	/**
+	 * @return Filas con valor menor o igual que <code>max</code>.
+	 */
+	BitSet atMost(final long max) {
+		return union(rowsByValue.headMap(max, true));
+	}
+
+	/**
+	 * @return Filas con valor comprendido entre <code>min</code> y
+	 *         <code>max</code>, ambos incluidos.
+	 */
+	BitSet between(final long min, final long max) {
+		if (min > max) {
+			return new BitSet();
+		}
+
+		return union(rowsByValue.subMap(min, true, max, true));
+	}
+
+	private static BitSet union(final Map<Long, BitSet> rowsByValue) {
+		BitSet union = new BitSet();
+
+		for (BitSet rows : rowsByValue.values()) {
+			union.or(rows);
+		}
+
+		return union;
+	}
+}
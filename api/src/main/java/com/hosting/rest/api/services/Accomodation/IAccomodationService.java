@@ -6,8 +6,11 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationCityModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationImageModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
 
 /**
  * @author Francisco Coya · https://github.com/FranciscoCoya
@@ -34,8 +37,14 @@ public interface IAccomodationService {
 
 	public Page<AccomodationModel> findAllAccomodations(final Integer pageNumber, final Integer size);
 
+	public CursorSlice<AccomodationModel> findAllAccomodationsAfter(final String cursor, final Integer size);
+
 	public List<String> findAllAccomodationCities();
 
+	public List<AccomodationCityModel> findAccomodationCityDirectory();
+
+	public String getAccomodationCitiesETag();
+
 	public List<AccomodationModel> findNAccomodations(final Integer maxNumberOfAccomodations);
 
 	public AccomodationModel getAccomodationById(final String regNumber);
@@ -45,6 +54,8 @@ public interface IAccomodationService {
 
 	public String removeAccomodationById(final String regNumber);
 
+	public String reloadAccomodationCatalog();
+
 	public AccomodationModel addNewImageToExistingAccomodation(final String regNumber,
 			final AccomodationImageModel imageToAdd);
 
@@ -66,4 +77,21 @@ public interface IAccomodationService {
 	public List<AccomodationModel> findAllByMultipleFilters(final Optional<BigDecimal> minPrice,
 			final Optional<BigDecimal> maxPrice, final Optional<Integer> beds, final Optional<Integer> bedrooms,
 			final Optional<Integer> bathrooms, final Optional<Integer> guests);
+
+	// -- Listados en formato tarjeta (view=card)
+
+	public Page<AccomodationCardModel> findAllAccomodationCards(final Integer pageNumber, final Integer size);
+
+	public CursorSlice<AccomodationCardModel> findAllAccomodationCardsAfter(final String cursor, final Integer size);
+
+	public Page<AccomodationCardModel> findCardsByCity(final String cityToSearch, final Integer pageNumber,
+			final Integer size);
+
+	public List<AccomodationCardModel> findCardsByCategory(final String accomodationCategory);
+
+	public List<AccomodationCardModel> findCardsByPriceRange(final BigDecimal minPrice, final BigDecimal maxPrice);
+
+	public List<AccomodationCardModel> findCardsByMultipleFilters(final Optional<BigDecimal> minPrice,
+			final Optional<BigDecimal> maxPrice, final Optional<Integer> beds, final Optional<Integer> bedrooms,
+			final Optional<Integer> bathrooms, final Optional<Integer> guests);
 }
@@ -12,10 +12,10 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
-import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 import com.hosting.rest.api.models.Accomodation.SavedAccomodation.SavedAccomodationModel;
@@ -23,6 +23,7 @@ import com.hosting.rest.api.models.User.UserModel;
 import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
 import com.hosting.rest.api.repositories.Accomodation.SavedAccomodation.ISavedAccomodationRepository;
 import com.hosting.rest.api.repositories.User.IUserRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationCollectionsLoader;
 
 /**
  * 
@@ -47,6 +48,9 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 	@Autowired
 	private IUserRepository userRepo;
 
+	@Autowired
+	private AccomodationCollectionsLoader collectionsLoader;
+
 	/**
 	 * Guardado de un alojamiento.
 	 * 
@@ -76,6 +80,7 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 	 * @throws NumberFormatException Si es id del alojamiento guardado no es un
 	 *                               número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public SavedAccomodationModel getSavedAccomodationById(final Integer savedAccomodationId)
 			throws NumberFormatException {
@@ -83,7 +88,13 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 		// Validar id del alojamiento guardado
 		validateParam(isIntegerValidAndPositive(savedAccomodationId), "El id del alojamiento guardado no es válido.");
 
-		return savedAccomodationRepo.findById(savedAccomodationId).orElse(null);
+		SavedAccomodationModel savedAccomodation = savedAccomodationRepo.findById(savedAccomodationId).orElse(null);
+
+		if (savedAccomodation != null) {
+			collectionsLoader.loadCollections(savedAccomodation.getIdAccomodation());
+		}
+
+		return savedAccomodation;
 	}
 
 	/**
@@ -117,6 +128,7 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 	 * 
 	 * @throws NumberFormatException Si el id del usuario no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<SavedAccomodationModel> findAllSavedAccomodationsByUserId(final Integer userId)
 			throws NumberFormatException {
@@ -135,7 +147,8 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 
 		savedAccomodations.setParameter("userId", userId);
 
-		return savedAccomodations.getResultList();
+		return collectionsLoader.loadCollectionsOf(savedAccomodations.getResultList(),
+				SavedAccomodationModel::getIdAccomodation);
 	}
 
 	/**
@@ -158,17 +171,19 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 
 	}
 
+	@Transactional
 	@Override
 	public SavedAccomodationModel addNewSavedAccomodationByRegNumber(final String regNumber, final Integer userId) {
 
 		checkRegNumberAndUserId(regNumber, userId);
 
 		UserModel user = userRepo.findById(userId).get();
-		AccomodationModel accomodation = accomodationRepo.findById(regNumber).get();
+		AccomodationModel accomodation = collectionsLoader.loadCollections(accomodationRepo.findById(regNumber).get());
 
 		return savedAccomodationRepo.save(new SavedAccomodationModel(user, accomodation));
 	}
 
+	@Transactional(readOnly = true)
 	@Override
 	public SavedAccomodationModel getSavedAccomodationByRegNumberAndUserId(final String regNumber,
 			final Integer userId) {
@@ -187,6 +202,8 @@ public class SavedAccomodationServiceImpl implements ISavedAccomodationService {
 		try {
 			savedAccomodationResult = savedAccomodationToReturn.getSingleResult();
 
+			collectionsLoader.loadCollections(savedAccomodationResult.getIdAccomodation());
+
 		} catch (NoResultException nre) {
 			savedAccomodationResult = null;
 		}
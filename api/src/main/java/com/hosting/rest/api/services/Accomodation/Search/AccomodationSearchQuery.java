@@ -0,0 +1,223 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchSort;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Consultas SQL de la búsqueda de alojamientos con los filtros
+ *          <code>filter</code>: página de tarjetas, total y facetas.
+ *
+ *          Los filtros se escriben en el orden en el que es más barato
+ *          resolverlos: primero las igualdades sobre columnas indexadas
+ *          (ciudad, categoría), después los rangos indexados (precio), los
+ *          rangos sin índice y por último las subconsultas de servicios. Todas
+ *          las consultas usan parámetros con nombre.
+ *
+ */
+public class AccomodationSearchQuery {
+
+	/**
+	 * Ancho de los rangos de la faceta de precio.
+	 */
+	public static final int PRICE_BUCKET_WIDTH = 50;
+
+	public static final String FACET_CATEGORY = "category";
+
+	public static final String FACET_CITY = "city";
+
+	public static final String FACET_SERVICE = "service";
+
+	public static final String FACET_PRICE = "price";
+
+	private static final String FROM = "FROM ACCOMODATION a "
+			+ "INNER JOIN ACCOMODATION_LOCATION al ON al.ID = a.ID_ACC_LOCATION "
+			+ "INNER JOIN ACCOMODATION_CATEGORY ac ON ac.ID = a.ID_ACC_CATEGORY ";
+
+	/**
+	 * Columnas en el orden del constructor de
+	 * {@link com.hosting.rest.api.models.Accomodation.AccomodationCardModel}.
+	 */
+	private static final String CARD_COLUMNS = "SELECT a.REG_NUM, a.PRICE_PER_NIGHT, al.CITY, a.BEDS, a.GUESTS, "
+			+ "ac.ACC_CAT, a.CREATED_AT ";
+
+	/**
+	 * Índice del rango de precio de un alojamiento. Se agrupa por la misma
+	 * expresión que se selecciona.
+	 */
+	private static final String PRICE_BUCKET = "CAST(FLOOR(a.PRICE_PER_NIGHT / " + PRICE_BUCKET_WIDTH + ") AS CHAR)";
+
+	/**
+	 * Dimensión de cada filtro. Las facetas excluyen los filtros de su
+	 * dimensión.
+	 */
+	private enum Dimension {
+		CATEGORY, CITY, PRICE, ROOMS, SERVICES
+	}
+
+	private final List<SearchPredicate> predicates = new ArrayList<>();
+
+	private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+	private final AccomodationSearchSort sort;
+
+	public AccomodationSearchQuery(final AccomodationSearchFilter filter) {
+		this.sort = filter.getSort() != null ? filter.getSort() : AccomodationSearchSort.NEWEST;
+
+		// Igualdades sobre columnas indexadas
+		String cityKey = CityKeys.normalize(filter.getCity());
+
+		if (cityKey != null && !cityKey.isEmpty()) {
+			addPredicate(Dimension.CITY, 0, "al.CITY_KEY = :cityKey", "cityKey", cityKey);
+		}
+
+		if (filter.getCategory() != null && !filter.getCategory().trim().isEmpty()) {
+			addPredicate(Dimension.CATEGORY, 0, "ac.ACC_CAT = :category", "category", filter.getCategory().trim());
+		}
+
+		// Rangos sobre columnas indexadas
+		if (filter.getMinPrice() != null) {
+			addPredicate(Dimension.PRICE, 1, "a.PRICE_PER_NIGHT >= :minPrice", "minPrice", filter.getMinPrice());
+		}
+
+		if (filter.getMaxPrice() != null) {
+			addPredicate(Dimension.PRICE, 1, "a.PRICE_PER_NIGHT <= :maxPrice", "maxPrice", filter.getMaxPrice());
+		}
+
+		// Rangos sin índice
+		if (filter.getGuests() != null) {
+			addPredicate(Dimension.ROOMS, 2, "a.GUESTS >= :guests", "guests", filter.getGuests());
+		}
+
+		if (filter.getBeds() != null) {
+			addPredicate(Dimension.ROOMS, 2, "a.BEDS >= :beds", "beds", filter.getBeds());
+		}
+
+		if (filter.getBedrooms() != null) {
+			addPredicate(Dimension.ROOMS, 2, "a.NUM_BEDROOMS >= :bedrooms", "bedrooms", filter.getBedrooms());
+		}
+
+		if (filter.getBathrooms() != null) {
+			addPredicate(Dimension.ROOMS, 2, "a.NUM_BATHROOMS >= :bathrooms", "bathrooms", filter.getBathrooms());
+		}
+
+		// Servicios: el alojamiento debe ofrecerlos todos
+		if (filter.getServices() != null) {
+			List<Integer> services = new ArrayList<>(new LinkedHashSet<>(filter.getServices()));
+
+			for (int i = 0; i < services.size(); i++) {
+				addPredicate(Dimension.SERVICES, 3, "EXISTS (SELECT 1 FROM ACCOMODATION_ACC_SERVICE aas" + i + " "
+						+ "WHERE aas" + i + ".ID_ACC = a.REG_NUM AND aas" + i + ".ID_ACC_SERVICE = :service" + i + ")",
+						"service" + i, services.get(i));
+			}
+		}
+
+		Collections.sort(predicates, Comparator.comparingInt(SearchPredicate::getCost));
+	}
+
+	/**
+	 * @return Consulta de las tarjetas de los alojamientos encontrados, ordenada
+	 *         según el criterio de la búsqueda. El límite y el desplazamiento de
+	 *         la página se aplican al ejecutarla.
+	 */
+	public String getPageSql() {
+		return CARD_COLUMNS + FROM + where(null) + "ORDER BY " + sort.getOrderBy();
+	}
+
+	/**
+	 * @return Consulta del número total de alojamientos encontrados.
+	 */
+	public String getCountSql() {
+		return "SELECT COUNT(*) " + FROM + where(null);
+	}
+
+	/**
+	 * Consulta de todas las facetas en una única sentencia. Cada fila contiene la
+	 * faceta, el valor, el texto a mostrar y el número de alojamientos.
+	 *
+	 * @return
+	 */
+	public String getFacetsSql() {
+		return "SELECT '" + FACET_CATEGORY + "' AS FACET, CAST(ac.ACC_CAT AS CHAR) AS BUCKET, "
+				+ "CAST(ac.ACC_CAT AS CHAR) AS LABEL, COUNT(*) AS TOTAL " + FROM + where(Dimension.CATEGORY)
+				+ "GROUP BY ac.ACC_CAT "
+
+				+ "UNION ALL SELECT '" + FACET_CITY + "', CAST(al.CITY_KEY AS CHAR), MIN(al.CITY), COUNT(*) " + FROM
+				+ whereAnd(Dimension.CITY, "al.CITY_KEY IS NOT NULL") + "GROUP BY al.CITY_KEY "
+
+				+ "UNION ALL SELECT '" + FACET_SERVICE + "', CAST(sv.ID AS CHAR), MIN(sv.DENOMINATION), COUNT(*) "
+				+ FROM + "INNER JOIN ACCOMODATION_ACC_SERVICE aas ON aas.ID_ACC = a.REG_NUM "
+				+ "INNER JOIN ACCOMODATION_SERVICE sv ON sv.ID = aas.ID_ACC_SERVICE " + where(null)
+				+ "GROUP BY sv.ID "
+
+				+ "UNION ALL SELECT '" + FACET_PRICE + "', " + PRICE_BUCKET + ", NULL, COUNT(*) " + FROM
+				+ whereAnd(Dimension.PRICE, "a.PRICE_PER_NIGHT IS NOT NULL") + "GROUP BY " + PRICE_BUCKET;
+	}
+
+	/**
+	 * @return Valores de los parámetros con nombre de las consultas.
+	 */
+	public Map<String, Object> getParameters() {
+		return Collections.unmodifiableMap(parameters);
+	}
+
+	private void addPredicate(final Dimension dimension, final int cost, final String sql, final String parameter,
+			final Object value) {
+		predicates.add(new SearchPredicate(dimension, cost, sql));
+		parameters.put(parameter, value);
+	}
+
+	/**
+	 * Cláusula WHERE con todos los filtros salvo los de la dimensión
+	 * <code>excluded</code>.
+	 */
+	private String where(final Dimension excluded) {
+		return whereAnd(excluded, null);
+	}
+
+	private String whereAnd(final Dimension excluded, final String extraCondition) {
+		List<String> conditions = new ArrayList<>();
+
+		for (SearchPredicate predicate : predicates) {
+			if (predicate.dimension != excluded) {
+				conditions.add(predicate.sql);
+			}
+		}
+
+		if (extraCondition != null) {
+			conditions.add(extraCondition);
+		}
+
+		return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ";
+	}
+
+	/**
+	 * Filtro de la búsqueda junto a su coste relativo de evaluación.
+	 */
+	private static final class SearchPredicate {
+		private final Dimension dimension;
+		private final int cost;
+		private final String sql;
+
+		private SearchPredicate(final Dimension dimension, final int cost, final String sql) {
+			this.dimension = dimension;
+			this.cost = cost;
+			this.sql = sql;
+		}
+
+		private int getCost() {
+			return cost;
+		}
+	}
+}
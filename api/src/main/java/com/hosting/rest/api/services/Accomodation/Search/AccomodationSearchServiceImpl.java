@@ -0,0 +1,278 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import static com.hosting.rest.api.Utils.AppUtils.isStringNotBlank;
+import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageNumber;
+import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageOffset;
+import static com.hosting.rest.api.Utils.ServiceGlobalValidations.checkPageSize;
+import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParam;
+import static com.hosting.rest.api.services.Accomodation.IAccomodationService.ACCOMODATION_LIMIT_RESULTS;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationFacetBucketModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFacetsModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchResultModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationTextSearchHitModel;
+import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationCardsLoader;
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationTextIndex.TextHit;
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationTextIndex.TextHits;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Implementación del servicio de búsqueda de alojamientos.
+ *
+ *          Una búsqueda lanza como mucho cinco sentencias: la página de
+ *          tarjetas, el total (solo si no se deduce de la página), las facetas
+ *          en una única consulta agregada y las dos consultas de
+ *          {@link AccomodationCardsLoader}.
+ */
+@Service
+public class AccomodationSearchServiceImpl implements IAccomodationSearchService {
+
+	private static final Comparator<AccomodationFacetBucketModel> BY_NUM_OF_ACCOMODATIONS = Comparator
+			.comparing(AccomodationFacetBucketModel::getNumOfAccomodations).reversed()
+			.thenComparing(AccomodationFacetBucketModel::getValue);
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private AccomodationCardsLoader cardsLoader;
+
+	@Autowired
+	private AccomodationTextIndex textIndex;
+
+	@Autowired
+	private IAccomodationRepository accomodationRepo;
+
+	/**
+	 * Búsqueda paginada de alojamientos con los filtros <code>filter</code>. Los
+	 * alojamientos se devuelven en formato tarjeta junto a las facetas de la
+	 * búsqueda.
+	 * 
+	 * @param filter
+	 * @param pageNumber
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Transactional(readOnly = true)
+	@Override
+	public AccomodationSearchResultModel searchAccomodations(final AccomodationSearchFilter filter,
+			final Integer pageNumber, final Integer size) {
+		validateParam(filter != null, "Los filtros de la búsqueda no son válidos.");
+
+		// Comprobar que el número de página y el tamaño de esta son válidos.
+		checkPageNumber(pageNumber);
+		checkPageSize(size);
+		validateParam(size <= ACCOMODATION_LIMIT_RESULTS,
+				"El tamaño de página no puede ser mayor que " + ACCOMODATION_LIMIT_RESULTS);
+
+		int offset = checkPageOffset(pageNumber, size);
+
+		validateFilter(filter);
+
+		AccomodationSearchQuery searchQuery = new AccomodationSearchQuery(filter);
+
+		// Página de tarjetas. Las filas se transforman en tarjetas según se leen.
+		Query pageQuery = createNativeQuery(searchQuery.getPageSql(), searchQuery);
+		pageQuery.setFirstResult(offset);
+		pageQuery.setMaxResults(size);
+
+		@SuppressWarnings("unchecked")
+		List<AccomodationCardModel> cards = ((Stream<Object[]>) pageQuery.getResultStream())
+				.map(AccomodationSearchServiceImpl::toCard).collect(Collectors.toList());
+
+		cardsLoader.loadImagesAndRatings(cards);
+
+		Page<AccomodationCardModel> accomodations = PageableExecutionUtils.getPage(cards,
+				PageRequest.of(pageNumber, size), () -> ((Number) createNativeQuery(searchQuery.getCountSql(),
+						searchQuery).getSingleResult()).longValue());
+
+		return new AccomodationSearchResultModel(accomodations, findFacets(searchQuery));
+	}
+
+	/**
+	 * Búsqueda paginada de texto libre <code>query</code> sobre la descripción,
+	 * la dirección y la ciudad de los alojamientos, resuelta con el índice
+	 * {@link AccomodationTextIndex}. Los alojamientos se devuelven ordenados por
+	 * relevancia en formato tarjeta, con los fragmentos de texto resaltados.
+	 * 
+	 * @param query
+	 * @param pageNumber
+	 * @param size
+	 * 
+	 * @return
+	 */
+	@Override
+	public Page<AccomodationTextSearchHitModel> searchAccomodationsByText(final String query,
+			final Integer pageNumber, final Integer size) {
+		validateParam(isStringNotBlank(query), "El texto a buscar está vacío o no es válido.");
+
+		// Comprobar que el número de página y el tamaño de esta son válidos.
+		checkPageNumber(pageNumber);
+		checkPageSize(size);
+		validateParam(size <= ACCOMODATION_LIMIT_RESULTS,
+				"El tamaño de página no puede ser mayor que " + ACCOMODATION_LIMIT_RESULTS);
+
+		TextHits textHits = textIndex.search(query, checkPageOffset(pageNumber, size), size);
+
+		List<String> regNumbers = new ArrayList<>(textHits.getHits().size());
+
+		for (TextHit hit : textHits.getHits()) {
+			regNumbers.add(hit.getRegNumber());
+		}
+
+		Map<String, AccomodationCardModel> cardsByRegNumber = new HashMap<>();
+
+		if (!regNumbers.isEmpty()) {
+			for (AccomodationCardModel card : cardsLoader
+					.loadImagesAndRatings(accomodationRepo.findCardsByRegNumbers(regNumbers))) {
+				cardsByRegNumber.put(card.getRegisterNumber(), card);
+			}
+		}
+
+		// Mantener el orden de relevancia del índice.
+		List<AccomodationTextSearchHitModel> hits = new ArrayList<>(regNumbers.size());
+
+		for (TextHit hit : textHits.getHits()) {
+			AccomodationCardModel card = cardsByRegNumber.get(hit.getRegNumber());
+
+			if (card != null) {
+				hits.add(new AccomodationTextSearchHitModel(card, hit.getScore(), hit.getHighlights()));
+			}
+		}
+
+		return PageableExecutionUtils.getPage(hits, PageRequest.of(pageNumber, size), textHits::getTotal);
+	}
+
+	/**
+	 * Comprueba que los filtros <code>filter</code> son válidos.
+	 * 
+	 * @param filter
+	 */
+	private void validateFilter(final AccomodationSearchFilter filter) {
+		validateParam(filter.getMinPrice() == null || filter.getMinPrice().compareTo(BigDecimal.ZERO) >= 0,
+				"El precio mínimo [ " + filter.getMinPrice() + " ] no es válido.");
+
+		validateParam(filter.getMaxPrice() == null || filter.getMaxPrice().compareTo(BigDecimal.ZERO) >= 0,
+				"El precio máximo [ " + filter.getMaxPrice() + " ] no es válido.");
+
+		validateParam(filter.getMinPrice() == null || filter.getMaxPrice() == null
+				|| filter.getMinPrice().compareTo(filter.getMaxPrice()) <= 0,
+				"El precio mínimo no puede ser mayor que el precio máximo.");
+
+		validateParam(isNullOrNotNegative(filter.getBeds()) && isNullOrNotNegative(filter.getBedrooms())
+				&& isNullOrNotNegative(filter.getBathrooms()) && isNullOrNotNegative(filter.getGuests()),
+				"El número de camas, habitaciones, baños o huéspedes no es válido.");
+
+		validateParam(filter.getServices() == null || !filter.getServices().contains(null),
+				"Alguno de los servicios introducidos no es válido.");
+	}
+
+	private static boolean isNullOrNotNegative(final Integer value) {
+		return value == null || value >= 0;
+	}
+
+	/**
+	 * Facetas de la búsqueda <code>searchQuery</code>, obtenidas con una única
+	 * consulta.
+	 * 
+	 * @param searchQuery
+	 * 
+	 * @return
+	 */
+	private AccomodationSearchFacetsModel findFacets(final AccomodationSearchQuery searchQuery) {
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = createNativeQuery(searchQuery.getFacetsSql(), searchQuery).getResultList();
+
+		AccomodationSearchFacetsModel facets = new AccomodationSearchFacetsModel();
+
+		for (Object[] row : rows) {
+			String facet = (String) row[0];
+			String value = (String) row[1];
+			String label = (String) row[2];
+			Long numOfAccomodations = ((Number) row[3]).longValue();
+
+			if (AccomodationSearchQuery.FACET_CATEGORY.equals(facet)) {
+				facets.getCategories().add(new AccomodationFacetBucketModel(value, label, numOfAccomodations));
+
+			} else if (AccomodationSearchQuery.FACET_CITY.equals(facet)) {
+				facets.getCities().add(new AccomodationFacetBucketModel(value, label, numOfAccomodations));
+
+			} else if (AccomodationSearchQuery.FACET_SERVICE.equals(facet)) {
+				facets.getServices().add(new AccomodationFacetBucketModel(value, label, numOfAccomodations));
+
+			} else if (AccomodationSearchQuery.FACET_PRICE.equals(facet)) {
+				facets.getPrices().add(toPriceBucket(Long.parseLong(value), numOfAccomodations));
+			}
+		}
+
+		Collections.sort(facets.getCategories(), BY_NUM_OF_ACCOMODATIONS);
+		Collections.sort(facets.getCities(), BY_NUM_OF_ACCOMODATIONS);
+		Collections.sort(facets.getServices(), BY_NUM_OF_ACCOMODATIONS);
+		Collections.sort(facets.getPrices(),
+				Comparator.comparing((AccomodationFacetBucketModel bucket) -> new BigDecimal(bucket.getValue())));
+
+		return facets;
+	}
+
+	/**
+	 * Rango de precios número <code>bucket</code>, [ bucket * ancho , (bucket + 1)
+	 * * ancho ).
+	 */
+	private static AccomodationFacetBucketModel toPriceBucket(final long bucket, final Long numOfAccomodations) {
+		long minPrice = bucket * AccomodationSearchQuery.PRICE_BUCKET_WIDTH;
+		long maxPrice = minPrice + AccomodationSearchQuery.PRICE_BUCKET_WIDTH;
+
+		return new AccomodationFacetBucketModel(String.valueOf(minPrice), minPrice + " - " + maxPrice,
+				numOfAccomodations);
+	}
+
+	private Query createNativeQuery(final String sql, final AccomodationSearchQuery searchQuery) {
+		Query query = em.createNativeQuery(sql);
+
+		for (Map.Entry<String, Object> parameter : searchQuery.getParameters().entrySet()) {
+			query.setParameter(parameter.getKey(), parameter.getValue());
+		}
+
+		return query;
+	}
+
+	/**
+	 * Tarjeta de la fila <code>row</code> de
+	 * {@link AccomodationSearchQuery#getPageSql()}.
+	 */
+	private static AccomodationCardModel toCard(final Object[] row) {
+		return new AccomodationCardModel((String) row[0], (BigDecimal) row[1], (String) row[2], toInteger(row[3]),
+				toInteger(row[4]), (String) row[5], row[6] != null ? ((Timestamp) row[6]).toLocalDateTime() : null);
+	}
+
+	private static Integer toInteger(final Object value) {
+		return value != null ? ((Number) value).intValue() : null;
+	}
+}
@@ -0,0 +1,658 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.CityKeys;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Índice invertido en memoria para la búsqueda de texto libre sobre la
+ *          descripción, la dirección y la ciudad de los alojamientos.
+ *
+ *          Los textos se dividen en términos normalizados como las claves de
+ *          ciudad ({@link CityKeys}): en minúsculas y sin acentos. Los
+ *          resultados se ordenan con BM25, dando más peso a la ciudad y a la
+ *          dirección que a la descripción. Cada término buscado también
+ *          encuentra los términos indexados a una o dos ediciones de distancia
+ *          (según su longitud), con una puntuación menor. Los fragmentos de
+ *          texto devueltos marcan con <code>&lt;em&gt;</code> los términos
+ *          encontrados.
+ *
+ *          Se carga al arrancar la aplicación y se mantiene desde las
+ *          operaciones de escritura del servicio de alojamientos.
+ *
+ */
+@Component
+@Slf4j
+public class AccomodationTextIndex {
+
+	public static final String FIELD_DESCRIPTION = "description";
+
+	public static final String FIELD_DIRECTION = "direction";
+
+	public static final String FIELD_CITY = "city";
+
+	/**
+	 * Número máximo de términos de una búsqueda.
+	 */
+	public static final int MAX_QUERY_TERMS = 10;
+
+	/**
+	 * Parámetros de BM25.
+	 */
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	/**
+	 * Peso de cada campo en la frecuencia de los términos.
+	 */
+	private static final float DESCRIPTION_BOOST = 1f;
+
+	private static final float DIRECTION_BOOST = 2f;
+
+	private static final float CITY_BOOST = 3f;
+
+	/**
+	 * Longitud máxima de los fragmentos resaltados y caracteres que se muestran
+	 * antes del primer término encontrado.
+	 */
+	private static final int SNIPPET_LENGTH = 160;
+
+	private static final int SNIPPET_LEADING_CONTEXT = 40;
+
+	private static final Pattern TERM_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private static final Pattern WORDS = Pattern.compile("[\\p{L}\\p{M}\\p{N}]+");
+
+	private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList("de", "del", "la", "las", "el",
+			"los", "un", "una", "y", "en", "con", "por", "para", "al", "se", "su", "sus", "que", "o", "es", "muy"));
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Frecuencia ponderada de cada término en cada alojamiento.
+	 */
+	private final Map<String, Map<String, Float>> postings = new HashMap<>();
+
+	/**
+	 * Términos indexados agrupados por longitud, para buscar los términos
+	 * parecidos sin recorrer todo el diccionario.
+	 */
+	private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+
+	private final Map<String, IndexedAccomodation> accomodations = new HashMap<>();
+
+	private double totalLength;
+
+	/**
+	 * Carga el índice con todos los alojamientos al arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<Object[]> rows = em.createQuery("SELECT am.registerNumber, am.description, al.direction, al.city "
+				+ "FROM AccomodationModel am LEFT JOIN am.idAccomodationLocation al", Object[].class).getResultList();
+
+		lock.writeLock().lock();
+
+		try {
+			postings.clear();
+			termsByLength.clear();
+			accomodations.clear();
+			totalLength = 0;
+
+			for (Object[] row : rows) {
+				index((String) row[0], (String) row[1], (String) row[2], (String) row[3]);
+			}
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Índice de texto cargado con {} alojamientos.", rows.size());
+	}
+
+	/**
+	 * Añade o actualiza los textos del alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param description
+	 * @param direction
+	 * @param city
+	 */
+	public void put(final String regNumber, final String description, final String direction, final String city) {
+		if (regNumber == null) {
+			return;
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			unindex(regNumber);
+			index(regNumber, description, direction, city);
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Elimina del índice el alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public void remove(final String regNumber) {
+		lock.writeLock().lock();
+
+		try {
+			unindex(regNumber);
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return Número de alojamientos indexados.
+	 */
+	public int size() {
+		lock.readLock().lock();
+
+		try {
+			return accomodations.size();
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Busca los alojamientos que contienen algún término de <code>query</code> o
+	 * un término parecido, ordenados de mayor a menor puntuación.
+	 *
+	 * @param query
+	 * @param offset     Número de resultados a saltar.
+	 * @param maxResults Número máximo de resultados a devolver.
+	 *
+	 * @return Resultados pedidos junto al total de alojamientos encontrados.
+	 */
+	public TextHits search(final String query, final int offset, final int maxResults) {
+		List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+
+		if (queryTerms.size() > MAX_QUERY_TERMS) {
+			queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+		}
+
+		lock.readLock().lock();
+
+		try {
+			if (queryTerms.isEmpty() || accomodations.isEmpty()) {
+				return new TextHits(0, Collections.<TextHit>emptyList());
+			}
+
+			double avgLength = totalLength / accomodations.size();
+
+			Map<String, Double> scores = new HashMap<>();
+			Set<String> matchedTerms = new HashSet<>();
+
+			for (String queryTerm : queryTerms) {
+				// Mejor puntuación de cada alojamiento para este término o sus variantes.
+				Map<String, Double> termScores = new HashMap<>();
+
+				for (Map.Entry<String, Double> expansion : expand(queryTerm).entrySet()) {
+					Map<String, Float> termPostings = postings.get(expansion.getKey());
+					double idf = idf(termPostings.size());
+
+					matchedTerms.add(expansion.getKey());
+
+					for (Map.Entry<String, Float> posting : termPostings.entrySet()) {
+						double tf = posting.getValue();
+						double length = accomodations.get(posting.getKey()).length;
+						double score = expansion.getValue() * idf * (tf * (K1 + 1))
+								/ (tf + K1 * (1 - B + B * length / avgLength));
+
+						termScores.merge(posting.getKey(), score, Math::max);
+					}
+				}
+
+				for (Map.Entry<String, Double> termScore : termScores.entrySet()) {
+					scores.merge(termScore.getKey(), termScore.getValue(), Double::sum);
+				}
+			}
+
+			// Sin desbordar el entero en las últimas páginas.
+			int end = (int) Math.min((long) offset + maxResults, scores.size());
+
+			List<Map.Entry<String, Double>> ranked = topScores(scores, end);
+			List<TextHit> hits = new ArrayList<>();
+
+			for (int i = offset; i < ranked.size(); i++) {
+				String regNumber = ranked.get(i).getKey();
+
+				hits.add(new TextHit(regNumber, ranked.get(i).getValue(),
+						highlight(accomodations.get(regNumber), matchedTerms)));
+			}
+
+			return new TextHits(scores.size(), hits);
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Términos normalizados de <code>text</code>, sin palabras vacías.
+	 *
+	 * @param text
+	 *
+	 * @return
+	 */
+	static List<String> tokenize(final String text) {
+		String normalized = CityKeys.normalize(text);
+
+		if (normalized == null || normalized.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<String> terms = new ArrayList<>();
+
+		for (String term : TERM_SEPARATORS.split(normalized)) {
+			if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+				terms.add(term);
+			}
+		}
+
+		return terms;
+	}
+
+	/**
+	 * Número máximo de ediciones con las que un término de longitud
+	 * <code>length</code> encuentra otros términos.
+	 */
+	static int maxEdits(final int length) {
+		return length < 3 ? 0 : length < 6 ? 1 : 2;
+	}
+
+	/**
+	 * Distancia de edición entre <code>a</code> y <code>b</code> contando
+	 * inserciones, borrados, sustituciones y transposiciones de letras
+	 * contiguas. Deja de calcular en cuanto supera <code>maxDistance</code>.
+	 *
+	 * @return La distancia, o <code>maxDistance + 1</code> si es mayor.
+	 */
+	static int editDistance(final String a, final String b, final int maxDistance) {
+		if (Math.abs(a.length() - b.length()) > maxDistance) {
+			return maxDistance + 1;
+		}
+
+		int[] previousRow = new int[b.length() + 1];
+		int[] row = new int[b.length() + 1];
+		int[] nextRow = new int[b.length() + 1];
+
+		for (int j = 0; j <= b.length(); j++) {
+			row[j] = j;
+		}
+
+		for (int i = 1; i <= a.length(); i++) {
+			nextRow[0] = i;
+			int rowMin = i;
+
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+
+				nextRow[j] = Math.min(Math.min(nextRow[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					nextRow[j] = Math.min(nextRow[j], previousRow[j - 2] + 1);
+				}
+
+				rowMin = Math.min(rowMin, nextRow[j]);
+			}
+
+			if (rowMin > maxDistance) {
+				return maxDistance + 1;
+			}
+
+			int[] recycled = previousRow;
+			previousRow = row;
+			row = nextRow;
+			nextRow = recycled;
+		}
+
+		return Math.min(row[b.length()], maxDistance + 1);
+	}
+
+	/**
+	 * Términos indexados que encuentra <code>queryTerm</code> junto a su peso:
+	 * 1 para el propio término y menos cuantas más ediciones haya que hacer.
+	 */
+	private Map<String, Double> expand(final String queryTerm) {
+		Map<String, Double> expansions = new LinkedHashMap<>();
+
+		if (postings.containsKey(queryTerm)) {
+			expansions.put(queryTerm, 1d);
+		}
+
+		int maxEdits = maxEdits(queryTerm.length());
+
+		for (int length = queryTerm.length() - maxEdits; length <= queryTerm.length() + maxEdits; length++) {
+			Set<String> candidates = termsByLength.get(length);
+
+			if (candidates == null) {
+				continue;
+			}
+
+			for (String candidate : candidates) {
+				int distance = candidate.equals(queryTerm) ? 0 : editDistance(queryTerm, candidate, maxEdits);
+
+				if (distance > 0 && distance <= maxEdits) {
+					expansions.put(candidate, 1d / (1 + distance));
+				}
+			}
+		}
+
+		return expansions;
+	}
+
+	private double idf(final int documentFrequency) {
+		return Math.log(1 + (accomodations.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+	}
+
+	/**
+	 * Las <code>limit</code> mejores puntuaciones de <code>scores</code>, de mayor
+	 * a menor. A igual puntuación se ordenan por número de registro.
+	 */
+	private static List<Map.Entry<String, Double>> topScores(final Map<String, Double> scores, final int limit) {
+		Comparator<Map.Entry<String, Double>> byScore = Map.Entry.<String, Double>comparingByValue()
+				.thenComparing(Map.Entry.<String, Double>comparingByKey().reversed());
+
+		PriorityQueue<Map.Entry<String, Double>> top = new PriorityQueue<>(byScore);
+
+		for (Map.Entry<String, Double> score : scores.entrySet()) {
+			if (top.size() < limit) {
+				top.add(score);
+
+			} else if (limit > 0 && byScore.compare(score, top.peek()) > 0) {
+				top.poll();
+				top.add(score);
+			}
+		}
+
+		List<Map.Entry<String, Double>> ranked = new ArrayList<>(top);
+		Collections.sort(ranked, byScore.reversed());
+
+		return ranked;
+	}
+
+	private void index(final String regNumber, final String description, final String direction,
+			final String city) {
+		Map<String, Float> frequencies = new HashMap<>();
+
+		float length = addFrequencies(frequencies, description, DESCRIPTION_BOOST)
+				+ addFrequencies(frequencies, direction, DIRECTION_BOOST) + addFrequencies(frequencies, city, CITY_BOOST);
+
+		for (Map.Entry<String, Float> frequency : frequencies.entrySet()) {
+			String term = frequency.getKey();
+
+			postings.computeIfAbsent(term, t -> {
+				termsByLength.computeIfAbsent(t.length(), l -> new HashSet<>()).add(t);
+				return new HashMap<>();
+			}).put(regNumber, frequency.getValue());
+		}
+
+		accomodations.put(regNumber,
+				new IndexedAccomodation(description, direction, city, length, frequencies.keySet()));
+		totalLength += length;
+	}
+
+	private void unindex(final String regNumber) {
+		IndexedAccomodation indexed = accomodations.remove(regNumber);
+
+		if (indexed == null) {
+			return;
+		}
+
+		for (String term : indexed.terms) {
+			Map<String, Float> termPostings = postings.get(term);
+			termPostings.remove(regNumber);
+
+			if (termPostings.isEmpty()) {
+				postings.remove(term);
+				termsByLength.get(term.length()).remove(term);
+			}
+		}
+
+		totalLength -= indexed.length;
+	}
+
+	private static float addFrequencies(final Map<String, Float> frequencies, final String text, final float boost) {
+		List<String> terms = tokenize(text);
+
+		for (String term : terms) {
+			frequencies.merge(term, boost, Float::sum);
+		}
+
+		return terms.size() * boost;
+	}
+
+	/**
+	 * Fragmentos de los campos de <code>indexed</code> que contienen alguno de los
+	 * términos <code>matchedTerms</code>.
+	 */
+	private static Map<String, String> highlight(final IndexedAccomodation indexed, final Set<String> matchedTerms) {
+		Map<String, String> highlights = new LinkedHashMap<>();
+
+		putHighlight(highlights, FIELD_CITY, indexed.city, matchedTerms);
+		putHighlight(highlights, FIELD_DIRECTION, indexed.direction, matchedTerms);
+		putHighlight(highlights, FIELD_DESCRIPTION, indexed.description, matchedTerms);
+
+		return highlights;
+	}
+
+	private static void putHighlight(final Map<String, String> highlights, final String field, final String text,
+			final Set<String> matchedTerms) {
+		String snippet = highlight(text, matchedTerms);
+
+		if (snippet != null) {
+			highlights.put(field, snippet);
+		}
+	}
+
+	/**
+	 * Fragmento de <code>text</code>, escapado como HTML, con los términos
+	 * <code>matchedTerms</code> marcados con <code>&lt;em&gt;</code>. Los textos
+	 * largos se recortan alrededor del primer término encontrado.
+	 *
+	 * @param text
+	 * @param matchedTerms
+	 *
+	 * @return <code>null</code> si el texto no contiene ningún término.
+	 */
+	static String highlight(final String text, final Set<String> matchedTerms) {
+		if (text == null) {
+			return null;
+		}
+
+		List<int[]> matches = new ArrayList<>();
+		Matcher words = WORDS.matcher(text);
+
+		while (words.find()) {
+			if (matchedTerms.contains(CityKeys.normalize(words.group()))) {
+				matches.add(new int[] { words.start(), words.end() });
+			}
+		}
+
+		if (matches.isEmpty()) {
+			return null;
+		}
+
+		int start = 0;
+		int end = text.length();
+
+		if (text.length() > SNIPPET_LENGTH) {
+			start = Math.max(0, matches.get(0)[0] - SNIPPET_LEADING_CONTEXT);
+			end = Math.min(text.length(), start + SNIPPET_LENGTH);
+
+			// No cortar palabras por la mitad
+			while (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+				start--;
+			}
+
+			while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+				end++;
+			}
+		}
+
+		StringBuilder snippet = new StringBuilder();
+
+		if (start > 0) {
+			snippet.append("… ");
+		}
+
+		int position = start;
+
+		for (int[] match : matches) {
+			if (match[0] < start || match[1] > end) {
+				continue;
+			}
+
+			appendEscaped(snippet, text, position, match[0]);
+			snippet.append("<em>");
+			appendEscaped(snippet, text, match[0], match[1]);
+			snippet.append("</em>");
+			position = match[1];
+		}
+
+		appendEscaped(snippet, text, position, end);
+
+		if (end < text.length()) {
+			snippet.append(" …");
+		}
+
+		return snippet.toString().trim();
+	}
+
+	private static void appendEscaped(final StringBuilder builder, final String text, final int start,
+			final int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+
+			switch (c) {
+			case '<':
+				builder.append("&lt;");
+				break;
+			case '>':
+				builder.append("&gt;");
+				break;
+			case '&':
+				builder.append("&amp;");
+				break;
+			case '"':
+				builder.append("&quot;");
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+	}
+
+	/**
+	 * Textos de un alojamiento indexado junto a su longitud ponderada y sus
+	 * términos.
+	 */
+	private static final class IndexedAccomodation {
+		private final String description;
+		private final String direction;
+		private final String city;
+		private final float length;
+		private final Set<String> terms;
+
+		private IndexedAccomodation(final String description, final String direction, final String city,
+				final float length, final Set<String> terms) {
+			this.description = description;
+			this.direction = direction;
+			this.city = city;
+			this.length = length;
+			this.terms = terms;
+		}
+	}
+
+	/**
+	 * Alojamiento encontrado, con su puntuación y los fragmentos resaltados de
+	 * cada campo.
+	 */
+	public static final class TextHit {
+		private final String regNumber;
+		private final double score;
+		private final Map<String, String> highlights;
+
+		private TextHit(final String regNumber, final double score, final Map<String, String> highlights) {
+			this.regNumber = regNumber;
+			this.score = score;
+			this.highlights = highlights;
+		}
+
+		public String getRegNumber() {
+			return regNumber;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public Map<String, String> getHighlights() {
+			return highlights;
+		}
+	}
+
+	/**
+	 * Página de resultados de una búsqueda junto al total de alojamientos
+	 * encontrados.
+	 */
+	public static final class TextHits {
+		private final long total;
+		private final List<TextHit> hits;
+
+		private TextHits(final long total, final List<TextHit> hits) {
+			this.total = total;
+			this.hits = hits;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+
+		public List<TextHit> getHits() {
+			return hits;
+		}
+	}
+}
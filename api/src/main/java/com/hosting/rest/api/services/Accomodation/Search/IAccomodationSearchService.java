@@ -0,0 +1,23 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import org.springframework.data.domain.Page;
+
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchResultModel;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationTextSearchHitModel;
+
+/**
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Servicio de búsqueda de alojamientos con filtros y facetas y
+ *          de texto libre.
+ */
+public interface IAccomodationSearchService {
+
+	public AccomodationSearchResultModel searchAccomodations(final AccomodationSearchFilter filter,
+			final Integer pageNumber, final Integer size);
+
+	public Page<AccomodationTextSearchHitModel> searchAccomodationsByText(final String query,
+			final Integer pageNumber, final Integer size);
+
+}
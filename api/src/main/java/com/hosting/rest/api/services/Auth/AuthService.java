@@ -2,6 +2,7 @@ package com.hosting.rest.api.services.Auth;
 
 import org.springframework.http.ResponseEntity;
 
+import com.hosting.rest.api.models.Auth.PasswordHashingStatsModel;
 import com.hosting.rest.api.models.Auth.ResetPasswordPayload;
 import com.hosting.rest.api.models.Auth.SignUpRequest;
 
@@ -14,4 +15,6 @@ public interface AuthService {
 	public ResponseEntity<?> resetPassword(final String emailToResetPassword);
 	
 	public void resetPasswordLoggedUser(final Integer userId, final ResetPasswordPayload resetPasswordPayload);
+
+	public PasswordHashingStatsModel getPasswordHashingStats();
 }
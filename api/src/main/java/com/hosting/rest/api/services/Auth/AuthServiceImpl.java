@@ -15,7 +15,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,6 +22,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.hosting.rest.api.configuration.security.JwtUtils;
+import com.hosting.rest.api.models.Auth.PasswordHashingStatsModel;
 import com.hosting.rest.api.models.Auth.ResetPasswordPayload;
 import com.hosting.rest.api.models.Auth.ResetPasswordResponsePayload;
 import com.hosting.rest.api.models.Auth.SignUpRequest;
@@ -30,6 +30,7 @@ import com.hosting.rest.api.models.User.UserModel;
 import com.hosting.rest.api.models.User.UserConfiguration.UserConfigurationModel;
 import com.hosting.rest.api.repositories.User.IUserRepository;
 import com.hosting.rest.api.repositories.User.UserConfiguration.IUserConfigurationRepository;
+import com.hosting.rest.api.services.Mail.EmailOutbox;
 
 /**
  * 
@@ -57,7 +58,10 @@ public class AuthServiceImpl implements AuthService {
 	private AuthenticationManager authenticationManager;
 
 	@Autowired
-	private JavaMailSender emailSender;
+	private EmailOutbox emailOutbox;
+
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
 
 	@Value("${booking.api.contextPath}")
 	private String contextPath;
@@ -140,7 +144,7 @@ public class AuthServiceImpl implements AuthService {
 		Date tokenExpiresAt = new Date(System.currentTimeMillis() + ResetPasswordResponsePayload.EXPIRATION_TIME);
 
 		// Enviar correo de recuperación al usuario.
-		emailSender.send(constructResetTokenEmail(resetToken, user, tokenExpiresAt));
+		emailOutbox.enqueue(constructResetTokenEmail(resetToken, user, tokenExpiresAt));
 
 		return ResponseEntity.ok(new ResetPasswordResponsePayload(resetToken, tokenExpiresAt));
 	}
@@ -222,4 +226,14 @@ public class AuthServiceImpl implements AuthService {
 				.setParameter("newPass", passwordEncoder.encode(resetPasswordPayload.getNewPassword()))
 				.setParameter("userId", userId).executeUpdate();
 	}
+
+	/**
+	 * Estado de los hilos que calculan y comprueban las contraseñas.
+	 * 
+	 * @return
+	 */
+	@Override
+	public PasswordHashingStatsModel getPasswordHashingStats() {
+		return passwordHashingExecutor.getStats();
+	}
 }
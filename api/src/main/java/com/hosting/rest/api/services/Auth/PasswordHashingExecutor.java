@@ -0,0 +1,173 @@
+package com.hosting.rest.api.services.Auth;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.exceptions.TooManyRequests.TooManyRequestsCustomException;
+import com.hosting.rest.api.models.Auth.PasswordHashingStatsModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Hilos dedicados a calcular y comprobar contraseñas (BCrypt).
+ *
+ *          Como mucho <code>booking.security.passwordHashing.threads</code>
+ *          contraseñas se calculan a la vez (por defecto la mitad de los
+ *          procesadores) y <code>booking.security.passwordHashing.queueCapacity</code>
+ *          esperan a un hilo libre. Con la cola llena la petición se rechaza al
+ *          momento con {@link TooManyRequestsCustomException} (429), de modo
+ *          que un pico de inicios de sesión no ocupa todos los hilos del
+ *          servidor ni todos los procesadores, y el resto de peticiones se
+ *          siguen atendiendo.
+ *
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+	private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final ThreadPoolExecutor executor;
+
+	private final int queueCapacity;
+
+	/*
+	 * Métricas
+	 */
+	private final AtomicLong completed = new AtomicLong();
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+
+	private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+	private final AtomicLong totalHashNanos = new AtomicLong();
+
+	private final AtomicLong maxHashNanos = new AtomicLong();
+
+	public PasswordHashingExecutor(@Value("${booking.security.passwordHashing.threads:0}") final int threads,
+			@Value("${booking.security.passwordHashing.queueCapacity:32}") final int queueCapacity) {
+		if (threads < 0 || queueCapacity < 1) {
+			throw new IllegalArgumentException("La configuración de los hilos de contraseñas no es válida.");
+		}
+
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		this.queueCapacity = queueCapacity;
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Calcula o comprueba una contraseña en uno de los hilos dedicados y espera
+	 * el resultado.
+	 *
+	 * @param hashing
+	 *
+	 * @return
+	 *
+	 * @throws TooManyRequestsCustomException Si la cola está llena.
+	 */
+	public <T> T execute(final Supplier<T> hashing) {
+		long enqueuedAt = System.nanoTime();
+
+		Future<T> result;
+
+		try {
+			result = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				record(totalQueueWaitNanos, maxQueueWaitNanos, startedAt - enqueuedAt);
+
+				try {
+					return hashing.get();
+
+				} finally {
+					record(totalHashNanos, maxHashNanos, System.nanoTime() - startedAt);
+					completed.incrementAndGet();
+				}
+			});
+
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			log.warn("Se rechaza el cálculo de una contraseña: hay {} en espera.", executor.getQueue().size());
+
+			throw new TooManyRequestsCustomException(
+					"Hay demasiadas peticiones de inicio de sesión. Inténtalo de nuevo en unos segundos.");
+		}
+
+		try {
+			return result.get();
+
+		} catch (InterruptedException e) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException("Se ha interrumpido el cálculo de la contraseña.", e);
+
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * @return Estado de los hilos y tiempos de espera y de cálculo.
+	 */
+	public PasswordHashingStatsModel getStats() {
+		long completedHashes = completed.get();
+
+		return new PasswordHashingStatsModel(executor.getMaximumPoolSize(), executor.getActiveCount(),
+				executor.getQueue().size(), queueCapacity, completedHashes, rejected.get(),
+				average(totalQueueWaitNanos.get(), completedHashes), toMillis(maxQueueWaitNanos.get()),
+				average(totalHashNanos.get(), completedHashes), toMillis(maxHashNanos.get()));
+	}
+
+	private static void record(final AtomicLong total, final AtomicLong max, final long nanos) {
+		total.addAndGet(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static Double average(final long totalNanos, final long count) {
+		return count > 0 ? toMillis(totalNanos) / count : null;
+	}
+
+	private static double toMillis(final long nanos) {
+		return (double) nanos / NANOS_PER_MILLI;
+	}
+}
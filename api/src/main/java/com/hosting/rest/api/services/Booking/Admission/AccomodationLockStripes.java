@@ -0,0 +1,77 @@
+package com.hosting.rest.api.services.Booking.Admission;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Bloqueos por alojamiento repartidos en un número fijo de franjas.
+ *
+ *          Las operaciones sobre un mismo número de registro se ejecutan de una
+ *          en una, mientras que las de alojamientos de franjas distintas se
+ *          ejecutan en paralelo.
+ *
+ */
+@Component
+public class AccomodationLockStripes {
+
+	public static final int DEFAULT_STRIPES = 64;
+
+	private final ReentrantLock[] locks;
+
+	private final int mask;
+
+	@Autowired
+	public AccomodationLockStripes(@Value("${booking.admission.lockStripes:" + DEFAULT_STRIPES + "}") final int stripes) {
+		// Redondear a potencia de 2 para calcular la franja con una máscara
+		int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+
+		locks = new ReentrantLock[size];
+		mask = size - 1;
+
+		for (int i = 0; i < size; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Ejecuta <code>action</code> con el bloqueo del alojamiento
+	 * <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param action
+	 *
+	 * @return Resultado de <code>action</code>.
+	 */
+	public <T> T executeLocked(final String regNumber, final Supplier<T> action) {
+		ReentrantLock lock = locks[stripeOf(regNumber)];
+
+		lock.lock();
+
+		try {
+			return action.get();
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Número de franjas.
+	 */
+	public int getStripes() {
+		return locks.length;
+	}
+
+	int stripeOf(final String regNumber) {
+		int hash = regNumber.hashCode();
+
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
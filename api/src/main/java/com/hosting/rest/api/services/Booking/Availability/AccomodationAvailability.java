@@ -0,0 +1,199 @@
+package com.hosting.rest.api.services.Booking.Availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.hosting.rest.api.models.Booking.BookingDateRange;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Calendario de ocupación de un alojamiento.
+ *
+ *          Las reservas activas se agrupan en rangos ocupados que no se solapan,
+ *          ordenados por fecha de inicio. Cada rango conoce las reservas que lo
+ *          forman, de forma que al eliminar una reserva solo se recalcula su
+ *          rango. Todas las fechas se tratan como intervalos [ entrada , salida
+ *          ).
+ *
+ */
+public class AccomodationAvailability {
+
+	/**
+	 * Rangos ocupados indexados por su fecha de inicio.
+	 */
+	private final NavigableMap<LocalDateTime, BusyRange> busyRanges = new TreeMap<>();
+
+	/**
+	 * Reservas activas del alojamiento por id de reserva.
+	 */
+	private final Map<Integer, BookingDateRange> bookings = new HashMap<>();
+
+	/**
+	 * Añade o actualiza la reserva <code>bookingId</code>. Si las fechas no son
+	 * válidas la reserva deja de ocupar el calendario.
+	 *
+	 * @param bookingId
+	 * @param checkIn
+	 * @param checkOut
+	 */
+	public synchronized void addBooking(final Integer bookingId, final LocalDateTime checkIn,
+			final LocalDateTime checkOut) {
+		if (bookingId == null) {
+			return;
+		}
+
+		removeBooking(bookingId);
+
+		if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+			return;
+		}
+
+		BookingDateRange booking = new BookingDateRange(checkIn, checkOut);
+		bookings.put(bookingId, booking);
+
+		insertIntoRanges(bookingId, booking);
+	}
+
+	/**
+	 * Elimina la reserva <code>bookingId</code> del calendario.
+	 *
+	 * @param bookingId
+	 */
+	public synchronized void removeBooking(final Integer bookingId) {
+		BookingDateRange booking = bookings.remove(bookingId);
+
+		if (booking == null) {
+			return;
+		}
+
+		BusyRange range = busyRanges.floorEntry(booking.getStart()).getValue();
+		busyRanges.remove(range.start);
+
+		// Reconstruir únicamente el rango que contenía la reserva.
+		range.bookingIds.remove(bookingId);
+
+		for (Integer remainingId : range.bookingIds) {
+			insertIntoRanges(remainingId, bookings.get(remainingId));
+		}
+	}
+
+	/**
+	 * Comprueba si el intervalo [ <code>checkIn</code> , <code>checkOut</code> )
+	 * está libre.
+	 *
+	 * @param checkIn
+	 * @param checkOut
+	 *
+	 * @return
+	 */
+	public synchronized boolean isAvailable(final LocalDateTime checkIn, final LocalDateTime checkOut) {
+		// Como los rangos no se solapan, basta con mirar el último que empieza antes
+		// de la salida.
+		Map.Entry<LocalDateTime, BusyRange> candidate = busyRanges.lowerEntry(checkOut);
+
+		return candidate == null || !candidate.getValue().end.isAfter(checkIn);
+	}
+
+	/**
+	 * Intervalos libres comprendidos entre <code>from</code> y <code>to</code>.
+	 *
+	 * @param from
+	 * @param to
+	 *
+	 * @return
+	 */
+	public synchronized List<BookingDateRange> findFreeWindows(final LocalDateTime from, final LocalDateTime to) {
+		List<BookingDateRange> freeWindows = new ArrayList<>();
+
+		LocalDateTime cursor = from;
+
+		Map.Entry<LocalDateTime, BusyRange> previous = busyRanges.lowerEntry(from);
+
+		if (previous != null && previous.getValue().end.isAfter(cursor)) {
+			cursor = previous.getValue().end;
+		}
+
+		for (BusyRange range : busyRanges.subMap(from, true, to, false).values()) {
+			if (range.start.isAfter(cursor)) {
+				freeWindows.add(new BookingDateRange(cursor, range.start));
+			}
+
+			if (range.end.isAfter(cursor)) {
+				cursor = range.end;
+			}
+		}
+
+		if (cursor.isBefore(to)) {
+			freeWindows.add(new BookingDateRange(cursor, to));
+		}
+
+		return freeWindows;
+	}
+
+	/**
+	 * @return Fechas de todas las reservas activas del alojamiento.
+	 */
+	public synchronized List<BookingDateRange> getBookedDates() {
+		return new ArrayList<>(bookings.values());
+	}
+
+	/**
+	 * Inserta la reserva en los rangos ocupados, fusionando todos los rangos con
+	 * los que se solapa o es contigua.
+	 */
+	private void insertIntoRanges(final Integer bookingId, final BookingDateRange booking) {
+		BusyRange merged = new BusyRange(booking.getStart(), booking.getEnd());
+		merged.bookingIds.add(bookingId);
+
+		Map.Entry<LocalDateTime, BusyRange> previous = busyRanges.floorEntry(booking.getStart());
+
+		if (previous != null && !previous.getValue().end.isBefore(booking.getStart())) {
+			merged.absorb(previous.getValue());
+			busyRanges.remove(previous.getKey());
+		}
+
+		Map.Entry<LocalDateTime, BusyRange> next = busyRanges.ceilingEntry(merged.start);
+
+		while (next != null && !next.getKey().isAfter(merged.end)) {
+			merged.absorb(next.getValue());
+			busyRanges.remove(next.getKey());
+
+			next = busyRanges.ceilingEntry(merged.start);
+		}
+
+		busyRanges.put(merged.start, merged);
+	}
+
+	/**
+	 * Rango ocupado formado por una o varias reservas solapadas.
+	 */
+	private static final class BusyRange {
+		private LocalDateTime start;
+		private LocalDateTime end;
+		private final List<Integer> bookingIds = new ArrayList<>(1);
+
+		private BusyRange(final LocalDateTime start, final LocalDateTime end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		private void absorb(final BusyRange other) {
+			if (other.start.isBefore(start)) {
+				start = other.start;
+			}
+
+			if (other.end.isAfter(end)) {
+				end = other.end;
+			}
+
+			bookingIds.addAll(other.bookingIds);
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package com.hosting.rest.api.services.Booking.Availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hosting.rest.api.models.Booking.BookingModel;
+import com.hosting.rest.api.models.Booking.BookingStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Calendarios de ocupación de los alojamientos en memoria.
+ *
+ *          El calendario de un alojamiento se carga de base de datos la primera
+ *          vez que se consulta y después se mantiene con las altas, cambios de
+ *          estado y borrados de reservas. Los cambios hechos dentro de una
+ *          transacción se aplican cuando se confirma, de modo que un
+ *          <i>rollback</i> no deja el calendario por delante de la base de
+ *          datos.
+ *
+ *          La lectura de un calendario no bloquea al resto: los cambios que se
+ *          confirman mientras se lee se guardan y se aplican al calendario
+ *          leído antes de publicarlo.
+ *
+ */
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final ConcurrentMap<String, AccomodationAvailability> availabilityByRegNumber = new ConcurrentHashMap<>();
+
+	/**
+	 * Lecturas de calendarios en curso por alojamiento. Protegido por su propio
+	 * monitor, que también ordena la publicación de los calendarios leídos con
+	 * la aplicación de los cambios.
+	 */
+	private final Map<String, List<PendingLoad>> pendingLoads = new HashMap<>();
+
+	/**
+	 * Obtiene el calendario del alojamiento <code>regNumber</code>, cargándolo si
+	 * todavía no está en memoria.
+	 *
+	 * @param regNumber
+	 *
+	 * @return
+	 */
+	public AccomodationAvailability getAvailability(final String regNumber) {
+		AccomodationAvailability availability = availabilityByRegNumber.get(regNumber);
+
+		if (availability != null) {
+			return availability;
+		}
+
+		PendingLoad load = new PendingLoad();
+
+		synchronized (pendingLoads) {
+			pendingLoads.computeIfAbsent(regNumber, key -> new ArrayList<>()).add(load);
+		}
+
+		AccomodationAvailability loaded = null;
+
+		try {
+			loaded = loadAvailability(regNumber);
+
+		} finally {
+			synchronized (pendingLoads) {
+				List<PendingLoad> loads = pendingLoads.get(regNumber);
+				loads.remove(load);
+
+				if (loads.isEmpty()) {
+					pendingLoads.remove(regNumber);
+				}
+
+				if (loaded != null) {
+					availability = availabilityByRegNumber.putIfAbsent(regNumber, loaded);
+
+					if (availability == null) {
+						for (Consumer<AccomodationAvailability> change : load.changes) {
+							change.accept(loaded);
+						}
+
+						availability = loaded;
+					}
+				}
+			}
+		}
+
+		return availability;
+	}
+
+	/**
+	 * Registra la reserva <code>booking</code> si ocupa fechas del alojamiento o
+	 * la elimina en caso contrario.
+	 *
+	 * @param booking
+	 */
+	public void onBookingChanged(final BookingModel booking) {
+		if (booking == null || booking.getIdAccomodation() == null) {
+			return;
+		}
+
+		onBookingChanged(booking.getIdAccomodation().getRegisterNumber(), booking.getId(), booking.getCheckIn(),
+				booking.getCheckOut(), booking.getBookingStatus());
+	}
+
+	/**
+	 * Registra la reserva <code>bookingId</code> del alojamiento
+	 * <code>regNumber</code> si su estado <code>bookingStatus</code> ocupa fechas
+	 * o la elimina en caso contrario.
+	 *
+	 * @param regNumber
+	 * @param bookingId
+	 * @param checkIn
+	 * @param checkOut
+	 * @param bookingStatus
+	 */
+	public void onBookingChanged(final String regNumber, final Integer bookingId, final LocalDateTime checkIn,
+			final LocalDateTime checkOut, final BookingStatus bookingStatus) {
+		afterCommit(() -> applyChange(regNumber, availability -> {
+			if (isBlockingStatus(bookingStatus)) {
+				availability.addBooking(bookingId, checkIn, checkOut);
+
+			} else {
+				availability.removeBooking(bookingId);
+			}
+		}));
+	}
+
+	/**
+	 * Elimina la reserva <code>bookingId</code> del calendario del alojamiento
+	 * <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 * @param bookingId
+	 */
+	public void onBookingRemoved(final String regNumber, final Integer bookingId) {
+		afterCommit(() -> applyChange(regNumber, availability -> availability.removeBooking(bookingId)));
+	}
+
+	/**
+	 * Descarta el calendario del alojamiento <code>regNumber</code>.
+	 *
+	 * @param regNumber
+	 */
+	public void evict(final String regNumber) {
+		synchronized (pendingLoads) {
+			availabilityByRegNumber.remove(regNumber);
+		}
+	}
+
+	/**
+	 * Indica si una reserva con estado <code>bookingStatus</code> ocupa las fechas
+	 * del alojamiento.
+	 *
+	 * @param bookingStatus
+	 *
+	 * @return
+	 */
+	public static boolean isBlockingStatus(final BookingStatus bookingStatus) {
+		return bookingStatus == BookingStatus.CONFIRMADA || bookingStatus == BookingStatus.PENDIENTE
+				|| bookingStatus == BookingStatus.COMPLETADA;
+	}
+
+	/**
+	 * Aplica el cambio <code>change</code> al calendario del alojamiento
+	 * <code>regNumber</code> si está cargado. Si no lo está se leerá completo en
+	 * la siguiente consulta.
+	 *
+	 * El cambio también se guarda en las lecturas en curso del mismo
+	 * alojamiento, que pueden haber leído la base de datos antes de confirmarse.
+	 * Añadir y quitar reservas es idempotente, así que aplicarlo dos veces no
+	 * tiene efecto.
+	 */
+	private void applyChange(final String regNumber, final Consumer<AccomodationAvailability> change) {
+		if (regNumber == null) {
+			return;
+		}
+
+		synchronized (pendingLoads) {
+			for (PendingLoad load : pendingLoads.getOrDefault(regNumber, Collections.emptyList())) {
+				load.changes.add(change);
+			}
+
+			AccomodationAvailability availability = availabilityByRegNumber.get(regNumber);
+
+			if (availability != null) {
+				change.accept(availability);
+			}
+		}
+	}
+
+	/**
+	 * Ejecuta <code>action</code> cuando se confirme la transacción en curso, o
+	 * en el momento si no hay ninguna.
+	 */
+	private static void afterCommit(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/**
+	 * Lee de la base de datos las reservas que ocupan fechas del alojamiento
+	 * <code>regNumber</code>.
+	 */
+	AccomodationAvailability loadAvailability(final String regNumber) {
+		String listBlockingBookingDatesQuery = "SELECT bm.id, bm.checkIn, bm.checkOut " + "FROM BookingModel bm "
+				+ "WHERE bm.idAccomodation.registerNumber = :regNumber "
+				+ "AND bm.bookingStatus IN (:confirmed, :pending, :completed)";
+
+		List<Object[]> bookingDates = em.createQuery(listBlockingBookingDatesQuery, Object[].class)
+				.setParameter("regNumber", regNumber).setParameter("confirmed", BookingStatus.CONFIRMADA)
+				.setParameter("pending", BookingStatus.PENDIENTE).setParameter("completed", BookingStatus.COMPLETADA)
+				.getResultList();
+
+		AccomodationAvailability availability = new AccomodationAvailability();
+
+		for (Object[] booking : bookingDates) {
+			availability.addBooking((Integer) booking[0], (LocalDateTime) booking[1], (LocalDateTime) booking[2]);
+		}
+
+		log.debug("Calendario del alojamiento [ {} ] cargado con {} reservas.", regNumber, bookingDates.size());
+
+		return availability;
+	}
+
+	/**
+	 * Cambios confirmados durante una lectura de un calendario.
+	 */
+	private static final class PendingLoad {
+		private final List<Consumer<AccomodationAvailability>> changes = new ArrayList<>();
+	}
+}
@@ -10,6 +10,7 @@ import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParamNotF
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -22,13 +23,22 @@ import javax.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.hosting.rest.api.exceptions.Conflict.ConflictCustomException;
+import com.hosting.rest.api.models.Booking.BookingDateRange;
 import com.hosting.rest.api.models.Booking.BookingModel;
 import com.hosting.rest.api.models.Booking.BookingStatus;
 import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
 import com.hosting.rest.api.repositories.Booking.IBookingRepository;
 import com.hosting.rest.api.repositories.User.IUserRepository;
 import com.hosting.rest.api.repositories.User.UserHost.IUserHostRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationCollectionsLoader;
+import com.hosting.rest.api.services.Booking.Admission.AccomodationLockStripes;
+import com.hosting.rest.api.services.Booking.Availability.AccomodationAvailability;
+import com.hosting.rest.api.services.Booking.Availability.BookingAvailabilityIndex;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 
@@ -39,6 +49,7 @@ import com.hosting.rest.api.repositories.User.UserHost.IUserHostRepository;
  * 
  */
 @Service
+@Slf4j
 public class BookingServiceImpl implements IBookingService {
 
 	@Autowired
@@ -53,6 +64,18 @@ public class BookingServiceImpl implements IBookingService {
 	@Autowired
 	private IUserHostRepository userHostRepo;
 
+	@Autowired
+	private BookingAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private AccomodationLockStripes accomodationLocks;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private AccomodationCollectionsLoader collectionsLoader;
+
 	@PersistenceContext
 	private EntityManager em;
 
@@ -60,19 +83,38 @@ public class BookingServiceImpl implements IBookingService {
 	 * Creación de una nueva reserva con los datos que contiene el modelo
 	 * <code>bookingToAdd</code>
 	 * 
+	 * Las reservas de un mismo alojamiento se admiten de una en una: primero con
+	 * el bloqueo en memoria del alojamiento y, dentro de la transacción, con el
+	 * bloqueo de su fila en ACCOMODATION, de forma que tampoco se solapen
+	 * reservas creadas desde otras instancias de la aplicación.
+	 * 
 	 * @see #calculateBookingServiceFee(BigDecimal)
 	 * @see #calculateBookingTotalCost(BigDecimal, BigDecimal, BigDecimal)
+	 * @see #admitBooking(BookingModel)
 	 * 
 	 * @param bookingModelToCreate
 	 * 
 	 * @return
+	 * 
+	 * @throws ConflictCustomException Si las fechas de la reserva ya están
+	 *                                 ocupadas.
 	 */
 	@Override
 	public BookingModel addNewBooking(final BookingModel bookingToAdd) {
 		// Validar reserva pasada como parametro
 		validateParam(isNotNull(bookingToAdd), "Alguno de los valores de la reserva no es válido.");
 
-		// checkBookingDates(bookingToAdd);
+		// Validar alojamiento de la reserva
+		validateParam(
+				isNotNull(bookingToAdd.getIdAccomodation())
+						&& isStringNotBlank(bookingToAdd.getIdAccomodation().getRegisterNumber()),
+				"El alojamiento de la reserva no es válido.");
+
+		// Validar fechas de la reserva
+		validateParam(
+				isNotNull(bookingToAdd.getCheckIn()) && isNotNull(bookingToAdd.getCheckOut())
+						&& bookingToAdd.getCheckIn().isBefore(bookingToAdd.getCheckOut()),
+				"Las fechas de entrada y salida de la reserva no son válidas.");
 
 		// Calcular la comisión
 		BigDecimal newServiceFee = calculateBookingServiceFee(bookingToAdd.getAmount());
@@ -87,40 +129,93 @@ public class BookingServiceImpl implements IBookingService {
 				total, BookingStatus.PENDIENTE, bookingToAdd.getIdUser(), bookingToAdd.getIdAccomodation(),
 				bookingToAdd.getIdPayment(), LocalDateTime.now());
 
-		return bookingRepo.save(newBooking);
+		// El bloqueo se libera después del commit para que la siguiente reserva del
+		// alojamiento vea esta.
+		BookingModel savedBooking = accomodationLocks.executeLocked(
+				bookingToAdd.getIdAccomodation().getRegisterNumber(),
+				() -> transactionTemplate.execute(status -> admitBooking(newBooking)));
+
+		availabilityIndex.onBookingChanged(savedBooking);
+
+		return savedBooking;
 	}
 
 	/**
-	 * Comprueba que las fechas de una reserva pasada como parámetro estén
-	 * disponibles.
+	 * Guarda la reserva <code>newBooking</code> si sus fechas siguen libres. Debe
+	 * ejecutarse dentro de una transacción.
+	 * 
+	 * @param newBooking
 	 * 
-	 * @param bookingToCheck
-	 * @deprecated
 	 * @return
+	 * 
+	 * @throws ConflictCustomException Si las fechas de la reserva ya están
+	 *                                 ocupadas.
+	 */
+	private BookingModel admitBooking(final BookingModel newBooking) {
+		String regNumber = newBooking.getIdAccomodation().getRegisterNumber();
+
+		lockAccomodation(regNumber);
+
+		checkDatesAreFree(regNumber, newBooking.getCheckIn(), newBooking.getCheckOut(), null);
+
+		return bookingRepo.save(newBooking);
+	}
+
+	/**
+	 * Bloquea la fila del alojamiento <code>regNumber</code> hasta el final de la
+	 * transacción en curso.
+	 * 
+	 * @param regNumber
+	 */
+	private void lockAccomodation(final String regNumber) {
+		List<?> lockedAccomodation = em
+				.createNativeQuery("SELECT REG_NUM FROM ACCOMODATION WHERE REG_NUM = :regNumber FOR UPDATE")
+				.setParameter("regNumber", regNumber).getResultList();
+
+		// Comprobar si existe el alojamiento
+		validateParamNotFound(!lockedAccomodation.isEmpty(),
+				"No existe un alojamiento con número de registro " + regNumber);
+	}
+
+	/**
+	 * Comprueba que ninguna reserva que ocupa fechas del alojamiento
+	 * <code>regNumber</code>, salvo <code>excludedBookingId</code>, se solapa con
+	 * [ <code>checkIn</code> , <code>checkOut</code> ). Debe ejecutarse con la
+	 * fila del alojamiento bloqueada.
+	 * 
+	 * @param regNumber
+	 * @param checkIn
+	 * @param checkOut
+	 * @param excludedBookingId <code>null</code> si la reserva es nueva.
+	 * 
+	 * @throws ConflictCustomException Si las fechas ya están ocupadas.
 	 */
-//	private boolean checkBookingDates(final BookingModel bookingToCheck) {
-//		Set<List<LocalDateTime>> reservedDates = checkAccomodationAvailability(
-//				bookingToCheck.getIdAccomodation().getRegisterNumber());
-//
-//		LocalDateTime checkIn = bookingToCheck.getCheckIn();
-//		LocalDateTime checkOut = bookingToCheck.getCheckOut();
-//
-//		for (List<LocalDateTime> date : reservedDates) {
-//			LocalDateTime checkInReserved = date.get(0);
-//			LocalDateTime checkOutReserved = date.get(1);
-//
-//			boolean isCheckInValid = (checkIn.isEqual(checkInReserved) || checkIn.isEqual(checkOutReserved))
-//					|| (checkIn.isBefore(checkOutReserved) && checkIn.isAfter(checkOutReserved));
-//
-//			boolean isCheckOutValid = (checkOut.isEqual(checkInReserved) || checkOut.isEqual(checkOutReserved))
-//					|| (checkOut.isBefore(checkOutReserved) && checkOut.isAfter(checkOutReserved));
-//
-//			if (!(isCheckInValid && isCheckOutValid)) {
-//				return false;
-//			}
-//		}
-//		return true;
-//	}
+	private void checkDatesAreFree(final String regNumber, final LocalDateTime checkIn, final LocalDateTime checkOut,
+			final Integer excludedBookingId) {
+		String countOverlappingBookingsQuery = "SELECT COUNT(bm) FROM BookingModel bm "
+				+ "WHERE bm.idAccomodation.registerNumber = :regNumber "
+				+ "AND bm.bookingStatus IN (:confirmed, :pending, :completed) "
+				+ "AND bm.checkIn < :checkOut AND bm.checkOut > :checkIn";
+
+		if (excludedBookingId != null) {
+			countOverlappingBookingsQuery += " AND bm.id <> :excludedBookingId";
+		}
+
+		TypedQuery<Long> overlappingBookingsCount = em.createQuery(countOverlappingBookingsQuery, Long.class)
+				.setParameter("regNumber", regNumber).setParameter("confirmed", BookingStatus.CONFIRMADA)
+				.setParameter("pending", BookingStatus.PENDIENTE).setParameter("completed", BookingStatus.COMPLETADA)
+				.setParameter("checkIn", checkIn).setParameter("checkOut", checkOut);
+
+		if (excludedBookingId != null) {
+			overlappingBookingsCount.setParameter("excludedBookingId", excludedBookingId);
+		}
+
+		if (overlappingBookingsCount.getSingleResult() > 0) {
+			log.debug("Las fechas de la reserva del alojamiento [ {} ] ya están ocupadas.", regNumber);
+			throw new ConflictCustomException(
+					"El alojamiento [ " + regNumber + " ] no está disponible en las fechas seleccionadas.");
+		}
+	}
 
 	/**
 	 * Actualización de los datos de una reserva con id <code>bookingId</code>.
@@ -275,7 +370,11 @@ public class BookingServiceImpl implements IBookingService {
 		validateParamNotFound(bookingRepo.existsById(bookingId),
 				"La reserva con id [ " + bookingId + " ] a eliminar no existe.");
 
+		String regNumber = findAccomodationRegNumberOfBooking(bookingId);
+
 		bookingRepo.deleteById(bookingId);
+
+		availabilityIndex.onBookingRemoved(regNumber, bookingId);
 	}
 
 	/**
@@ -288,6 +387,7 @@ public class BookingServiceImpl implements IBookingService {
 	 * @return
 	 * @throws NumberFormatException Si <code>yearToSearch</code> no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<BookingModel> findByBookingYear(final String regNumber, final Integer yearToSearch)
 			throws NumberFormatException {
@@ -310,7 +410,7 @@ public class BookingServiceImpl implements IBookingService {
 		bookings.setParameter("year", yearToSearch);
 		bookings.setParameter("registerNumber", regNumber);
 
-		return bookings.getResultList();
+		return collectionsLoader.loadCollectionsOf(bookings.getResultList(), BookingModel::getIdAccomodation);
 	}
 
 	/**
@@ -323,6 +423,7 @@ public class BookingServiceImpl implements IBookingService {
 	 * 
 	 * @throws NumberFormatException Si el id de usuario no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<BookingModel> findAllBookingByUser(final Integer userId) throws NumberFormatException {
 		// Validar id de usuario
@@ -338,7 +439,7 @@ public class BookingServiceImpl implements IBookingService {
 
 		userBookings.setParameter("userId", userId);
 
-		return userBookings.getResultList();
+		return collectionsLoader.loadCollectionsOf(userBookings.getResultList(), BookingModel::getIdAccomodation);
 	}
 
 	/**
@@ -350,12 +451,17 @@ public class BookingServiceImpl implements IBookingService {
 	 * 
 	 * @throws NumberFormatException Si <code>bookingId</code> no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public BookingModel getBookingById(final Integer bookingId) throws NumberFormatException {
 		// Validar Id de reserva
 		validateParam(isIntegerValidAndPositive(bookingId), "El id de reserva [ " + bookingId + " ] no es válido.");
 
-		return bookingRepo.findById(bookingId).get();
+		BookingModel booking = bookingRepo.findById(bookingId).get();
+
+		collectionsLoader.loadCollections(booking.getIdAccomodation());
+
+		return booking;
 	}
 
 	/**
@@ -372,7 +478,11 @@ public class BookingServiceImpl implements IBookingService {
 		// Validar id de usuario
 		validateParam(isIntegerValidAndPositive(userId), "El id de usuario [ " + userId + " ] no es un número.");
 
-		return findAllBookingByUser(userId).size();
+		// Comprobar si existe el usuario
+		validateParamNotFound(userRepo.existsById(userId), "No existe un usuario con id " + userId);
+
+		return em.createQuery("SELECT COUNT(bm) FROM BookingModel bm WHERE bm.idUser.id = :userId", Long.class)
+				.setParameter("userId", userId).getSingleResult().intValue();
 	}
 
 	/**
@@ -386,35 +496,94 @@ public class BookingServiceImpl implements IBookingService {
 
 		Set<List<LocalDateTime>> bookingDates = new HashSet<List<LocalDateTime>>();
 
-		// Validar número de registro del alojamiento
-		validateParam(isStringNotBlank(regNumber), "El número de registro del alojamiento no es válido.");
+		for (BookingDateRange bookedDates : getAccomodationAvailability(regNumber).getBookedDates()) {
+			List<LocalDateTime> dates = new ArrayList<LocalDateTime>();
+			dates.add(bookedDates.getStart());
+			dates.add(bookedDates.getEnd());
 
-		// Comprobar si existe el alojamiento
-		validateParamNotFound(accomodationRepo.existsById(regNumber),
-				"No existe un alojamiento con número de registro " + regNumber);
+			bookingDates.add(dates);
+		}
 
-		String listAllAvaibleBookingDatesByRegNumberQuery = "SELECT bm " + "FROM BookingModel bm "
-				+ "WHERE bm.idAccomodation.registerNumber = :regNumber " + "AND bm.bookingStatus = '"
-				+ BookingStatus.CONFIRMADA + "' " + "OR bm.bookingStatus = '" + BookingStatus.PENDIENTE + "' "
-				+ "OR bm.bookingStatus = '" + BookingStatus.COMPLETADA + "'"
-				+ "OR bm.bookingStatus = '" + BookingStatus.CONFIRMADA + "'";
+		return bookingDates;
+	}
 
-		TypedQuery<BookingModel> listAvailableBookingDates = em.createQuery(listAllAvaibleBookingDatesByRegNumberQuery,
-				BookingModel.class);
+	/**
+	 * Comprueba si el alojamiento con número de registro <code>regNumber</code>
+	 * está libre entre <code>checkIn</code> y <code>checkOut</code>.
+	 * 
+	 * @param regNumber
+	 * @param checkIn
+	 * @param checkOut
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean isAccomodationAvailable(final String regNumber, final LocalDateTime checkIn,
+			final LocalDateTime checkOut) {
+		// Validar fechas
+		validateParam(isNotNull(checkIn) && isNotNull(checkOut) && checkIn.isBefore(checkOut),
+				"Las fechas de entrada y salida no son válidas.");
 
-		listAvailableBookingDates.setParameter("regNumber", regNumber);
+		return getAccomodationAvailability(regNumber).isAvailable(checkIn, checkOut);
+	}
 
-		List<BookingModel> accomodationBookings = listAvailableBookingDates.getResultList();
+	/**
+	 * Listado de los intervalos libres del alojamiento con número de registro
+	 * <code>regNumber</code> durante el mes <code>month</code> del año
+	 * <code>year</code>.
+	 * 
+	 * @param regNumber
+	 * @param year
+	 * @param month
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<BookingDateRange> findAvailableDates(final String regNumber, final Integer year,
+			final Integer month) {
+		// Validar año
+		validateParam(isIntegerValidAndPositive(year), "El año [ " + year + " ] introducido no es válido.");
 
-		for (BookingModel bm : accomodationBookings) {
-			List<LocalDateTime> dates = new ArrayList<LocalDateTime>();
-			dates.add(bm.getCheckIn());
-			dates.add(bm.getCheckOut());
+		// Validar mes
+		validateParam(isIntegerValidAndPositive(month) && month <= 12,
+				"El mes [ " + month + " ] introducido no es válido.");
 
-			bookingDates.add(dates);
-		}
+		YearMonth monthToSearch = YearMonth.of(year, month);
 
-		return bookingDates;
+		return getAccomodationAvailability(regNumber).findFreeWindows(monthToSearch.atDay(1).atStartOfDay(),
+				monthToSearch.plusMonths(1).atDay(1).atStartOfDay());
+	}
+
+	/**
+	 * Calendario de ocupación del alojamiento con número de registro
+	 * <code>regNumber</code>.
+	 * 
+	 * @param regNumber
+	 * 
+	 * @return
+	 */
+	private AccomodationAvailability getAccomodationAvailability(final String regNumber) {
+		// Validar número de registro del alojamiento
+		validateParam(isStringNotBlank(regNumber), "El número de registro del alojamiento no es válido.");
+
+		// Comprobar si existe el alojamiento
+		validateParamNotFound(accomodationRepo.existsById(regNumber),
+				"No existe un alojamiento con número de registro " + regNumber);
+
+		return availabilityIndex.getAvailability(regNumber);
+	}
+
+	/**
+	 * Número de registro del alojamiento de la reserva con id
+	 * <code>bookingId</code>.
+	 * 
+	 * @param bookingId
+	 * 
+	 * @return
+	 */
+	private String findAccomodationRegNumberOfBooking(final Integer bookingId) {
+		return em.createQuery("SELECT bm.idAccomodation.registerNumber FROM BookingModel bm WHERE bm.id = :bookingId",
+				String.class).setParameter("bookingId", bookingId).getSingleResult();
 	}
 
 	/**
@@ -422,6 +591,7 @@ public class BookingServiceImpl implements IBookingService {
 	 * 
 	 * @param userId
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<BookingModel> findAllBookingFromHostAccomodations(final Integer userId) {
 
@@ -437,20 +607,28 @@ public class BookingServiceImpl implements IBookingService {
 		TypedQuery<BookingModel> bookings = em.createQuery(findAllBookingByUserQuery, BookingModel.class)
 				.setParameter("userId", userId);
 
-		return bookings.getResultList();
+		return collectionsLoader.loadCollectionsOf(bookings.getResultList(), BookingModel::getIdAccomodation);
 	}
 
 	/**
 	 * Actualización del estado de una reserva.
 	 * 
+	 * Si la reserva pasa a ocupar fechas (por ejemplo, una reserva cancelada que
+	 * vuelve a estar pendiente) se admite igual que una reserva nueva: con el
+	 * bloqueo en memoria y el de la fila del alojamiento, comprobando que sus
+	 * fechas siguen libres.
+	 * 
+	 * @see #addNewBooking(BookingModel)
+	 * 
 	 * @param bookingId
 	 * @param newBookingStatus
 	 * 
 	 * @return
 	 * 
-	 * @throws NumberFormatException Si el id de la reserva no es un número.
+	 * @throws NumberFormatException   Si el id de la reserva no es un número.
+	 * @throws ConflictCustomException Si la reserva pasa a ocupar fechas que ya
+	 *                                 están ocupadas.
 	 */
-	@Transactional
 	@Override
 	public void updateBookingStatus(final Integer bookingId, final BookingStatus newBookingStatus)
 			throws NumberFormatException {
@@ -463,7 +641,55 @@ public class BookingServiceImpl implements IBookingService {
 		// Validar nuevo estado de reserva
 		validateParam(isNotNull(newBookingStatus), "El nuevo estado para la reserva no es válido.");
 
+		if (!BookingAvailabilityIndex.isBlockingStatus(newBookingStatus)) {
+			transactionTemplate.executeWithoutResult(status -> changeBookingStatus(bookingId, newBookingStatus));
+			return;
+		}
+
+		String regNumber = findAccomodationRegNumberOfBooking(bookingId);
+
+		// El bloqueo se libera después del commit, como en addNewBooking.
+		accomodationLocks.executeLocked(regNumber, () -> transactionTemplate.execute(status -> {
+			// Se bloquea antes de leer nada para que la comprobación de fechas vea las
+			// reservas confirmadas por otras instancias.
+			lockAccomodation(regNumber);
+
+			changeBookingStatus(bookingId, newBookingStatus);
+			return null;
+		}));
+	}
+
+	/**
+	 * Cambia el estado de la reserva <code>bookingId</code> y actualiza el
+	 * calendario del alojamiento cuando se confirme. Debe ejecutarse dentro de una
+	 * transacción y, si la reserva pasa a ocupar fechas, con la fila del
+	 * alojamiento bloqueada.
+	 * 
+	 * @param bookingId
+	 * @param newBookingStatus
+	 * 
+	 * @throws ConflictCustomException Si la reserva pasa a ocupar fechas que ya
+	 *                                 están ocupadas.
+	 */
+	private void changeBookingStatus(final Integer bookingId, final BookingStatus newBookingStatus) {
+		Object[] booking = em.createQuery("SELECT bm.idAccomodation.registerNumber, bm.checkIn, bm.checkOut, "
+				+ "bm.bookingStatus FROM BookingModel bm WHERE bm.id = :bookingId", Object[].class)
+				.setParameter("bookingId", bookingId).getSingleResult();
+
+		String regNumber = (String) booking[0];
+		LocalDateTime checkIn = (LocalDateTime) booking[1];
+		LocalDateTime checkOut = (LocalDateTime) booking[2];
+
+		// Una reserva que vuelve a ocupar fechas se comprueba como una nueva.
+		if (BookingAvailabilityIndex.isBlockingStatus(newBookingStatus)
+				&& !BookingAvailabilityIndex.isBlockingStatus((BookingStatus) booking[3])) {
+			checkDatesAreFree(regNumber, checkIn, checkOut, bookingId);
+		}
+
 		em.createQuery("UPDATE BookingModel bm SET bm.bookingStatus = :bookingStatus WHERE id = :bookingId")
 				.setParameter("bookingId", bookingId).setParameter("bookingStatus", newBookingStatus).executeUpdate();
+
+		// Actualizar el calendario del alojamiento con el nuevo estado
+		availabilityIndex.onBookingChanged(regNumber, bookingId, checkIn, checkOut, newBookingStatus);
 	}
 }
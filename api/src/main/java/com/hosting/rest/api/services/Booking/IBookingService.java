@@ -7,6 +7,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import com.hosting.rest.api.models.Booking.BookingDateRange;
 import com.hosting.rest.api.models.Booking.BookingModel;
 import com.hosting.rest.api.models.Booking.BookingStatus;
 
@@ -40,6 +41,11 @@ public interface IBookingService {
 	public List<BookingModel> findAllBookingByUser(final Integer userId);
 
 	public Set<List<LocalDateTime>> checkAccomodationAvailability(final String regNumber);
+
+	public boolean isAccomodationAvailable(final String regNumber, final LocalDateTime checkIn,
+			final LocalDateTime checkOut);
+
+	public List<BookingDateRange> findAvailableDates(final String regNumber, final Integer year, final Integer month);
 	
 	public List<BookingModel> findAllBookingFromHostAccomodations(final Integer userId);
  
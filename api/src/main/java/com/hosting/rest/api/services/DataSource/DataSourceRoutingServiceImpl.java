@@ -0,0 +1,38 @@
+package com.hosting.rest.api.services.DataSource;
+
+import static com.hosting.rest.api.Utils.AppUtils.isNotNull;
+import static com.hosting.rest.api.Utils.ServiceParamValidator.validateParamNotFound;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.hosting.rest.api.configuration.datasource.ReplicaRoutingDataSource;
+import com.hosting.rest.api.models.DataSource.DataSourceRoutingStatsModel;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Servicio que informa del reparto de conexiones entre el primario y
+ *          la réplica de lectura.
+ *
+ */
+@Service
+public class DataSourceRoutingServiceImpl implements IDataSourceRoutingService {
+
+	/**
+	 * Solo existe si se ha configurado una réplica de lectura.
+	 */
+	@Autowired
+	private ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+	@Override
+	public DataSourceRoutingStatsModel getRoutingStats() {
+		ReplicaRoutingDataSource routingDataSource = replicaRoutingDataSource.getIfAvailable();
+
+		validateParamNotFound(isNotNull(routingDataSource), "No hay ninguna réplica de lectura configurada.");
+
+		return routingDataSource.getStats();
+	}
+}
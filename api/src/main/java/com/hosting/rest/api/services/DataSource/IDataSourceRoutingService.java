@@ -0,0 +1,8 @@
+package com.hosting.rest.api.services.DataSource;
+
+import com.hosting.rest.api.models.DataSource.DataSourceRoutingStatsModel;
+
+public interface IDataSourceRoutingService {
+
+	public DataSourceRoutingStatsModel getRoutingStats();
+}
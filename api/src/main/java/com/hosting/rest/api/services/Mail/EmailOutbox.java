@@ -0,0 +1,63 @@
+package com.hosting.rest.api.services.Mail;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Cola de correos salientes (restablecer la contraseña, reservas,
+ *          etc.).
+ *
+ *          El correo se guarda en EMAIL_OUTBOX en la misma transacción que el
+ *          cambio que lo origina, de modo que solo se envía si ese cambio se
+ *          confirma y la petición no espera al servidor SMTP. Lo envía
+ *          {@link EmailOutboxDispatcher} en segundo plano.
+ *
+ */
+@Component
+public class EmailOutbox {
+
+	@Autowired
+	private EmailOutboxStore store;
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	/**
+	 * Guarda el correo <code>message</code>, uno por destinatario, para enviarlo
+	 * cuando se confirme la transacción en curso.
+	 *
+	 * @param message
+	 */
+	@Transactional
+	public void enqueue(final SimpleMailMessage message) {
+		String[] recipients = message.getTo();
+
+		if (recipients == null || recipients.length == 0) {
+			throw new IllegalArgumentException("El correo no tiene destinatarios.");
+		}
+
+		for (String to : recipients) {
+			store.insert(message.getFrom(), to, message.getSubject(), message.getText());
+		}
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					dispatcher.wakeUp();
+				}
+			});
+
+		} else {
+			dispatcher.wakeUp();
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package com.hosting.rest.api.services.Mail;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Envía en segundo plano los correos de EMAIL_OUTBOX.
+ *
+ *          Un hilo reserva lotes de hasta
+ *          <code>booking.mail.outbox.batchSize</code> correos pendientes y los
+ *          envía por una sola conexión SMTP. Se despierta al confirmarse un
+ *          correo nuevo ({@link EmailOutbox}) y, si no, cada
+ *          <code>booking.mail.outbox.pollMillis</code>. Cada correo que falla se
+ *          reintenta con una espera que se duplica en cada intento, desde
+ *          <code>booking.mail.outbox.retryBaseMillis</code> hasta
+ *          <code>booking.mail.outbox.retryMaxMillis</code>, y tras
+ *          <code>booking.mail.outbox.maxAttempts</code> intentos pasa a
+ *          <code>DEAD</code> y no se vuelve a enviar.
+ *
+ *          Los correos enviados o descartados se eliminan pasadas
+ *          <code>booking.mail.outbox.retentionHours</code> horas.
+ *
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+	/**
+	 * Tiempo que un lote queda reservado mientras se envía.
+	 */
+	private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+	/**
+	 * Correos eliminados en cada sentencia de limpieza.
+	 */
+	private static final int PURGE_BATCH_SIZE = 1000;
+
+	private final EmailOutboxStore store;
+
+	private final JavaMailSender mailSender;
+
+	private final int batchSize;
+
+	private final long pollMillis;
+
+	private final long retryBaseMillis;
+
+	private final long retryMaxMillis;
+
+	private final int maxAttempts;
+
+	private final long retentionHours;
+
+	private final Semaphore wakeUps = new Semaphore(0);
+
+	private volatile boolean running;
+
+	private Thread dispatcher;
+
+	public EmailOutboxDispatcher(final EmailOutboxStore store, final JavaMailSender mailSender,
+			@Value("${booking.mail.outbox.batchSize:50}") final int batchSize,
+			@Value("${booking.mail.outbox.pollMillis:5000}") final long pollMillis,
+			@Value("${booking.mail.outbox.retryBaseMillis:30000}") final long retryBaseMillis,
+			@Value("${booking.mail.outbox.retryMaxMillis:3600000}") final long retryMaxMillis,
+			@Value("${booking.mail.outbox.maxAttempts:8}") final int maxAttempts,
+			@Value("${booking.mail.outbox.retentionHours:168}") final long retentionHours) {
+		if (batchSize < 1 || pollMillis < 1 || retryBaseMillis < 1 || retryMaxMillis < retryBaseMillis
+				|| maxAttempts < 1 || retentionHours < 1) {
+			throw new IllegalArgumentException("La configuración del envío de correos no es válida.");
+		}
+
+		this.store = store;
+		this.mailSender = mailSender;
+		this.batchSize = batchSize;
+		this.pollMillis = pollMillis;
+		this.retryBaseMillis = retryBaseMillis;
+		this.retryMaxMillis = retryMaxMillis;
+		this.maxAttempts = maxAttempts;
+		this.retentionHours = retentionHours;
+	}
+
+	/**
+	 * Arranca el hilo que envía los correos.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (dispatcher != null) {
+			return;
+		}
+
+		running = true;
+
+		dispatcher = new Thread(this::dispatchWhileRunning, "email-outbox");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	/**
+	 * Para el hilo que envía los correos cuando termine el lote en curso. Los
+	 * correos pendientes se envían al arrancar de nuevo.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (dispatcher == null) {
+			return;
+		}
+
+		running = false;
+		wakeUps.release();
+
+		try {
+			dispatcher.join(SHUTDOWN_TIMEOUT_MILLIS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		dispatcher = null;
+	}
+
+	/**
+	 * Avisa de que hay correos nuevos para enviarlos sin esperar al siguiente
+	 * sondeo.
+	 */
+	public void wakeUp() {
+		wakeUps.release();
+	}
+
+	/**
+	 * Envía los correos pendientes en el hilo actual, lote a lote.
+	 *
+	 * @return Número de correos enviados.
+	 */
+	public int dispatchAll() {
+		int sent = 0;
+		List<OutboxEmail> batch;
+
+		do {
+			LocalDateTime now = LocalDateTime.now();
+			batch = store.claimDue(batchSize, now, now.plusNanos(TimeUnit.MILLISECONDS.toNanos(LEASE_MILLIS)));
+
+			sent += dispatch(batch);
+
+		} while (batch.size() == batchSize);
+
+		return sent;
+	}
+
+	/**
+	 * Elimina los correos enviados o descartados más antiguos que
+	 * <code>booking.mail.outbox.retentionHours</code>.
+	 *
+	 * @return Número de correos eliminados.
+	 */
+	@Scheduled(initialDelayString = "${booking.mail.outbox.purgeMillis:3600000}",
+			fixedDelayString = "${booking.mail.outbox.purgeMillis:3600000}")
+	public int purgeFinished() {
+		LocalDateTime createdBefore = LocalDateTime.now().minusHours(retentionHours);
+		int purged = 0;
+		int deleted;
+
+		do {
+			deleted = store.deleteFinished(createdBefore, PURGE_BATCH_SIZE);
+			purged += deleted;
+
+		} while (deleted == PURGE_BATCH_SIZE);
+
+		if (purged > 0) {
+			log.info("Eliminados {} correos enviados o descartados de EMAIL_OUTBOX.", purged);
+		}
+
+		return purged;
+	}
+
+	private void dispatchWhileRunning() {
+		while (running) {
+			try {
+				dispatchAll();
+
+			} catch (RuntimeException e) {
+				log.error("Error inesperado al enviar los correos pendientes.", e);
+			}
+
+			try {
+				wakeUps.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+				wakeUps.drainPermits();
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Envía el lote <code>batch</code> y anota el resultado de cada correo.
+	 *
+	 * @return Número de correos enviados.
+	 */
+	private int dispatch(final List<OutboxEmail> batch) {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+
+		Map<OutboxEmail, String> errors = deliver(batch, mailSender);
+
+		List<OutboxEmail> sent = new ArrayList<>(batch.size());
+
+		for (OutboxEmail email : batch) {
+			if (!errors.containsKey(email)) {
+				sent.add(email);
+			}
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+
+		store.markSent(sent, now);
+
+		for (Map.Entry<OutboxEmail, String> error : errors.entrySet()) {
+			OutboxEmail email = error.getKey();
+			int attempts = email.getAttempts() + 1;
+
+			if (attempts >= maxAttempts) {
+				log.error("Se descarta el correo {} tras {} intentos: {}", email.getId(), attempts, error.getValue());
+				store.markFailed(email, error.getValue(), null);
+
+			} else {
+				long delayMillis = retryDelayMillis(attempts, retryBaseMillis, retryMaxMillis);
+				log.warn("No se ha podido enviar el correo {} (intento {}), se reintenta en {} ms: {}", email.getId(),
+						attempts, delayMillis, error.getValue());
+				store.markFailed(email, error.getValue(),
+						now.plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+			}
+		}
+
+		return sent.size();
+	}
+
+	/**
+	 * Envía los correos <code>emails</code> por una sola conexión.
+	 *
+	 * @return Error de cada correo que no se ha podido enviar.
+	 */
+	static Map<OutboxEmail, String> deliver(final List<OutboxEmail> emails, final JavaMailSender mailSender) {
+		SimpleMailMessage[] messages = new SimpleMailMessage[emails.size()];
+		Map<OutboxEmail, String> errors = new LinkedHashMap<>();
+
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = emails.get(i).toMessage();
+		}
+
+		try {
+			mailSender.send(messages);
+
+		} catch (MailSendException e) {
+			// Los mensajes fallidos son los mismos objetos enviados.
+			Map<SimpleMailMessage, Exception> failed = new HashMap<>();
+
+			for (Map.Entry<Object, Exception> failedMessage : e.getFailedMessages().entrySet()) {
+				for (SimpleMailMessage message : messages) {
+					if (message == failedMessage.getKey()) {
+						failed.put(message, failedMessage.getValue());
+					}
+				}
+			}
+
+			for (int i = 0; i < messages.length; i++) {
+				if (failed.isEmpty() || failed.containsKey(messages[i])) {
+					Exception cause = failed.isEmpty() ? e : failed.get(messages[i]);
+					errors.put(emails.get(i), String.valueOf(cause.getMessage()));
+				}
+			}
+
+		} catch (MailException e) {
+			for (OutboxEmail email : emails) {
+				errors.put(email, String.valueOf(e.getMessage()));
+			}
+		}
+
+		return errors;
+	}
+
+	/**
+	 * Espera antes del siguiente intento tras <code>attempts</code> intentos
+	 * fallidos: <code>baseMillis</code> tras el primero y el doble tras cada
+	 * uno de los siguientes, hasta <code>maxMillis</code>.
+	 */
+	static long retryDelayMillis(final int attempts, final long baseMillis, final long maxMillis) {
+		long delay = baseMillis;
+
+		for (int i = 1; i < attempts && delay < maxMillis; i++) {
+			delay *= 2;
+		}
+
+		return Math.min(delay, maxMillis);
+	}
+}
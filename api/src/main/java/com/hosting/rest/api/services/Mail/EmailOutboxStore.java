@@ -0,0 +1,168 @@
+package com.hosting.rest.api.services.Mail;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import org.springframework.stereotype.Component;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Acceso a la tabla EMAIL_OUTBOX de correos pendientes de enviar.
+ *
+ *          Un correo está pendiente (<code>PENDING</code>) hasta que se envía
+ *          (<code>SENT</code>) o se agotan sus intentos (<code>DEAD</code>).
+ *          Solo se envían los correos pendientes cuyo NEXT_ATTEMPT_AT ha
+ *          pasado. El cuerpo de los correos enviados o descartados se borra, ya
+ *          que puede llevar datos sensibles (el token para restablecer la
+ *          contraseña), y las filas se eliminan al cabo de un tiempo.
+ *
+ */
+@Component
+public class EmailOutboxStore {
+
+	static final String PENDING = "PENDING";
+
+	static final String SENT = "SENT";
+
+	static final String DEAD = "DEAD";
+
+	/**
+	 * Longitud de la columna LAST_ERROR.
+	 */
+	private static final int MAX_ERROR_LENGTH = 500;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	/**
+	 * Guarda un correo pendiente para el destinatario <code>to</code> en la
+	 * transacción en curso, o en una nueva si no la hay.
+	 *
+	 * @param from
+	 * @param to
+	 * @param subject
+	 * @param body
+	 */
+	@Transactional
+	public void insert(final String from, final String to, final String subject, final String body) {
+		LocalDateTime now = LocalDateTime.now();
+
+		em.createNativeQuery("INSERT INTO EMAIL_OUTBOX (MAIL_FROM, MAIL_TO, SUBJECT, BODY, STATUS, ATTEMPTS, "
+				+ "NEXT_ATTEMPT_AT, CREATED_AT) VALUES (?, ?, ?, ?, ?, 0, ?, ?)").setParameter(1, from)
+				.setParameter(2, to).setParameter(3, subject).setParameter(4, body).setParameter(5, PENDING)
+				.setParameter(6, now).setParameter(7, now).executeUpdate();
+	}
+
+	/**
+	 * Reserva hasta <code>batchSize</code> correos pendientes cuyo próximo
+	 * intento ha pasado, retrasando su próximo intento hasta
+	 * <code>leaseUntil</code>. Si la aplicación se para antes de anotar el
+	 * resultado, se vuelven a enviar cuando pasa esa fecha.
+	 *
+	 * @param batchSize
+	 * @param now
+	 * @param leaseUntil
+	 *
+	 * @return
+	 */
+	@Transactional
+	public List<OutboxEmail> claimDue(final int batchSize, final LocalDateTime now, final LocalDateTime leaseUntil) {
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = em.createNativeQuery("SELECT ID, MAIL_FROM, MAIL_TO, SUBJECT, BODY, ATTEMPTS "
+				+ "FROM EMAIL_OUTBOX WHERE STATUS = ? AND NEXT_ATTEMPT_AT <= ? "
+				+ "ORDER BY NEXT_ATTEMPT_AT, ID LIMIT " + batchSize + " FOR UPDATE").setParameter(1, PENDING)
+				.setParameter(2, now).getResultList();
+
+		List<OutboxEmail> claimed = new ArrayList<>(rows.size());
+
+		for (Object[] row : rows) {
+			claimed.add(new OutboxEmail(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+					(String) row[3], (String) row[4], ((Number) row[5]).intValue()));
+		}
+
+		if (!claimed.isEmpty()) {
+			em.createNativeQuery("UPDATE EMAIL_OUTBOX SET NEXT_ATTEMPT_AT = :leaseUntil WHERE ID IN (:ids)")
+					.setParameter("leaseUntil", leaseUntil).setParameter("ids", idsOf(claimed)).executeUpdate();
+		}
+
+		return claimed;
+	}
+
+	/**
+	 * Marca como enviados los correos <code>emails</code>.
+	 *
+	 * @param emails
+	 * @param sentAt
+	 */
+	@Transactional
+	public void markSent(final Collection<OutboxEmail> emails, final LocalDateTime sentAt) {
+		if (emails.isEmpty()) {
+			return;
+		}
+
+		em.createNativeQuery("UPDATE EMAIL_OUTBOX SET STATUS = :status, ATTEMPTS = ATTEMPTS + 1, SENT_AT = :sentAt, "
+				+ "LAST_ERROR = NULL, BODY = NULL WHERE ID IN (:ids)").setParameter("status", SENT).setParameter("sentAt", sentAt)
+				.setParameter("ids", idsOf(emails)).executeUpdate();
+	}
+
+	/**
+	 * Anota un intento fallido del correo <code>email</code>.
+	 *
+	 * @param email
+	 * @param error
+	 * @param nextAttemptAt <code>null</code> si no se vuelve a intentar y el
+	 *                      correo pasa a <code>DEAD</code>.
+	 */
+	@Transactional
+	public void markFailed(final OutboxEmail email, final String error, final LocalDateTime nextAttemptAt) {
+		String lastError = error != null ? error : "Error desconocido";
+
+		if (lastError.length() > MAX_ERROR_LENGTH) {
+			lastError = lastError.substring(0, MAX_ERROR_LENGTH);
+		}
+
+		if (nextAttemptAt == null) {
+			em.createNativeQuery("UPDATE EMAIL_OUTBOX SET STATUS = ?, ATTEMPTS = ATTEMPTS + 1, LAST_ERROR = ?, "
+					+ "BODY = NULL WHERE ID = ?").setParameter(1, DEAD).setParameter(2, lastError).setParameter(3, email.getId())
+					.executeUpdate();
+			return;
+		}
+
+		em.createNativeQuery("UPDATE EMAIL_OUTBOX SET ATTEMPTS = ATTEMPTS + 1, LAST_ERROR = ?, NEXT_ATTEMPT_AT = ? "
+				+ "WHERE ID = ?").setParameter(1, lastError).setParameter(2, nextAttemptAt)
+				.setParameter(3, email.getId()).executeUpdate();
+	}
+
+	/**
+	 * Elimina hasta <code>limit</code> correos enviados o descartados creados
+	 * antes de <code>createdBefore</code>.
+	 *
+	 * @param createdBefore
+	 * @param limit
+	 *
+	 * @return Número de correos eliminados.
+	 */
+	@Transactional
+	public int deleteFinished(final LocalDateTime createdBefore, final int limit) {
+		return em.createNativeQuery("DELETE FROM EMAIL_OUTBOX WHERE STATUS IN (?, ?) AND CREATED_AT < ? LIMIT " + limit)
+				.setParameter(1, SENT).setParameter(2, DEAD).setParameter(3, createdBefore).executeUpdate();
+	}
+
+	private static List<Long> idsOf(final Collection<OutboxEmail> emails) {
+		List<Long> ids = new ArrayList<>(emails.size());
+
+		for (OutboxEmail email : emails) {
+			ids.add(email.getId());
+		}
+
+		return ids;
+	}
+}
@@ -0,0 +1,48 @@
+package com.hosting.rest.api.services.Mail;
+
+import org.springframework.mail.SimpleMailMessage;
+
+/**
+ * Correo de EMAIL_OUTBOX pendiente de enviar a un destinatario.
+ */
+final class OutboxEmail {
+
+	private final Long id;
+	private final String from;
+	private final String to;
+	private final String subject;
+	private final String body;
+	private final int attempts;
+
+	OutboxEmail(final Long id, final String from, final String to, final String subject, final String body,
+			final int attempts) {
+		this.id = id;
+		this.from = from;
+		this.to = to;
+		this.subject = subject;
+		this.body = body;
+		this.attempts = attempts;
+	}
+
+	Long getId() {
+		return id;
+	}
+
+	/**
+	 * @return Intentos de envío ya realizados.
+	 */
+	int getAttempts() {
+		return attempts;
+	}
+
+	SimpleMailMessage toMessage() {
+		SimpleMailMessage message = new SimpleMailMessage();
+
+		message.setFrom(from);
+		message.setTo(to);
+		message.setSubject(subject);
+		message.setText(body);
+
+		return message;
+	}
+}
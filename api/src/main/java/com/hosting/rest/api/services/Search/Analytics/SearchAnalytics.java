@@ -0,0 +1,405 @@
+package com.hosting.rest.api.services.Search.Analytics;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.models.Search.SearchWordCountModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Estadísticas en memoria de las palabras buscadas en la aplicación.
+ *
+ *          Cada búsqueda actualiza dos contadores ({@link SpaceSavingSketch}):
+ *          el total de la aplicación y el de su hora. Las horas se conservan
+ *          durante <code>booking.search.analytics.window.hours</code> y con
+ *          ellas se calculan las búsquedas en tendencia, que se leen en O(K).
+ *
+ *          Los contadores por hora se vuelcan periódicamente a la tabla
+ *          SEARCH_WORD_STATS, de donde se cargan al arrancar y de donde se
+ *          obtienen los periodos anteriores a la ventana.
+ *
+ *          Las palabras se agrupan por su clave normalizada
+ *          ({@link CityKeys}): sin distinguir mayúsculas ni acentos.
+ *
+ */
+@Component
+@Slf4j
+public class SearchAnalytics {
+
+	/**
+	 * Número de búsquedas en tendencia.
+	 */
+	public static final int MAX_TRENDING_SEARCH_RESULTS = 10;
+
+	/**
+	 * Longitud de las columnas WORD_KEY y WORD de SEARCH_WORD_STATS.
+	 */
+	private static final int MAX_WORD_LENGTH = 100;
+
+	/**
+	 * Número de filas de cada sentencia de volcado.
+	 */
+	private static final int FLUSH_BATCH_SIZE = 100;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final int capacity;
+
+	private final int windowHours;
+
+	private final SpaceSavingSketch allTime;
+
+	/**
+	 * Contadores de cada hora de la ventana, por inicio de la hora.
+	 */
+	private final TreeMap<LocalDateTime, SpaceSavingSketch> hourBuckets = new TreeMap<>();
+
+	/**
+	 * Búsquedas de cada hora aún no volcadas a SEARCH_WORD_STATS.
+	 */
+	private Map<LocalDateTime, Map<String, PendingWord>> pending = new HashMap<>();
+
+	private volatile List<SearchWordCountModel> trending = Collections.emptyList();
+
+	public SearchAnalytics(@Value("${booking.search.analytics.capacity:1000}") final int capacity,
+			@Value("${booking.search.analytics.window.hours:24}") final int windowHours) {
+		if (capacity < MAX_TRENDING_SEARCH_RESULTS || windowHours < 1) {
+			throw new IllegalArgumentException("La configuración de las estadísticas de búsqueda no es válida.");
+		}
+
+		this.capacity = capacity;
+		this.windowHours = windowHours;
+		this.allTime = new SpaceSavingSketch(capacity);
+	}
+
+	/**
+	 * Carga los contadores totales y los de la ventana desde SEARCH_WORD_STATS al
+	 * arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		LocalDateTime now = LocalDateTime.now();
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> totals = em.createNativeQuery("SELECT WORD_KEY, MIN(WORD), SUM(NUM_SEARCHES) "
+				+ "FROM SEARCH_WORD_STATS GROUP BY WORD_KEY ORDER BY SUM(NUM_SEARCHES) DESC")
+				.setMaxResults(capacity).getResultList();
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> buckets = em
+				.createNativeQuery("SELECT WORD_KEY, WORD, NUM_SEARCHES, BUCKET_START FROM SEARCH_WORD_STATS "
+						+ "WHERE BUCKET_START >= :windowStart")
+				.setParameter("windowStart", Timestamp.valueOf(windowStart(now))).getResultList();
+
+		synchronized (this) {
+			for (Object[] total : totals) {
+				offer(allTime, (String) total[0], (String) total[1], ((Number) total[2]).longValue());
+			}
+
+			for (Object[] bucket : buckets) {
+				LocalDateTime hour = ((Timestamp) bucket[3]).toLocalDateTime();
+
+				offer(hourBucket(hour), (String) bucket[0], (String) bucket[1], ((Number) bucket[2]).longValue());
+			}
+
+			rotate(now);
+		}
+
+		log.info("Estadísticas de búsqueda cargadas con {} palabras.", allTime.size());
+	}
+
+	/**
+	 * Cuenta una búsqueda de la palabra <code>word</code> realizada en
+	 * <code>searchedAt</code>.
+	 *
+	 * @param word
+	 * @param searchedAt
+	 */
+	public synchronized void recordSearch(final String word, final LocalDateTime searchedAt) {
+		String key = keyOf(word);
+
+		if (key == null) {
+			return;
+		}
+
+		String displayWord = displayWordOf(word);
+		LocalDateTime hour = (searchedAt != null ? searchedAt : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+
+		allTime.offer(key, displayWord, 1);
+
+		if (!hour.isBefore(windowStart(LocalDateTime.now()))) {
+			hourBucket(hour).offer(key, displayWord, 1);
+		}
+
+		PendingWord pendingWord = pending.computeIfAbsent(hour, h -> new HashMap<>()).computeIfAbsent(key,
+				k -> new PendingWord(displayWord));
+		pendingWord.count++;
+	}
+
+	/**
+	 * @return Las palabras más buscadas en la ventana, calculadas en el último
+	 *         volcado.
+	 */
+	public List<SearchWordCountModel> findTrending() {
+		return trending;
+	}
+
+	/**
+	 * @param maxResults
+	 *
+	 * @return Las <code>maxResults</code> palabras más buscadas.
+	 */
+	public synchronized List<SearchWordCountModel> findMostSearched(final int maxResults) {
+		return toWordCounts(allTime.top(maxResults));
+	}
+
+	/**
+	 * Las palabras más buscadas entre <code>start</code> y <code>end</code>, con
+	 * precisión de una hora. Los periodos dentro de la ventana se calculan en
+	 * memoria y el resto con SEARCH_WORD_STATS, juntando las filas cuya clave
+	 * solo difiere en mayúsculas o acentos (búsquedas anteriores a la tabla).
+	 *
+	 * @param start
+	 * @param end
+	 * @param maxResults
+	 *
+	 * @return
+	 */
+	public List<SearchWordCountModel> findMostSearchedBetween(final LocalDateTime start, final LocalDateTime end,
+			final int maxResults) {
+		LocalDateTime startHour = start.truncatedTo(ChronoUnit.HOURS);
+
+		synchronized (this) {
+			if (!startHour.isBefore(windowStart(LocalDateTime.now()))) {
+				SpaceSavingSketch period = new SpaceSavingSketch(capacity);
+
+				for (SpaceSavingSketch bucket : hourBuckets.subMap(startHour, true, end, true).values()) {
+					period.merge(bucket);
+				}
+
+				return toWordCounts(period.top(maxResults));
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = em.createNativeQuery("SELECT WORD_KEY, MIN(WORD), SUM(NUM_SEARCHES) "
+				+ "FROM SEARCH_WORD_STATS WHERE BUCKET_START BETWEEN :startHour AND :end GROUP BY WORD_KEY")
+				.setParameter("startHour", Timestamp.valueOf(startHour)).setParameter("end", Timestamp.valueOf(end))
+				.getResultList();
+
+		return mostSearched(rows, maxResults);
+	}
+
+	/**
+	 * Suma las filas <code>(WORD_KEY, WORD, NUM_SEARCHES)</code> de
+	 * <code>rows</code> por su clave normalizada.
+	 *
+	 * @return Las <code>maxResults</code> palabras más buscadas.
+	 */
+	static List<SearchWordCountModel> mostSearched(final List<Object[]> rows, final int maxResults) {
+		Map<String, SearchWordCountModel> countsByKey = new HashMap<>();
+
+		for (Object[] row : rows) {
+			String key = keyOf((String) row[0]);
+
+			if (key == null) {
+				continue;
+			}
+
+			long count = ((Number) row[2]).longValue();
+
+			countsByKey.merge(key, new SearchWordCountModel((String) row[1], count),
+					(previous, added) -> new SearchWordCountModel(previous.getWord(),
+							previous.getNumOfSearches() + added.getNumOfSearches()));
+		}
+
+		List<SearchWordCountModel> wordCounts = new ArrayList<>(countsByKey.values());
+		wordCounts.sort((first, second) -> Long.compare(second.getNumOfSearches(), first.getNumOfSearches()));
+
+		return wordCounts.size() > maxResults ? new ArrayList<>(wordCounts.subList(0, maxResults)) : wordCounts;
+	}
+
+	/**
+	 * Vuelca a SEARCH_WORD_STATS las búsquedas contadas desde el último volcado y
+	 * recalcula las búsquedas en tendencia. Si falla, las búsquedas se
+	 * conservan para el siguiente volcado.
+	 */
+	@Scheduled(initialDelayString = "${booking.search.analytics.flushMillis:60000}",
+			fixedDelayString = "${booking.search.analytics.flushMillis:60000}")
+	public void flush() {
+		Map<LocalDateTime, Map<String, PendingWord>> toFlush;
+
+		synchronized (this) {
+			rotate(LocalDateTime.now());
+
+			if (pending.isEmpty()) {
+				return;
+			}
+
+			toFlush = pending;
+			pending = new HashMap<>();
+		}
+
+		List<Object[]> rows = new ArrayList<>();
+
+		for (Map.Entry<LocalDateTime, Map<String, PendingWord>> hour : toFlush.entrySet()) {
+			for (Map.Entry<String, PendingWord> word : hour.getValue().entrySet()) {
+				rows.add(new Object[] { word.getKey(), Timestamp.valueOf(hour.getKey()), word.getValue().word,
+						word.getValue().count });
+			}
+		}
+
+		try {
+			transactionTemplate.execute(status -> {
+				for (int from = 0; from < rows.size(); from += FLUSH_BATCH_SIZE) {
+					upsert(rows.subList(from, Math.min(rows.size(), from + FLUSH_BATCH_SIZE)));
+				}
+
+				return null;
+			});
+
+		} catch (RuntimeException e) {
+			log.error("No se han podido volcar las estadísticas de búsqueda. Se reintentará en el siguiente volcado.",
+					e);
+
+			synchronized (this) {
+				for (Map.Entry<LocalDateTime, Map<String, PendingWord>> hour : toFlush.entrySet()) {
+					Map<String, PendingWord> words = pending.computeIfAbsent(hour.getKey(), h -> new HashMap<>());
+
+					for (Map.Entry<String, PendingWord> word : hour.getValue().entrySet()) {
+						PendingWord pendingWord = words.computeIfAbsent(word.getKey(),
+								k -> new PendingWord(word.getValue().word));
+						pendingWord.count += word.getValue().count;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Descarta las horas anteriores a la ventana y recalcula las búsquedas en
+	 * tendencia.
+	 *
+	 * @param now
+	 */
+	synchronized void rotate(final LocalDateTime now) {
+		hourBuckets.headMap(windowStart(now)).clear();
+
+		SpaceSavingSketch window = new SpaceSavingSketch(capacity);
+
+		for (SpaceSavingSketch bucket : hourBuckets.values()) {
+			window.merge(bucket);
+		}
+
+		trending = Collections.unmodifiableList(toWordCounts(window.top(MAX_TRENDING_SEARCH_RESULTS)));
+	}
+
+	private void upsert(final List<Object[]> rows) {
+		StringBuilder sql = new StringBuilder(
+				"INSERT INTO SEARCH_WORD_STATS (WORD_KEY, BUCKET_START, WORD, NUM_SEARCHES) VALUES ");
+
+		for (int i = 0; i < rows.size(); i++) {
+			sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?)");
+		}
+
+		sql.append(" ON DUPLICATE KEY UPDATE NUM_SEARCHES = NUM_SEARCHES + VALUES(NUM_SEARCHES)");
+
+		Query upsert = em.createNativeQuery(sql.toString());
+		int position = 1;
+
+		for (Object[] row : rows) {
+			for (Object value : row) {
+				upsert.setParameter(position++, value);
+			}
+		}
+
+		upsert.executeUpdate();
+	}
+
+	private LocalDateTime windowStart(final LocalDateTime now) {
+		return now.truncatedTo(ChronoUnit.HOURS).minusHours(windowHours - 1);
+	}
+
+	private SpaceSavingSketch hourBucket(final LocalDateTime hour) {
+		return hourBuckets.computeIfAbsent(hour, h -> new SpaceSavingSketch(capacity));
+	}
+
+	private static void offer(final SpaceSavingSketch sketch, final String key, final String word, final long count) {
+		String normalizedKey = keyOf(key);
+
+		if (normalizedKey != null) {
+			sketch.offer(normalizedKey, word, count);
+		}
+	}
+
+	private static List<SearchWordCountModel> toWordCounts(final List<SpaceSavingSketch.Counter> counters) {
+		List<SearchWordCountModel> wordCounts = new ArrayList<>(counters.size());
+
+		for (SpaceSavingSketch.Counter counter : counters) {
+			wordCounts.add(new SearchWordCountModel(counter.getWord(), counter.getCount()));
+		}
+
+		return wordCounts;
+	}
+
+	/**
+	 * Clave normalizada de <code>word</code>.
+	 *
+	 * @return <code>null</code> si la palabra está vacía.
+	 */
+	static String keyOf(final String word) {
+		String key = CityKeys.normalize(word);
+
+		if (key == null || key.isEmpty()) {
+			return null;
+		}
+
+		return key.length() > MAX_WORD_LENGTH ? key.substring(0, MAX_WORD_LENGTH) : key;
+	}
+
+	private static String displayWordOf(final String word) {
+		String displayWord = word.trim();
+
+		return displayWord.length() > MAX_WORD_LENGTH ? displayWord.substring(0, MAX_WORD_LENGTH) : displayWord;
+	}
+
+	/**
+	 * Búsquedas de una palabra pendientes de volcar.
+	 */
+	private static final class PendingWord {
+		private final String word;
+		private long count;
+
+		private PendingWord(final String word) {
+			this.word = word;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.hosting.rest.api.services.Search.Analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Contador aproximado de las palabras más buscadas con el algoritmo
+ *          Space-Saving.
+ *
+ *          Guarda como mucho <code>capacity</code> contadores. Cuando llega una
+ *          palabra nueva y no queda sitio, sustituye a la palabra con menos
+ *          búsquedas y hereda su cuenta, que se guarda como error máximo. Toda
+ *          palabra buscada más de <code>total / capacity</code> veces está
+ *          siempre entre los contadores. Los contadores se mantienen ordenados,
+ *          de modo que las <code>n</code> primeras se leen en O(n).
+ *
+ *          No es seguro para varios hilos.
+ *
+ */
+class SpaceSavingSketch {
+
+	private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong((Counter c) -> c.count)
+			.thenComparing(c -> c.key);
+
+	private final int capacity;
+
+	private final Map<String, Counter> countersByKey = new HashMap<>();
+
+	private final TreeSet<Counter> counters = new TreeSet<>(BY_COUNT);
+
+	private long total;
+
+	SpaceSavingSketch(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("La capacidad del contador debe ser mayor que 0.");
+		}
+
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Suma <code>count</code> búsquedas a la palabra <code>key</code>.
+	 *
+	 * @param key   Palabra normalizada.
+	 * @param word  Palabra tal y como se muestra.
+	 * @param count
+	 */
+	void offer(final String key, final String word, final long count) {
+		total += count;
+
+		Counter counter = countersByKey.get(key);
+
+		if (counter != null) {
+			counters.remove(counter);
+			counter.count += count;
+			counters.add(counter);
+			return;
+		}
+
+		if (countersByKey.size() < capacity) {
+			counter = new Counter(key, word, count, 0);
+
+		} else {
+			Counter evicted = counters.pollFirst();
+			countersByKey.remove(evicted.key);
+
+			counter = new Counter(key, word, evicted.count + count, evicted.count);
+		}
+
+		countersByKey.put(key, counter);
+		counters.add(counter);
+	}
+
+	/**
+	 * Suma los contadores de <code>other</code>.
+	 *
+	 * @param other
+	 */
+	void merge(final SpaceSavingSketch other) {
+		for (Counter counter : other.counters) {
+			offer(counter.key, counter.word, counter.count);
+		}
+	}
+
+	/**
+	 * @param n
+	 *
+	 * @return Las <code>n</code> palabras con más búsquedas, de mayor a menor.
+	 */
+	List<Counter> top(final int n) {
+		List<Counter> top = new ArrayList<>(Math.min(n, counters.size()));
+		Iterator<Counter> descending = counters.descendingIterator();
+
+		while (descending.hasNext() && top.size() < n) {
+			top.add(descending.next());
+		}
+
+		return top;
+	}
+
+	/**
+	 * @return Número de búsquedas contadas.
+	 */
+	long getTotal() {
+		return total;
+	}
+
+	int size() {
+		return countersByKey.size();
+	}
+
+	/**
+	 * Número de búsquedas estimado de una palabra. Sobreestima como mucho en
+	 * <code>error</code>.
+	 */
+	static final class Counter {
+		private final String key;
+		private final String word;
+		private long count;
+		private final long error;
+
+		private Counter(final String key, final String word, final long count, final long error) {
+			this.key = key;
+			this.word = word;
+			this.count = count;
+			this.error = error;
+		}
+
+		String getKey() {
+			return key;
+		}
+
+		String getWord() {
+			return word;
+		}
+
+		long getCount() {
+			return count;
+		}
+
+		long getError() {
+			return error;
+		}
+	}
+}
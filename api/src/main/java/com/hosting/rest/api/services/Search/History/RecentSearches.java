@@ -0,0 +1,174 @@
+package com.hosting.rest.api.services.Search.History;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.models.Search.SearchModel;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Historial de búsquedas de un usuario guardado en memoria.
+ *
+ *          Las últimas búsquedas se guardan en un buffer circular de tamaño
+ *          fijo, de modo que añadir una búsqueda sobrescribe la más antigua.
+ *          Además se cuentan las búsquedas de cada palabra, sin distinguir
+ *          mayúsculas ni tildes, para obtener las más frecuentes.
+ *
+ *          Todos los métodos están sincronizados.
+ *
+ */
+class RecentSearches {
+
+	/**
+	 * Más búsquedas primero y, a igualdad, la buscada más recientemente.
+	 */
+	private static final Comparator<WordCount> BY_FREQUENCY = Comparator
+			.comparingLong((WordCount w) -> w.count).reversed()
+			.thenComparing(w -> w.lastSearchedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+	private final SearchModel[] latest;
+
+	/**
+	 * Posición en la que se guarda la siguiente búsqueda.
+	 */
+	private int next;
+
+	private int size;
+
+	private final Map<String, WordCount> words = new HashMap<>();
+
+	RecentSearches(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("El número de últimas búsquedas debe ser mayor que 0.");
+		}
+
+		this.latest = new SearchModel[capacity];
+	}
+
+	/**
+	 * Añade una nueva búsqueda del usuario.
+	 *
+	 * @param search
+	 */
+	synchronized void add(final SearchModel search) {
+		addLatest(search);
+		addWordCount(search.getWord(), 1, search.getIdSearch(), search.getCreatedAt());
+	}
+
+	/**
+	 * Añade una búsqueda a las últimas búsquedas sin contarla.
+	 *
+	 * @param search
+	 */
+	synchronized void addLatest(final SearchModel search) {
+		latest[next] = copyOf(search);
+		next = (next + 1) % latest.length;
+		size = Math.min(size + 1, latest.length);
+	}
+
+	/**
+	 * Suma <code>count</code> búsquedas de la palabra <code>word</code> sin
+	 * añadirlas a las últimas búsquedas.
+	 *
+	 * @param word
+	 * @param count
+	 * @param lastSearchId   Id de la última búsqueda de la palabra.
+	 * @param lastSearchedAt Fecha de la última búsqueda de la palabra.
+	 */
+	synchronized void addWordCount(final String word, final long count, final Integer lastSearchId,
+			final LocalDateTime lastSearchedAt) {
+		String key = CityKeys.normalize(word);
+
+		if (key == null || key.isEmpty()) {
+			return;
+		}
+
+		WordCount wordCount = words.get(key);
+
+		if (wordCount == null) {
+			wordCount = new WordCount(word.trim());
+			words.put(key, wordCount);
+		}
+
+		wordCount.add(count, lastSearchId, lastSearchedAt);
+	}
+
+	/**
+	 * @param maxResults
+	 *
+	 * @return Las <code>maxResults</code> últimas búsquedas, de la más reciente a
+	 *         la más antigua.
+	 */
+	synchronized List<SearchModel> findLatest(final int maxResults) {
+		int results = Math.min(maxResults, size);
+		List<SearchModel> searches = new ArrayList<>(results);
+
+		for (int i = 1; i <= results; i++) {
+			searches.add(copyOf(latest[Math.floorMod(next - i, latest.length)]));
+		}
+
+		return searches;
+	}
+
+	/**
+	 * @param maxResults
+	 *
+	 * @return Las <code>maxResults</code> palabras más buscadas, con el id y la
+	 *         fecha de su última búsqueda.
+	 */
+	synchronized List<SearchModel> findMostSearched(final int maxResults) {
+		List<WordCount> ranked = new ArrayList<>(words.values());
+		Collections.sort(ranked, BY_FREQUENCY);
+
+		List<SearchModel> searches = new ArrayList<>(Math.min(maxResults, ranked.size()));
+
+		for (int i = 0; i < ranked.size() && i < maxResults; i++) {
+			WordCount wordCount = ranked.get(i);
+			searches.add(new SearchModel(wordCount.lastSearchId, wordCount.word, wordCount.lastSearchedAt));
+		}
+
+		return searches;
+	}
+
+	/**
+	 * Las búsquedas devueltas son copias para que no se modifiquen las
+	 * guardadas.
+	 */
+	private static SearchModel copyOf(final SearchModel search) {
+		return new SearchModel(search.getIdSearch(), search.getWord(), search.getCreatedAt());
+	}
+
+	/**
+	 * Búsquedas de una palabra.
+	 */
+	private static final class WordCount {
+		private final String word;
+		private long count;
+		private Integer lastSearchId;
+		private LocalDateTime lastSearchedAt;
+
+		private WordCount(final String word) {
+			this.word = word;
+		}
+
+		private void add(final long searches, final Integer searchId, final LocalDateTime searchedAt) {
+			count += searches;
+
+			if (lastSearchedAt == null || (searchedAt != null && searchedAt.isAfter(lastSearchedAt))) {
+				lastSearchedAt = searchedAt;
+			}
+
+			if (searchId != null && (lastSearchId == null || searchId > lastSearchId)) {
+				lastSearchId = searchId;
+			}
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package com.hosting.rest.api.services.Search.History;
+
+import static com.hosting.rest.api.services.Search.ISearchService.MAX_LATEST_SEARCH_RESULTS;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.TinyLfuCache;
+import com.hosting.rest.api.models.Search.SearchModel;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Caché del historial de búsquedas de los usuarios.
+ *
+ *          Guarda las últimas búsquedas y la cuenta de búsquedas por palabra
+ *          ({@link RecentSearches}) de hasta
+ *          <code>booking.search.history.cacheUsers</code> usuarios, expulsando
+ *          a los que menos se consultan ({@link TinyLfuCache}). El historial de
+ *          un usuario se carga de la base de datos la primera vez que se
+ *          consulta, se actualiza con cada búsqueda guardada y se descarta
+ *          cuando se borra.
+ *
+ */
+@Component
+public class UserSearchHistoryCache {
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final TinyLfuCache<Integer, RecentSearches> users;
+
+	/**
+	 * Usuarios cuyo historial se está cargando, con <code>true</code> si ha
+	 * cambiado durante la carga y no se debe guardar.
+	 */
+	private final Map<Integer, Boolean> loading = new HashMap<>();
+
+	public UserSearchHistoryCache(@Value("${booking.search.history.cacheUsers:10000}") final int maxUsers) {
+		this.users = new TinyLfuCache<>(maxUsers);
+	}
+
+	/**
+	 * @param userId
+	 *
+	 * @return Si el historial del usuario <code>userId</code> está en la caché.
+	 */
+	public boolean containsUser(final Integer userId) {
+		return users.containsKey(userId);
+	}
+
+	/**
+	 * @param userId
+	 * @param maxResults Como mucho
+	 *                   {@link com.hosting.rest.api.services.Search.ISearchService#MAX_LATEST_SEARCH_RESULTS}.
+	 *
+	 * @return Las últimas búsquedas del usuario <code>userId</code>, de la más
+	 *         reciente a la más antigua.
+	 */
+	public List<SearchModel> findLatest(final Integer userId, final int maxResults) {
+		return historyOf(userId).findLatest(maxResults);
+	}
+
+	/**
+	 * @param userId
+	 * @param maxResults
+	 *
+	 * @return Las palabras más buscadas por el usuario <code>userId</code>.
+	 */
+	public List<SearchModel> findMostSearched(final Integer userId, final int maxResults) {
+		return historyOf(userId).findMostSearched(maxResults);
+	}
+
+	/**
+	 * Añade una búsqueda ya guardada al historial del usuario
+	 * <code>userId</code> si está en la caché.
+	 *
+	 * @param userId
+	 * @param searchId
+	 * @param word
+	 * @param searchedAt
+	 */
+	public void recordUserSearch(final Integer userId, final Integer searchId, final String word,
+			final LocalDateTime searchedAt) {
+		synchronized (this) {
+			loading.replace(userId, Boolean.TRUE);
+		}
+
+		RecentSearches history = users.getIfPresent(userId);
+
+		if (history != null) {
+			history.add(new SearchModel(searchId, word, searchedAt));
+		}
+	}
+
+	/**
+	 * Descarta el historial del usuario <code>userId</code>.
+	 *
+	 * @param userId
+	 */
+	public void invalidate(final Integer userId) {
+		synchronized (this) {
+			loading.replace(userId, Boolean.TRUE);
+			users.remove(userId);
+		}
+	}
+
+	/**
+	 * Descarta el historial de todos los usuarios.
+	 */
+	public void invalidateAll() {
+		synchronized (this) {
+			loading.replaceAll((userId, changed) -> Boolean.TRUE);
+			users.clear();
+		}
+	}
+
+	private RecentSearches historyOf(final Integer userId) {
+		RecentSearches history = users.get(userId);
+
+		return history != null ? history : load(userId);
+	}
+
+	/**
+	 * Carga el historial del usuario <code>userId</code> y lo guarda en la caché
+	 * si no ha cambiado mientras se cargaba.
+	 */
+	private RecentSearches load(final Integer userId) {
+		boolean firstLoad;
+
+		synchronized (this) {
+			firstLoad = loading.putIfAbsent(userId, Boolean.FALSE) == null;
+		}
+
+		RecentSearches history = new RecentSearches(MAX_LATEST_SEARCH_RESULTS);
+
+		List<SearchModel> latest = em
+				.createQuery("SELECT sm FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm "
+						+ "WHERE ushm.idUser.id = :userId ORDER BY sm.createdAt DESC, sm.idSearch DESC",
+						SearchModel.class)
+				.setParameter("userId", userId).setMaxResults(MAX_LATEST_SEARCH_RESULTS).getResultList();
+
+		// El buffer se llena de la más antigua a la más reciente.
+		for (int i = latest.size() - 1; i >= 0; i--) {
+			history.addLatest(latest.get(i));
+		}
+
+		List<Object[]> wordCounts = em.createQuery("SELECT sm.word, COUNT(sm), MAX(sm.createdAt), MAX(sm.idSearch) "
+				+ "FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm WHERE ushm.idUser.id = :userId "
+				+ "GROUP BY sm.word", Object[].class).setParameter("userId", userId).getResultList();
+
+		for (Object[] row : wordCounts) {
+			history.addWordCount((String) row[0], ((Number) row[1]).longValue(), (Integer) row[3],
+					(LocalDateTime) row[2]);
+		}
+
+		if (firstLoad) {
+			synchronized (this) {
+				if (!loading.remove(userId) && !users.containsKey(userId)) {
+					users.put(userId, history);
+				}
+			}
+		}
+
+		return history;
+	}
+}
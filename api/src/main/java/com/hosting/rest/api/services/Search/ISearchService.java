@@ -3,7 +3,9 @@ package com.hosting.rest.api.services.Search;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.hosting.rest.api.models.Search.SearchIngestionStatsModel;
 import com.hosting.rest.api.models.Search.SearchModel;
+import com.hosting.rest.api.models.Search.SearchWordCountModel;
 
 public interface ISearchService {
 
@@ -13,8 +15,11 @@ public interface ISearchService {
 	public static final int MAX_LATEST_SEARCH_RESULTS = 4;
 	public static final int MAX_REPEATED_WORDS_SEARCH_RESULTS = 4;
 	public static final int MAX_SEARCHED_SEARCH_RESULTS = 3;
+	public static final int MAX_SUGGESTION_RESULTS = 10;
 
-	public SearchModel addNewSearch(final SearchModel searchToAdd);
+	public SearchModel addNewSearch(final SearchModel searchToAdd, final Integer userId);
+
+	public SearchIngestionStatsModel getSearchIngestionStats();
 
 	public void deleteSearchById(final Integer searchId);
 
@@ -30,8 +35,10 @@ public interface ISearchService {
 
 	public List<SearchModel> findByPattern(final String wordPatternToSearch);
 
-	public List<SearchModel> findWordsMoreSearched();
+	public List<SearchWordCountModel> findWordsMoreSearched();
+
+	public List<SearchWordCountModel> findTrendingWords();
 
-	public List<SearchModel> findWordsMoreSearchedBetweenTwoDates(final LocalDateTime dateStartToSearch,
+	public List<SearchWordCountModel> findWordsMoreSearchedBetweenTwoDates(final LocalDateTime dateStartToSearch,
 			final LocalDateTime dateEndToSearch);
 }
@@ -0,0 +1,44 @@
+package com.hosting.rest.api.services.Search.Ingestion;
+
+import java.time.LocalDateTime;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Búsqueda realizada por un usuario pendiente de guardar en APP_SEARCH
+ *          y USER_SEARCH_HISTORY.
+ *
+ */
+public final class SearchHistoryEvent {
+
+	private final String word;
+
+	private final Integer userId;
+
+	private final LocalDateTime searchedAt;
+
+	/**
+	 * @param word
+	 * @param userId     <code>null</code> si la búsqueda no es de un usuario
+	 *                   identificado.
+	 * @param searchedAt
+	 */
+	public SearchHistoryEvent(final String word, final Integer userId, final LocalDateTime searchedAt) {
+		this.word = word;
+		this.userId = userId;
+		this.searchedAt = searchedAt;
+	}
+
+	public String getWord() {
+		return word;
+	}
+
+	public Integer getUserId() {
+		return userId;
+	}
+
+	public LocalDateTime getSearchedAt() {
+		return searchedAt;
+	}
+}
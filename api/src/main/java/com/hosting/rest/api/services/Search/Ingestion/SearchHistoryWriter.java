@@ -0,0 +1,122 @@
+package com.hosting.rest.api.services.Search.Ingestion;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hosting.rest.api.services.Search.History.UserSearchHistoryCache;
+import com.hosting.rest.api.services.Search.Suggestion.SearchSuggestionIndex;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Guarda un lote de búsquedas con dos inserciones JDBC por lotes en
+ *          una única transacción: una fila de APP_SEARCH por cada palabra
+ *          distinta del lote y una fila de USER_SEARCH_HISTORY por cada
+ *          búsqueda de un usuario identificado.
+ *
+ */
+@Component
+public class SearchHistoryWriter {
+
+	private static final String INSERT_SEARCH = "INSERT INTO APP_SEARCH (WORD, CREATED_AT) VALUES (?, ?)";
+
+	private static final String INSERT_USER_SEARCH = "INSERT INTO USER_SEARCH_HISTORY (ID_USER, ID_SEARCH) VALUES (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private UserSearchHistoryCache userSearchHistory;
+
+	@Autowired
+	private SearchSuggestionIndex searchSuggestions;
+
+	/**
+	 * Guarda las búsquedas <code>events</code>. Las búsquedas de una misma
+	 * palabra comparten la fila de APP_SEARCH.
+	 *
+	 * @param events
+	 */
+	public void write(final List<SearchHistoryEvent> events) {
+		// Primera búsqueda de cada palabra, en orden de llegada.
+		Map<String, SearchHistoryEvent> firstByWord = new LinkedHashMap<>();
+
+		for (SearchHistoryEvent event : events) {
+			firstByWord.putIfAbsent(event.getWord(), event);
+		}
+
+		Map<String, Integer> searchIds = transactionTemplate.execute(status -> {
+			Map<String, Integer> ids = insertSearches(new ArrayList<>(firstByWord.values()));
+
+			List<Object[]> userSearches = new ArrayList<>();
+
+			for (SearchHistoryEvent event : events) {
+				if (event.getUserId() != null) {
+					userSearches.add(new Object[] { event.getUserId(), ids.get(event.getWord()) });
+				}
+			}
+
+			if (!userSearches.isEmpty()) {
+				jdbcTemplate.batchUpdate(INSERT_USER_SEARCH, userSearches);
+			}
+
+			return ids;
+		});
+
+		for (SearchHistoryEvent event : events) {
+			searchSuggestions.recordSearch(event.getWord(), searchIds.get(event.getWord()), event.getSearchedAt());
+
+			if (event.getUserId() != null) {
+				userSearchHistory.recordUserSearch(event.getUserId(), searchIds.get(event.getWord()), event.getWord(),
+						event.getSearchedAt());
+			}
+		}
+	}
+
+	/**
+	 * Inserta una fila de APP_SEARCH por búsqueda.
+	 *
+	 * @return Id generado para cada palabra.
+	 */
+	private Map<String, Integer> insertSearches(final List<SearchHistoryEvent> searches) {
+		return jdbcTemplate.execute((ConnectionCallback<Map<String, Integer>>) connection -> {
+			Map<String, Integer> ids = new LinkedHashMap<>();
+
+			try (PreparedStatement insert = connection.prepareStatement(INSERT_SEARCH,
+					Statement.RETURN_GENERATED_KEYS)) {
+
+				for (SearchHistoryEvent search : searches) {
+					insert.setString(1, search.getWord());
+					insert.setTimestamp(2, Timestamp.valueOf(search.getSearchedAt()));
+					insert.addBatch();
+				}
+
+				insert.executeBatch();
+
+				try (ResultSet generatedKeys = insert.getGeneratedKeys()) {
+					for (int i = 0; generatedKeys.next() && i < searches.size(); i++) {
+						ids.put(searches.get(i).getWord(), generatedKeys.getInt(1));
+					}
+				}
+			}
+
+			return ids;
+		});
+	}
+}
@@ -0,0 +1,253 @@
+package com.hosting.rest.api.services.Search.Ingestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.models.Search.SearchIngestionStatsModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Cola acotada de las búsquedas pendientes de guardar.
+ *
+ *          Registrar una búsqueda solo la añade a la cola, sin esperar: si la
+ *          cola está llena la búsqueda se descarta y se cuenta. Un hilo en
+ *          segundo plano la vacía en lotes de hasta
+ *          <code>booking.search.ingestion.batchSize</code> búsquedas, que guarda
+ *          con {@link SearchHistoryWriter}. Si un lote no se puede guardar se
+ *          reintenta partido en dos, hasta aislar las búsquedas que fallan, que
+ *          son las únicas que se descartan. Al parar la aplicación se guardan
+ *          las búsquedas que queden en la cola.
+ *
+ */
+@Component
+@Slf4j
+public class SearchIngestionQueue {
+
+	/**
+	 * Tiempo máximo de espera al parar la aplicación para guardar las búsquedas
+	 * pendientes.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+	/**
+	 * Marca que despierta al hilo que guarda las búsquedas al parar la
+	 * aplicación. No se guarda.
+	 */
+	private static final SearchHistoryEvent STOP = new SearchHistoryEvent(null, null, null);
+
+	private final BlockingQueue<SearchHistoryEvent> queue;
+
+	private final int capacity;
+
+	private final int batchSize;
+
+	private final long maxWaitMillis;
+
+	private final SearchHistoryWriter writer;
+
+	private volatile boolean running;
+
+	private Thread flusher;
+
+	/*
+	 * Métricas
+	 */
+	private final AtomicLong accepted = new AtomicLong();
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final AtomicLong written = new AtomicLong();
+
+	private final AtomicLong failed = new AtomicLong();
+
+	private final AtomicLong batches = new AtomicLong();
+
+	private volatile long lastBatchMillis;
+
+	public SearchIngestionQueue(@Value("${booking.search.ingestion.capacity:10000}") final int capacity,
+			@Value("${booking.search.ingestion.batchSize:500}") final int batchSize,
+			@Value("${booking.search.ingestion.maxWaitMillis:1000}") final long maxWaitMillis,
+			final SearchHistoryWriter writer) {
+		if (capacity < 1 || batchSize < 1 || maxWaitMillis < 1) {
+			throw new IllegalArgumentException("La configuración de la cola de búsquedas no es válida.");
+		}
+
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.maxWaitMillis = maxWaitMillis;
+		this.writer = writer;
+	}
+
+	/**
+	 * Arranca el hilo que guarda las búsquedas.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (flusher != null) {
+			return;
+		}
+
+		running = true;
+
+		flusher = new Thread(this::flushWhileRunning, "search-ingestion");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Para el hilo que guarda las búsquedas cuando termine de vaciar la cola.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		running = false;
+
+		if (flusher == null) {
+			flushAll();
+			return;
+		}
+
+		queue.offer(STOP);
+
+		try {
+			flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (!queue.isEmpty()) {
+			log.warn("Se descartan {} búsquedas que no se han podido guardar al parar la aplicación.", queue.size());
+		}
+
+		flusher = null;
+	}
+
+	/**
+	 * Añade la búsqueda <code>event</code> a la cola sin esperar.
+	 *
+	 * @param event
+	 *
+	 * @return <code>false</code> si la cola está llena y la búsqueda se ha
+	 *         descartado.
+	 */
+	public boolean offer(final SearchHistoryEvent event) {
+		if (queue.offer(event)) {
+			accepted.incrementAndGet();
+			return true;
+		}
+
+		dropped.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Guarda todas las búsquedas de la cola en el hilo actual.
+	 */
+	void flushAll() {
+		SearchHistoryEvent first;
+
+		while ((first = queue.poll()) != null) {
+			writeBatch(first);
+		}
+	}
+
+	/**
+	 * @return Estado de la cola y número de búsquedas aceptadas, descartadas,
+	 *         guardadas y fallidas.
+	 */
+	public SearchIngestionStatsModel getStats() {
+		return new SearchIngestionStatsModel(queue.size(), capacity, accepted.get(), dropped.get(), written.get(),
+				failed.get(), batches.get(), lastBatchMillis);
+	}
+
+	private void flushWhileRunning() {
+		while (running || !queue.isEmpty()) {
+			try {
+				flushBatch(running ? maxWaitMillis : 0);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+
+			} catch (RuntimeException e) {
+				log.error("Error inesperado al guardar las búsquedas.", e);
+			}
+		}
+	}
+
+	/**
+	 * Espera hasta <code>waitMillis</code> a que haya búsquedas y guarda un lote.
+	 *
+	 * @return Número de búsquedas del lote.
+	 */
+	private int flushBatch(final long waitMillis) throws InterruptedException {
+		SearchHistoryEvent first = waitMillis > 0 ? queue.poll(waitMillis, TimeUnit.MILLISECONDS) : queue.poll();
+
+		return first != null && first != STOP ? writeBatch(first) : 0;
+	}
+
+	/**
+	 * Guarda la búsqueda <code>first</code> junto a las siguientes de la cola,
+	 * hasta completar un lote.
+	 *
+	 * @return Número de búsquedas del lote.
+	 */
+	private int writeBatch(final SearchHistoryEvent first) {
+		List<SearchHistoryEvent> batch = new ArrayList<>(batchSize);
+		batch.add(first);
+		queue.drainTo(batch, batchSize - 1);
+		batch.remove(STOP);
+
+		long start = System.currentTimeMillis();
+
+		write(batch);
+
+		batches.incrementAndGet();
+		lastBatchMillis = System.currentTimeMillis() - start;
+
+		return batch.size();
+	}
+
+	/**
+	 * Guarda las búsquedas <code>searches</code>. Si fallan, guarda por separado
+	 * cada mitad, de modo que solo se descartan las búsquedas que no se pueden
+	 * guardar ni solas.
+	 */
+	private void write(final List<SearchHistoryEvent> searches) {
+		try {
+			writer.write(searches);
+			written.addAndGet(searches.size());
+
+		} catch (RuntimeException e) {
+			if (searches.size() == 1) {
+				failed.incrementAndGet();
+				log.error("No se ha podido guardar la búsqueda \"{}\".", searches.get(0).getWord(), e);
+				return;
+			}
+
+			log.warn("No se han podido guardar {} búsquedas, se reintenta por partes: {}", searches.size(),
+					e.getMessage());
+
+			int half = searches.size() / 2;
+
+			write(searches.subList(0, half));
+			write(searches.subList(half, searches.size()));
+		}
+	}
+}
@@ -15,14 +15,21 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
-import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.hosting.rest.api.models.Search.SearchIngestionStatsModel;
 import com.hosting.rest.api.models.Search.SearchModel;
+import com.hosting.rest.api.models.Search.SearchWordCountModel;
 import com.hosting.rest.api.repositories.Search.ISearchRepository;
 import com.hosting.rest.api.repositories.User.IUserRepository;
+import com.hosting.rest.api.services.Search.Analytics.SearchAnalytics;
+import com.hosting.rest.api.services.Search.History.UserSearchHistoryCache;
+import com.hosting.rest.api.services.Search.Ingestion.SearchHistoryEvent;
+import com.hosting.rest.api.services.Search.Ingestion.SearchIngestionQueue;
+import com.hosting.rest.api.services.Search.Suggestion.SearchSuggestionIndex;
 
 /**
  * 
@@ -41,28 +48,61 @@ public class SearchServiceImpl implements ISearchService {
 	@Autowired
 	private IUserRepository userRepo;
 
+	@Autowired
+	private SearchAnalytics searchAnalytics;
+
+	@Autowired
+	private SearchIngestionQueue searchIngestionQueue;
+
+	@Autowired
+	private UserSearchHistoryCache userSearchHistory;
+
+	@Autowired
+	private SearchSuggestionIndex searchSuggestions;
+
 	@PersistenceContext
 	private EntityManager em;
 
 	/**
-	 * Añade una nueva búsqueda <code>searchToAdd</code>. Una búsqueda contiene una
-	 * sentencia.
+	 * Añade una nueva búsqueda <code>searchToAdd</code> del usuario
+	 * <code>userId</code>. Una búsqueda contiene una sentencia.
+	 * 
+	 * La búsqueda se cuenta en las estadísticas y se añade a la cola de
+	 * búsquedas pendientes de guardar, sin acceder a la base de datos. Por eso
+	 * la búsqueda devuelta no tiene id. La fecha de la búsqueda es la del
+	 * servidor: se ignora la que envía el cliente.
 	 * 
 	 * @param searchToAdd
+	 * @param userId      <code>null</code> si la búsqueda no es de un usuario
+	 *                    identificado.
 	 * 
 	 * @return Búsqueda añadida.
 	 * 
 	 */
 	@Override
-	public SearchModel addNewSearch(final SearchModel searchToAdd) {
+	public SearchModel addNewSearch(final SearchModel searchToAdd, final Integer userId) {
 
 		// Validar que la búsqueda a añadir no es null.
-		validateParam(isNotNull(searchToAdd), "La búsqueda a añadir no es válida.");
+		validateParam(isNotNull(searchToAdd) && isStringNotBlank(searchToAdd.getWord()),
+				"La búsqueda a añadir no es válida.");
+
+		SearchModel newSearch = new SearchModel(null, searchToAdd.getWord().trim(), LocalDateTime.now());
+
+		if (searchIngestionQueue.offer(new SearchHistoryEvent(newSearch.getWord(), userId, newSearch.getCreatedAt()))) {
+			searchAnalytics.recordSearch(newSearch.getWord(), newSearch.getCreatedAt());
+		}
 
-		// Comprobar si existe la búsqueda
-		validateParamNotFound(!searchRepo.existsById(searchToAdd.getIdSearch()), "Ya existe la búsqueda introducida.");
+		return newSearch;
+	}
 
-		return searchRepo.save(searchToAdd);
+	/**
+	 * Estado de la cola de búsquedas pendientes de guardar.
+	 * 
+	 * @return
+	 */
+	@Override
+	public SearchIngestionStatsModel getSearchIngestionStats() {
+		return searchIngestionQueue.getStats();
 	}
 
 	/**
@@ -78,9 +118,22 @@ public class SearchServiceImpl implements ISearchService {
 		validateParam(isIntegerValidAndPositive(searchId), "El id de búsqueda [ " + searchId + " ] no es válido.");
 
 		// Comprobar que la búsqueda existe
-		validateParamNotFound(searchRepo.existsById(searchId), "La búsqueda a eliminar no existe");
+		SearchModel searchToDelete = searchRepo.findById(searchId).orElse(null);
+
+		validateParamNotFound(isNotNull(searchToDelete), "La búsqueda a eliminar no existe");
 
 		searchRepo.deleteById(searchId);
+
+		// Última búsqueda de la misma palabra que queda guardada.
+		List<SearchModel> latestSearch = em
+				.createQuery("SELECT sm FROM SearchModel sm WHERE sm.word = :word ORDER BY sm.idSearch DESC",
+						SearchModel.class)
+				.setParameter("word", searchToDelete.getWord()).setMaxResults(1).getResultList();
+
+		searchSuggestions.removeSearch(searchToDelete, latestSearch.isEmpty() ? null : latestSearch.get(0));
+
+		// La búsqueda desaparece del historial de los usuarios que la realizaron.
+		userSearchHistory.invalidateAll();
 	}
 
 	/**
@@ -92,6 +145,7 @@ public class SearchServiceImpl implements ISearchService {
 	 * 
 	 * @throws NumberFormatException Si el id de usuario no es un número.
 	 */
+	@Transactional(readOnly = true)
 	@Override
 	public List<SearchModel> findByUserId(final Integer userId) throws NumberFormatException {
 		// Validar id de usuario
@@ -125,21 +179,12 @@ public class SearchServiceImpl implements ISearchService {
 		// Validar el id de usuario.
 		validateParam(isIntegerValidAndPositive(userId), "El id del usuario [ " + userId + " ] no es válido.");
 
-		// Comprobar que el usuario existe
-		validateParamNotFound(userRepo.existsById(userId), "El usuario a listar sus últimas búsquedas no existe");
-
-		// Realizar la consulta paar obtener las últimas búsquedas realizadas por el
-		// usuario.
-		String findLatestSearchesByUserIdQuery = "SELECT sm "
-				+ "FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm " + "WHERE ushm.idUser.id = :userId "
-				+ "ORDER BY ushm.idUser.createdAt DESC";
-
-		TypedQuery<SearchModel> latestSearchsByUser = em.createQuery(findLatestSearchesByUserIdQuery,
-				SearchModel.class);
-
-		latestSearchsByUser.setParameter("userId", userId);
+		// Comprobar que el usuario existe si su historial no está en la caché.
+		if (!userSearchHistory.containsUser(userId)) {
+			validateParamNotFound(userRepo.existsById(userId), "El usuario a listar sus últimas búsquedas no existe");
+		}
 
-		return latestSearchsByUser.setMaxResults(MAX_LATEST_SEARCH_RESULTS).getResultList();
+		return userSearchHistory.findLatest(userId, MAX_LATEST_SEARCH_RESULTS);
 	}
 
 	/**
@@ -156,26 +201,19 @@ public class SearchServiceImpl implements ISearchService {
 		// Validar el id del usuario
 		validateParam(isIntegerValidAndPositive(userId), "El id de usuario [ " + userId + " ] no es válido.");
 
-		// Comprobar si el usuario existe.
-		validateParamNotFound(userRepo.existsById(userId),
-				"El usuario a listar sus búsquedas más frecuentes no existe");
-
-		// Obtener las búsquedas más frecuentes del usuario.
-		String findLatestSearchesByUserIdQuery = "SELECT sm "
-				+ "FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm " + "WHERE ushm.idUser.id = :userId "
-				+ "GROUP BY sm.word " + "ORDER BY ushm.idUser.createdAt DESC ";
-
-		TypedQuery<SearchModel> moreSearchedWordsByUser = em.createQuery(findLatestSearchesByUserIdQuery,
-				SearchModel.class);
+		// Comprobar si el usuario existe si su historial no está en la caché.
+		if (!userSearchHistory.containsUser(userId)) {
+			validateParamNotFound(userRepo.existsById(userId),
+					"El usuario a listar sus búsquedas más frecuentes no existe");
+		}
 
-		moreSearchedWordsByUser.setParameter("userId", userId);
-
-		return moreSearchedWordsByUser.setMaxResults(MAX_REPEATED_WORDS_SEARCH_RESULTS).getResultList();
+		return userSearchHistory.findMostSearched(userId, MAX_REPEATED_WORDS_SEARCH_RESULTS);
 	}
 
 	/**
-	 * Lista todas las búsquedas que contengan un patrón
-	 * <code>wordPatternToSearch</code> pasado como parámetro.
+	 * Lista las palabras buscadas que contengan un patrón
+	 * <code>wordPatternToSearch</code> pasado como parámetro, de más a menos
+	 * buscadas. No accede a la base de datos.
 	 */
 	@Override
 	public List<SearchModel> findByPattern(final String wordPatternToSearch) {
@@ -183,29 +221,25 @@ public class SearchServiceImpl implements ISearchService {
 		validateParam(isStringNotBlank(wordPatternToSearch), "El patrón introducido está vacío o no es válido.");
 
 		// Obtener las búsquedas que coincidan con el patrón pasado como parámetro.
-		String findSearchedMatchesWithPattern = "SELECT sm " + "FROM SearchModel sm "
-				+ "WHERE LOWER(sm.word) LIKE LOWER(CONCAT('%', :searchPattern, '%' ))";
-
-		TypedQuery<SearchModel> searchesMatchWithPattern = em.createQuery(findSearchedMatchesWithPattern,
-				SearchModel.class);
-
-		searchesMatchWithPattern.setParameter("searchPattern", wordPatternToSearch);
-
-		return searchesMatchWithPattern.getResultList();
+		return searchSuggestions.suggest(wordPatternToSearch, MAX_SUGGESTION_RESULTS);
 	}
 
 	/**
 	 * Lista las búsquedas más frecuentes.
 	 */
 	@Override
-	public List<SearchModel> findWordsMoreSearched() {
-		String findMoreSearchedWordsQuery = "SELECT sm "
-				+ "FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm " + "GROUP BY sm.word "
-				+ "ORDER BY ushm.idUser.createdAt DESC ";
-
-		TypedQuery<SearchModel> moreSearchedWords = em.createQuery(findMoreSearchedWordsQuery, SearchModel.class);
+	public List<SearchWordCountModel> findWordsMoreSearched() {
+		return searchAnalytics.findMostSearched(MAX_SEARCHED_SEARCH_RESULTS);
+	}
 
-		return moreSearchedWords.setMaxResults(MAX_SEARCHED_SEARCH_RESULTS).getResultList();
+	/**
+	 * Lista las búsquedas más frecuentes de las últimas horas.
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<SearchWordCountModel> findTrendingWords() {
+		return searchAnalytics.findTrending();
 	}
 
 	/**
@@ -217,8 +251,9 @@ public class SearchServiceImpl implements ISearchService {
 	 * 
 	 * @return
 	 */
+	@Transactional(readOnly = true)
 	@Override
-	public List<SearchModel> findWordsMoreSearchedBetweenTwoDates(final LocalDateTime dateStartToSearch,
+	public List<SearchWordCountModel> findWordsMoreSearchedBetweenTwoDates(final LocalDateTime dateStartToSearch,
 			final LocalDateTime dateEndToSearch) {
 
 		// Comprobar que la primera fecha es válida.
@@ -233,18 +268,8 @@ public class SearchServiceImpl implements ISearchService {
 		validateParam(isFirstDateLessThanSecondDate(dateStartToSearch, dateEndToSearch),
 				"La fecha " + dateStartToSearch + " tiene que ser anterior a la fecha " + dateEndToSearch);
 
-		String findMoreSearchedWordsBetweenTwoDatesQuery = "SELECT sm "
-				+ "FROM UserSearchHistoryModel ushm INNER JOIN ushm.idSearch sm "
-				+ "WHERE ushm.idUser.createdAt BETWEEN :startDate AND :endDate " + "GROUP BY sm.word "
-				+ "ORDER BY ushm.idUser.createdAt DESC ";
-
-		TypedQuery<SearchModel> moreSearchedWordsBetweenTwoDates = em
-				.createQuery(findMoreSearchedWordsBetweenTwoDatesQuery, SearchModel.class);
-
-		moreSearchedWordsBetweenTwoDates.setParameter("startDate", dateStartToSearch);
-		moreSearchedWordsBetweenTwoDates.setParameter("endDate", dateEndToSearch);
-
-		return moreSearchedWordsBetweenTwoDates.setMaxResults(MAX_SEARCHED_SEARCH_RESULTS).getResultList();
+		return searchAnalytics.findMostSearchedBetween(dateStartToSearch, dateEndToSearch,
+				MAX_SEARCHED_SEARCH_RESULTS);
 	}
 
 	/**
@@ -268,6 +293,8 @@ public class SearchServiceImpl implements ISearchService {
 		moreSearchedWords.setParameter("userId", userId);
 
 		moreSearchedWords.executeUpdate();
+
+		userSearchHistory.invalidate(userId);
 	}
 
 	/**
@@ -305,5 +332,7 @@ public class SearchServiceImpl implements ISearchService {
 		moreSearchedWords.setParameter("searchId", searchId);
 
 		moreSearchedWords.executeUpdate();
+
+		userSearchHistory.invalidate(userId);
 	}
 }
@@ -0,0 +1,394 @@
+package com.hosting.rest.api.services.Search.Suggestion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.models.Search.SearchModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Índice en memoria de n-gramas de las palabras buscadas, para
+ *          sugerir búsquedas mientras se escribe.
+ *
+ *          Cada palabra distinta (sin distinguir mayúsculas ni tildes, como las
+ *          claves de ciudad de {@link CityKeys}) se indexa por todos sus
+ *          fragmentos de hasta {@link #GRAM_LENGTH} caracteres. Un patrón se
+ *          busca recorriendo solo las palabras del fragmento suyo con menos
+ *          palabras y comprobando que lo contienen. Los resultados se ordenan
+ *          por número de búsquedas.
+ *
+ *          Guarda como mucho <code>booking.search.suggestions.maxWords</code>
+ *          palabras. Cuando no queda sitio, una palabra nueva sustituye a la
+ *          palabra con menos búsquedas. Se carga al arrancar la aplicación y
+ *          se actualiza con cada búsqueda guardada.
+ *
+ *          El número de búsquedas es el de SEARCH_WORD_STATS, igual que en las
+ *          estadísticas de búsqueda: una fila de APP_SEARCH puede agrupar
+ *          varias búsquedas de un mismo lote, así que eliminarla no descuenta
+ *          búsquedas. Solo deja de sugerirse la palabra cuando no le quedan
+ *          filas en APP_SEARCH.
+ *
+ */
+@Component
+@Slf4j
+public class SearchSuggestionIndex {
+
+	/**
+	 * Longitud máxima de los fragmentos indexados.
+	 */
+	static final int GRAM_LENGTH = 3;
+
+	private static final Comparator<IndexedWord> BY_COUNT = Comparator.comparingLong((IndexedWord w) -> w.count)
+			.thenComparing(w -> w.key);
+
+	/**
+	 * Peor sugerencia primero: menos búsquedas y, a igualdad, la última en orden
+	 * alfabético.
+	 */
+	private static final Comparator<IndexedWord> WORST_SUGGESTION_FIRST = Comparator
+			.comparingLong((IndexedWord w) -> w.count).thenComparing(w -> w.key, Comparator.reverseOrder());
+
+	@PersistenceContext
+	private EntityManager em;
+
+	private final int maxWords;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, IndexedWord> words = new HashMap<>();
+
+	/**
+	 * Palabras ordenadas de menos a más búsquedas, para elegir la que se
+	 * sustituye.
+	 */
+	private final TreeSet<IndexedWord> wordsByCount = new TreeSet<>(BY_COUNT);
+
+	private final Map<String, Set<IndexedWord>> postings = new HashMap<>();
+
+	public SearchSuggestionIndex(@Value("${booking.search.suggestions.maxWords:100000}") final int maxWords) {
+		if (maxWords < 1) {
+			throw new IllegalArgumentException("El número máximo de palabras sugeridas debe ser mayor que 0.");
+		}
+
+		this.maxWords = maxWords;
+	}
+
+	/**
+	 * Carga las palabras más buscadas al arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		@SuppressWarnings("unchecked")
+		List<Object[]> searchCounts = em.createNativeQuery("SELECT MIN(WORD), SUM(NUM_SEARCHES) "
+				+ "FROM SEARCH_WORD_STATS GROUP BY WORD_KEY ORDER BY SUM(NUM_SEARCHES) DESC")
+				.setMaxResults(maxWords).getResultList();
+
+		List<Object[]> latestSearches = em
+				.createQuery("SELECT sm.word, MAX(sm.idSearch), MAX(sm.createdAt) FROM SearchModel sm "
+						+ "GROUP BY sm.word", Object[].class)
+				.getResultList();
+
+		load(searchCounts, latestSearches);
+
+		log.info("Índice de sugerencias de búsqueda cargado con {} palabras.", size());
+	}
+
+	/**
+	 * Sustituye el contenido del índice.
+	 *
+	 * @param searchCounts   Palabra y número de búsquedas.
+	 * @param latestSearches Palabra, id y fecha de su última fila de APP_SEARCH.
+	 *                       Las palabras sin filas no se indexan.
+	 */
+	void load(final List<Object[]> searchCounts, final List<Object[]> latestSearches) {
+		Map<String, IndexedWord> latestByKey = new HashMap<>();
+
+		for (Object[] row : latestSearches) {
+			String key = CityKeys.normalize((String) row[0]);
+
+			if (key != null) {
+				latestByKey.computeIfAbsent(key, k -> new IndexedWord(k, k)).add(0, (Integer) row[1],
+						(LocalDateTime) row[2]);
+			}
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			words.clear();
+			wordsByCount.clear();
+			postings.clear();
+
+			for (Object[] row : searchCounts) {
+				IndexedWord latest = latestByKey.get(CityKeys.normalize((String) row[0]));
+
+				if (latest != null) {
+					add((String) row[0], ((Number) row[1]).longValue(), latest.lastSearchId, latest.lastSearchedAt);
+				}
+			}
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Cuenta una búsqueda guardada de la palabra <code>word</code>.
+	 *
+	 * @param word
+	 * @param searchId
+	 * @param searchedAt
+	 */
+	public void recordSearch(final String word, final Integer searchId, final LocalDateTime searchedAt) {
+		lock.writeLock().lock();
+
+		try {
+			add(word, 1, searchId, searchedAt);
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Olvida la fila eliminada <code>removedSearch</code> de APP_SEARCH. Si era
+	 * la última búsqueda sugerida de la palabra, se sustituye por
+	 * <code>latestSearch</code>, y la palabra deja de sugerirse cuando no le
+	 * quedan filas.
+	 *
+	 * @param removedSearch
+	 * @param latestSearch  Última fila de la palabra que queda en APP_SEARCH, o
+	 *                      <code>null</code> si no queda ninguna.
+	 */
+	public void removeSearch(final SearchModel removedSearch, final SearchModel latestSearch) {
+		String key = CityKeys.normalize(removedSearch.getWord());
+
+		if (key == null) {
+			return;
+		}
+
+		lock.writeLock().lock();
+
+		try {
+			IndexedWord indexedWord = words.get(key);
+
+			if (indexedWord == null) {
+				return;
+			}
+
+			if (latestSearch == null) {
+				unindex(indexedWord);
+				return;
+			}
+
+			if (removedSearch.getIdSearch().equals(indexedWord.lastSearchId)) {
+				indexedWord.lastSearchId = latestSearch.getIdSearch();
+				indexedWord.lastSearchedAt = latestSearch.getCreatedAt();
+			}
+
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Palabras que contienen el patrón <code>pattern</code>, sin distinguir
+	 * mayúsculas ni tildes.
+	 *
+	 * @param pattern
+	 * @param maxResults
+	 *
+	 * @return Las <code>maxResults</code> palabras con más búsquedas, con el id
+	 *         y la fecha de su última búsqueda.
+	 */
+	public List<SearchModel> suggest(final String pattern, final int maxResults) {
+		String key = CityKeys.normalize(pattern);
+
+		if (key == null || key.isEmpty() || maxResults < 1) {
+			return Collections.emptyList();
+		}
+
+		PriorityQueue<IndexedWord> top = new PriorityQueue<>(maxResults + 1, WORST_SUGGESTION_FIRST);
+
+		lock.readLock().lock();
+
+		try {
+			for (IndexedWord candidate : candidatesOf(key)) {
+				if (candidate.key.contains(key)) {
+					top.offer(candidate);
+
+					if (top.size() > maxResults) {
+						top.poll();
+					}
+				}
+			}
+
+			List<SearchModel> suggestions = new ArrayList<>(top.size());
+
+			while (!top.isEmpty()) {
+				IndexedWord indexedWord = top.poll();
+				suggestions.add(new SearchModel(indexedWord.lastSearchId, indexedWord.word, indexedWord.lastSearchedAt));
+			}
+
+			Collections.reverse(suggestions);
+
+			return suggestions;
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+
+		try {
+			return words.size();
+
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Palabras del fragmento del patrón <code>key</code> con menos palabras.
+	 * Todas las palabras que contienen el patrón están entre ellas.
+	 */
+	private Set<IndexedWord> candidatesOf(final String key) {
+		if (key.length() <= GRAM_LENGTH) {
+			return postings.getOrDefault(key, Collections.emptySet());
+		}
+
+		Set<IndexedWord> candidates = null;
+
+		for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+			Set<IndexedWord> gramWords = postings.get(key.substring(i, i + GRAM_LENGTH));
+
+			if (gramWords == null) {
+				return Collections.emptySet();
+			}
+
+			if (candidates == null || gramWords.size() < candidates.size()) {
+				candidates = gramWords;
+			}
+		}
+
+		return candidates;
+	}
+
+	private void add(final String word, final long count, final Integer searchId, final LocalDateTime searchedAt) {
+		String key = CityKeys.normalize(word);
+
+		if (key == null || key.isEmpty()) {
+			return;
+		}
+
+		IndexedWord indexedWord = words.get(key);
+
+		if (indexedWord != null) {
+			wordsByCount.remove(indexedWord);
+			indexedWord.add(count, searchId, searchedAt);
+			wordsByCount.add(indexedWord);
+			return;
+		}
+
+		if (words.size() >= maxWords) {
+			unindex(wordsByCount.first());
+		}
+
+		indexedWord = new IndexedWord(key, word.trim());
+		indexedWord.add(count, searchId, searchedAt);
+
+		words.put(key, indexedWord);
+		wordsByCount.add(indexedWord);
+
+		for (String gram : gramsOf(key)) {
+			postings.computeIfAbsent(gram, g -> new HashSet<>()).add(indexedWord);
+		}
+	}
+
+	private void unindex(final IndexedWord indexedWord) {
+		words.remove(indexedWord.key);
+		wordsByCount.remove(indexedWord);
+
+		for (String gram : gramsOf(indexedWord.key)) {
+			Set<IndexedWord> gramWords = postings.get(gram);
+
+			if (gramWords != null) {
+				gramWords.remove(indexedWord);
+
+				if (gramWords.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fragmentos distintos de 1 a {@link #GRAM_LENGTH} caracteres de la clave
+	 * <code>key</code>.
+	 */
+	static Set<String> gramsOf(final String key) {
+		Set<String> grams = new HashSet<>();
+
+		for (int length = 1; length <= GRAM_LENGTH; length++) {
+			for (int i = 0; i + length <= key.length(); i++) {
+				grams.add(key.substring(i, i + length));
+			}
+		}
+
+		return grams;
+	}
+
+	/**
+	 * Palabra indexada con su número de búsquedas.
+	 */
+	private static final class IndexedWord {
+		private final String key;
+		private final String word;
+		private long count;
+		private Integer lastSearchId;
+		private LocalDateTime lastSearchedAt;
+
+		private IndexedWord(final String key, final String word) {
+			this.key = key;
+			this.word = word;
+		}
+
+		private void add(final long searches, final Integer searchId, final LocalDateTime searchedAt) {
+			count += searches;
+
+			if (lastSearchedAt == null || (searchedAt != null && searchedAt.isAfter(lastSearchedAt))) {
+				lastSearchedAt = searchedAt;
+			}
+
+			if (searchId != null && (lastSearchId == null || searchId > lastSearchId)) {
+				lastSearchId = searchId;
+			}
+		}
+	}
+}
@@ -21,10 +21,12 @@ import com.hosting.rest.api.models.Accomodation.AccomodationModel;
 import com.hosting.rest.api.models.User.UserHostModel;
 import com.hosting.rest.api.models.User.UserModel;
 import com.hosting.rest.api.models.User.UserConfiguration.UserConfigurationModel;
-import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
 import com.hosting.rest.api.repositories.User.IUserRepository;
 import com.hosting.rest.api.repositories.User.UserHost.IUserHostRepository;
 import com.hosting.rest.api.services.Accomodation.AccomodationServiceImpl;
+import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationRatingAggregates;
+import com.hosting.rest.api.services.Search.History.UserSearchHistoryCache;
+import com.hosting.rest.api.services.UserDetails.UserDetailsCache;
 
 /**
  * 
@@ -46,10 +48,16 @@ public class IUserHostServiceImpl implements IUserHostService {
 	private IUserRepository userRepo;
 
 	@Autowired
-	private IAccomodationRepository accomodationRepo;
+	private AccomodationServiceImpl accomodationService;
 
 	@Autowired
-	private AccomodationServiceImpl accomodationService;
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+
+	@Autowired
+	private UserSearchHistoryCache userSearchHistory;
 	
 	/**
 	 * Actualización de los datos de un usuario "starter" a usuario host dado su id
@@ -90,12 +98,24 @@ public class IUserHostServiceImpl implements IUserHostService {
 		String phone = oldUser.getPhone();
 		UserConfigurationModel userConfig = oldUser.getIdUserConfiguration();
 
+		// Las valoraciones del usuario se borran en cascada con él.
+		List<String> reviewedRegNumbers = ratingAggregates.findReviewedByUser(userId);
+
 		userRepo.deleteById(userId);
 
+		// El historial de búsquedas también se borra en cascada.
+		userSearchHistory.invalidate(userId);
+		ratingAggregates.recompute(reviewedRegNumbers);
+
 		SecurityContextHolder.clearContext();
-		
-		return userHostRepo.save(new UserHostModel(userId, name, surname, email, phone, userConfig, password, userHostDni,
-				userHostDirection));
+
+		UserHostModel userHost = userHostRepo.save(new UserHostModel(userId, name, surname, email, phone, userConfig,
+				password, userHostDni, userHostDirection));
+
+		// Los tokens ya emitidos llevan los roles de usuario "starter".
+		userDetailsCache.markChanged(userId, email);
+
+		return userHost;
 
 	}
 
@@ -165,16 +185,25 @@ public class IUserHostServiceImpl implements IUserHostService {
 		// Comprobar que el usuario sea host
 		validateParamNotFound(isUserAHost(userId), "El usuario con id [ " + userId + " ] no es usuario host.");
 
-		// Eliminar alojamientos del usuario
+		// Eliminar alojamientos del usuario, también de los índices en memoria.
 		List<AccomodationModel> userAccomodations = accomodationService.findByUserId(userId);
 
 		for (AccomodationModel acc : userAccomodations) {
-			accomodationRepo.delete(acc);
+			accomodationService.removeAccomodationById(acc.getRegisterNumber());
 		}
 
+		String email = userHostRepo.findById(userId).get().getEmail();
+
+		// Las valoraciones que ha escrito el usuario se borran en cascada con él.
+		List<String> reviewedRegNumbers = ratingAggregates.findReviewedByUser(userId);
+
 		// Eliminar el usuario host
 		userHostRepo.deleteById(userId);
 
+		userDetailsCache.markChanged(userId, email);
+		userSearchHistory.invalidate(userId);
+		ratingAggregates.recompute(reviewedRegNumbers);
+
 //		String updateNewUserIdQuery = "UPDATE UserModel um SET um.id = :newUserId WHERE um.id = :oldUserId";
 
 		// Actualizar el id que tenía anteriormente el usuario
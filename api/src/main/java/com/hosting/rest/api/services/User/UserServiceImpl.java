@@ -22,6 +22,9 @@ import org.springframework.stereotype.Service;
 import com.hosting.rest.api.exceptions.NotFound.NotFoundCustomException;
 import com.hosting.rest.api.models.User.UserModel;
 import com.hosting.rest.api.repositories.User.IUserRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationRatingAggregates;
+import com.hosting.rest.api.services.Search.History.UserSearchHistoryCache;
+import com.hosting.rest.api.services.UserDetails.UserDetailsCache;
 import com.hosting.rest.api.services.UserDetails.UserDetailsImpl;
 
 /**
@@ -41,6 +44,15 @@ public class UserServiceImpl implements IUserService, UserDetailsService {
 	@Autowired
 	private IUserRepository userRepo;
 
+	@Autowired
+	private UserSearchHistoryCache userSearchHistory;
+
+	@Autowired
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+
 	/**
 	 * @param userId
 	 * 
@@ -103,7 +115,16 @@ public class UserServiceImpl implements IUserService, UserDetailsService {
 		// Comprobar si existe el usuario
 		validateParamNotFound(userRepo.existsById(userId), "No existe un usuario con id [ " + userId + " ]");
 
+		// Las valoraciones del usuario se borran en cascada con él.
+		List<String> reviewedRegNumbers = ratingAggregates.findReviewedByUser(userId);
+
+		String email = userRepo.findById(userId).get().getEmail();
+
 		userRepo.deleteById(userId);
+
+		userDetailsCache.markChanged(userId, email);
+		userSearchHistory.invalidate(userId);
+		ratingAggregates.recompute(reviewedRegNumbers);
 	}
 
 	/**
@@ -0,0 +1,219 @@
+package com.hosting.rest.api.services.UserDetails;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *
+ * @author Francisco Coya
+ * @version v1.0.0
+ * @apiNote Caché de los usuarios autenticados cargados de la base de datos,
+ *          para las peticiones cuyos roles no se pueden tomar del token
+ *          ({@link #canTrustClaims(Integer, Date)}).
+ *
+ *          Los roles de un token solo se usan durante
+ *          <code>booking.security.principalCache.ttlSeconds</code> segundos
+ *          desde su emisión, y cada usuario cargado se guarda como mucho ese
+ *          mismo tiempo. Así, un cambio de roles o un borrado hecho en otra
+ *          instancia de la aplicación, o antes de reiniciar esta, se nota en
+ *          como mucho ese tiempo. Guarda hasta
+ *          <code>booking.security.principalCache.maxUsers</code> usuarios y
+ *          expulsa al menos usado recientemente.
+ *
+ *          En esta instancia los cambios se notan al momento: se anota cuándo
+ *          cambian los roles de un usuario o se borra
+ *          ({@link #markChanged(Integer, String)}) y los tokens emitidos antes
+ *          cargan de nuevo el usuario. Se anotan los cambios de hasta
+ *          <code>booking.security.principalCache.maxUsers</code> usuarios.
+ *
+ */
+@Component
+public class UserDetailsCache {
+
+	private final int maxUsers;
+
+	private final long ttlNanos;
+
+	private final long ttlMillis;
+
+	private final LongSupplier clock;
+
+	private final LongSupplier wallClock;
+
+	private final Map<String, CachedUserDetails> users;
+
+	/**
+	 * Momento, en milisegundos desde 1970, del último cambio de cada usuario.
+	 */
+	private final Map<Integer, Long> changedAt;
+
+	@Autowired
+	public UserDetailsCache(@Value("${booking.security.principalCache.maxUsers:10000}") final int maxUsers,
+			@Value("${booking.security.principalCache.ttlSeconds:60}") final long ttlSeconds) {
+		this(maxUsers, ttlSeconds, System::nanoTime, System::currentTimeMillis);
+	}
+
+	UserDetailsCache(final int maxUsers, final long ttlSeconds, final LongSupplier clock) {
+		this(maxUsers, ttlSeconds, clock, System::currentTimeMillis);
+	}
+
+	UserDetailsCache(final int maxUsers, final long ttlSeconds, final LongSupplier clock,
+			final LongSupplier wallClock) {
+		if (maxUsers < 1 || ttlSeconds < 1) {
+			throw new IllegalArgumentException(
+					"El número de usuarios y el tiempo de la caché de usuarios deben ser mayores que 0.");
+		}
+
+		this.maxUsers = maxUsers;
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+		this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+		this.clock = clock;
+		this.wallClock = wallClock;
+		this.users = new LinkedHashMap<String, CachedUserDetails>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 4021357823650421981L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, CachedUserDetails> eldest) {
+				return size() > UserDetailsCache.this.maxUsers;
+			}
+		};
+		this.changedAt = new LinkedHashMap<Integer, Long>(16, 0.75f, false) {
+
+			private static final long serialVersionUID = -6170522431538905817L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Integer, Long> eldest) {
+				return size() > UserDetailsCache.this.maxUsers;
+			}
+		};
+	}
+
+	/**
+	 * @param username
+	 * @param loader   Carga el usuario de la base de datos si no está en la
+	 *                 caché o ha caducado.
+	 *
+	 * @return
+	 */
+	public UserDetails get(final String username, final Function<String, UserDetails> loader) {
+		long now = clock.getAsLong();
+
+		synchronized (users) {
+			CachedUserDetails cached = users.get(username);
+
+			if (cached != null && now - cached.loadedAt < ttlNanos) {
+				return cached.userDetails;
+			}
+		}
+
+		// Se carga fuera del bloqueo para no esperar a otros usuarios.
+		UserDetails userDetails = loader.apply(username);
+
+		synchronized (users) {
+			users.put(username, new CachedUserDetails(userDetails, now));
+		}
+
+		return userDetails;
+	}
+
+	/**
+	 * Descarta el usuario <code>username</code>.
+	 *
+	 * @param username
+	 */
+	public void invalidate(final String username) {
+		synchronized (users) {
+			users.remove(username);
+		}
+	}
+
+	/**
+	 * Anota que los roles del usuario <code>userId</code> han cambiado o que se
+	 * ha borrado, cuando se confirme la transacción en curso.
+	 *
+	 * @param userId
+	 * @param username
+	 */
+	public void markChanged(final Integer userId, final String username) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					applyChange(userId, username);
+				}
+			});
+
+		} else {
+			applyChange(userId, username);
+		}
+	}
+
+	/**
+	 * @param userId
+	 * @param issuedAt Fecha de emisión del token.
+	 *
+	 * @return <code>true</code> si se pueden usar los roles del token del
+	 *         usuario <code>userId</code> sin cargarlo: se emitió hace menos de
+	 *         <code>booking.security.principalCache.ttlSeconds</code> segundos y
+	 *         el usuario no ha cambiado desde entonces en esta instancia.
+	 */
+	public boolean canTrustClaims(final Integer userId, final Date issuedAt) {
+		return issuedAt != null && wallClock.getAsLong() - issuedAt.getTime() < ttlMillis
+				&& !isChangedSince(userId, issuedAt);
+	}
+
+	/**
+	 * @param userId
+	 * @param issuedAt Fecha de emisión del token.
+	 *
+	 * @return <code>true</code> si el usuario <code>userId</code> ha cambiado
+	 *         desde <code>issuedAt</code> y los roles del token ya no valen.
+	 */
+	public boolean isChangedSince(final Integer userId, final Date issuedAt) {
+		Long changed;
+
+		synchronized (changedAt) {
+			changed = changedAt.get(userId);
+		}
+
+		// La fecha de emisión del token va en segundos: ante la duda, ha cambiado.
+		return changed != null && (issuedAt == null || changed >= issuedAt.getTime());
+	}
+
+	private void applyChange(final Integer userId, final String username) {
+		synchronized (changedAt) {
+			changedAt.remove(userId);
+			changedAt.put(userId, wallClock.getAsLong());
+		}
+
+		invalidate(username);
+	}
+
+	public int size() {
+		synchronized (users) {
+			return users.size();
+		}
+	}
+
+	private static final class CachedUserDetails {
+		private final UserDetails userDetails;
+		private final long loadedAt;
+
+		private CachedUserDetails(final UserDetails userDetails, final long loadedAt) {
+			this.userDetails = userDetails;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
@@ -46,6 +46,30 @@ public class UserDetailsImpl implements UserDetails {
 		return new UserDetailsImpl(user.getId(), user.getEmail(), user.getPass(), authorities);
 	}
 
+	/**
+	 * Usuario autenticado a partir de los datos de un token ya verificado, sin
+	 * consultar la base de datos. No tiene contraseña.
+	 * 
+	 * @param id
+	 * @param username
+	 * @param authorities Roles separados por comas, como los guarda el token.
+	 * 
+	 * @return
+	 */
+	public static UserDetailsImpl build(final Integer id, final String username, final String authorities) {
+		List<GrantedAuthority> authoritiesList = new ArrayList<>();
+
+		if (authorities != null) {
+			for (String authority : authorities.split(",")) {
+				if (!authority.trim().isEmpty()) {
+					authoritiesList.add(new SimpleGrantedAuthority(authority.trim()));
+				}
+			}
+		}
+
+		return new UserDetailsImpl(id, username, null, authoritiesList);
+	}
+
 	public static List<GrantedAuthority> getAuthoritiesList(final UserModel user) {
 		List<GrantedAuthority> authorities = new ArrayList<>();
 
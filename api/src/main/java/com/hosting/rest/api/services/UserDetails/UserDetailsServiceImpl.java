@@ -5,6 +5,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.hosting.rest.api.models.User.UserModel;
 import com.hosting.rest.api.repositories.User.IUserRepository;
@@ -22,6 +23,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	@Autowired
 	private IUserRepository userRepo;
 
+	/**
+	 * Se lee del primario: un usuario recién registrado puede no haber llegado
+	 * aún a la réplica de lectura.
+	 */
+	@Transactional
 	@Override
 	public UserDetails loadUserByUsername(String userEmail) throws UsernameNotFoundException {
 		UserModel user = userRepo.findByEmail(userEmail)
@@ -0,0 +1,51 @@
+package com.hosting.rest.api.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de los cálculos geográficos {@link GeoUtils}.
+ */
+class GeoUtilsTests {
+
+	@Test
+	void measuresDistancesOnTheSphere() {
+		assertEquals(0.0, GeoUtils.haversineDistance(40.4168, -3.7038, 40.4168, -3.7038), 1e-9);
+		assertEquals(GeoUtils.KM_PER_DEGREE, GeoUtils.haversineDistance(0.0, 0.0, 1.0, 0.0), 1e-9);
+		assertEquals(GeoUtils.KM_PER_DEGREE, GeoUtils.haversineDistance(0.0, 179.5, 0.0, -179.5), 1e-9);
+		assertEquals(Math.PI * GeoUtils.EARTH_RADIUS_KM, GeoUtils.haversineDistance(90.0, 0.0, -90.0, 0.0), 1e-6);
+
+		// Madrid - Barcelona
+		assertEquals(505, GeoUtils.haversineDistance(40.4168, -3.7038, 41.3874, 2.1686), 5);
+	}
+
+	@Test
+	void convertsDistancesToLatitudeDegrees() {
+		assertEquals(1.0, GeoUtils.latitudeDelta(GeoUtils.KM_PER_DEGREE), 1e-12);
+		assertEquals(0.5, GeoUtils.latitudeDelta(GeoUtils.KM_PER_DEGREE / 2), 1e-12);
+	}
+
+	@Test
+	void widensLongitudeDegreesAwayFromTheEquator() {
+		assertEquals(1.0, GeoUtils.longitudeDelta(0.0, GeoUtils.KM_PER_DEGREE), 1e-9);
+		assertEquals(2.0, GeoUtils.longitudeDelta(60.0, GeoUtils.KM_PER_DEGREE), 0.01);
+
+		// Ningún punto a menos de la distancia queda fuera de la franja de longitudes.
+		double lat = 70.0;
+		double distanceKm = 100.0;
+		double lngDelta = GeoUtils.longitudeDelta(lat, distanceKm);
+
+		for (double pointLat = lat - 0.8; pointLat <= lat + 0.8; pointLat += 0.01) {
+			assertTrue(GeoUtils.haversineDistance(lat, 0.0, pointLat, lngDelta) >= distanceKm - 1e-6);
+		}
+	}
+
+	@Test
+	void coversAllLongitudesWhenTheCircleReachesAPole() {
+		assertEquals(180.0, GeoUtils.longitudeDelta(89.95, 10.0));
+		assertEquals(180.0, GeoUtils.longitudeDelta(-89.95, 10.0));
+		assertTrue(GeoUtils.longitudeDelta(89.0, 10.0) < 180.0);
+	}
+}
@@ -0,0 +1,41 @@
+package com.hosting.rest.api.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+
+/**
+ * Pruebas del cursor {@link KeysetCursor}.
+ */
+class KeysetCursorTests {
+
+	private final LocalDateTime createdAt = LocalDateTime.of(2022, 5, 1, 12, 30, 15);
+
+	@Test
+	void decodesEncodedRegisterNumber() {
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, "AT-0001|B").encode());
+
+		assertEquals(createdAt, cursor.getCreatedAt());
+		assertEquals("AT-0001|B", cursor.getKey());
+	}
+
+	@Test
+	void decodesEncodedId() {
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, 42).encode());
+
+		assertEquals(createdAt, cursor.getCreatedAt());
+		assertEquals(Integer.valueOf(42), cursor.getKeyAsInteger());
+	}
+
+	@Test
+	void rejectsInvalidTokens() {
+		assertThrows(IllegalArgumentsCustomException.class, () -> KeysetCursor.decode("no es un cursor"));
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> new KeysetCursor(createdAt, "AT-0001").getKeyAsInteger());
+	}
+}
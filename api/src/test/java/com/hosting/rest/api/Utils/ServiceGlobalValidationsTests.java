@@ -0,0 +1,31 @@
+package com.hosting.rest.api.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+
+/**
+ * Pruebas de las validaciones de paginación de {@link ServiceGlobalValidations}.
+ */
+class ServiceGlobalValidationsTests {
+
+	@Test
+	void computesPageOffsets() {
+		assertEquals(0, ServiceGlobalValidations.checkPageOffset(0, 20));
+		assertEquals(60, ServiceGlobalValidations.checkPageOffset(3, 20));
+		assertEquals(Integer.MAX_VALUE - 1, ServiceGlobalValidations.checkPageOffset(Integer.MAX_VALUE - 1, 1));
+	}
+
+	@Test
+	void rejectsPagesPastTheLastInteger() {
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> ServiceGlobalValidations.checkPageOffset(Integer.MAX_VALUE / 20, 20));
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> ServiceGlobalValidations.checkPageOffset(Integer.MAX_VALUE, 1));
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> ServiceGlobalValidations.checkPageOffset(Integer.MAX_VALUE, Integer.MAX_VALUE));
+	}
+}
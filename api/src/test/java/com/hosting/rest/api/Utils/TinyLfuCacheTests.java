@@ -0,0 +1,75 @@
+package com.hosting.rest.api.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la caché {@link TinyLfuCache}.
+ */
+class TinyLfuCacheTests {
+
+	@Test
+	void keepsValuesUpToMaximumSize() {
+		TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100);
+
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, "valor " + i);
+		}
+
+		assertEquals(100, cache.size());
+	}
+
+	@Test
+	void keepsFrequentKeysOverOneHitWonders() {
+		TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100);
+
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "valor " + i);
+		}
+
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 100; i++) {
+				cache.get(i);
+			}
+		}
+
+		// Claves que solo se piden una vez.
+		for (int i = 1000; i < 2000; i++) {
+			cache.put(i, "valor " + i);
+		}
+
+		int kept = 0;
+
+		for (int i = 0; i < 100; i++) {
+			if (cache.containsKey(i)) {
+				kept++;
+			}
+		}
+
+		assertTrue(kept >= 90, "Solo se conservan " + kept + " claves frecuentes.");
+	}
+
+	@Test
+	void removesAndReplacesValues() {
+		TinyLfuCache<String, String> cache = new TinyLfuCache<>(10);
+
+		cache.put("a", "1");
+		cache.put("a", "2");
+		cache.put("b", "3");
+
+		assertEquals("2", cache.getIfPresent("a"));
+
+		cache.remove("a");
+
+		assertNull(cache.get("a"));
+		assertFalse(cache.containsKey("a"));
+
+		cache.clear();
+
+		assertEquals(0, cache.size());
+	}
+}
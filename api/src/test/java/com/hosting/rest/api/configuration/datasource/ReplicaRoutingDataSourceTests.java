@@ -0,0 +1,179 @@
+package com.hosting.rest.api.configuration.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hosting.rest.api.models.DataSource.DataSourceRoutingStatsModel;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pruebas del reparto de conexiones {@link ReplicaRoutingDataSource} con dos
+ * bases de datos H2 en memoria como primario y réplica. La replicación se
+ * simula copiando el latido del primario a la réplica.
+ */
+class ReplicaRoutingDataSourceTests {
+
+	private static final long MAX_LAG_MILLIS = 5000;
+
+	private final AtomicLong clock = new AtomicLong(1000000);
+
+	private HikariDataSource primary;
+
+	private HikariDataSource replica;
+
+	private ReplicaLagMonitor lagMonitor;
+
+	private ReplicaRoutingDataSource routingDataSource;
+
+	private JdbcTemplate jdbc;
+
+	private TransactionTemplate readWriteTransaction;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+
+		lagMonitor = new ReplicaLagMonitor(primary, replica, MAX_LAG_MILLIS, clock::get);
+		routingDataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+		jdbc = new JdbcTemplate(dataSource);
+		readWriteTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@AfterEach
+	void closeDatabases() {
+		primary.close();
+		replica.close();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplicaWhenItIsUpToDate() {
+		replicateWithLag(1000);
+
+		assertTrue(lagMonitor.isReplicaUsable());
+		assertEquals(Long.valueOf(1000), lagMonitor.getLagMillis());
+
+		assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+		assertEquals("primary", readWriteTransaction.execute(status -> currentDatabase()));
+		assertEquals("primary", currentDatabase());
+
+		DataSourceRoutingStatsModel stats = routingDataSource.getStats();
+
+		assertEquals("replica", stats.getPools().get(1).getPool());
+		assertEquals(Long.valueOf(1), stats.getPools().get(1).getRoutedConnections());
+		assertEquals(Long.valueOf(0), stats.getReplicaFallbacks());
+	}
+
+	@Test
+	void readsGoToThePrimaryWhileTheReplicaLags() {
+		replicateWithLag(MAX_LAG_MILLIS + 1);
+
+		assertFalse(lagMonitor.isReplicaUsable());
+		assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+		assertEquals(Long.valueOf(1), routingDataSource.getStats().getReplicaFallbacks());
+
+		replicateWithLag(MAX_LAG_MILLIS);
+
+		assertTrue(lagMonitor.isReplicaUsable());
+		assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+	}
+
+	@Test
+	void readsGoToThePrimaryWhenTheReplicaIsDown() {
+		replicateWithLag(1000);
+
+		replica.close();
+
+		assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+		assertFalse(lagMonitor.isReplicaUsable());
+
+		lagMonitor.check();
+
+		assertFalse(lagMonitor.isReplicaUsable());
+		assertNull(lagMonitor.getLagMillis());
+		assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+		assertEquals(Long.valueOf(2), routingDataSource.getStats().getReplicaFallbacks());
+	}
+
+	@Test
+	void writesAlwaysGoToThePrimary() {
+		replicateWithLag(1000);
+
+		readWriteTransaction.executeWithoutResult(
+				status -> jdbc.update("UPDATE DATABASE_NAME SET NAME = ?", "written"));
+
+		assertEquals("written", new JdbcTemplate(primary).queryForObject("SELECT NAME FROM DATABASE_NAME",
+				String.class));
+		assertEquals("replica", new JdbcTemplate(replica).queryForObject("SELECT NAME FROM DATABASE_NAME",
+				String.class));
+	}
+
+	@Test
+	void connectionsWithCredentialsAreRoutedWithoutDisablingTheReplica() {
+		replicateWithLag(1000);
+
+		readOnlyTransaction.executeWithoutResult(status -> assertThrows(SQLFeatureNotSupportedException.class,
+				() -> routingDataSource.getConnection("user", "password")));
+
+		assertTrue(lagMonitor.isReplicaUsable());
+		assertEquals(Long.valueOf(0), routingDataSource.getStats().getReplicaFallbacks());
+		assertThrows(SQLFeatureNotSupportedException.class, () -> routingDataSource.getConnection("user", "password"));
+	}
+
+	/**
+	 * Escribe el latido en el primario, lo copia a la réplica y, pasados
+	 * <code>lagMillis</code>, mide el retraso.
+	 */
+	private void replicateWithLag(final long lagMillis) {
+		lagMonitor.check();
+
+		Long beatMillis = new JdbcTemplate(primary).queryForObject(
+				"SELECT BEAT_MILLIS FROM REPLICA_HEARTBEAT WHERE ID = 1", Long.class);
+		new JdbcTemplate(replica).update("UPDATE REPLICA_HEARTBEAT SET BEAT_MILLIS = ? WHERE ID = 1", beatMillis);
+
+		clock.addAndGet(lagMillis);
+		lagMonitor.check();
+	}
+
+	private String currentDatabase() {
+		return jdbc.queryForObject("SELECT NAME FROM DATABASE_NAME", String.class);
+	}
+
+	private static HikariDataSource database(final String name) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName(name);
+		dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		dataSource.setMaximumPoolSize(2);
+
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE REPLICA_HEARTBEAT (ID INT PRIMARY KEY, BEAT_MILLIS BIGINT NOT NULL)");
+		jdbc.update("INSERT INTO REPLICA_HEARTBEAT (ID, BEAT_MILLIS) VALUES (1, 0)");
+		jdbc.execute("CREATE TABLE DATABASE_NAME (NAME VARCHAR(20))");
+		jdbc.update("INSERT INTO DATABASE_NAME (NAME) VALUES (?)", name);
+
+		return dataSource;
+	}
+}
@@ -0,0 +1,77 @@
+package com.hosting.rest.api.configuration.security;
+
+import static com.hosting.rest.api.Utils.Constants.AUTHORITIES_KEY;
+import static com.hosting.rest.api.Utils.Constants.SIGNING_KEY;
+import static com.hosting.rest.api.Utils.Constants.USER_ID_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.hosting.rest.api.services.UserDetails.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Pruebas de la verificación de tokens de {@link JwtUtils}.
+ */
+class JwtUtilsTests {
+
+	private final JwtUtils jwtUtils = new JwtUtils(100);
+
+	@Test
+	void verifiesTokenWithUserIdAndRoles() {
+		Claims claims = jwtUtils.verifyJwtToken(tokenOf(7, "ana@mail.es"));
+
+		assertEquals("ana@mail.es", claims.getSubject());
+		assertEquals(Integer.valueOf(7), claims.get(USER_ID_KEY, Integer.class));
+		assertEquals("ROLE_BASE_USER,ROLE_HOST_USER", claims.get(AUTHORITIES_KEY, String.class));
+	}
+
+	@Test
+	void returnsCachedClaimsForRepeatedToken() {
+		String token = tokenOf(7, "ana@mail.es");
+
+		assertSame(jwtUtils.verifyJwtToken(token), jwtUtils.verifyJwtToken(token));
+	}
+
+	@Test
+	void acceptsTokensSignedWithTheKeyString() {
+		String token = Jwts.builder().setSubject("ana@mail.es").signWith(SignatureAlgorithm.HS512, SIGNING_KEY)
+				.compact();
+
+		assertTrue(jwtUtils.validateJwtToken(token));
+	}
+
+	@Test
+	void rejectsTamperedExpiredAndEmptyTokens() {
+		String token = tokenOf(7, "ana@mail.es");
+		String expiredToken = Jwts.builder().setSubject("ana@mail.es")
+				.setExpiration(new Date(System.currentTimeMillis() - 1000))
+				.signWith(SignatureAlgorithm.HS512, SIGNING_KEY).compact();
+
+		assertNull(jwtUtils.verifyJwtToken(token.substring(0, token.length() - 2) + "xx"));
+		assertNull(jwtUtils.verifyJwtToken(expiredToken));
+		assertNull(jwtUtils.verifyJwtToken(""));
+		assertFalse(jwtUtils.validateJwtToken("no es un token"));
+	}
+
+	private static String tokenOf(final Integer userId, final String email) {
+		UserDetailsImpl user = new UserDetailsImpl(userId, email, null,
+				Arrays.<GrantedAuthority>asList(new SimpleGrantedAuthority("ROLE_BASE_USER"),
+						new SimpleGrantedAuthority("ROLE_HOST_USER")));
+
+		return JwtUtils.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+}
@@ -0,0 +1,195 @@
+package com.hosting.rest.api.services.Accomodation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hosting.rest.api.Utils.CityKeys;
+import com.hosting.rest.api.configuration.JsonConfiguration;
+import com.hosting.rest.api.models.Accomodation.AccomodationCardModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationCategoryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationLocationModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationAccImageId;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationAccImageModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationImageModel;
+import com.hosting.rest.api.repositories.Accomodation.IAccomodationRepository;
+import com.hosting.rest.api.services.Accomodation.AccomodationReview.AccomodationRatingAggregates;
+
+/**
+ * Pruebas de los listados en formato tarjeta (<code>view=card</code>): la
+ * proyección {@link AccomodationCardModel} de {@link IAccomodationRepository}
+ * completada por {@link AccomodationCardsLoader}, sobre una base de datos H2
+ * con el esquema generado a partir de las entidades.
+ */
+@DataJpaTest(properties = { "spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect" })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ AccomodationCardsLoader.class, JsonConfiguration.class, AccomodationCardsTests.Config.class })
+class AccomodationCardsTests {
+
+	@Autowired
+	private IAccomodationRepository accomodationRepo;
+
+	@Autowired
+	private AccomodationCardsLoader cardsLoader;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter jsonConverter;
+
+	/**
+	 * Valoración media fija de ACC-1. Los resúmenes de valoraciones no se cargan
+	 * de la tabla ACCOMODATION_RATING, que no existe en el esquema generado.
+	 */
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		AccomodationRatingAggregates ratingAggregates() {
+			return new AccomodationRatingAggregates() {
+				@Override
+				public void load() {
+				}
+
+				@Override
+				public Double getAverageStars(final String regNumber) {
+					return "ACC-1".equals(regNumber) ? 4.5 : null;
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void persistAccomodations() {
+		AccomodationLocationModel location = new AccomodationLocationModel();
+		location.setCity("León");
+		location.setLatitude(new BigDecimal("42.598726"));
+		location.setLongitude(new BigDecimal("-5.567096"));
+		em.persist(location);
+
+		AccomodationCategoryModel category = em.persist(new AccomodationCategoryModel(0, "Casa rural"));
+
+		AccomodationModel withDetails = accomodation("ACC-1", LocalDateTime.of(2022, 5, 1, 12, 0));
+		withDetails.setIdAccomodationLocation(location);
+		withDetails.setIdAccomodationCategory(category);
+		em.persist(withDetails);
+
+		addImage("ACC-1", "https://img.leoncamp.com/acc-1-a.jpg");
+		addImage("ACC-1", "https://img.leoncamp.com/acc-1-b.jpg");
+
+		em.persist(accomodation("ACC-2", LocalDateTime.of(2022, 6, 1, 12, 0)));
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void buildsCardsFromTheProjection() {
+		Page<AccomodationCardModel> cards = accomodationRepo
+				.findAllCards(PageRequest.of(0, 10, Sort.by("createdAt").descending()));
+
+		cardsLoader.loadImagesAndRatings(cards.getContent());
+
+		assertEquals(2, cards.getTotalElements());
+
+		AccomodationCardModel withoutDetails = cards.getContent().get(0);
+		AccomodationCardModel withDetails = cards.getContent().get(1);
+
+		assertEquals("ACC-2", withoutDetails.getRegisterNumber());
+		assertNull(withoutDetails.getCity());
+		assertNull(withoutDetails.getCategory());
+		assertNull(withoutDetails.getImageUrl());
+		assertNull(withoutDetails.getAvgStars());
+
+		assertEquals("ACC-1", withDetails.getRegisterNumber());
+		assertEquals(0, new BigDecimal("80").compareTo(withDetails.getPricePerNight()));
+		assertEquals("León", withDetails.getCity());
+		assertEquals("Casa rural", withDetails.getCategory());
+		assertEquals(Integer.valueOf(3), withDetails.getNumOfBeds());
+		assertEquals(Integer.valueOf(4), withDetails.getNumOfGuests());
+		assertEquals(LocalDateTime.of(2022, 5, 1, 12, 0), withDetails.getCreatedAt());
+		assertEquals("https://img.leoncamp.com/acc-1-a.jpg", withDetails.getImageUrl());
+		assertEquals(Double.valueOf(4.5), withDetails.getAvgStars());
+	}
+
+	@Test
+	void filtersCardsByCityCategoryAndPrice() {
+		assertEquals(Arrays.asList("ACC-1"), regNumbersOf(accomodationRepo
+				.findCardsByCityKey(CityKeys.normalize("LEON"), PageRequest.of(0, 10)).getContent()));
+		assertEquals(Arrays.asList("ACC-1"), regNumbersOf(accomodationRepo.findCardsByCategory("Casa rural")));
+		assertEquals(new HashSet<>(Arrays.asList("ACC-1", "ACC-2")), new HashSet<>(regNumbersOf(
+				accomodationRepo.findCardsByPriceRange(BigDecimal.valueOf(50), BigDecimal.valueOf(100)))));
+	}
+
+	@Test
+	void serializesOnlyCardFields() throws Exception {
+		List<AccomodationCardModel> cards = cardsLoader
+				.loadImagesAndRatings(accomodationRepo.findCardsByRegNumbers(Arrays.asList("ACC-1")));
+
+		JsonNode card = jsonConverter.getObjectMapper().valueToTree(cards.get(0));
+		List<String> fields = new ArrayList<>();
+
+		for (Iterator<String> names = card.fieldNames(); names.hasNext();) {
+			fields.add(names.next());
+		}
+
+		assertEquals(new HashSet<>(Arrays.asList("registerNumber", "pricePerNight", "city", "imageUrl", "numOfBeds",
+				"numOfGuests", "avgStars", "category", "createdAt")), new HashSet<>(fields));
+		assertEquals("https://img.leoncamp.com/acc-1-a.jpg", card.get("imageUrl").asText());
+	}
+
+	private AccomodationModel accomodation(final String regNumber, final LocalDateTime createdAt) {
+		AccomodationModel accomodation = new AccomodationModel();
+		accomodation.setRegisterNumber(regNumber);
+		accomodation.setPricePerNight(BigDecimal.valueOf(80));
+		accomodation.setNumOfBeds(3);
+		accomodation.setNumOfGuests(4);
+		accomodation.setCreatedAt(createdAt);
+
+		return accomodation;
+	}
+
+	private void addImage(final String regNumber, final String imageUrl) {
+		AccomodationImageModel image = new AccomodationImageModel();
+		image.setImageUrl(imageUrl);
+		em.persist(image);
+
+		em.persist(new AccomodationAccImageModel(new AccomodationAccImageId(regNumber, image)));
+	}
+
+	private static List<String> regNumbersOf(final List<AccomodationCardModel> cards) {
+		List<String> regNumbers = new ArrayList<>(cards.size());
+
+		for (AccomodationCardModel card : cards) {
+			regNumbers.add(card.getRegisterNumber());
+		}
+
+		return regNumbers;
+	}
+}
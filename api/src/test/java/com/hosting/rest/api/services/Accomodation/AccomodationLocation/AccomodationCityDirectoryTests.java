@@ -0,0 +1,74 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCityModel;
+
+/**
+ * Pruebas del directorio de ciudades {@link AccomodationCityDirectory}.
+ */
+class AccomodationCityDirectoryTests {
+
+	private AccomodationCityDirectory cityDirectory;
+
+	@BeforeEach
+	void createDirectory() {
+		cityDirectory = new AccomodationCityDirectory();
+
+		cityDirectory.put("ACC-1", "Madrid", new BigDecimal("40.41"), new BigDecimal("-3.70"));
+		cityDirectory.put("ACC-2", "madrid", new BigDecimal("40.45"), new BigDecimal("-3.68"));
+		cityDirectory.put("ACC-3", "Málaga", new BigDecimal("36.72"), new BigDecimal("-4.42"));
+	}
+
+	@Test
+	void groupsAccomodationsByCity() {
+		assertEquals(Arrays.asList("Madrid", "Málaga"), cityDirectory.getCityNames());
+
+		AccomodationCityModel madrid = cityDirectory.getCities().get(0);
+
+		assertEquals(2, madrid.getNumOfAccomodations().intValue());
+		assertEquals(new AccomodationCityModel("Madrid", 2, 40.41, 40.45, -3.70, -3.68), madrid);
+	}
+
+	@Test
+	void followsMovedAndRemovedAccomodations() {
+		cityDirectory.put("ACC-2", "Málaga", new BigDecimal("36.70"), new BigDecimal("-4.40"));
+		cityDirectory.remove("ACC-1");
+
+		assertEquals(Arrays.asList("Málaga"), cityDirectory.getCityNames());
+		assertEquals(new AccomodationCityModel("Málaga", 2, 36.70, 36.72, -4.42, -4.40),
+				cityDirectory.getCities().get(0));
+	}
+
+	@Test
+	void accomodationsWithoutCoordinatesAreOnlyCounted() {
+		cityDirectory.put("ACC-4", "Oviedo", null, null);
+
+		AccomodationCityModel oviedo = cityDirectory.getCities().get(2);
+
+		assertEquals(1, oviedo.getNumOfAccomodations().intValue());
+		assertNull(oviedo.getMinLat());
+	}
+
+	@Test
+	void eTagChangesOnlyWhenContentChanges() {
+		String eTag = cityDirectory.getETag();
+
+		cityDirectory.put("ACC-1", "Madrid", new BigDecimal("40.410"), new BigDecimal("-3.70"));
+		cityDirectory.remove("ACC-UNKNOWN");
+
+		assertEquals(eTag, cityDirectory.getETag());
+
+		cityDirectory.put("ACC-1", "Madrid", new BigDecimal("40.30"), new BigDecimal("-3.70"));
+
+		assertTrue(!eTag.equals(cityDirectory.getETag()));
+	}
+}
@@ -0,0 +1,62 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del autocompletado de ciudades {@link AccomodationCityIndex}.
+ */
+class AccomodationCityIndexTests {
+
+	private AccomodationCityIndex cityIndex;
+
+	@BeforeEach
+	void createIndex() {
+		cityIndex = new AccomodationCityIndex(3);
+
+		cityIndex.putLocation(1, "Málaga");
+		cityIndex.putLocation(2, "Madrid");
+		cityIndex.putLocation(3, "A Coruña");
+		cityIndex.putLocation(4, "Marbella");
+		cityIndex.putLocation(5, "Mallorca");
+
+		cityIndex.putAccomodation("ACC-1", "Madrid");
+		cityIndex.putAccomodation("ACC-2", "Madrid");
+		cityIndex.putAccomodation("ACC-3", "Málaga");
+		cityIndex.putAccomodation("ACC-4", "malaga");
+		cityIndex.putAccomodation("ACC-5", "Málaga");
+		cityIndex.putAccomodation("ACC-6", "Marbella");
+	}
+
+	@Test
+	void ignoresCaseAndAccents() {
+		assertEquals(Arrays.asList("Málaga"), cityIndex.findByPrefix("MALA"));
+		assertEquals(Arrays.asList("A Coruña"), cityIndex.findByPrefix(" coruña"));
+		assertEquals(Arrays.asList("A Coruña"), cityIndex.findByPrefix("a cor"));
+	}
+
+	@Test
+	void ranksByNumberOfAccomodationsAndLimitsResults() {
+		assertEquals(Arrays.asList("Málaga", "Madrid", "Marbella"), cityIndex.findByPrefix("ma"));
+	}
+
+	@Test
+	void followsAccomodationChanges() {
+		cityIndex.putAccomodation("ACC-3", "Madrid");
+		cityIndex.putAccomodation("ACC-4", "Madrid");
+		cityIndex.removeAccomodation("ACC-6");
+
+		assertEquals(Arrays.asList("Madrid", "Málaga", "Mallorca"), cityIndex.findByPrefix("ma"));
+	}
+
+	@Test
+	void unknownPrefixReturnsNothing() {
+		assertTrue(cityIndex.findByPrefix("zz").isEmpty());
+		assertTrue(cityIndex.findByPrefix("  ").isEmpty());
+	}
+}
@@ -0,0 +1,83 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pruebas del relleno de CITY_KEY {@link AccomodationCityKeyBackfill} con una
+ * base de datos H2 en memoria.
+ */
+class AccomodationCityKeyBackfillTests {
+
+	private HikariDataSource dataSource;
+
+	private JdbcTemplate jdbc;
+
+	private AccomodationCityKeyBackfill backfill;
+
+	@BeforeEach
+	void createTable() {
+		dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:locations-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE ACCOMODATION_LOCATION (ID INT PRIMARY KEY, CITY VARCHAR(30), CITY_KEY VARCHAR(30))");
+
+		backfill = new AccomodationCityKeyBackfill(jdbc);
+	}
+
+	@AfterEach
+	void closeDatabase() {
+		dataSource.close();
+	}
+
+	@Test
+	void fixesEveryKeyOnStartup() {
+		insert(1, "Málaga", null);
+		insert(2, "  A   Coruña ", "a   coruña");
+		insert(3, "Madrid", "madrid");
+		insert(4, null, null);
+
+		backfill.backfillAll();
+
+		assertEquals(Arrays.asList("malaga", "a coruna", "madrid", null), keys());
+	}
+
+	@Test
+	void fillsOnlyMissingKeysPeriodically() {
+		insert(1, "Gijón", "gijon-antigua");
+
+		for (int id = 2; id <= 1200; id++) {
+			insert(id, "Ávila", null);
+		}
+
+		backfill.backfillMissing();
+
+		assertEquals("gijon-antigua", key(1));
+		assertEquals(Integer.valueOf(0), jdbc.queryForObject(
+				"SELECT COUNT(*) FROM ACCOMODATION_LOCATION WHERE CITY_KEY IS NULL", Integer.class));
+		assertEquals("avila", key(1200));
+	}
+
+	private void insert(final int id, final String city, final String cityKey) {
+		jdbc.update("INSERT INTO ACCOMODATION_LOCATION (ID, CITY, CITY_KEY) VALUES (?, ?, ?)", id, city, cityKey);
+	}
+
+	private String key(final int id) {
+		return jdbc.queryForObject("SELECT CITY_KEY FROM ACCOMODATION_LOCATION WHERE ID = ?", String.class, id);
+	}
+
+	private List<String> keys() {
+		return jdbc.queryForList("SELECT CITY_KEY FROM ACCOMODATION_LOCATION ORDER BY ID", String.class);
+	}
+}
@@ -0,0 +1,140 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationLocation;
+
+import static com.hosting.rest.api.Utils.GeoUtils.haversineDistance;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del índice geográfico {@link AccomodationGeoIndex}.
+ */
+class AccomodationGeoIndexTests {
+
+	private AccomodationGeoIndex geoIndex;
+
+	/**
+	 * Ubicaciones añadidas al índice, para comparar con un recorrido completo.
+	 */
+	private final Map<String, double[]> locations = new HashMap<>();
+
+	@BeforeEach
+	void createIndex() {
+		geoIndex = new AccomodationGeoIndex();
+	}
+
+	@Test
+	void findsAccomodationsInNeighbourCells() {
+		// 40.1 es el límite entre dos filas de celdas.
+		put("ACC-1", 40.099, -3.7);
+		put("ACC-2", 40.101, -3.7);
+		put("ACC-3", 40.25, -3.7);
+		put("ACC-4", 40.0, -3.45);
+
+		assertEquals(Arrays.asList("ACC-2", "ACC-1", "ACC-3"), geoIndex.findNearest(40.11, -3.7, 20, 10));
+		assertEquals(Arrays.asList("ACC-2"), geoIndex.findNearest(40.11, -3.7, 20, 1));
+		assertEquals(Arrays.asList("ACC-1", "ACC-2", "ACC-4"), geoIndex.findNearest(40.05, -3.6, 15, 10));
+	}
+
+	@Test
+	void excludesAccomodationsOutsideTheRadius() {
+		put("ACC-1", 40.0, -3.7);
+		put("ACC-2", 40.0, -3.4);
+
+		double distanceKm = haversineDistance(40.0, -3.7, 40.0, -3.4);
+
+		assertEquals(Arrays.asList("ACC-1"), geoIndex.findNearest(40.0, -3.7, distanceKm, 10));
+		assertEquals(Arrays.asList("ACC-1", "ACC-2"), geoIndex.findNearest(40.0, -3.7, distanceKm + 0.001, 10));
+	}
+
+	@Test
+	void searchesAcrossTheAntimeridian() {
+		put("ACC-EAST", 0.0, 179.95);
+		put("ACC-WEST", 0.0, -179.95);
+		put("ACC-180", 0.0, 180.0);
+		put("ACC-FAR", 0.0, -179.5);
+
+		assertEquals(Arrays.asList("ACC-EAST", "ACC-180", "ACC-WEST"), geoIndex.findNearest(0.0, 179.95, 20, 10));
+		assertEquals(Arrays.asList("ACC-WEST", "ACC-180", "ACC-EAST"), geoIndex.findNearest(0.0, -179.95, 20, 10));
+	}
+
+	@Test
+	void searchesAcrossThePoles() {
+		put("ACC-1", 89.95, 0.0);
+		put("ACC-2", 89.95, 180.0);
+		put("ACC-3", 89.95, -90.0);
+		put("ACC-SOUTH", -89.95, 0.0);
+
+		assertEquals(new HashSet<>(Arrays.asList("ACC-1", "ACC-2", "ACC-3")),
+				new HashSet<>(geoIndex.findNearest(89.99, 45.0, 20, 10)));
+		assertEquals(Arrays.asList("ACC-SOUTH"), geoIndex.findNearest(-90.0, 0.0, 10, 10));
+	}
+
+	@Test
+	void followsLocationChanges() {
+		put("ACC-1", 43.36, -5.85);
+		put("ACC-2", 43.54, -5.66);
+
+		put("ACC-1", 40.42, -3.70);
+		geoIndex.remove("ACC-2");
+
+		assertTrue(geoIndex.findNearest(43.36, -5.85, 50, 10).isEmpty());
+		assertEquals(Arrays.asList("ACC-1"), geoIndex.findNearest(40.42, -3.70, 1, 10));
+	}
+
+	@Test
+	void matchesFullScan() {
+		Random random = new Random(7);
+
+		for (int i = 0; i < 2000; i++) {
+			put("ACC-" + i, 36.0 + random.nextDouble() * 8.0, -9.0 + random.nextDouble() * 12.0);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			double lat = 36.0 + random.nextDouble() * 8.0;
+			double lng = -9.0 + random.nextDouble() * 12.0;
+			double distanceKm = i % 2 == 0 ? 5 + random.nextDouble() * 20 : 100 + random.nextDouble() * 1000;
+
+			List<String> nearest = geoIndex.findNearest(lat, lng, distanceKm, Integer.MAX_VALUE);
+
+			assertEquals(fullScan(lat, lng, distanceKm), new HashSet<>(nearest));
+
+			for (int j = 1; j < nearest.size(); j++) {
+				assertTrue(distanceTo(lat, lng, nearest.get(j - 1)) <= distanceTo(lat, lng, nearest.get(j)));
+			}
+		}
+	}
+
+	private void put(final String regNumber, final double lat, final double lng) {
+		locations.put(regNumber, new double[] { lat, lng });
+		geoIndex.put(regNumber, BigDecimal.valueOf(lat), BigDecimal.valueOf(lng));
+	}
+
+	private Set<String> fullScan(final double lat, final double lng, final double distanceKm) {
+		Set<String> inside = new HashSet<>();
+
+		for (String regNumber : locations.keySet()) {
+			if (distanceTo(lat, lng, regNumber) < distanceKm) {
+				inside.add(regNumber);
+			}
+		}
+
+		return inside;
+	}
+
+	private double distanceTo(final double lat, final double lng, final String regNumber) {
+		double[] location = locations.get(regNumber);
+
+		return haversineDistance(lat, lng, location[0], location[1]);
+	}
+}
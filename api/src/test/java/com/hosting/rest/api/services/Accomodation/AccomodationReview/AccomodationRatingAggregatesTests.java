@@ -0,0 +1,77 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationReview;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationRatingModel;
+
+/**
+ * Pruebas de los resúmenes de valoraciones en memoria de
+ * {@link AccomodationRatingAggregates}.
+ */
+class AccomodationRatingAggregatesTests {
+
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@BeforeEach
+	void createAggregates() {
+		ratingAggregates = new AccomodationRatingAggregates();
+
+		ratingAggregates.applyChange("ACC-1", null, 4);
+		ratingAggregates.applyChange("ACC-1", null, 5);
+		ratingAggregates.applyChange("ACC-1", null, 5);
+	}
+
+	@Test
+	void countsNewReviews() {
+		AccomodationRatingModel rating = ratingAggregates.findRatings(Arrays.asList("ACC-1")).get(0);
+
+		assertEquals(Integer.valueOf(3), rating.getNumOfReviews());
+		assertEquals(14 / 3.0, rating.getAvgStars(), 1e-9);
+		assertEquals(Arrays.asList(0, 0, 0, 1, 2), rating.getNumOfReviewsByStars());
+	}
+
+	@Test
+	void appliesUpdatedAndDeletedReviews() {
+		ratingAggregates.applyChange("ACC-1", 5, 1);
+		ratingAggregates.applyChange("ACC-1", 4, null);
+
+		AccomodationRatingModel rating = ratingAggregates.findRatings(Arrays.asList("ACC-1")).get(0);
+
+		assertEquals(Integer.valueOf(2), rating.getNumOfReviews());
+		assertEquals(3.0, ratingAggregates.getAverageStars("ACC-1"), 1e-9);
+		assertEquals(Arrays.asList(1, 0, 0, 0, 1), rating.getNumOfReviewsByStars());
+	}
+
+	@Test
+	void ignoresReviewsWithoutValidStars() {
+		ratingAggregates.applyChange("ACC-2", null, null);
+		ratingAggregates.applyChange("ACC-2", null, 7);
+
+		assertFalse(ratingAggregates.hasRatings("ACC-2"));
+		assertNull(ratingAggregates.getAverageStars("ACC-2"));
+	}
+
+	@Test
+	void findsRatingsInBulkInRequestOrder() {
+		ratingAggregates.applyChange("ACC-3", null, 2);
+
+		List<AccomodationRatingModel> ratings = ratingAggregates
+				.findRatings(Arrays.asList("ACC-3", "ACC-9", "ACC-1", "ACC-3"));
+
+		assertEquals(3, ratings.size());
+		assertEquals("ACC-3", ratings.get(0).getRegisterNumber());
+		assertEquals(Integer.valueOf(0), ratings.get(1).getNumOfReviews());
+		assertNull(ratings.get(1).getAvgStars());
+		assertEquals("ACC-1", ratings.get(2).getRegisterNumber());
+		assertTrue(ratingAggregates.hasRatings("ACC-1"));
+	}
+}
@@ -0,0 +1,361 @@
+package com.hosting.rest.api.services.Accomodation.AccomodationReview;
+
+import static com.hosting.rest.api.services.Accomodation.AccomodationReview.IAccomodationReviewService.LATEST_ACCOMODATION_REVIEWS_LIMIT;
+import static com.hosting.rest.api.services.Accomodation.AccomodationReview.IAccomodationReviewService.MAX_BULK_RATINGS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hosting.rest.api.exceptions.IllegalArguments.IllegalArgumentsCustomException;
+import com.hosting.rest.api.exceptions.NotFound.NotFoundCustomException;
+import com.hosting.rest.api.configuration.JsonConfiguration;
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationAccImageId;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationAccImageModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationImage.AccomodationImageModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewItemModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationReview.AccomodationReviewSummaryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationRule.AccomodationAccRuleId;
+import com.hosting.rest.api.models.Accomodation.AccomodationRule.AccomodationAccRuleModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationRule.AccomodationRuleModel;
+import com.hosting.rest.api.models.Pagination.CursorSlice;
+import com.hosting.rest.api.models.User.UserModel;
+import com.hosting.rest.api.services.Accomodation.AccomodationCollectionsLoader;
+
+/**
+ * Pruebas de {@link AccomodationReviewServiceImpl} sobre una base de datos H2
+ * con el esquema generado a partir de las entidades, serializando las
+ * respuestas como lo hace la API. El driver de H2 no admite el tamaño de
+ * lectura fila a fila de MySQL.
+ */
+@DataJpaTest(properties = { "spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"booking.accomodations.reviews.streamFetchSize=50" })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ AccomodationReviewServiceImpl.class, AccomodationCollectionsLoader.class, JsonConfiguration.class,
+		AccomodationReviewServiceTests.Config.class })
+class AccomodationReviewServiceTests {
+
+	private static final String REG_NUMBER = "ACC-1";
+
+	@Autowired
+	private AccomodationReviewServiceImpl accomodationReviewService;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter jsonConverter;
+
+	@Autowired
+	private AccomodationRatingAggregates ratingAggregates;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private UserModel user;
+
+	private AccomodationReviewModel review;
+
+	/**
+	 * Los resúmenes de valoraciones no se cargan de la tabla ACCOMODATION_RATING,
+	 * que no existe en el esquema generado a partir de las entidades.
+	 */
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		AccomodationRatingAggregates ratingAggregates() {
+			return new AccomodationRatingAggregates() {
+				@Override
+				public void load() {
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void persistReview() {
+		user = em.persist(new UserModel("Ana", "García", "ana@leoncamp.com", "contraseña"));
+
+		AccomodationModel accomodation = persistAccomodation(REG_NUMBER);
+
+		AccomodationImageModel image = new AccomodationImageModel();
+		image.setImageUrl("https://img.leoncamp.com/acc-1.jpg");
+		em.persist(image);
+		em.persist(new AccomodationAccImageModel(new AccomodationAccImageId(REG_NUMBER, image)));
+
+		AccomodationRuleModel rule = em.persist(new AccomodationRuleModel(null, "No fumar"));
+		em.persist(new AccomodationAccRuleModel(new AccomodationAccRuleId(REG_NUMBER, rule)));
+
+		review = addReview(accomodation, "Muy tranquila", 5, LocalDateTime.of(2022, 5, 1, 12, 0));
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void reviewResponsesIncludeAccomodationCollections() throws Exception {
+		assertAccomodationCollections(toJson(accomodationReviewService.findAllAccomodationReviews(REG_NUMBER)).get(0));
+		assertAccomodationCollections(toJson(accomodationReviewService.findAccomodationById(review.getId())));
+		assertAccomodationCollections(toJson(accomodationReviewService.findLatestAccomodationReviews(REG_NUMBER)).get(0));
+		assertAccomodationCollections(
+				toJson(accomodationReviewService.findAllSendAccomodationReviewsByUserId(user.getId())).get(0));
+	}
+
+	@Test
+	void summarizesReviewsInRequestOrder() {
+		AccomodationModel other = persistAccomodation("ACC-2");
+		List<Integer> reviewIds = new ArrayList<>();
+
+		for (int day = 1; day <= 5; day++) {
+			reviewIds.add(addReview(other, "Día " + day, day, LocalDateTime.of(2022, 6, day, 12, 0)).getId());
+		}
+
+		// Misma fecha que la última: va antes la de id mayor.
+		reviewIds.add(addReview(other, "Día 5 bis", 4, LocalDateTime.of(2022, 6, 5, 12, 0)).getId());
+
+		em.flush();
+		em.clear();
+
+		List<AccomodationReviewSummaryModel> summaries = accomodationReviewService
+				.findAccomodationReviewSummaries(Arrays.asList("ACC-2", "ACC-MISSING", REG_NUMBER, "ACC-2"));
+
+		assertEquals(3, summaries.size());
+
+		AccomodationReviewSummaryModel otherSummary = summaries.get(0);
+
+		assertEquals("ACC-2", otherSummary.getRegisterNumber());
+		assertEquals(Integer.valueOf(6), otherSummary.getNumOfReviews());
+		assertEquals(19 / 6.0, otherSummary.getAvgStars(), 1e-9);
+		assertEquals(Arrays.asList(reviewIds.get(5), reviewIds.get(4), reviewIds.get(3), reviewIds.get(2)),
+				idsOf(otherSummary.getLatestReviews()));
+		assertEquals(LATEST_ACCOMODATION_REVIEWS_LIMIT, otherSummary.getLatestReviews().size());
+
+		AccomodationReviewSummaryModel missingSummary = summaries.get(1);
+
+		assertEquals("ACC-MISSING", missingSummary.getRegisterNumber());
+		assertEquals(Integer.valueOf(0), missingSummary.getNumOfReviews());
+		assertNull(missingSummary.getAvgStars());
+		assertEquals(Collections.emptyList(), missingSummary.getLatestReviews());
+
+		AccomodationReviewSummaryModel summary = summaries.get(2);
+		AccomodationReviewItemModel latestReview = summary.getLatestReviews().get(0);
+
+		assertEquals(REG_NUMBER, summary.getRegisterNumber());
+		assertEquals(Integer.valueOf(1), summary.getNumOfReviews());
+		assertEquals(review.getId(), latestReview.getId());
+		assertEquals("Muy tranquila", latestReview.getContent());
+		assertEquals(Integer.valueOf(5), latestReview.getStars());
+		assertEquals(user.getId(), latestReview.getUserId());
+		assertEquals("Ana", latestReview.getUserName());
+		assertEquals(LocalDateTime.of(2022, 5, 1, 12, 0), latestReview.getCreatedAt());
+	}
+
+	@Test
+	void limitsSummaryRequests() {
+		List<String> regNumbers = new ArrayList<>();
+
+		for (int i = 0; i < MAX_BULK_RATINGS; i++) {
+			regNumbers.add("ACC-MISSING-" + i);
+		}
+
+		assertEquals(MAX_BULK_RATINGS, accomodationReviewService.findAccomodationReviewSummaries(regNumbers).size());
+
+		regNumbers.add(REG_NUMBER);
+
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> accomodationReviewService.findAccomodationReviewSummaries(regNumbers));
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> accomodationReviewService.findAccomodationReviewSummaries(Collections.<String>emptyList()));
+		assertThrows(IllegalArgumentsCustomException.class,
+				() -> accomodationReviewService.findAccomodationReviewSummaries(Arrays.asList(REG_NUMBER, "")));
+	}
+
+	@Test
+	void streamsAllReviewsNewestFirst() throws Exception {
+		AccomodationModel accomodation = em.find(AccomodationModel.class, REG_NUMBER);
+		List<AccomodationReviewModel> reviews = new ArrayList<>();
+
+		reviews.add(em.find(AccomodationReviewModel.class, review.getId()));
+
+		// Varias veces el número de filas entre envíos, con fechas repetidas.
+		for (int i = 0; i < 250; i++) {
+			reviews.add(addReview(accomodation, "Valoración " + i, i % 5 + 1,
+					LocalDateTime.of(2022, 6, 1, 12, 0).plusHours(i / 2)));
+		}
+
+		em.flush();
+		em.clear();
+
+		reviews.sort(Comparator.comparing(AccomodationReviewModel::getCreatedAt)
+				.thenComparing(AccomodationReviewModel::getId).reversed());
+
+		List<Integer> expectedIds = new ArrayList<>();
+
+		for (AccomodationReviewModel sortedReview : reviews) {
+			expectedIds.add(sortedReview.getId());
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		accomodationReviewService.streamAccomodationReviews(REG_NUMBER).writeTo(out);
+
+		JsonNode streamed = objectMapper.readTree(out.toByteArray());
+		List<Integer> streamedIds = new ArrayList<>();
+
+		for (JsonNode reviewItem : streamed) {
+			assertEquals(REG_NUMBER, reviewItem.get("registerNumber").asText());
+			streamedIds.add(reviewItem.get("id").asInt());
+		}
+
+		assertEquals(expectedIds, streamedIds);
+
+		// El listado por cursor devuelve las mismas valoraciones en el mismo orden.
+		List<Integer> pagedIds = new ArrayList<>();
+		String cursor = null;
+
+		do {
+			CursorSlice<AccomodationReviewItemModel> page = accomodationReviewService
+					.findAccomodationReviewsAfter(REG_NUMBER, cursor, 50);
+
+			pagedIds.addAll(idsOf(page.getContent()));
+			cursor = page.getNextCursor();
+
+		} while (cursor != null);
+
+		assertEquals(expectedIds, pagedIds);
+	}
+
+	@Test
+	void streamsAnEmptyArrayWithoutReviews() throws Exception {
+		persistAccomodation("ACC-2");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		accomodationReviewService.streamAccomodationReviews("ACC-2").writeTo(out);
+
+		assertEquals("[]", new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertThrows(NotFoundCustomException.class,
+				() -> accomodationReviewService.streamAccomodationReviews("ACC-MISSING"));
+	}
+
+	@Test
+	void leavesTheArrayOpenWhenTheClientDisconnects() {
+		AccomodationModel accomodation = em.find(AccomodationModel.class, REG_NUMBER);
+
+		for (int i = 0; i < 250; i++) {
+			addReview(accomodation, "Valoración " + i, 5, LocalDateTime.of(2022, 6, 1, 12, 0).plusMinutes(i));
+		}
+
+		em.flush();
+		em.clear();
+
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+		// Cliente que se desconecta tras recibir algunas valoraciones.
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(final int b) throws IOException {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+
+			@Override
+			public void write(final byte[] b, final int off, final int len) throws IOException {
+				if (received.size() > 0) {
+					throw new IOException("Conexión cerrada");
+				}
+
+				received.write(b, off, len);
+			}
+		};
+
+		StreamingResponseBody body = accomodationReviewService.streamAccomodationReviews(REG_NUMBER);
+
+		assertThrows(IOException.class, () -> body.writeTo(out));
+
+		String partial = new String(received.toByteArray(), StandardCharsets.UTF_8);
+
+		assertTrue(partial.startsWith("[{"));
+		assertFalse(partial.trim().endsWith("]"));
+	}
+
+	private AccomodationModel persistAccomodation(final String regNumber) {
+		AccomodationModel accomodation = new AccomodationModel();
+		accomodation.setRegisterNumber(regNumber);
+		accomodation.setDescription("Casa rural");
+		accomodation.setPricePerNight(BigDecimal.valueOf(80));
+
+		return em.persist(accomodation);
+	}
+
+	/**
+	 * Guarda una valoración de <code>user</code> y la suma a los resúmenes en
+	 * memoria, como haría el servicio al confirmar la transacción.
+	 */
+	private AccomodationReviewModel addReview(final AccomodationModel accomodation, final String content,
+			final int stars, final LocalDateTime createdAt) {
+		AccomodationReviewModel newReview = em
+				.persist(new AccomodationReviewModel(null, content, stars, user, accomodation, createdAt));
+
+		ratingAggregates.applyChange(accomodation.getRegisterNumber(), null, stars);
+
+		return newReview;
+	}
+
+	private static List<Integer> idsOf(final List<AccomodationReviewItemModel> reviews) {
+		List<Integer> ids = new ArrayList<>(reviews.size());
+
+		for (AccomodationReviewItemModel reviewItem : reviews) {
+			ids.add(reviewItem.getId());
+		}
+
+		return ids;
+	}
+
+	private JsonNode toJson(final Object response) throws Exception {
+		return jsonConverter.getObjectMapper().valueToTree(response);
+	}
+
+	private static void assertAccomodationCollections(final JsonNode reviewJson) {
+		JsonNode accomodation = reviewJson.get("idAccomodation");
+
+		assertEquals(REG_NUMBER, accomodation.get("registerNumber").asText());
+		assertEquals("https://img.leoncamp.com/acc-1.jpg",
+				accomodation.get("accomodationImages").get(0).at("/accomodationAccImageId/idAccomodationImage/imageUrl")
+						.asText());
+		assertEquals("No fumar",
+				accomodation.get("accomodationRules").get(0).at("/accomodationAccRuleId/idAccomodationRule/rule")
+						.asText());
+		assertTrue(accomodation.get("accomodationServices").isArray());
+		assertTrue(accomodation.get("promoCodes").isArray());
+	}
+}
@@ -0,0 +1,116 @@
+package com.hosting.rest.api.services.Accomodation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+
+/**
+ * Comprueba que los listados de alojamientos lanzan un número fijo de sentencias
+ * SQL, independientemente del número de alojamientos devueltos, sobre la base
+ * de datos configurada.
+ *
+ * Ejecución: <code>mvn test -Dtest=AccomodationStatementCountTests -Dbooking.statements=true</code>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "booking.statements", matches = "true")
+class AccomodationStatementCountTests {
+
+	/**
+	 * Consulta principal + dos consultas por cada una de las cuatro colecciones.
+	 */
+	private static final long LISTING_STATEMENTS = 1 + 8;
+
+	/**
+	 * Los listados paginados pueden lanzar además la consulta del total.
+	 */
+	private static final long PAGED_LISTING_STATEMENTS = LISTING_STATEMENTS + 1;
+
+	@Autowired
+	private AccomodationServiceImpl accomodationService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void enableStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@Test
+	void findAllAccomodationsRunsFixedStatements() {
+		long smallPage = countStatements(() -> accomodationService.findAllAccomodations(0, 1).getContent());
+		long bigPage = countStatements(() -> accomodationService.findAllAccomodations(0, 100).getContent());
+
+		assertTrue(smallPage <= PAGED_LISTING_STATEMENTS, "Sentencias página pequeña: " + smallPage);
+		assertTrue(bigPage <= PAGED_LISTING_STATEMENTS, "Sentencias página grande: " + bigPage);
+	}
+
+	@Test
+	void findByCityRunsFixedStatements() {
+		long statements = countStatements(() -> accomodationService.findByCity("Madrid", 0, 100).getContent());
+
+		assertTrue(statements <= PAGED_LISTING_STATEMENTS, "Sentencias: " + statements);
+	}
+
+	@Test
+	void findNAccomodationsRunsFixedStatements() {
+		long oneResult = countStatements(() -> accomodationService.findNAccomodations(1));
+		long manyResults = countStatements(() -> accomodationService.findNAccomodations(100));
+
+		assertEquals(oneResult, manyResults);
+		assertTrue(manyResults <= LISTING_STATEMENTS, "Sentencias: " + manyResults);
+	}
+
+	@Test
+	void filteredListingsRunFixedStatements() {
+		assertTrue(countStatements(() -> accomodationService.findByPriceRange(BigDecimal.ZERO,
+				new BigDecimal("100000"))) <= LISTING_STATEMENTS);
+
+		assertTrue(countStatements(() -> accomodationService.findAllByMultipleFilters(Optional.empty(),
+				Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+				Optional.empty())) <= LISTING_STATEMENTS);
+
+		assertTrue(countStatements(() -> accomodationService.findByCategory("Apartamento")) <= LISTING_STATEMENTS);
+	}
+
+	/**
+	 * Ejecuta el listado y devuelve el número de sentencias SQL lanzadas. Comprueba
+	 * también que las colecciones de los alojamientos llegan inicializadas.
+	 */
+	private long countStatements(final Supplier<Collection<AccomodationModel>> listing) {
+		statistics.clear();
+
+		Collection<AccomodationModel> accomodations = listing.get();
+
+		long statements = statistics.getPrepareStatementCount();
+
+		for (AccomodationModel accomodation : accomodations) {
+			assertTrue(Hibernate.isInitialized(accomodation.getAccomodationImages()));
+			assertTrue(Hibernate.isInitialized(accomodation.getAccomodationRules()));
+			assertTrue(Hibernate.isInitialized(accomodation.getAccomodationServices()));
+			assertTrue(Hibernate.isInitialized(accomodation.getPromoCodes()));
+		}
+
+		return statements;
+	}
+}
@@ -0,0 +1,146 @@
+package com.hosting.rest.api.services.Accomodation.Catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Accomodation.AccomodationCategoryModel;
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+
+/**
+ * Compara las consultas de {@link AccomodationColumnarCatalog} con un filtrado
+ * directo de los mismos alojamientos tras altas, modificaciones y bajas
+ * aleatorias.
+ */
+class AccomodationColumnarCatalogTests {
+
+	private static final String[] CATEGORIES = { "Apartamento", "Casa", "Hotel" };
+
+	private final Random random = new Random(7);
+
+	private final AccomodationColumnarCatalog catalog = new AccomodationColumnarCatalog(true);
+
+	private final Map<String, AccomodationModel> accomodations = new LinkedHashMap<>();
+
+	@Test
+	void queriesMatchBruteForce() {
+		for (int i = 0; i < 3_000; i++) {
+			String regNumber = "REG" + random.nextInt(1_500);
+
+			if (random.nextInt(5) == 0) {
+				catalog.remove(regNumber);
+				accomodations.remove(regNumber);
+
+			} else {
+				AccomodationModel accomodation = randomAccomodation(regNumber);
+				catalog.put(accomodation);
+				accomodations.put(regNumber, accomodation);
+			}
+		}
+
+		assertEquals(accomodations.size(), catalog.size());
+
+		for (int i = 0; i < 200; i++) {
+			BigDecimal min = randomPrice().add(new BigDecimal("0.01"));
+			BigDecimal max = min.add(randomPrice());
+			Optional<Integer> beds = Optional.of(random.nextInt(5));
+			Optional<Integer> guests = random.nextBoolean() ? Optional.of(random.nextInt(8)) : Optional.empty();
+
+			assertEquals(expected(a -> a.getPricePerNight() != null && a.getPricePerNight().compareTo(min) >= 0
+					&& a.getPricePerNight().compareTo(max) <= 0 && atLeast(a.getNumOfBeds(), beds)
+					&& atLeast(a.getNumOfGuests(), guests), newestFirst(), 50),
+					catalog.findByFilters(Optional.of(min), Optional.of(max), beds, Optional.empty(),
+							Optional.empty(), guests, 50));
+
+			assertEquals(expected(a -> a.getPricePerNight() != null && a.getPricePerNight().compareTo(min) >= 0
+					&& a.getPricePerNight().compareTo(max) <= 0, mostExpensiveFirst(), Integer.MAX_VALUE),
+					catalog.findByPriceRange(min, max));
+		}
+
+		for (String category : CATEGORIES) {
+			assertEquals(expected(a -> a.getIdAccomodationCategory().getAccomodationCategory().equals(category),
+					newestFirst(), Integer.MAX_VALUE), catalog.findByCategory(category.toUpperCase()));
+		}
+
+		assertNull(catalog.findByCategory("Castillo"));
+	}
+
+	@Test
+	void priceBoundsAreInclusive() {
+		AccomodationModel accomodation = randomAccomodation("REG1");
+		accomodation.setPricePerNight(new BigDecimal("75.5000"));
+		catalog.put(accomodation);
+
+		assertEquals(1, catalog.findByPriceRange(new BigDecimal("75.5"), new BigDecimal("75.5")).size());
+		assertEquals(0, catalog.findByPriceRange(new BigDecimal("75.50001"), new BigDecimal("80")).size());
+		assertEquals(0, catalog.findByFilters(Optional.empty(), Optional.of(new BigDecimal("75.49999")),
+				Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 50).size());
+	}
+
+	@Test
+	void pricesOutOfRangeDoNotFail() {
+		AccomodationModel accomodation = randomAccomodation("REG1");
+		accomodation.setPricePerNight(new BigDecimal("75.5"));
+		catalog.put(accomodation);
+
+		BigDecimal huge = new BigDecimal("1E30");
+
+		assertEquals(1, catalog.findByPriceRange(new BigDecimal("1"), huge).size());
+		assertEquals(0, catalog.findByPriceRange(huge, huge.multiply(BigDecimal.TEN)).size());
+		assertEquals(1, catalog.findByFilters(Optional.of(huge.negate()), Optional.of(huge), Optional.empty(),
+				Optional.empty(), Optional.empty(), Optional.empty(), 50).size());
+	}
+
+	private List<String> expected(final Predicate<AccomodationModel> filter,
+			final Comparator<AccomodationModel> order, final int maxResults) {
+		return accomodations.values().stream().filter(filter).sorted(order).limit(maxResults)
+				.map(AccomodationModel::getRegisterNumber).collect(Collectors.toList());
+	}
+
+	private static boolean atLeast(final Integer value, final Optional<Integer> min) {
+		return !min.isPresent() || min.get() <= 0 || (value != null && value >= min.get());
+	}
+
+	private static Comparator<AccomodationModel> newestFirst() {
+		return Comparator.comparing(AccomodationModel::getCreatedAt).reversed()
+				.thenComparing(Comparator.comparing(AccomodationModel::getRegisterNumber).reversed());
+	}
+
+	private static Comparator<AccomodationModel> mostExpensiveFirst() {
+		return Comparator.comparing(AccomodationModel::getPricePerNight).reversed()
+				.thenComparing(AccomodationModel::getRegisterNumber);
+	}
+
+	private AccomodationModel randomAccomodation(final String regNumber) {
+		int categoryId = random.nextInt(CATEGORIES.length);
+
+		AccomodationModel accomodation = new AccomodationModel();
+		accomodation.setRegisterNumber(regNumber);
+		accomodation.setNumOfBeds(random.nextInt(10) == 0 ? null : 1 + random.nextInt(4));
+		accomodation.setNumOfGuests(1 + random.nextInt(8));
+		accomodation.setNumOfBedRooms(1 + random.nextInt(3));
+		accomodation.setNumOfBathRooms(1 + random.nextInt(2));
+		accomodation.setPricePerNight(random.nextInt(20) == 0 ? null : randomPrice());
+		accomodation.setIdAccomodationCategory(new AccomodationCategoryModel(categoryId + 1, CATEGORIES[categoryId]));
+		accomodation.setCreatedAt(LocalDateTime.of(2022, 1, 1, 0, 0).plusMinutes(random.nextInt(100)));
+
+		return accomodation;
+	}
+
+	private BigDecimal randomPrice() {
+		return new BigDecimal(random.nextInt(50_000)).movePointLeft(2);
+	}
+}
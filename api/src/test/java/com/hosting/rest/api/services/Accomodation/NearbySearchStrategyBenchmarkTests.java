@@ -0,0 +1,233 @@
+package com.hosting.rest.api.services.Accomodation;
+
+import static com.hosting.rest.api.Utils.GeoUtils.haversineDistance;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.AccomodationGeoIndex;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.BoundingBoxNearbySearchStrategy;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.GeoIndexNearbySearchStrategy;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.HaversineNearbySearchStrategy;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.INearbySearchStrategy;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.NearbySearchStrategyResolver;
+import com.hosting.rest.api.services.Accomodation.AccomodationLocation.NearbySearch.SpatialNearbySearchStrategy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compara el tiempo de respuesta de las estrategias de búsqueda por cercanía
+ * sobre {@value #SEEDED_LOCATIONS} ubicaciones generadas en la base de datos
+ * configurada.
+ *
+ * Los resultados de cada estrategia se comparan con los del recorrido completo
+ * admitiendo diferencias de {@value #DISTANCE_TOLERANCE_KM} km: el orden de
+ * alojamientos a la misma distancia y los que quedan justo en el radio o en el
+ * último puesto pueden variar según el cálculo de cada estrategia.
+ *
+ * Ejecución: <code>mvn test -Dtest=NearbySearchStrategyBenchmarkTests -Dbooking.benchmark=true</code>
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "booking.benchmark", matches = "true")
+@Slf4j
+class NearbySearchStrategyBenchmarkTests {
+
+	private static final int SEEDED_LOCATIONS = 100_000;
+
+	private static final int QUERIES = 200;
+
+	private static final String BENCHMARK_DIRECTION = "BENCHMARK";
+
+	private static final String BENCHMARK_REG_NUM_PREFIX = "BENCH";
+
+	private static final double DISTANCE_TOLERANCE_KM = 0.01;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AccomodationGeoIndex geoIndex;
+
+	@Autowired
+	private NearbySearchStrategyResolver strategyResolver;
+
+	private final Random random = new Random(42);
+
+	/**
+	 * Latitud y longitud de cada alojamiento, por número de registro.
+	 */
+	private final Map<String, double[]> coordinates = new HashMap<>();
+
+	@BeforeAll
+	void seedLocations() {
+		Integer categoryId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM ACCOMODATION_CATEGORY", Integer.class);
+		Integer hostId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM USER_HOST", Integer.class);
+
+		List<Object[]> locations = new ArrayList<>(SEEDED_LOCATIONS);
+
+		for (int i = 0; i < SEEDED_LOCATIONS; i++) {
+			locations.add(new Object[] { randomLatitude(), randomLongitude(), BENCHMARK_DIRECTION, "Benchmark" });
+		}
+
+		jdbcTemplate.batchUpdate("INSERT INTO ACCOMODATION_LOCATION(LAT, LNG, DIRECTION, CITY) VALUES(?, ?, ?, ?)",
+				locations);
+
+		List<Integer> locationIds = jdbcTemplate.queryForList(
+				"SELECT ID FROM ACCOMODATION_LOCATION WHERE DIRECTION = ? ORDER BY ID", Integer.class,
+				BENCHMARK_DIRECTION);
+
+		List<Object[]> accomodations = new ArrayList<>(locationIds.size());
+
+		for (int i = 0; i < locationIds.size(); i++) {
+			accomodations.add(new Object[] { String.format("%s%06d", BENCHMARK_REG_NUM_PREFIX, i), categoryId,
+					locationIds.get(i), hostId });
+		}
+
+		jdbcTemplate.batchUpdate("INSERT INTO ACCOMODATION(REG_NUM, ACC_DESCRIPTION, BEDS, NUM_BATHROOMS, "
+				+ "NUM_BEDROOMS, PRICE_PER_NIGHT, GUESTS, AREA, ID_ACC_CATEGORY, ID_ACC_LOCATION, ID_USER_OWNER) "
+				+ "VALUES(?, 'Benchmark', 1, 1, 1, 50, 2, 50, ?, ?, ?)", accomodations);
+
+		jdbcTemplate.query("SELECT a.REG_NUM, l.LAT, l.LNG FROM ACCOMODATION a "
+				+ "INNER JOIN ACCOMODATION_LOCATION l ON a.ID_ACC_LOCATION = l.ID",
+				rs -> {
+					coordinates.put(rs.getString(1), new double[] { rs.getDouble(2), rs.getDouble(3) });
+				});
+
+		geoIndex.rebuild();
+	}
+
+	@AfterAll
+	void deleteSeededLocations() {
+		jdbcTemplate.update("DELETE FROM ACCOMODATION WHERE REG_NUM LIKE ?", BENCHMARK_REG_NUM_PREFIX + "%");
+		jdbcTemplate.update("DELETE FROM ACCOMODATION_LOCATION WHERE DIRECTION = ?", BENCHMARK_DIRECTION);
+
+		coordinates.clear();
+
+		geoIndex.rebuild();
+	}
+
+	@Test
+	void compareNearbySearchStrategies() {
+		List<double[]> queries = new ArrayList<>(QUERIES);
+
+		for (int i = 0; i < QUERIES; i++) {
+			queries.add(new double[] { randomLatitude(), randomLongitude(), i % 2 == 0 ? 5 : 25 });
+		}
+
+		INearbySearchStrategy fullScan = strategyResolver.resolve(HaversineNearbySearchStrategy.STRATEGY_NAME);
+		List<List<String>> expectedResults = run(fullScan, queries);
+
+		String[] strategies = { GeoIndexNearbySearchStrategy.STRATEGY_NAME,
+				BoundingBoxNearbySearchStrategy.STRATEGY_NAME, SpatialNearbySearchStrategy.STRATEGY_NAME };
+
+		for (String strategyName : strategies) {
+			INearbySearchStrategy strategy = strategyResolver.resolve(strategyName);
+
+			if (!strategy.getName().equals(strategyName)) {
+				log.info("[benchmark] {} no soportada por el esquema actual.", strategyName);
+				continue;
+			}
+
+			List<List<String>> results = run(strategy, queries);
+
+			for (int i = 0; i < queries.size(); i++) {
+				assertSameResults(strategyName, queries.get(i), expectedResults.get(i), results.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que <code>results</code> contiene los mismos alojamientos que
+	 * <code>expected</code> salvo los que están a menos de
+	 * {@value #DISTANCE_TOLERANCE_KM} km del límite: el radio o, si se ha
+	 * alcanzado el máximo de resultados, la distancia del último.
+	 */
+	private void assertSameResults(final String strategyName, final double[] query, final List<String> expected,
+			final List<String> results) {
+		String message = String.format("%s (%.6f, %.6f, %.0f km)", strategyName, query[0], query[1], query[2]);
+
+		double limitKm = query[2];
+
+		if (expected.size() == IAccomodationService.ACCOMODATION_LIMIT_RESULTS) {
+			limitKm = Math.min(limitKm, distanceOf(query, expected.get(expected.size() - 1)));
+		}
+
+		assertTrue(results.size() <= IAccomodationService.ACCOMODATION_LIMIT_RESULTS, message);
+
+		Set<String> found = new HashSet<>(results);
+
+		for (String regNumber : expected) {
+			if (distanceOf(query, regNumber) < limitKm - DISTANCE_TOLERANCE_KM) {
+				assertTrue(found.contains(regNumber), message + ": falta " + regNumber);
+			}
+		}
+
+		double previousKm = 0;
+
+		for (String regNumber : results) {
+			double distanceKm = distanceOf(query, regNumber);
+
+			assertTrue(distanceKm <= limitKm + DISTANCE_TOLERANCE_KM, message + ": sobra " + regNumber);
+			assertTrue(distanceKm >= previousKm - DISTANCE_TOLERANCE_KM, message + ": desordenado " + regNumber);
+
+			previousKm = distanceKm;
+		}
+	}
+
+	private double distanceOf(final double[] query, final String regNumber) {
+		double[] location = coordinates.get(regNumber);
+
+		return haversineDistance(query[0], query[1], location[0], location[1]);
+	}
+
+	/**
+	 * Ejecuta todas las consultas con la estrategia <code>strategy</code> y
+	 * muestra el tiempo medio por consulta.
+	 */
+	private List<List<String>> run(final INearbySearchStrategy strategy, final List<double[]> queries) {
+		List<List<String>> results = new ArrayList<>(queries.size());
+
+		// Calentamiento
+		for (int i = 0; i < 20; i++) {
+			double[] query = queries.get(i);
+			strategy.findNearestRegNumbers(query[0], query[1], query[2], IAccomodationService.ACCOMODATION_LIMIT_RESULTS);
+		}
+
+		long start = System.nanoTime();
+
+		for (double[] query : queries) {
+			results.add(strategy.findNearestRegNumbers(query[0], query[1], query[2],
+					IAccomodationService.ACCOMODATION_LIMIT_RESULTS));
+		}
+
+		double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / queries.size();
+
+		log.info("[benchmark] {} {} ms/consulta", strategy.getName(), String.format("%.3f", avgMillis));
+
+		return results;
+	}
+
+	private double randomLatitude() {
+		return 36.0 + random.nextDouble() * 7.5;
+	}
+
+	private double randomLongitude() {
+		return -9.0 + random.nextDouble() * 12.3;
+	}
+}
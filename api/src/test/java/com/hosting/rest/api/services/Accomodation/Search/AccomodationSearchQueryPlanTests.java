@@ -0,0 +1,171 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchSort;
+
+/**
+ * Comprueba con EXPLAIN que la consulta de la búsqueda de alojamientos no
+ * recorre la tabla ACCOMODATION completa con ninguna combinación de filtros y
+ * criterio de ordenación, sobre {@value #SEEDED_ACCOMODATIONS} alojamientos
+ * generados en la base de datos configurada.
+ *
+ * Ejecución: <code>mvn test -Dtest=AccomodationSearchQueryPlanTests -Dbooking.queryplan=true</code>
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "booking.queryplan", matches = "true")
+class AccomodationSearchQueryPlanTests {
+
+	private static final int SEEDED_ACCOMODATIONS = 20_000;
+
+	private static final int SEEDED_CITIES = 200;
+
+	private static final int PAGE_SIZE = 20;
+
+	private static final String QUERY_PLAN_DIRECTION = "QUERYPLAN";
+
+	private static final String QUERY_PLAN_REG_NUM_PREFIX = "QPLAN";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	private final Random random = new Random(42);
+
+	private String category;
+
+	private Integer service;
+
+	@BeforeAll
+	void seedAccomodations() {
+		category = jdbcTemplate.queryForObject("SELECT MIN(ACC_CAT) FROM ACCOMODATION_CATEGORY", String.class);
+		service = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM ACCOMODATION_SERVICE", Integer.class);
+
+		List<Integer> categoryIds = jdbcTemplate.queryForList("SELECT ID FROM ACCOMODATION_CATEGORY", Integer.class);
+		Integer hostId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM USER_HOST", Integer.class);
+
+		List<Object[]> locations = new ArrayList<>(SEEDED_ACCOMODATIONS);
+
+		for (int i = 0; i < SEEDED_ACCOMODATIONS; i++) {
+			int city = random.nextInt(SEEDED_CITIES);
+			locations.add(new Object[] { 40.0, -3.0, QUERY_PLAN_DIRECTION, "QueryPlan " + city, "queryplan " + city });
+		}
+
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO ACCOMODATION_LOCATION(LAT, LNG, DIRECTION, CITY, CITY_KEY) VALUES(?, ?, ?, ?, ?)",
+				locations);
+
+		List<Integer> locationIds = jdbcTemplate.queryForList(
+				"SELECT ID FROM ACCOMODATION_LOCATION WHERE DIRECTION = ? ORDER BY ID", Integer.class,
+				QUERY_PLAN_DIRECTION);
+
+		List<Object[]> accomodations = new ArrayList<>(locationIds.size());
+		List<Object[]> accomodationServices = new ArrayList<>();
+
+		for (int i = 0; i < locationIds.size(); i++) {
+			String regNumber = String.format("%s%06d", QUERY_PLAN_REG_NUM_PREFIX, i);
+
+			accomodations.add(new Object[] { regNumber, 1 + random.nextInt(4), 1 + random.nextInt(3),
+					1 + random.nextInt(4), 20 + random.nextInt(480), 1 + random.nextInt(8),
+					categoryIds.get(random.nextInt(categoryIds.size())), locationIds.get(i), hostId });
+
+			if (random.nextInt(10) == 0) {
+				accomodationServices.add(new Object[] { regNumber, service });
+			}
+		}
+
+		jdbcTemplate.batchUpdate("INSERT INTO ACCOMODATION(REG_NUM, ACC_DESCRIPTION, BEDS, NUM_BATHROOMS, "
+				+ "NUM_BEDROOMS, PRICE_PER_NIGHT, GUESTS, AREA, ID_ACC_CATEGORY, ID_ACC_LOCATION, ID_USER_OWNER) "
+				+ "VALUES(?, 'QueryPlan', ?, ?, ?, ?, ?, 50, ?, ?, ?)", accomodations);
+
+		jdbcTemplate.batchUpdate("INSERT INTO ACCOMODATION_ACC_SERVICE(ID_ACC, ID_ACC_SERVICE) VALUES(?, ?)",
+				accomodationServices);
+
+		jdbcTemplate.execute("ANALYZE TABLE ACCOMODATION, ACCOMODATION_LOCATION, ACCOMODATION_ACC_SERVICE");
+	}
+
+	@AfterAll
+	void deleteSeededAccomodations() {
+		jdbcTemplate.update("DELETE FROM ACCOMODATION WHERE REG_NUM LIKE ?", QUERY_PLAN_REG_NUM_PREFIX + "%");
+		jdbcTemplate.update("DELETE FROM ACCOMODATION_LOCATION WHERE DIRECTION = ?", QUERY_PLAN_DIRECTION);
+	}
+
+	/**
+	 * Recorre todas las combinaciones de filtros (ciudad, categoría, precio,
+	 * camas, huéspedes y servicios) con cada criterio de ordenación.
+	 */
+	@Test
+	void everyFilterCombinationUsesAnIndex() {
+		int filters = 6;
+
+		for (int combination = 0; combination < (1 << filters); combination++) {
+			for (AccomodationSearchSort sort : AccomodationSearchSort.values()) {
+				AccomodationSearchFilter filter = createFilter(combination, sort);
+				AccomodationSearchQuery searchQuery = new AccomodationSearchQuery(filter);
+
+				List<Map<String, Object>> plan = namedJdbcTemplate.queryForList(
+						"EXPLAIN " + searchQuery.getPageSql() + " LIMIT " + PAGE_SIZE, searchQuery.getParameters());
+
+				for (Map<String, Object> step : plan) {
+					boolean accomodationTable = "a".equals(step.get("table"));
+
+					assertTrue(!accomodationTable || !"ALL".equals(step.get("type")),
+							"Recorrido completo de ACCOMODATION con " + filter + ": " + plan);
+				}
+			}
+		}
+	}
+
+	private AccomodationSearchFilter createFilter(final int combination, final AccomodationSearchSort sort) {
+		AccomodationSearchFilter filter = new AccomodationSearchFilter();
+		filter.setSort(sort);
+
+		if ((combination & 1) != 0) {
+			filter.setCity("QueryPlan 7");
+		}
+
+		if ((combination & 2) != 0) {
+			filter.setCategory(category);
+		}
+
+		if ((combination & 4) != 0) {
+			filter.setMinPrice(new BigDecimal("100"));
+			filter.setMaxPrice(new BigDecimal("120"));
+		}
+
+		if ((combination & 8) != 0) {
+			filter.setBeds(2);
+		}
+
+		if ((combination & 16) != 0) {
+			filter.setGuests(2);
+		}
+
+		if ((combination & 32) != 0) {
+			filter.setServices(Arrays.asList(service));
+		}
+
+		return filter;
+	}
+}
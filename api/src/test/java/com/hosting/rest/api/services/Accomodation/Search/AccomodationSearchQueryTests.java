@@ -0,0 +1,82 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchFilter;
+import com.hosting.rest.api.models.Accomodation.Search.AccomodationSearchSort;
+
+/**
+ * Pruebas de las consultas generadas por {@link AccomodationSearchQuery}.
+ */
+class AccomodationSearchQueryTests {
+
+	@Test
+	void withoutFiltersThereIsNoWhereClause() {
+		AccomodationSearchQuery searchQuery = new AccomodationSearchQuery(new AccomodationSearchFilter());
+
+		assertFalse(searchQuery.getPageSql().contains("WHERE"));
+		assertTrue(searchQuery.getPageSql().endsWith("ORDER BY " + AccomodationSearchSort.NEWEST.getOrderBy()));
+		assertTrue(searchQuery.getParameters().isEmpty());
+	}
+
+	@Test
+	void indexedPredicatesGoFirst() {
+		AccomodationSearchFilter filter = new AccomodationSearchFilter();
+		filter.setServices(Arrays.asList(3, 3, 7));
+		filter.setBeds(2);
+		filter.setMaxPrice(new BigDecimal("120"));
+		filter.setCity(" Málaga ");
+
+		String sql = new AccomodationSearchQuery(filter).getCountSql();
+
+		int city = sql.indexOf("al.CITY_KEY = :cityKey");
+		int price = sql.indexOf("a.PRICE_PER_NIGHT <= :maxPrice");
+		int beds = sql.indexOf("a.BEDS >= :beds");
+		int services = sql.indexOf(":service0");
+
+		assertTrue(city > 0 && city < price && price < beds && beds < services, sql);
+		assertTrue(sql.contains(":service1") && !sql.contains(":service2"), sql);
+	}
+
+	@Test
+	void parametersAreNormalised() {
+		AccomodationSearchFilter filter = new AccomodationSearchFilter();
+		filter.setCity(" A  Coruña");
+		filter.setCategory(" Apartamento ");
+
+		AccomodationSearchQuery searchQuery = new AccomodationSearchQuery(filter);
+
+		assertEquals("a coruna", searchQuery.getParameters().get("cityKey"));
+		assertEquals("Apartamento", searchQuery.getParameters().get("category"));
+	}
+
+	@Test
+	void eachFacetIgnoresItsOwnFilter() {
+		AccomodationSearchFilter filter = new AccomodationSearchFilter();
+		filter.setCategory("Apartamento");
+		filter.setMinPrice(new BigDecimal("10"));
+
+		String[] branches = new AccomodationSearchQuery(filter).getFacetsSql().split("UNION ALL ");
+
+		assertEquals(4, branches.length);
+
+		// Categorías
+		assertFalse(branches[0].contains(":category"));
+		assertTrue(branches[0].contains(":minPrice"));
+
+		// Ciudades y servicios
+		assertTrue(branches[1].contains(":category") && branches[1].contains(":minPrice"));
+		assertTrue(branches[2].contains(":category") && branches[2].contains(":minPrice"));
+
+		// Precios
+		assertTrue(branches[3].contains(":category"));
+		assertFalse(branches[3].contains(":minPrice"));
+	}
+}
@@ -0,0 +1,148 @@
+package com.hosting.rest.api.services.Accomodation.Search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationTextIndex.TextHit;
+import com.hosting.rest.api.services.Accomodation.Search.AccomodationTextIndex.TextHits;
+
+/**
+ * Pruebas del índice de texto libre {@link AccomodationTextIndex}.
+ */
+class AccomodationTextIndexTests {
+
+	private AccomodationTextIndex textIndex;
+
+	@BeforeEach
+	void createIndex() {
+		textIndex = new AccomodationTextIndex();
+
+		textIndex.put("ACC-1", "Apartamento luminoso con vistas al mar y piscina.", "Calle Larios 5", "Málaga");
+		textIndex.put("ACC-2", "Casa rural con chimenea en plena montaña.", "Camino del Puerto 2", "Potes");
+		textIndex.put("ACC-3", "Ático céntrico cerca de la playa de la Malagueta.", "Paseo del Parque 1",
+				"Málaga");
+		textIndex.put("ACC-4", "Estudio junto a la playa, con piscina comunitaria.", "Avenida del Mar 20",
+				"Gijón");
+	}
+
+	@Test
+	void ranksByRelevance() {
+		TextHits hits = textIndex.search("piscina mar", 0, 10);
+
+		// La dirección pesa más que la descripción.
+		assertEquals(Arrays.asList("ACC-4", "ACC-1"), regNumbers(hits));
+		assertEquals(2, hits.getTotal());
+		assertTrue(hits.getHits().get(0).getScore() > hits.getHits().get(1).getScore());
+	}
+
+	@Test
+	void ignoresCaseAndAccents() {
+		assertEquals(Arrays.asList("ACC-1", "ACC-3"), regNumbers(textIndex.search("MALAGA", 0, 10)));
+		assertEquals(Arrays.asList("ACC-4"), regNumbers(textIndex.search("gijon", 0, 10)));
+	}
+
+	@Test
+	void toleratesTypos() {
+		assertEquals(Arrays.asList("ACC-2"), regNumbers(textIndex.search("chimena", 0, 10)));
+		assertEquals(Arrays.asList("ACC-2"), regNumbers(textIndex.search("montaan", 0, 10)));
+
+		// Los términos cortos deben coincidir exactamente.
+		assertEquals(Collections.emptyList(), regNumbers(textIndex.search("ma", 0, 10)));
+	}
+
+	@Test
+	void exactTermsScoreHigherThanSimilarOnes() {
+		textIndex.put("ACC-5", "Piso con terraza.", null, "Madrid");
+		textIndex.put("ACC-6", "Piso con terrazas.", null, "Madrid");
+
+		assertEquals(Arrays.asList("ACC-5", "ACC-6"), regNumbers(textIndex.search("terraza", 0, 10)));
+	}
+
+	@Test
+	void pagesResults() {
+		TextHits secondPage = textIndex.search("playa piscina", 1, 1);
+
+		assertEquals(3, secondPage.getTotal());
+		assertEquals(1, secondPage.getHits().size());
+		assertEquals(regNumbers(textIndex.search("playa piscina", 0, 3)).get(1),
+				secondPage.getHits().get(0).getRegNumber());
+	}
+
+	@Test
+	void returnsNoHitsPastTheLastPage() {
+		TextHits lastPage = textIndex.search("playa piscina", Integer.MAX_VALUE - 1, 10);
+
+		assertEquals(3, lastPage.getTotal());
+		assertTrue(lastPage.getHits().isEmpty());
+	}
+
+	@Test
+	void followsUpdatedAndRemovedAccomodations() {
+		textIndex.put("ACC-2", "Casa rural con jardín.", "Camino del Puerto 2", "Potes");
+		textIndex.remove("ACC-4");
+
+		assertEquals(Collections.emptyList(), regNumbers(textIndex.search("chimenea", 0, 10)));
+		assertEquals(Arrays.asList("ACC-2"), regNumbers(textIndex.search("jardin", 0, 10)));
+		assertEquals(Arrays.asList("ACC-1"), regNumbers(textIndex.search("piscina", 0, 10)));
+		assertEquals(3, textIndex.size());
+	}
+
+	@Test
+	void highlightsMatchedTerms() {
+		TextHit hit = textIndex.search("playa malaga", 0, 10).getHits().get(0);
+
+		assertEquals("ACC-3", hit.getRegNumber());
+		assertEquals("<em>Málaga</em>", hit.getHighlights().get(AccomodationTextIndex.FIELD_CITY));
+		assertEquals("Ático céntrico cerca de la <em>playa</em> de la Malagueta.",
+				hit.getHighlights().get(AccomodationTextIndex.FIELD_DESCRIPTION));
+		assertNull(hit.getHighlights().get(AccomodationTextIndex.FIELD_DIRECTION));
+	}
+
+	@Test
+	void highlightsEscapeHtmlAndTrimLongTexts() {
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 30; i++) {
+			text.append("texto ");
+		}
+
+		text.append("<b>piscina</b> ");
+
+		for (int i = 0; i < 30; i++) {
+			text.append("relleno ");
+		}
+
+		String snippet = AccomodationTextIndex.highlight(text.toString(), new HashSet<>(Arrays.asList("piscina")));
+
+		assertTrue(snippet.startsWith("… texto"));
+		assertTrue(snippet.endsWith(" …"));
+		assertTrue(snippet.contains("&lt;b&gt;<em>piscina</em>&lt;/b&gt;"));
+	}
+
+	@Test
+	void editDistanceCountsTranspositions() {
+		assertEquals(1, AccomodationTextIndex.editDistance("playa", "palya", 2));
+		assertEquals(1, AccomodationTextIndex.editDistance("playa", "plaza", 2));
+		assertEquals(3, AccomodationTextIndex.editDistance("playa", "montaña", 2));
+	}
+
+	private static List<String> regNumbers(final TextHits hits) {
+		List<String> regNumbers = new ArrayList<>();
+
+		for (TextHit hit : hits.getHits()) {
+			regNumbers.add(hit.getRegNumber());
+		}
+
+		return regNumbers;
+	}
+}
@@ -0,0 +1,226 @@
+package com.hosting.rest.api.services.Auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lanza un pico de inicios de sesión contra <code>auth/signin</code> en un
+ * servidor embebido con {@value #SERVER_THREADS} hilos y comprueba que el
+ * percentil 99 de <code>accomodations/all</code> no empeora: los inicios de
+ * sesión que no caben en la cola de {@link PasswordHashingExecutor} se
+ * rechazan al momento con 429 y no ocupan los hilos del servidor.
+ *
+ * Los inicios de sesión usan usuarios que no existen: Spring Security
+ * comprueba igualmente la contraseña para no revelar qué usuarios existen, así
+ * que cada uno cuesta un hash BCrypt sin tocar las cuentas de la base de
+ * datos configurada.
+ *
+ * Ejecución: <code>mvn test -Dtest=LoginStormLoadTests -Dbooking.stress=true</code>
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "server.tomcat.threads.max="
+		+ LoginStormLoadTests.SERVER_THREADS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "booking.stress", matches = "true")
+@Slf4j
+class LoginStormLoadTests {
+
+	/**
+	 * Hilos del servidor (Tomcat tiene 200 por defecto).
+	 */
+	static final int SERVER_THREADS = 50;
+
+	private static final int LOGIN_CLIENTS = 200;
+
+	private static final int CATALOG_REQUESTS = 1000;
+
+	private static final long CATALOG_INTERVAL_MILLIS = 5;
+
+	/**
+	 * Espera de los clientes tras un 429, como indica la cabecera Retry-After.
+	 */
+	private static final long RETRY_AFTER_MILLIS = 10;
+
+	private static final long TOLERANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private PasswordHashingExecutor hashingExecutor;
+
+	private CloseableHttpClient httpClient;
+
+	@BeforeAll
+	void createHttpClient() {
+		int connections = LOGIN_CLIENTS + CATALOG_REQUESTS;
+
+		httpClient = HttpClients.custom().setMaxConnTotal(connections).setMaxConnPerRoute(connections).build();
+	}
+
+	@AfterAll
+	void closeHttpClient() throws IOException {
+		httpClient.close();
+	}
+
+	@Test
+	void catalogLatencyIsNotAffectedByLoginStorm() throws Exception {
+		ExecutorService catalogClients = Executors.newCachedThreadPool();
+		List<Thread> loginClients = new ArrayList<>();
+		AtomicBoolean storming = new AtomicBoolean(true);
+		AtomicLong logins = new AtomicLong();
+		AtomicLong rejectedLogins = new AtomicLong();
+
+		try {
+			long baselineP99 = catalogP99(catalogClients);
+
+			for (int i = 0; i < LOGIN_CLIENTS; i++) {
+				Thread client = new Thread(() -> {
+					while (storming.get()) {
+						login(logins, rejectedLogins);
+					}
+				});
+
+				client.start();
+				loginClients.add(client);
+			}
+
+			long stormP99 = catalogP99(catalogClients);
+
+			storming.set(false);
+
+			for (Thread client : loginClients) {
+				client.join();
+			}
+
+			log.info("Catálogo p99: {} ms sin inicios de sesión, {} ms durante el pico ({} inicios de sesión, "
+					+ "{} rechazados). {}", String.format("%.2f", toMillis(baselineP99)),
+					String.format("%.2f", toMillis(stormP99)), logins.get(), rejectedLogins.get(),
+					hashingExecutor.getStats());
+
+			assertTrue(stormP99 <= Math.max(2 * baselineP99, baselineP99 + TOLERANCE_NANOS));
+
+		} finally {
+			storming.set(false);
+			catalogClients.shutdownNow();
+		}
+	}
+
+	/**
+	 * Inicia sesión con un usuario que no existe y espera
+	 * {@value #RETRY_AFTER_MILLIS} ms si se rechaza por falta de sitio.
+	 */
+	private void login(final AtomicLong logins, final AtomicLong rejectedLogins) {
+		HttpPost signIn = new HttpPost(url("/api/auth/signin"));
+		signIn.setEntity(new StringEntity(
+				"{\"email\": \"storm-" + UUID.randomUUID() + "@leoncamp.com\", \"password\": \"contraseña\"}",
+				ContentType.APPLICATION_JSON));
+
+		int status = send(signIn);
+
+		if (status == HttpStatus.SC_TOO_MANY_REQUESTS) {
+			rejectedLogins.incrementAndGet();
+			sleep(RETRY_AFTER_MILLIS);
+
+		} else {
+			logins.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Envía peticiones del catálogo a ritmo constante y mide el tiempo hasta que
+	 * terminan, incluida la espera a un hilo libre del servidor.
+	 *
+	 * @return Percentil 99 en nanosegundos.
+	 */
+	private long catalogP99(final ExecutorService catalogClients) throws Exception {
+		List<Future<Long>> requests = new ArrayList<>(CATALOG_REQUESTS);
+
+		for (int i = 0; i < CATALOG_REQUESTS; i++) {
+			long submittedAt = System.nanoTime();
+
+			requests.add(catalogClients.submit(() -> {
+				assertEquals(HttpStatus.SC_OK, send(new HttpGet(url("/api/accomodations/all?page=0&size=20"))));
+				return System.nanoTime() - submittedAt;
+			}));
+
+			sleep(CATALOG_INTERVAL_MILLIS);
+		}
+
+		List<Long> latencies = new ArrayList<>(CATALOG_REQUESTS);
+
+		for (Future<Long> request : requests) {
+			latencies.add(request.get());
+		}
+
+		Collections.sort(latencies);
+
+		return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+	}
+
+	/**
+	 * Envía la petición <code>request</code> y descarta la respuesta.
+	 *
+	 * @return Código de estado de la respuesta.
+	 */
+	private int send(final HttpUriRequest request) {
+		try (CloseableHttpResponse response = httpClient.execute(request)) {
+			EntityUtils.consume(response.getEntity());
+
+			return response.getStatusLine().getStatusCode();
+
+		} catch (IOException e) {
+			throw new IllegalStateException("No se ha podido enviar " + request.getRequestLine(), e);
+		}
+	}
+
+	private String url(final String path) {
+		return "http://localhost:" + port + path;
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static double toMillis(final long nanos) {
+		return nanos / 1e6;
+	}
+}
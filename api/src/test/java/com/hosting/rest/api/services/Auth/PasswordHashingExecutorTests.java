@@ -0,0 +1,91 @@
+package com.hosting.rest.api.services.Auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.exceptions.TooManyRequests.TooManyRequestsCustomException;
+import com.hosting.rest.api.models.Auth.PasswordHashingStatsModel;
+
+/**
+ * Pruebas de los hilos de contraseñas {@link PasswordHashingExecutor}.
+ */
+class PasswordHashingExecutorTests {
+
+	private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1);
+
+	private final ExecutorService requests = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	void shutdown() {
+		requests.shutdownNow();
+		hashingExecutor.shutdown();
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		CountDownLatch hashing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> running = requests.submit(() -> hashingExecutor.execute(() -> {
+			hashing.countDown();
+			await(release);
+			return "hash-1";
+		}));
+
+		assertTrue(hashing.await(5, TimeUnit.SECONDS));
+
+		Future<String> queued = requests.submit(() -> hashingExecutor.execute(() -> "hash-2"));
+
+		waitUntilQueued(1);
+
+		assertThrows(TooManyRequestsCustomException.class, () -> hashingExecutor.execute(() -> "hash-3"));
+
+		release.countDown();
+
+		assertEquals("hash-1", running.get(5, TimeUnit.SECONDS));
+		assertEquals("hash-2", queued.get(5, TimeUnit.SECONDS));
+
+		PasswordHashingStatsModel stats = hashingExecutor.getStats();
+
+		assertEquals(Long.valueOf(2), stats.getCompleted());
+		assertEquals(Long.valueOf(1), stats.getRejected());
+		assertEquals(Integer.valueOf(0), stats.getQueued());
+		assertTrue(stats.getMaxHashMillis() >= stats.getAvgHashMillis());
+	}
+
+	@Test
+	void propagatesHashingErrors() {
+		assertThrows(IllegalArgumentException.class, () -> hashingExecutor.execute(() -> {
+			throw new IllegalArgumentException("Contraseña no válida");
+		}));
+
+		assertEquals(Long.valueOf(1), hashingExecutor.getStats().getCompleted());
+	}
+
+	private void waitUntilQueued(final int queued) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+
+		while (hashingExecutor.getStats().getQueued() < queued && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
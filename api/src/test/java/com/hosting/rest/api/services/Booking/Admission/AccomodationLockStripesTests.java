@@ -0,0 +1,165 @@
+package com.hosting.rest.api.services.Booking.Admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de concurrencia de {@link AccomodationLockStripes}.
+ */
+class AccomodationLockStripesTests {
+
+	private static final int THREADS = 32;
+
+	private static final int ATTEMPTS_PER_THREAD = 2_000;
+
+	private static final int ACCOMODATIONS = 16;
+
+	/**
+	 * Muchos hilos reservan fechas aleatorias sobre listas sin sincronizar. Con el
+	 * bloqueo por alojamiento no debe quedar ninguna reserva solapada.
+	 */
+	@Test
+	void concurrentAdmissionsNeverOverlap() throws Exception {
+		AccomodationLockStripes locks = new AccomodationLockStripes(8);
+
+		Map<String, List<int[]>> bookingsByAccomodation = new HashMap<>();
+
+		for (int i = 0; i < ACCOMODATIONS; i++) {
+			bookingsByAccomodation.put(regNumber(i), new ArrayList<>());
+		}
+
+		AtomicInteger admitted = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			workers.add(executor.submit(() -> {
+				start.await();
+
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					String regNumber = regNumber(random.nextInt(ACCOMODATIONS));
+					int checkIn = random.nextInt(3_000);
+					int checkOut = checkIn + 1 + random.nextInt(7);
+
+					boolean isAdmitted = locks.executeLocked(regNumber, () -> {
+						List<int[]> bookings = bookingsByAccomodation.get(regNumber);
+
+						for (int[] booking : bookings) {
+							if (booking[0] < checkOut && booking[1] > checkIn) {
+								return false;
+							}
+						}
+
+						// Ensanchar la ventana entre comprobación y escritura
+						Thread.yield();
+
+						bookings.add(new int[] { checkIn, checkOut });
+
+						return true;
+					});
+
+					if (isAdmitted) {
+						admitted.incrementAndGet();
+					}
+				}
+
+				return null;
+			}));
+		}
+
+		start.countDown();
+
+		for (Future<?> worker : workers) {
+			worker.get(2, TimeUnit.MINUTES);
+		}
+
+		executor.shutdown();
+
+		int totalBookings = 0;
+
+		for (List<int[]> bookings : bookingsByAccomodation.values()) {
+			totalBookings += bookings.size();
+
+			for (int i = 0; i < bookings.size(); i++) {
+				for (int j = i + 1; j < bookings.size(); j++) {
+					int[] a = bookings.get(i);
+					int[] b = bookings.get(j);
+
+					assertTrue(a[0] >= b[1] || b[0] >= a[1], "Reservas solapadas");
+				}
+			}
+		}
+
+		assertEquals(admitted.get(), totalBookings);
+	}
+
+	/**
+	 * Un alojamiento bloqueado no debe frenar las reservas de otro alojamiento de
+	 * una franja distinta.
+	 */
+	@Test
+	void differentStripesRunInParallel() throws Exception {
+		AccomodationLockStripes locks = new AccomodationLockStripes(AccomodationLockStripes.DEFAULT_STRIPES);
+
+		String first = regNumber(0);
+		String second = null;
+
+		for (int i = 1; second == null; i++) {
+			if (locks.stripeOf(regNumber(i)) != locks.stripeOf(first)) {
+				second = regNumber(i);
+			}
+		}
+
+		CountDownLatch firstLocked = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		Future<?> holder = executor.submit(() -> locks.executeLocked(first, () -> {
+			firstLocked.countDown();
+
+			try {
+				return releaseFirst.await(1, TimeUnit.MINUTES);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}));
+
+		firstLocked.await();
+
+		final String secondRegNumber = second;
+
+		Future<Boolean> other = executor.submit(() -> locks.executeLocked(secondRegNumber, () -> true));
+
+		assertTrue(other.get(5, TimeUnit.SECONDS));
+
+		releaseFirst.countDown();
+		holder.get(5, TimeUnit.SECONDS);
+
+		executor.shutdown();
+	}
+
+	private static String regNumber(final int index) {
+		return String.format("%07dA", index);
+	}
+}
@@ -0,0 +1,93 @@
+package com.hosting.rest.api.services.Booking.Availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Booking.BookingDateRange;
+
+/**
+ * Pruebas del calendario de ocupación {@link AccomodationAvailability}.
+ */
+class AccomodationAvailabilityTests {
+
+	private final LocalDateTime start = LocalDateTime.of(2022, 7, 1, 0, 0);
+
+	private AccomodationAvailability availability;
+
+	@BeforeEach
+	void createCalendar() {
+		availability = new AccomodationAvailability();
+
+		availability.addBooking(1, day(1), day(5));
+		availability.addBooking(2, day(3), day(8));
+		availability.addBooking(3, day(8), day(10));
+		availability.addBooking(4, day(12), day(14));
+	}
+
+	@Test
+	void mergesOverlappingAndContiguousBookings() {
+		assertEquals(Arrays.asList(range(0, 1), range(10, 12), range(14, 20)),
+				availability.findFreeWindows(day(0), day(20)));
+	}
+
+	@Test
+	void checksIntervalsAgainstBusyRanges() {
+		assertTrue(availability.isAvailable(day(0), day(1)));
+		assertTrue(availability.isAvailable(day(10), day(12)));
+		assertTrue(availability.isAvailable(day(14), day(30)));
+		assertFalse(availability.isAvailable(day(9), day(11)));
+		assertFalse(availability.isAvailable(day(11), day(13)));
+		assertFalse(availability.isAvailable(day(5), day(6)));
+		assertFalse(availability.isAvailable(day(0), day(30)));
+	}
+
+	@Test
+	void removingABookingSplitsItsRange() {
+		availability.removeBooking(2);
+
+		assertTrue(availability.isAvailable(day(5), day(8)));
+		assertEquals(Arrays.asList(range(0, 1), range(5, 8), range(10, 12), range(14, 20)),
+				availability.findFreeWindows(day(0), day(20)));
+	}
+
+	@Test
+	void updatingABookingMovesIt() {
+		availability.addBooking(4, day(15), day(16));
+
+		assertTrue(availability.isAvailable(day(12), day(14)));
+		assertEquals(Arrays.asList(range(10, 15), range(16, 20)), availability.findFreeWindows(day(10), day(20)));
+	}
+
+	@Test
+	void updatingABookingToInvalidDatesRemovesIt() {
+		availability.addBooking(4, day(14), day(12));
+		availability.addBooking(3, null, day(10));
+
+		assertTrue(availability.isAvailable(day(8), day(14)));
+		assertEquals(Arrays.asList(range(0, 1), range(8, 20)), availability.findFreeWindows(day(0), day(20)));
+		assertEquals(2, availability.getBookedDates().size());
+	}
+
+	@Test
+	void freeWindowsAreClippedToTheRequestedInterval() {
+		assertEquals(Arrays.asList(range(10, 11)), availability.findFreeWindows(day(2), day(11)));
+		assertEquals(Arrays.asList(range(14, 15)), availability.findFreeWindows(day(12), day(15)));
+		assertEquals(Collections.emptyList(), availability.findFreeWindows(day(3), day(9)));
+	}
+
+	private LocalDateTime day(final int days) {
+		return start.plusDays(days);
+	}
+
+	private BookingDateRange range(final int from, final int to) {
+		return new BookingDateRange(day(from), day(to));
+	}
+}
@@ -0,0 +1,117 @@
+package com.hosting.rest.api.services.Booking.Availability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Booking.BookingStatus;
+
+/**
+ * Pruebas de los calendarios en memoria {@link BookingAvailabilityIndex}. Las
+ * lecturas de base de datos se sustituyen por calendarios con una reserva.
+ */
+class BookingAvailabilityIndexTests {
+
+	private static final String SLOW_REG_NUMBER = "ACC-SLOW";
+
+	private final LocalDateTime start = LocalDateTime.of(2022, 7, 1, 0, 0);
+
+	private final CountDownLatch slowLoadStarted = new CountDownLatch(1);
+
+	private final CountDownLatch releaseSlowLoad = new CountDownLatch(1);
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final BookingAvailabilityIndex index = new BookingAvailabilityIndex() {
+		@Override
+		AccomodationAvailability loadAvailability(final String regNumber) {
+			loads.incrementAndGet();
+
+			// La reserva 1 ocupa los días [ 1 , 3 ) de todos los alojamientos.
+			AccomodationAvailability availability = new AccomodationAvailability();
+			availability.addBooking(1, day(1), day(3));
+
+			if (SLOW_REG_NUMBER.equals(regNumber)) {
+				slowLoadStarted.countDown();
+				await(releaseSlowLoad);
+			}
+
+			return availability;
+		}
+	};
+
+	@Test
+	void loadsEachCalendarOnce() {
+		AccomodationAvailability availability = index.getAvailability("ACC-1");
+
+		assertSame(availability, index.getAvailability("ACC-1"));
+		assertEquals(1, loads.get());
+		assertFalse(availability.isAvailable(day(2), day(4)));
+	}
+
+	@Test
+	void appliesChangesToLoadedCalendarsOnly() {
+		AccomodationAvailability availability = index.getAvailability("ACC-1");
+
+		index.onBookingChanged("ACC-1", 2, day(5), day(6), BookingStatus.CONFIRMADA);
+		index.onBookingChanged("ACC-1", 1, day(1), day(3), BookingStatus.CANCELADA);
+		index.onBookingChanged("ACC-2", 3, day(1), day(9), BookingStatus.CONFIRMADA);
+
+		assertTrue(availability.isAvailable(day(1), day(5)));
+		assertFalse(availability.isAvailable(day(5), day(6)));
+		assertTrue(index.getAvailability("ACC-2").isAvailable(day(5), day(9)));
+	}
+
+	@Test
+	void reloadsEvictedCalendars() {
+		index.getAvailability("ACC-1");
+		index.evict("ACC-1");
+		index.getAvailability("ACC-1");
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void appliesChangesMadeWhileACalendarIsLoading() throws Exception {
+		CompletableFuture<AccomodationAvailability> slowLoad = CompletableFuture
+				.supplyAsync(() -> index.getAvailability(SLOW_REG_NUMBER));
+
+		assertTrue(slowLoadStarted.await(5, TimeUnit.SECONDS));
+
+		// Otros alojamientos se cargan sin esperar a la lectura en curso.
+		assertFalse(index.getAvailability("ACC-1").isAvailable(day(1), day(3)));
+
+		index.onBookingChanged(SLOW_REG_NUMBER, 2, day(5), day(6), BookingStatus.PENDIENTE);
+		index.onBookingRemoved(SLOW_REG_NUMBER, 1);
+
+		releaseSlowLoad.countDown();
+
+		AccomodationAvailability availability = slowLoad.get(5, TimeUnit.SECONDS);
+
+		assertSame(availability, index.getAvailability(SLOW_REG_NUMBER));
+		assertTrue(availability.isAvailable(day(1), day(3)));
+		assertFalse(availability.isAvailable(day(5), day(6)));
+	}
+
+	private LocalDateTime day(final int days) {
+		return start.plusDays(days);
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.hosting.rest.api.services.Booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.hosting.rest.api.exceptions.Conflict.ConflictCustomException;
+import com.hosting.rest.api.models.Accomodation.AccomodationModel;
+import com.hosting.rest.api.models.Booking.BookingModel;
+import com.hosting.rest.api.models.User.UserModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lanza reservas concurrentes con fechas solapadas sobre varios alojamientos de
+ * la base de datos configurada y comprueba que no queda ninguna reserva
+ * solapada.
+ *
+ * Ejecución: <code>mvn test -Dtest=BookingAdmissionStressTests -Dbooking.stress=true</code>
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "booking.stress", matches = "true")
+@Slf4j
+class BookingAdmissionStressTests {
+
+	private static final int THREADS = 64;
+
+	private static final int ATTEMPTS_PER_THREAD = 50;
+
+	/**
+	 * Año de las reservas generadas, para no mezclarlas con las existentes.
+	 */
+	private static final int STRESS_YEAR = 2099;
+
+	@Autowired
+	private BookingServiceImpl bookingService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<String> regNumbers;
+
+	private Integer userId;
+
+	@BeforeAll
+	void loadAccomodations() {
+		regNumbers = jdbcTemplate.queryForList("SELECT REG_NUM FROM ACCOMODATION ORDER BY REG_NUM LIMIT 4",
+				String.class);
+		userId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM APP_USER", Integer.class);
+
+		deleteStressBookings();
+	}
+
+	@AfterAll
+	void deleteStressBookings() {
+		jdbcTemplate.update("DELETE FROM BOOKING WHERE YEAR(CHECK_IN) = ?", STRESS_YEAR);
+	}
+
+	@Test
+	void concurrentBookingsNeverOverlap() throws Exception {
+		AtomicInteger admitted = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			workers.add(executor.submit(() -> {
+				start.await();
+
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					LocalDateTime checkIn = LocalDateTime.of(STRESS_YEAR, 1, 1, 0, 0).plusDays(random.nextInt(120));
+
+					try {
+						bookingService.addNewBooking(newBooking(regNumbers.get(random.nextInt(regNumbers.size())),
+								checkIn, checkIn.plusDays(1 + random.nextInt(5))));
+						admitted.incrementAndGet();
+
+					} catch (ConflictCustomException e) {
+						rejected.incrementAndGet();
+					}
+				}
+
+				return null;
+			}));
+		}
+
+		start.countDown();
+
+		for (Future<?> worker : workers) {
+			worker.get(10, TimeUnit.MINUTES);
+		}
+
+		executor.shutdown();
+
+		log.info("[stress] {} reservas admitidas, {} rechazadas", admitted.get(), rejected.get());
+
+		Integer overlappingBookings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING a "
+				+ "INNER JOIN BOOKING b ON a.ID_ACCOMODATION = b.ID_ACCOMODATION AND a.ID < b.ID "
+				+ "WHERE YEAR(a.CHECK_IN) = ? AND YEAR(b.CHECK_IN) = ? "
+				+ "AND a.CHECK_IN < b.CHECK_OUT AND a.CHECK_OUT > b.CHECK_IN", Integer.class, STRESS_YEAR,
+				STRESS_YEAR);
+
+		assertEquals(0, overlappingBookings);
+
+		Integer storedBookings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING WHERE YEAR(CHECK_IN) = ?",
+				Integer.class, STRESS_YEAR);
+
+		assertEquals(admitted.get(), storedBookings);
+	}
+
+	private BookingModel newBooking(final String regNumber, final LocalDateTime checkIn,
+			final LocalDateTime checkOut) {
+		AccomodationModel accomodation = new AccomodationModel();
+		accomodation.setRegisterNumber(regNumber);
+
+		UserModel user = new UserModel();
+		user.setId(userId);
+
+		BookingModel booking = new BookingModel();
+		booking.setCheckIn(checkIn);
+		booking.setCheckOut(checkOut);
+		booking.setNumOfGuests(1);
+		booking.setAmount(new BigDecimal("50"));
+		booking.setDisccount(BigDecimal.ZERO);
+		booking.setIdAccomodation(accomodation);
+		booking.setIdUser(user);
+
+		return booking;
+	}
+}
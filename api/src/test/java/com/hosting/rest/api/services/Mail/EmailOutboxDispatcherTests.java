@@ -0,0 +1,259 @@
+package com.hosting.rest.api.services.Mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Pruebas del envío de correos pendientes {@link EmailOutboxDispatcher} contra
+ * un servidor SMTP en memoria.
+ */
+class EmailOutboxDispatcherTests {
+
+	private static final long RETRY_BASE_MILLIS = 1000;
+
+	private static final long RETRY_MAX_MILLIS = 8000;
+
+	private static final long RETENTION_HOURS = 24;
+
+	private final InMemoryOutboxStore store = new InMemoryOutboxStore();
+
+	@Test
+	void sendsPendingEmailsInBatchesOverOneConnectionEach() throws Exception {
+		try (InProcessSmtpServer smtp = new InProcessSmtpServer()) {
+			EmailOutboxDispatcher dispatcher = dispatcher(smtp.getPort(), 2, 3);
+
+			for (int i = 1; i <= 5; i++) {
+				store.insert("support@leoncamp.com", "user" + i + "@leoncamp.com", "Asunto", "Cuerpo");
+			}
+
+			assertEquals(5, dispatcher.dispatchAll());
+			assertEquals(Arrays.asList("user1@leoncamp.com", "user2@leoncamp.com", "user3@leoncamp.com",
+					"user4@leoncamp.com", "user5@leoncamp.com"), smtp.getReceivedRecipients());
+			assertEquals(3, smtp.getConnections());
+
+			for (OutboxRow row : store.rows) {
+				assertEquals(EmailOutboxStore.SENT, row.status);
+				assertEquals(1, row.attempts);
+				assertNull(row.body);
+			}
+
+			assertEquals(0, dispatcher.dispatchAll());
+		}
+	}
+
+	@Test
+	void retriesOnlyTheRejectedRecipient() throws Exception {
+		try (InProcessSmtpServer smtp = new InProcessSmtpServer("unknown@leoncamp.com")) {
+			EmailOutboxDispatcher dispatcher = dispatcher(smtp.getPort(), 10, 3);
+
+			store.insert("support@leoncamp.com", "user@leoncamp.com", "Asunto", "Cuerpo");
+			store.insert("support@leoncamp.com", "unknown@leoncamp.com", "Asunto", "Cuerpo");
+
+			LocalDateTime before = LocalDateTime.now();
+
+			assertEquals(1, dispatcher.dispatchAll());
+			assertEquals(Arrays.asList("user@leoncamp.com"), smtp.getReceivedRecipients());
+
+			assertEquals(EmailOutboxStore.SENT, store.rows.get(0).status);
+
+			OutboxRow rejected = store.rows.get(1);
+
+			assertEquals(EmailOutboxStore.PENDING, rejected.status);
+			assertEquals(1, rejected.attempts);
+			assertTrue(rejected.lastError != null);
+			assertTrue(!rejected.nextAttemptAt.isBefore(before.plusNanos(RETRY_BASE_MILLIS * 1000000)));
+
+			// No se reintenta hasta que pasa la espera.
+			assertEquals(0, dispatcher.dispatchAll());
+			assertEquals(1, rejected.attempts);
+		}
+	}
+
+	@Test
+	void marksEmailDeadAfterMaxAttempts() throws Exception {
+		InProcessSmtpServer stopped = new InProcessSmtpServer();
+		stopped.close();
+
+		EmailOutboxDispatcher dispatcher = dispatcher(stopped.getPort(), 10, 2);
+
+		store.insert("support@leoncamp.com", "user@leoncamp.com", "Asunto", "Cuerpo");
+
+		OutboxRow row = store.rows.get(0);
+
+		assertEquals(0, dispatcher.dispatchAll());
+		assertEquals(EmailOutboxStore.PENDING, row.status);
+		assertEquals(1, row.attempts);
+
+		row.nextAttemptAt = LocalDateTime.now().minusSeconds(1);
+
+		assertEquals(0, dispatcher.dispatchAll());
+		assertEquals(EmailOutboxStore.DEAD, row.status);
+		assertEquals(2, row.attempts);
+		assertNull(row.body);
+
+		row.nextAttemptAt = LocalDateTime.now().minusSeconds(1);
+
+		assertEquals(0, dispatcher.dispatchAll());
+		assertEquals(2, row.attempts);
+	}
+
+	@Test
+	void purgesOnlyOldFinishedEmails() {
+		EmailOutboxDispatcher dispatcher = dispatcher(25, 10, 3);
+
+		store.insert("support@leoncamp.com", "sent@leoncamp.com", "Asunto", null);
+		store.insert("support@leoncamp.com", "dead@leoncamp.com", "Asunto", null);
+		store.insert("support@leoncamp.com", "pending@leoncamp.com", "Asunto", "Cuerpo");
+		store.insert("support@leoncamp.com", "recent@leoncamp.com", "Asunto", null);
+
+		store.rows.get(0).status = EmailOutboxStore.SENT;
+		store.rows.get(1).status = EmailOutboxStore.DEAD;
+		store.rows.get(3).status = EmailOutboxStore.SENT;
+
+		for (int i = 0; i < 3; i++) {
+			store.rows.get(i).createdAt = LocalDateTime.now().minusHours(RETENTION_HOURS + 1);
+		}
+
+		assertEquals(2, dispatcher.purgeFinished());
+		assertEquals(Arrays.asList("pending@leoncamp.com", "recent@leoncamp.com"),
+				Arrays.asList(store.rows.get(0).to, store.rows.get(1).to));
+	}
+
+	@Test
+	void retryDelayDoublesUpToTheMaximum() {
+		assertEquals(1000, EmailOutboxDispatcher.retryDelayMillis(1, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS));
+		assertEquals(2000, EmailOutboxDispatcher.retryDelayMillis(2, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS));
+		assertEquals(4000, EmailOutboxDispatcher.retryDelayMillis(3, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS));
+		assertEquals(8000, EmailOutboxDispatcher.retryDelayMillis(4, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS));
+		assertEquals(8000, EmailOutboxDispatcher.retryDelayMillis(60, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS));
+	}
+
+	private EmailOutboxDispatcher dispatcher(final int port, final int batchSize, final int maxAttempts) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("127.0.0.1");
+		mailSender.setPort(port);
+
+		Properties properties = new Properties();
+		properties.setProperty("mail.smtp.connectiontimeout", "2000");
+		properties.setProperty("mail.smtp.timeout", "2000");
+		mailSender.setJavaMailProperties(properties);
+
+		return new EmailOutboxDispatcher(store, mailSender, batchSize, 1000, RETRY_BASE_MILLIS, RETRY_MAX_MILLIS,
+				maxAttempts, RETENTION_HOURS);
+	}
+
+	private static final class OutboxRow {
+		private final long id;
+		private final String from;
+		private final String to;
+		private final String subject;
+		private String body;
+		private String status = EmailOutboxStore.PENDING;
+		private LocalDateTime createdAt = LocalDateTime.now();
+		private int attempts;
+		private LocalDateTime nextAttemptAt = LocalDateTime.now();
+		private String lastError;
+
+		private OutboxRow(final long id, final String from, final String to, final String subject,
+				final String body) {
+			this.id = id;
+			this.from = from;
+			this.to = to;
+			this.subject = subject;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * EMAIL_OUTBOX en memoria.
+	 */
+	private static final class InMemoryOutboxStore extends EmailOutboxStore {
+
+		private final List<OutboxRow> rows = new ArrayList<>();
+
+		@Override
+		public void insert(final String from, final String to, final String subject, final String body) {
+			rows.add(new OutboxRow(rows.size() + 1, from, to, subject, body));
+		}
+
+		@Override
+		public List<OutboxEmail> claimDue(final int batchSize, final LocalDateTime now,
+				final LocalDateTime leaseUntil) {
+			List<OutboxEmail> claimed = new ArrayList<>();
+
+			for (OutboxRow row : rows) {
+				if (claimed.size() < batchSize && EmailOutboxStore.PENDING.equals(row.status)
+						&& !row.nextAttemptAt.isAfter(now)) {
+					row.nextAttemptAt = leaseUntil;
+					claimed.add(new OutboxEmail(row.id, row.from, row.to, row.subject, row.body, row.attempts));
+				}
+			}
+
+			return claimed;
+		}
+
+		@Override
+		public void markSent(final Collection<OutboxEmail> emails, final LocalDateTime sentAt) {
+			for (OutboxEmail email : emails) {
+				OutboxRow row = rowOf(email);
+				row.status = EmailOutboxStore.SENT;
+				row.attempts++;
+				row.lastError = null;
+				row.body = null;
+			}
+		}
+
+		@Override
+		public void markFailed(final OutboxEmail email, final String error, final LocalDateTime nextAttemptAt) {
+			OutboxRow row = rowOf(email);
+			row.attempts++;
+			row.lastError = error;
+
+			if (nextAttemptAt == null) {
+				row.status = EmailOutboxStore.DEAD;
+				row.body = null;
+
+			} else {
+				row.nextAttemptAt = nextAttemptAt;
+			}
+		}
+
+		@Override
+		public int deleteFinished(final LocalDateTime createdBefore, final int limit) {
+			int deleted = 0;
+
+			for (Iterator<OutboxRow> it = rows.iterator(); it.hasNext() && deleted < limit;) {
+				OutboxRow row = it.next();
+
+				if (!EmailOutboxStore.PENDING.equals(row.status) && row.createdAt.isBefore(createdBefore)) {
+					it.remove();
+					deleted++;
+				}
+			}
+
+			return deleted;
+		}
+
+		private OutboxRow rowOf(final OutboxEmail email) {
+			for (OutboxRow row : rows) {
+				if (row.id == email.getId()) {
+					return row;
+				}
+			}
+
+			throw new IllegalArgumentException("No existe el correo " + email.getId());
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.hosting.rest.api.services.Mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo en memoria para las pruebas. Acepta todos los correos
+ * salvo los dirigidos a <code>rejectedRecipients</code>, a los que responde
+ * 550, y guarda los destinatarios de los correos recibidos.
+ */
+final class InProcessSmtpServer implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+
+	private final Set<String> rejectedRecipients;
+
+	private final List<String> receivedRecipients = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger connections = new AtomicInteger();
+
+	private final Thread acceptor;
+
+	InProcessSmtpServer(final String... rejectedRecipients) throws IOException {
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		this.rejectedRecipients = new HashSet<>(Arrays.asList(rejectedRecipients));
+		this.acceptor = new Thread(this::acceptConnections, "in-process-smtp");
+		this.acceptor.setDaemon(true);
+		this.acceptor.start();
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return Destinatarios de los correos recibidos, en orden de llegada.
+	 */
+	List<String> getReceivedRecipients() {
+		return new ArrayList<>(receivedRecipients);
+	}
+
+	int getConnections() {
+		return connections.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+
+	private void acceptConnections() {
+		while (!serverSocket.isClosed()) {
+			try (Socket socket = serverSocket.accept()) {
+				connections.incrementAndGet();
+				serve(socket);
+
+			} catch (IOException e) {
+				// Servidor cerrado o cliente desconectado.
+			}
+		}
+	}
+
+	private void serve(final Socket socket) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+		Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+
+		List<String> recipients = new ArrayList<>();
+
+		reply(out, "220 localhost SMTP");
+
+		String line;
+
+		while ((line = in.readLine()) != null) {
+			String command = line.toUpperCase(Locale.ROOT);
+
+			if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+				reply(out, "250 localhost");
+
+			} else if (command.startsWith("MAIL FROM")) {
+				recipients.clear();
+				reply(out, "250 OK");
+
+			} else if (command.startsWith("RCPT TO")) {
+				String recipient = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+
+				if (rejectedRecipients.contains(recipient)) {
+					reply(out, "550 No such user");
+
+				} else {
+					recipients.add(recipient);
+					reply(out, "250 OK");
+				}
+
+			} else if (command.equals("DATA")) {
+				reply(out, "354 End data with <CR><LF>.<CR><LF>");
+
+				while ((line = in.readLine()) != null && !line.equals(".")) {
+					// Se descarta el contenido del correo.
+				}
+
+				receivedRecipients.addAll(recipients);
+				recipients.clear();
+				reply(out, "250 OK");
+
+			} else if (command.equals("QUIT")) {
+				reply(out, "221 Bye");
+				return;
+
+			} else if (command.startsWith("RSET")) {
+				recipients.clear();
+				reply(out, "250 OK");
+
+			} else if (command.startsWith("NOOP")) {
+				reply(out, "250 OK");
+
+			} else {
+				reply(out, "502 Command not implemented");
+			}
+		}
+	}
+
+	private static void reply(final Writer out, final String reply) throws IOException {
+		out.write(reply + "\r\n");
+		out.flush();
+	}
+}
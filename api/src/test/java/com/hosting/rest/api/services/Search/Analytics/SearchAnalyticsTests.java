@@ -0,0 +1,85 @@
+package com.hosting.rest.api.services.Search.Analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Search.SearchWordCountModel;
+
+/**
+ * Pruebas de los contadores en memoria de {@link SearchAnalytics}.
+ */
+class SearchAnalyticsTests {
+
+	private SearchAnalytics searchAnalytics;
+
+	private LocalDateTime now;
+
+	@BeforeEach
+	void createAnalytics() {
+		searchAnalytics = new SearchAnalytics(100, 24);
+		now = LocalDateTime.now();
+	}
+
+	@Test
+	void groupsWordsIgnoringCaseAndAccents() {
+		searchAnalytics.recordSearch("León", now);
+		searchAnalytics.recordSearch(" leon ", now);
+		searchAnalytics.recordSearch("Madrid", now);
+		searchAnalytics.recordSearch("   ", now);
+
+		assertEquals(Arrays.asList(new SearchWordCountModel("León", 2L), new SearchWordCountModel("Madrid", 1L)),
+				searchAnalytics.findMostSearched(3));
+	}
+
+	@Test
+	void trendingOnlyCountsTheWindowAndIsRefreshedOnRotation() {
+		searchAnalytics.recordSearch("Oviedo", now.minusDays(3));
+		searchAnalytics.recordSearch("Oviedo", now.minusDays(3));
+		searchAnalytics.recordSearch("Gijón", now.minusHours(2));
+
+		assertEquals(0, searchAnalytics.findTrending().size());
+
+		searchAnalytics.rotate(now);
+
+		assertEquals(Arrays.asList("Gijón"), words(searchAnalytics.findTrending()));
+		assertEquals(Arrays.asList("Oviedo", "Gijón"), words(searchAnalytics.findMostSearched(3)));
+	}
+
+	@Test
+	void countsSearchesBetweenTwoDatesInsideTheWindow() {
+		searchAnalytics.recordSearch("Madrid", now.minusHours(5));
+		searchAnalytics.recordSearch("Madrid", now.minusHours(5));
+		searchAnalytics.recordSearch("León", now.minusHours(1));
+
+		assertEquals(Arrays.asList(new SearchWordCountModel("Madrid", 2L)),
+				searchAnalytics.findMostSearchedBetween(now.minusHours(6), now.minusHours(3), 3));
+		assertEquals(Arrays.asList("Madrid", "León"),
+				words(searchAnalytics.findMostSearchedBetween(now.minusHours(6), now, 3)));
+	}
+
+	@Test
+	void mergesStoredRowsWhoseKeysOnlyDifferInAccents() {
+		List<Object[]> rows = Arrays.asList(new Object[] { "león", "León", 2L }, new Object[] { "leon", "leon", 3L },
+				new Object[] { "madrid", "Madrid", 4L }, new Object[] { "gijón", "Gijón", 1L });
+
+		assertEquals(Arrays.asList(new SearchWordCountModel("León", 5L), new SearchWordCountModel("Madrid", 4L)),
+				SearchAnalytics.mostSearched(rows, 2));
+	}
+
+	private static List<String> words(final List<SearchWordCountModel> wordCounts) {
+		List<String> words = new ArrayList<>();
+
+		for (SearchWordCountModel wordCount : wordCounts) {
+			words.add(wordCount.getWord());
+		}
+
+		return words;
+	}
+}
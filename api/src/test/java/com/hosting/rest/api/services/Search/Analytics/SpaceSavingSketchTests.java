@@ -0,0 +1,88 @@
+package com.hosting.rest.api.services.Search.Analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del contador de palabras más buscadas {@link SpaceSavingSketch}.
+ */
+class SpaceSavingSketchTests {
+
+	@Test
+	void countsExactlyWhileThereIsRoom() {
+		SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+
+		sketch.offer("madrid", "Madrid", 3);
+		sketch.offer("leon", "León", 1);
+		sketch.offer("madrid", "madrid", 2);
+		sketch.offer("gijon", "Gijón", 4);
+
+		assertEquals(Arrays.asList("Madrid", "Gijón", "León"), words(sketch.top(10)));
+		assertEquals(5, sketch.top(1).get(0).getCount());
+		assertEquals(0, sketch.top(1).get(0).getError());
+		assertEquals(10, sketch.getTotal());
+	}
+
+	@Test
+	void keepsHeavyHittersWhenFull() {
+		SpaceSavingSketch sketch = new SpaceSavingSketch(20);
+		Map<String, Long> exact = new HashMap<>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 20000; i++) {
+			// El 60 % de las búsquedas se reparte entre tres palabras.
+			String word = random.nextInt(10) < 6 ? "frecuente" + random.nextInt(3) : "rara" + random.nextInt(5000);
+
+			sketch.offer(word, word, 1);
+			exact.merge(word, 1L, Long::sum);
+		}
+
+		List<SpaceSavingSketch.Counter> top = sketch.top(3);
+
+		for (SpaceSavingSketch.Counter counter : top) {
+			assertTrue(counter.getWord().startsWith("frecuente"));
+
+			long exactCount = exact.get(counter.getKey());
+
+			// Nunca subestima y sobreestima como mucho en el error.
+			assertTrue(counter.getCount() >= exactCount);
+			assertTrue(counter.getCount() - counter.getError() <= exactCount);
+		}
+
+		assertEquals(20, sketch.size());
+	}
+
+	@Test
+	void mergesSketches() {
+		SpaceSavingSketch first = new SpaceSavingSketch(10);
+		SpaceSavingSketch second = new SpaceSavingSketch(10);
+
+		first.offer("madrid", "Madrid", 2);
+		second.offer("madrid", "Madrid", 2);
+		second.offer("leon", "León", 3);
+
+		first.merge(second);
+
+		assertEquals(Arrays.asList("Madrid", "León"), words(first.top(10)));
+		assertEquals(4, first.top(1).get(0).getCount());
+	}
+
+	private static List<String> words(final List<SpaceSavingSketch.Counter> counters) {
+		List<String> words = new ArrayList<>();
+
+		for (SpaceSavingSketch.Counter counter : counters) {
+			words.add(counter.getWord());
+		}
+
+		return words;
+	}
+}
@@ -0,0 +1,69 @@
+package com.hosting.rest.api.services.Search.History;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Search.SearchModel;
+
+/**
+ * Pruebas del historial de búsquedas en memoria {@link RecentSearches}.
+ */
+class RecentSearchesTests {
+
+	private final LocalDateTime now = LocalDateTime.of(2022, 5, 1, 12, 0);
+
+	@Test
+	void keepsLatestSearchesNewestFirst() {
+		RecentSearches history = new RecentSearches(3);
+
+		history.add(new SearchModel(1, "Oviedo", now.minusMinutes(4)));
+		history.add(new SearchModel(2, "Gijón", now.minusMinutes(3)));
+		history.add(new SearchModel(3, "León", now.minusMinutes(2)));
+		history.add(new SearchModel(4, "Madrid", now.minusMinutes(1)));
+
+		assertEquals(Arrays.asList("Madrid", "León", "Gijón"), words(history.findLatest(4)));
+		assertEquals(Arrays.asList("Madrid", "León"), words(history.findLatest(2)));
+	}
+
+	@Test
+	void ranksWordsByCountThenByLastSearch() {
+		RecentSearches history = new RecentSearches(4);
+
+		history.addWordCount("León", 2, 7, now.minusDays(2));
+		history.addWordCount("Gijón", 1, 8, now.minusDays(1));
+		history.addWordCount("Oviedo", 1, 3, now.minusDays(3));
+		history.add(new SearchModel(9, " leon ", now));
+
+		List<SearchModel> mostSearched = history.findMostSearched(3);
+
+		assertEquals(Arrays.asList("León", "Gijón", "Oviedo"), words(mostSearched));
+		assertEquals(Integer.valueOf(9), mostSearched.get(0).getIdSearch());
+		assertEquals(now, mostSearched.get(0).getCreatedAt());
+	}
+
+	@Test
+	void returnsCopies() {
+		RecentSearches history = new RecentSearches(2);
+
+		history.add(new SearchModel(1, "Oviedo", now));
+		history.findLatest(1).get(0).setWord("Cambiada");
+
+		assertEquals(Arrays.asList("Oviedo"), words(history.findLatest(1)));
+	}
+
+	private static List<String> words(final List<SearchModel> searches) {
+		List<String> words = new ArrayList<>();
+
+		for (SearchModel search : searches) {
+			words.add(search.getWord());
+		}
+
+		return words;
+	}
+}
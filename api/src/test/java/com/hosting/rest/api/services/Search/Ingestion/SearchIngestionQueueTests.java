@@ -0,0 +1,145 @@
+package com.hosting.rest.api.services.Search.Ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Search.SearchIngestionStatsModel;
+
+/**
+ * Pruebas de la cola de búsquedas pendientes de guardar
+ * {@link SearchIngestionQueue}.
+ */
+class SearchIngestionQueueTests {
+
+	@Test
+	void dropsSearchesWhenTheQueueIsFull() {
+		SearchIngestionQueue queue = new SearchIngestionQueue(2, 10, 100, new RecordingWriter());
+
+		assertTrue(queue.offer(search("Madrid")));
+		assertTrue(queue.offer(search("León")));
+		assertFalse(queue.offer(search("Gijón")));
+
+		SearchIngestionStatsModel stats = queue.getStats();
+
+		assertEquals(2, stats.getQueued().intValue());
+		assertEquals(2, stats.getAccepted().longValue());
+		assertEquals(1, stats.getDropped().longValue());
+	}
+
+	@Test
+	void savesSearchesInBatches() {
+		RecordingWriter writer = new RecordingWriter();
+		SearchIngestionQueue queue = new SearchIngestionQueue(100, 2, 100, writer);
+
+		for (String word : Arrays.asList("Madrid", "León", "Madrid", "Gijón", "Oviedo")) {
+			queue.offer(search(word));
+		}
+
+		queue.flushAll();
+
+		assertEquals(Arrays.asList(2, 2, 1), writer.batchSizes);
+		assertEquals(5, queue.getStats().getWritten().longValue());
+		assertEquals(3, queue.getStats().getBatches().longValue());
+		assertEquals(0, queue.getStats().getQueued().intValue());
+	}
+
+	@Test
+	void retriesFailedBatchesInParts() {
+		RecordingWriter writer = new RecordingWriter();
+		writer.failures = 1;
+
+		SearchIngestionQueue queue = new SearchIngestionQueue(100, 2, 100, writer);
+
+		for (String word : Arrays.asList("Madrid", "León", "Gijón")) {
+			queue.offer(search(word));
+		}
+
+		queue.flushAll();
+
+		assertEquals(Arrays.asList(2, 1, 1, 1), writer.batchSizes);
+		assertEquals(0, queue.getStats().getFailed().longValue());
+		assertEquals(3, queue.getStats().getWritten().longValue());
+		assertEquals(2, queue.getStats().getBatches().longValue());
+	}
+
+	@Test
+	void dropsOnlyTheSearchesThatCannotBeSaved() {
+		RecordingWriter writer = new RecordingWriter();
+		writer.failingWord = "León";
+
+		SearchIngestionQueue queue = new SearchIngestionQueue(100, 5, 100, writer);
+
+		for (String word : Arrays.asList("Madrid", "León", "Gijón", "Oviedo", "Avilés")) {
+			queue.offer(search(word));
+		}
+
+		queue.flushAll();
+
+		assertEquals(1, queue.getStats().getFailed().longValue());
+		assertEquals(4, queue.getStats().getWritten().longValue());
+		assertEquals(4, writer.written.size());
+		assertFalse(writer.written.stream().anyMatch(search -> "León".equals(search.getWord())));
+	}
+
+	@Test
+	void drainsTheQueueWhenStopped() throws InterruptedException {
+		RecordingWriter writer = new RecordingWriter();
+		SearchIngestionQueue queue = new SearchIngestionQueue(1000, 50, 5000, writer);
+
+		queue.start();
+
+		for (int i = 0; i < 500; i++) {
+			queue.offer(search("palabra" + i));
+		}
+
+		queue.stop();
+
+		assertEquals(500, writer.written.size());
+		assertEquals(0, queue.getStats().getQueued().intValue());
+	}
+
+	private static SearchHistoryEvent search(final String word) {
+		return new SearchHistoryEvent(word, 1, LocalDateTime.now());
+	}
+
+	/**
+	 * Guarda en memoria los lotes recibidos.
+	 */
+	private static final class RecordingWriter extends SearchHistoryWriter {
+
+		private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+		private final List<SearchHistoryEvent> written = Collections.synchronizedList(new ArrayList<>());
+
+		private int failures;
+
+		private String failingWord;
+
+		@Override
+		public void write(final List<SearchHistoryEvent> events) {
+			batchSizes.add(events.size());
+
+			if (failures > 0) {
+				failures--;
+				throw new IllegalStateException("Fallo simulado");
+			}
+
+			for (SearchHistoryEvent event : events) {
+				if (event.getWord().equals(failingWord)) {
+					throw new IllegalStateException("Búsqueda no válida");
+				}
+			}
+
+			written.addAll(events);
+		}
+	}
+}
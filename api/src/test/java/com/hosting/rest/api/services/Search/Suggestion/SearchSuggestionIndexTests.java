@@ -0,0 +1,124 @@
+package com.hosting.rest.api.services.Search.Suggestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hosting.rest.api.models.Search.SearchModel;
+
+/**
+ * Pruebas del índice de sugerencias {@link SearchSuggestionIndex}.
+ */
+class SearchSuggestionIndexTests {
+
+	private final LocalDateTime now = LocalDateTime.of(2022, 5, 1, 12, 0);
+
+	private SearchSuggestionIndex suggestions;
+
+	@BeforeEach
+	void createIndex() {
+		suggestions = new SearchSuggestionIndex(100);
+
+		record("Madrid", 3);
+		record("Málaga", 5);
+		record("Marbella", 1);
+		record("Almería", 2);
+	}
+
+	@Test
+	void findsWordsContainingPatternByFrequency() {
+		assertEquals(Arrays.asList("Málaga", "Madrid", "Marbella"), words(suggestions.suggest("ma", 10)));
+		assertEquals(Arrays.asList("Málaga", "Madrid"), words(suggestions.suggest("MA", 2)));
+		assertEquals(Arrays.asList("Almería"), words(suggestions.suggest("meria", 10)));
+		assertEquals(Arrays.asList("Marbella"), words(suggestions.suggest("bel", 10)));
+		assertEquals(Collections.emptyList(), words(suggestions.suggest("madrida", 10)));
+	}
+
+	@Test
+	void countsWordsWithoutCaseOrAccents() {
+		suggestions.recordSearch(" MALAGA ", 100, now.plusHours(1));
+
+		List<SearchModel> found = suggestions.suggest("laga", 10);
+
+		assertEquals(Arrays.asList("Málaga"), words(found));
+		assertEquals(Integer.valueOf(100), found.get(0).getIdSearch());
+		assertEquals(4, suggestions.size());
+	}
+
+	@Test
+	void forgetsWordsWithoutSearches() {
+		suggestions.recordSearch("Madrid", 7, now.plusHours(1));
+
+		suggestions.removeSearch(new SearchModel(7, "Madrid", now.plusHours(1)), new SearchModel(6, "madrid", now));
+		suggestions.removeSearch(new SearchModel(8, "Marbella", now), null);
+
+		List<SearchModel> found = suggestions.suggest("ma", 10);
+
+		assertTrue(suggestions.suggest("marb", 10).isEmpty());
+		assertEquals(Arrays.asList("Málaga", "Madrid"), words(found));
+		assertEquals(Integer.valueOf(6), found.get(1).getIdSearch());
+		assertEquals(now, found.get(1).getCreatedAt());
+	}
+
+	@Test
+	void loadsSearchCountsOfWordsStillSaved() {
+		suggestions.load(
+				Arrays.asList(new Object[] { "madrid", 4L }, new Object[] { "málaga", 6L }, new Object[] { "oviedo", 9L },
+						new Object[] { "MADRID", 3L }),
+				Arrays.asList(new Object[] { "Madrid", 10, now }, new Object[] { "MADRID", 12, now.minusDays(1) },
+						new Object[] { "Malaga", 11, now }));
+
+		List<SearchModel> found = suggestions.suggest("ma", 10);
+
+		assertEquals(2, suggestions.size());
+		assertEquals(Arrays.asList("madrid", "málaga"), words(found));
+		assertEquals(Integer.valueOf(12), found.get(0).getIdSearch());
+		assertEquals(now, found.get(0).getCreatedAt());
+		assertTrue(suggestions.suggest("ovi", 10).isEmpty());
+	}
+
+	@Test
+	void replacesLeastSearchedWordWhenFull() {
+		SearchSuggestionIndex small = new SearchSuggestionIndex(2);
+
+		small.recordSearch("Oviedo", 1, now);
+		small.recordSearch("Oviedo", 2, now);
+		small.recordSearch("Gijón", 3, now);
+		small.recordSearch("Avilés", 4, now);
+
+		assertEquals(2, small.size());
+		assertEquals(Arrays.asList("Oviedo", "Avilés"), words(small.suggest("e", 10)));
+		assertTrue(small.suggest("gij", 10).isEmpty());
+	}
+
+	@Test
+	void indexesAllShortFragments() {
+		assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "ab", "bc", "abc")),
+				SearchSuggestionIndex.gramsOf("abc"));
+	}
+
+	private void record(final String word, final int searches) {
+		for (int i = 0; i < searches; i++) {
+			suggestions.recordSearch(word, null, now);
+		}
+	}
+
+	private static List<String> words(final List<SearchModel> searches) {
+		List<String> words = new ArrayList<>();
+
+		for (SearchModel search : searches) {
+			words.add(search.getWord());
+		}
+
+		return words;
+	}
+}
@@ -0,0 +1,131 @@
+package com.hosting.rest.api.services.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Pruebas de la caché de usuarios autenticados {@link UserDetailsCache}.
+ */
+class UserDetailsCacheTests {
+
+	private long now = 0;
+
+	private final List<String> loaded = new ArrayList<>();
+
+	private final Function<String, UserDetails> loader = username -> {
+		loaded.add(username);
+		return new UserDetailsImpl(loaded.size(), username, null, Collections.emptyList());
+	};
+
+	@Test
+	void loadsEachUserOnceUntilExpired() {
+		UserDetailsCache cache = new UserDetailsCache(10, 60, () -> now);
+
+		UserDetails first = cache.get("ana@mail.es", loader);
+
+		now += TimeUnit.SECONDS.toNanos(59);
+		assertSame(first, cache.get("ana@mail.es", loader));
+
+		now += TimeUnit.SECONDS.toNanos(1);
+		cache.get("ana@mail.es", loader);
+
+		assertEquals(Arrays.asList("ana@mail.es", "ana@mail.es"), loaded);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedUser() {
+		UserDetailsCache cache = new UserDetailsCache(2, 60, () -> now);
+
+		cache.get("ana@mail.es", loader);
+		cache.get("luis@mail.es", loader);
+		cache.get("ana@mail.es", loader);
+		cache.get("eva@mail.es", loader);
+		cache.get("ana@mail.es", loader);
+		cache.get("luis@mail.es", loader);
+
+		assertEquals(2, cache.size());
+		assertEquals(Arrays.asList("ana@mail.es", "luis@mail.es", "eva@mail.es", "luis@mail.es"), loaded);
+	}
+
+	@Test
+	void reloadsInvalidatedUser() {
+		UserDetailsCache cache = new UserDetailsCache(10, 60, () -> now);
+
+		cache.get("ana@mail.es", loader);
+		cache.invalidate("ana@mail.es");
+		cache.get("ana@mail.es", loader);
+
+		assertEquals(2, loaded.size());
+	}
+
+	@Test
+	void tokensIssuedBeforeARoleChangeAreStale() {
+		long[] wallClock = { 10000 };
+		UserDetailsCache cache = new UserDetailsCache(10, 60, () -> now, () -> wallClock[0]);
+
+		cache.get("ana@mail.es", loader);
+
+		Date issuedBefore = new Date(9000);
+		assertFalse(cache.isChangedSince(7, issuedBefore));
+
+		cache.markChanged(7, "ana@mail.es");
+
+		assertTrue(cache.isChangedSince(7, issuedBefore));
+		assertTrue(cache.isChangedSince(7, new Date(10000)));
+		assertFalse(cache.isChangedSince(7, new Date(11000)));
+		assertFalse(cache.isChangedSince(8, issuedBefore));
+
+		// El usuario se carga de nuevo con sus roles actuales.
+		cache.get("ana@mail.es", loader);
+		assertEquals(2, loaded.size());
+	}
+
+	@Test
+	void trustsTokenRolesOnlyWithinTheCacheTime() {
+		long[] wallClock = { 100000 };
+		UserDetailsCache cache = new UserDetailsCache(10, 60, () -> now, () -> wallClock[0]);
+
+		Date issuedAt = new Date(100000);
+
+		assertTrue(cache.canTrustClaims(7, issuedAt));
+		assertFalse(cache.canTrustClaims(7, null));
+
+		// Un cambio hecho en otra instancia no se anota aquí: basta con esperar.
+		wallClock[0] += TimeUnit.SECONDS.toMillis(59);
+		assertTrue(cache.canTrustClaims(7, issuedAt));
+
+		wallClock[0] += TimeUnit.SECONDS.toMillis(1);
+		assertFalse(cache.canTrustClaims(7, issuedAt));
+
+		// Un cambio en esta instancia se nota al momento.
+		Date recentlyIssued = new Date(wallClock[0] - 1000);
+		assertTrue(cache.canTrustClaims(7, recentlyIssued));
+
+		cache.markChanged(7, "ana@mail.es");
+
+		assertFalse(cache.canTrustClaims(7, recentlyIssued));
+		assertTrue(cache.canTrustClaims(8, recentlyIssued));
+	}
+
+	@Test
+	void buildsUserFromTokenAuthorities() {
+		UserDetailsImpl user = UserDetailsImpl.build(7, "ana@mail.es", "ROLE_BASE_USER, ROLE_HOST_USER,");
+
+		assertEquals(Integer.valueOf(7), user.getId());
+		assertEquals("ana@mail.es", user.getUsername());
+		assertEquals(2, user.getAuthorities().size());
+	}
+}
@@ -0,0 +1,170 @@
+/**
+* Author: Francisco Coya.
+* Description: Incremental changes over script_v3.sql (indexes and support tables).
+* Version: v1.0.0
+* License: 2022 All Rights Reserved.
+*/
+
+-- USE DB_BOOKING;
+
+-- ----------------------------
+-- NEARBY SEARCH
+-- ----------------------------
+
+-- BOUNDING BOX PREFILTER (booking.accomodations.nearby.strategy = bbox)
+CREATE INDEX IDX_ACCOMODATION_LOCATION_LAT_LNG ON ACCOMODATION_LOCATION (LAT, LNG);
+
+-- SPATIAL SEARCH (booking.accomodations.nearby.strategy = spatial). REQUIRES MYSQL 8.
+ALTER TABLE ACCOMODATION_LOCATION
+    ADD COLUMN LOCATION_POINT POINT SRID 0 GENERATED ALWAYS AS (POINT(LNG, LAT)) STORED NOT NULL;
+
+CREATE SPATIAL INDEX IDX_ACCOMODATION_LOCATION_POINT ON ACCOMODATION_LOCATION (LOCATION_POINT);
+
+
+-- ----------------------------
+-- BOOKING ADMISSION
+-- ----------------------------
+
+-- OVERLAP CHECK OF NEW BOOKINGS AND AVAILABILITY CALENDARS
+CREATE INDEX IDX_BOOKING_ACCOMODATION_DATES ON BOOKING (ID_ACCOMODATION, CHECK_IN, CHECK_OUT);
+
+
+-- ----------------------------
+-- ACCOMODATION KEYSET PAGINATION
+-- ----------------------------
+
+-- CURSOR ( CREATED_AT , REG_NUM ) REQUIRES A CREATION DATE IN EVERY ROW
+UPDATE ACCOMODATION SET CREATED_AT = CURRENT_TIMESTAMP WHERE CREATED_AT IS NULL;
+
+ALTER TABLE ACCOMODATION MODIFY CREATED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+CREATE INDEX IDX_ACCOMODATION_CREATED_AT_REG_NUM ON ACCOMODATION (CREATED_AT, REG_NUM);
+
+
+-- ----------------------------
+-- CITY SEARCH
+-- ----------------------------
+
+-- NORMALISED CITY (LOWERCASE, WITHOUT ACCENTS). MAINTAINED BY THE APPLICATION (CityKeys.normalize).
+ALTER TABLE ACCOMODATION_LOCATION ADD COLUMN CITY_KEY VARCHAR(30);
+
+-- EXISTING ROWS, AND ROWS INSERTED OUTSIDE THE APPLICATION, ARE FILLED BY THE APPLICATION ON STARTUP (AccomodationCityKeyBackfill).
+
+CREATE INDEX IDX_ACCOMODATION_LOCATION_CITY_KEY ON ACCOMODATION_LOCATION (CITY_KEY);
+
+
+-- ----------------------------
+-- ACCOMODATION SEARCH
+-- ----------------------------
+
+-- PRICE FILTER AND PRICE SORT ( PRICE_PER_NIGHT , REG_NUM )
+CREATE INDEX IDX_ACCOMODATION_PRICE ON ACCOMODATION (PRICE_PER_NIGHT);
+
+-- CATEGORY FILTER BY NAME
+CREATE INDEX IDX_ACCOMODATION_CATEGORY_NAME ON ACCOMODATION_CATEGORY (ACC_CAT);
+
+
+-- ----------------------------
+-- SEARCH ANALYTICS
+-- ----------------------------
+
+-- SEARCHES PER WORD AND HOUR. WORD_KEY IS THE NORMALISED WORD (CityKeys.normalize), MAINTAINED BY THE APPLICATION.
+CREATE TABLE SEARCH_WORD_STATS (
+    WORD_KEY VARCHAR(100) NOT NULL,
+    BUCKET_START TIMESTAMP NOT NULL,
+    WORD VARCHAR(100) NOT NULL,
+    NUM_SEARCHES BIGINT NOT NULL,
+    CONSTRAINT PK_SEARCH_WORD_STATS PRIMARY KEY (WORD_KEY, BUCKET_START)
+);
+
+CREATE INDEX IDX_SEARCH_WORD_STATS_BUCKET_START ON SEARCH_WORD_STATS (BUCKET_START);
+
+-- PREVIOUS SEARCHES. THEIR WORD_KEY IS ONLY LOWERCASED AND TRIMMED: KEYS THAT DIFFER ONLY IN ACCENTS ARE
+-- MERGED BY THE APPLICATION (CityKeys.normalize) WHEN THE ROWS ARE READ.
+INSERT INTO SEARCH_WORD_STATS (WORD_KEY, BUCKET_START, WORD, NUM_SEARCHES)
+    SELECT LOWER(LEFT(TRIM(WORD), 100)), DATE_FORMAT(CREATED_AT, '%Y-%m-%d %H:00:00'), MIN(LEFT(TRIM(WORD), 100)), COUNT(*)
+    FROM APP_SEARCH
+    WHERE CREATED_AT IS NOT NULL AND TRIM(WORD) <> ''
+    GROUP BY LOWER(LEFT(TRIM(WORD), 100)), DATE_FORMAT(CREATED_AT, '%Y-%m-%d %H:00:00');
+
+
+-- ----------------------------
+-- ACCOMODATION RATINGS
+-- ----------------------------
+
+-- REVIEWS SUMMARY OF EACH ACCOMODATION. MAINTAINED BY THE APPLICATION IN THE SAME TRANSACTION AS THE REVIEWS.
+CREATE TABLE ACCOMODATION_RATING (
+    ID_ACC VARCHAR(20) NOT NULL,
+    NUM_REVIEWS INT NOT NULL DEFAULT 0,
+    SUM_STARS BIGINT NOT NULL DEFAULT 0,
+    NUM_STARS_1 INT NOT NULL DEFAULT 0,
+    NUM_STARS_2 INT NOT NULL DEFAULT 0,
+    NUM_STARS_3 INT NOT NULL DEFAULT 0,
+    NUM_STARS_4 INT NOT NULL DEFAULT 0,
+    NUM_STARS_5 INT NOT NULL DEFAULT 0,
+    CONSTRAINT PK_ACCOMODATION_RATING PRIMARY KEY (ID_ACC),
+    CONSTRAINT FK_ACCOMODATION_RATING_ACC FOREIGN KEY (ID_ACC)
+        REFERENCES ACCOMODATION (REG_NUM)
+        ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+-- PREVIOUS REVIEWS. REVIEWS WITHOUT STARS ARE NOT COUNTED.
+INSERT INTO ACCOMODATION_RATING (ID_ACC, NUM_REVIEWS, SUM_STARS, NUM_STARS_1, NUM_STARS_2, NUM_STARS_3, NUM_STARS_4, NUM_STARS_5)
+    SELECT ID_ACC, COUNT(STARS), COALESCE(SUM(STARS), 0), SUM(IFNULL(STARS, 0) = 1), SUM(IFNULL(STARS, 0) = 2), SUM(IFNULL(STARS, 0) = 3), SUM(IFNULL(STARS, 0) = 4), SUM(IFNULL(STARS, 0) = 5)
+    FROM ACCOMODATION_REVIEW
+    GROUP BY ID_ACC;
+
+-- LATEST REVIEWS OF EACH ACCOMODATION ( ID_ACC , CREATED_AT DESC , ID DESC )
+CREATE INDEX IDX_ACCOMODATION_REVIEW_ACC_CREATED_AT ON ACCOMODATION_REVIEW (ID_ACC, CREATED_AT, ID);
+
+
+-- ----------------------------
+-- REVIEW KEYSET PAGINATION
+-- ----------------------------
+
+-- CURSOR ( CREATED_AT , ID ) REQUIRES A CREATION DATE IN EVERY ROW
+UPDATE ACCOMODATION_REVIEW SET CREATED_AT = CURRENT_TIMESTAMP WHERE CREATED_AT IS NULL;
+
+ALTER TABLE ACCOMODATION_REVIEW MODIFY CREATED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- REVIEWS WRITTEN BY A USER ( ID_USER , CREATED_AT DESC , ID DESC )
+CREATE INDEX IDX_ACCOMODATION_REVIEW_USER_CREATED_AT ON ACCOMODATION_REVIEW (ID_USER, CREATED_AT, ID);
+
+
+-- ----------------------------
+-- EMAIL OUTBOX
+-- ----------------------------
+
+-- OUTGOING EMAILS, ONE ROW PER RECIPIENT. STATUS: PENDING, SENT OR DEAD (NO MORE ATTEMPTS)
+-- BODY IS CLEARED WHEN AN EMAIL IS SENT OR DEAD, AND THOSE ROWS ARE DELETED AFTER booking.mail.outbox.retentionHours
+CREATE TABLE EMAIL_OUTBOX (
+    ID BIGINT NOT NULL AUTO_INCREMENT,
+    MAIL_FROM VARCHAR(255),
+    MAIL_TO VARCHAR(255) NOT NULL,
+    SUBJECT VARCHAR(255),
+    BODY TEXT,
+    STATUS VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    ATTEMPTS INT NOT NULL DEFAULT 0,
+    NEXT_ATTEMPT_AT DATETIME NOT NULL,
+    LAST_ERROR VARCHAR(500),
+    CREATED_AT DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    SENT_AT DATETIME,
+    CONSTRAINT PK_EMAIL_OUTBOX PRIMARY KEY (ID)
+);
+
+-- PENDING EMAILS WHOSE NEXT ATTEMPT IS DUE ( STATUS , NEXT_ATTEMPT_AT )
+CREATE INDEX IDX_EMAIL_OUTBOX_STATUS_NEXT_ATTEMPT ON EMAIL_OUTBOX (STATUS, NEXT_ATTEMPT_AT);
+
+
+-- ----------------------------
+-- READ REPLICA HEARTBEAT
+-- ----------------------------
+
+-- TIME ( EPOCH MILLIS ) WRITTEN ON THE PRIMARY EVERY SECOND. THE VALUE READ ON THE REPLICA GIVES ITS LAG
+CREATE TABLE REPLICA_HEARTBEAT (
+    ID INT NOT NULL,
+    BEAT_MILLIS BIGINT NOT NULL,
+    CONSTRAINT PK_REPLICA_HEARTBEAT PRIMARY KEY (ID)
+);
+
+INSERT INTO REPLICA_HEARTBEAT (ID, BEAT_MILLIS) VALUES (1, 0);